@@ -9,6 +9,11 @@ import org.springframework.web.client.RestClient;
 import java.net.http.HttpClient;
 import java.time.Clock;
 import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 public class AppConfig {
@@ -26,6 +31,30 @@ public class AppConfig {
             .build();
     }
 
+    /**
+     * Reads repository contents for fix PRs. Shared by every request so concurrent PRs cannot multiply the number of
+     * GitHub calls in flight; once the queue is full the submitting thread does the read itself.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService githubContentExecutor(
+        @Value("${hub.github.content-reads.parallelism:8}") int parallelism,
+        @Value("${hub.github.content-reads.queue-capacity:256}") int queueCapacity
+    ) {
+        int threads = Math.max(1, parallelism);
+        AtomicInteger threadCounter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "github-content-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            // Unlike CallerRunsPolicy this also runs the read during shutdown, so no caller waits on a dropped task.
+            (task, pool) -> task.run());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     @Bean
     public RestClient sandboxOrchestratorRestClient(
         @Value("${hub.sandbox.orchestrator.api-url:http://sandbox-orchestrator:8083}") String apiUrl,
@@ -0,0 +1,71 @@
+package com.aihub.hub.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Two Hikari pools behind one routing {@link DataSource}: {@code @Transactional(readOnly = true)} work borrows from
+ * the read pool (which may point at a replica through {@code hub.datasource.read.url}) and everything else from the
+ * write pool. The pool is picked per transaction when the first statement runs. With open-in-view the request's
+ * Hibernate session outlives its transactions, so it releases its connection after each one; holding it would send
+ * a write that follows a read in the same request through the read pool. Both pools report {@code hikaricp_*}
+ * metrics tagged with their pool name.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writeDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("hub.datasource.read.hikari")
+    public HikariDataSource readDataSource(DataSourceProperties properties,
+                                           @Value("${hub.datasource.read.url:}") String url,
+                                           @Value("${hub.datasource.read.username:}") String username,
+                                           @Value("${hub.datasource.read.password:}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(url)) {
+            dataSource.setJdbcUrl(url.trim());
+        }
+        if (StringUtils.hasText(username)) {
+            dataSource.setUsername(username.trim());
+            dataSource.setPassword(password);
+        }
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writeDataSource") HikariDataSource writeDataSource,
+                                 @Qualifier("readDataSource") HikariDataSource readDataSource,
+                                 @Value("${hub.datasource.write.query-timeout-seconds:30}") int writeQueryTimeoutSeconds,
+                                 @Value("${hub.datasource.read.query-timeout-seconds:60}") int readQueryTimeoutSeconds) {
+        return new LazyConnectionDataSourceProxy(new TransactionRoutingDataSource(
+            new QueryTimeoutDataSource(writeDataSource, writeQueryTimeoutSeconds),
+            new QueryTimeoutDataSource(readDataSource, readQueryTimeoutSeconds)));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer connectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
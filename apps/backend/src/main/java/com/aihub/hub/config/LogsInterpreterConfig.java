@@ -3,9 +3,14 @@ package com.aihub.hub.config;
 import com.aihub.hub.logs.discovery.ContainerDiscoveryService;
 import com.aihub.hub.logs.discovery.DiscoveryMode;
 import com.aihub.hub.logs.discovery.LogsInterpreterProperties;
+import com.aihub.hub.logs.discovery.impl.DockerClientFactory;
 import com.aihub.hub.logs.discovery.impl.DockerContainerDiscoveryService;
 import com.aihub.hub.logs.discovery.impl.MockContainerDiscoveryService;
+import com.github.dockerjava.api.DockerClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,13 +20,22 @@ import java.time.Clock;
 @EnableConfigurationProperties(LogsInterpreterProperties.class)
 public class LogsInterpreterConfig {
 
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "hub.logs.interpreter.discovery", name = "mode", havingValue = "docker")
+    public DockerClient logsDockerClient(LogsInterpreterProperties properties) {
+        return DockerClientFactory.create(properties.getDiscovery().getDocker());
+    }
+
     @Bean
     public ContainerDiscoveryService containerDiscoveryService(
         LogsInterpreterProperties properties,
+        ObjectProvider<DockerClient> dockerClient,
+        ApplicationEventPublisher eventPublisher,
         Clock clock
     ) {
         if (properties.getDiscovery().getMode() == DiscoveryMode.DOCKER) {
-            return new DockerContainerDiscoveryService(properties.getDiscovery().getDocker(), clock);
+            return new DockerContainerDiscoveryService(
+                properties.getDiscovery().getDocker(), dockerClient.getObject(), eventPublisher, clock);
         }
         return new MockContainerDiscoveryService(clock);
     }
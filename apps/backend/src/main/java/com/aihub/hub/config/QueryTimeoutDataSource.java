@@ -0,0 +1,70 @@
+package com.aihub.hub.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Applies a default {@link Statement#setQueryTimeout(int) query timeout} to every statement created from this pool's
+ * connections. Callers that set their own timeout afterwards (for example a JPA query hint) still take precedence.
+ */
+final class QueryTimeoutDataSource extends DelegatingDataSource {
+
+    private final int queryTimeoutSeconds;
+
+    QueryTimeoutDataSource(DataSource target, int queryTimeoutSeconds) {
+        super(target);
+        this.queryTimeoutSeconds = Math.max(0, queryTimeoutSeconds);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withTimeout(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withTimeout(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    int getQueryTimeoutSeconds() {
+        return queryTimeoutSeconds;
+    }
+
+    private Connection withTimeout(Connection connection) {
+        if (queryTimeoutSeconds == 0) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    default -> {
+                    }
+                }
+                Object result;
+                try {
+                    result = method.invoke(connection, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getTargetException();
+                }
+                if (result instanceof Statement statement && statement.getQueryTimeout() == 0) {
+                    statement.setQueryTimeout(queryTimeoutSeconds);
+                }
+                return result;
+            }
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package com.aihub.hub.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out read pool connections while the current Spring transaction is read-only and write pool connections
+ * otherwise, including for work running outside any transaction.
+ */
+final class TransactionRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String WRITE = "write";
+    private static final String READ = "read";
+
+    TransactionRoutingDataSource(DataSource writeDataSource, DataSource readDataSource) {
+        setTargetDataSources(Map.of(WRITE, writeDataSource, READ, readDataSource));
+        setDefaultTargetDataSource(writeDataSource);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? READ : WRITE;
+    }
+}
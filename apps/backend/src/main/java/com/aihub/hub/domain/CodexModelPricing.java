@@ -110,4 +110,18 @@ public class CodexModelPricing {
     public Instant getUpdatedAt() {
         return updatedAt;
     }
+
+    /** Unmanaged copy with the same state, safe to share outside the persistence context. */
+    public CodexModelPricing detachedCopy() {
+        CodexModelPricing copy = new CodexModelPricing();
+        copy.id = id;
+        copy.modelName = modelName;
+        copy.displayName = displayName;
+        copy.inputPricePerMillion = inputPricePerMillion;
+        copy.cachedInputPricePerMillion = cachedInputPricePerMillion;
+        copy.outputPricePerMillion = outputPricePerMillion;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
 }
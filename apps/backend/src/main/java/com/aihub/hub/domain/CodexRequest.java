@@ -13,14 +13,19 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -29,6 +34,7 @@ import java.util.Objects;
 public class CodexRequest {
 
     public static final String DEFAULT_VERSION = "aihub-6";
+    public static final String TRANSCRIPT_SEPARATOR = "\n\n";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -70,6 +76,22 @@ public class CodexRequest {
     @Column(name = "model_transcript", columnDefinition = "LONGTEXT")
     private String modelTranscript;
 
+    @Column(name = "transcript_interaction_seq")
+    @JsonIgnore
+    private Integer transcriptInteractionSeq;
+
+    @OneToMany(mappedBy = "codexRequest", fetch = FetchType.LAZY)
+    @OrderBy("interactionSequence ASC, id ASC")
+    @BatchSize(size = 50)
+    @JsonIgnore
+    private List<CodexTranscriptChunk> transcriptChunks = new ArrayList<>();
+
+    @Transient
+    private List<CodexTranscriptChunk> pendingTranscriptChunks = new ArrayList<>();
+
+    @Transient
+    private String assembledTranscript;
+
     @JdbcTypeCode(SqlTypes.LONGVARCHAR)
     @Column(name = "user_comment", columnDefinition = "LONGTEXT")
     private String userComment;
@@ -166,6 +188,12 @@ public class CodexRequest {
     @Column(name = "interaction_count")
     private Integer interactionCount;
 
+    @Column(name = "document_access_count", insertable = false, updatable = false)
+    private Integer documentAccessCount;
+
+    @Column(name = "logs_archived_at", insertable = false, updatable = false)
+    private Instant logsArchivedAt;
+
     @Transient
     private List<DocumentAccessSummary> documentAccesses = List.of();
 
@@ -263,12 +291,61 @@ public class CodexRequest {
         this.responseText = responseText;
     }
 
+    /**
+     * Full transcript: the legacy {@code model_transcript} text followed by every appended chunk. Assembled on first
+     * read and extended in place by {@link #appendTranscriptChunk(int, String)}.
+     */
     public String getModelTranscript() {
-        return modelTranscript;
+        if (assembledTranscript == null) {
+            assembledTranscript = assembleTranscript();
+        }
+        return assembledTranscript;
     }
 
     public void setModelTranscript(String modelTranscript) {
         this.modelTranscript = modelTranscript;
+        this.assembledTranscript = null;
+    }
+
+    public Integer getTranscriptInteractionSeq() {
+        return transcriptInteractionSeq;
+    }
+
+    public void setTranscriptInteractionSeq(Integer transcriptInteractionSeq) {
+        this.transcriptInteractionSeq = transcriptInteractionSeq;
+    }
+
+    public void appendTranscriptChunk(int interactionSequence, String content) {
+        pendingTranscriptChunks.add(new CodexTranscriptChunk(this, interactionSequence, content));
+        if (assembledTranscript != null) {
+            assembledTranscript = assembledTranscript + TRANSCRIPT_SEPARATOR + content;
+        }
+    }
+
+    /**
+     * Hands over the chunks appended since the last save so they can be inserted; they stay visible through
+     * {@link #getModelTranscript()} afterwards.
+     */
+    public List<CodexTranscriptChunk> drainPendingTranscriptChunks() {
+        if (pendingTranscriptChunks.isEmpty()) {
+            return List.of();
+        }
+        List<CodexTranscriptChunk> drained = List.copyOf(pendingTranscriptChunks);
+        pendingTranscriptChunks.clear();
+        if (Hibernate.isInitialized(transcriptChunks)) {
+            transcriptChunks.addAll(drained);
+        }
+        return drained;
+    }
+
+    private String assembleTranscript() {
+        List<String> parts = new ArrayList<>();
+        if (modelTranscript != null && !modelTranscript.isBlank()) {
+            parts.add(modelTranscript);
+        }
+        transcriptChunks.forEach(chunk -> parts.add(chunk.getContent()));
+        pendingTranscriptChunks.forEach(chunk -> parts.add(chunk.getContent()));
+        return parts.isEmpty() ? null : String.join(TRANSCRIPT_SEPARATOR, parts);
     }
 
     public String getUserComment() {
@@ -522,6 +599,21 @@ public class CodexRequest {
         this.interactionCount = interactionCount;
     }
 
+    /**
+     * Distinct documents read by the request. Once its logs are archived the per-document rows are gone and only the
+     * counter folded into the row remains.
+     */
+    public Integer getDocumentAccessCount() {
+        if (logsArchivedAt != null) {
+            return documentAccessCount;
+        }
+        return documentAccesses.isEmpty() ? null : documentAccesses.size();
+    }
+
+    public Instant getLogsArchivedAt() {
+        return logsArchivedAt;
+    }
+
     public List<DocumentAccessSummary> getDocumentAccesses() {
         return documentAccesses;
     }
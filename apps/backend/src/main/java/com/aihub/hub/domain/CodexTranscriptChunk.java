@@ -0,0 +1,76 @@
+package com.aihub.hub.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * One outbound interaction appended to a request's model transcript. Chunks are written once and never rewritten;
+ * {@link CodexRequest#getModelTranscript()} stitches them back together on read.
+ */
+@Entity
+@Table(name = "codex_transcript_chunks")
+public class CodexTranscriptChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "codex_request_id", nullable = false)
+    private CodexRequest codexRequest;
+
+    @Column(name = "interaction_sequence", nullable = false)
+    private Integer interactionSequence;
+
+    @JdbcTypeCode(SqlTypes.LONGVARCHAR)
+    @Column(name = "content", nullable = false, columnDefinition = "LONGTEXT")
+    private String content;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    public CodexTranscriptChunk() {
+    }
+
+    public CodexTranscriptChunk(CodexRequest codexRequest, Integer interactionSequence, String content) {
+        this.codexRequest = codexRequest;
+        this.interactionSequence = interactionSequence;
+        this.content = content;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public CodexRequest getCodexRequest() {
+        return codexRequest;
+    }
+
+    public void setCodexRequest(CodexRequest codexRequest) {
+        this.codexRequest = codexRequest;
+    }
+
+    public Integer getInteractionSequence() {
+        return interactionSequence;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,49 @@
+package com.aihub.hub.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores large text columns as gzip-compressed UTF-8 bytes.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(String attribute) {
+        return attribute == null ? null : compress(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] dbData) {
+        return dbData == null ? null : decompress(dbData);
+    }
+
+    public static byte[] compress(String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, raw.length / 8));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer, 8192)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to compress text", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static String decompress(byte[] data) {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data), 8192)) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to decompress text", e);
+        }
+    }
+}
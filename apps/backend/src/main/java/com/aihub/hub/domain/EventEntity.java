@@ -1,6 +1,7 @@
 package com.aihub.hub.domain;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -9,6 +10,7 @@ import jakarta.persistence.Table;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 
 @Entity
@@ -28,10 +30,25 @@ public class EventEntity {
     @Column(name = "delivery_id", nullable = false)
     private String deliveryId;
 
-    @Column(name = "payload", nullable = false, columnDefinition = "LONGTEXT")
+    private String action;
+
+    @Column(name = "workflow_run_id")
+    private Long workflowRunId;
+
+    private String conclusion;
+
+    @Column(name = "payload", columnDefinition = "LONGTEXT")
     @JdbcTypeCode(SqlTypes.LONGVARCHAR)
     private String payload;
 
+    @Column(name = "payload_gzip")
+    @JdbcTypeCode(SqlTypes.LONGVARBINARY)
+    @Convert(converter = CompressedTextConverter.class)
+    private String compressedPayload;
+
+    @Column(name = "payload_size")
+    private Integer payloadSize;
+
     @Column(name = "received_at", nullable = false)
     private Instant receivedAt = Instant.now();
 
@@ -42,7 +59,8 @@ public class EventEntity {
         this.repo = repo;
         this.eventType = eventType;
         this.deliveryId = deliveryId;
-        this.payload = payload;
+        this.compressedPayload = payload;
+        this.payloadSize = payload != null ? payload.getBytes(StandardCharsets.UTF_8).length : null;
     }
 
     public Long getId() {
@@ -61,8 +79,40 @@ public class EventEntity {
         return deliveryId;
     }
 
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public Long getWorkflowRunId() {
+        return workflowRunId;
+    }
+
+    public void setWorkflowRunId(Long workflowRunId) {
+        this.workflowRunId = workflowRunId;
+    }
+
+    public String getConclusion() {
+        return conclusion;
+    }
+
+    public void setConclusion(String conclusion) {
+        this.conclusion = conclusion;
+    }
+
+    /**
+     * Returns the raw delivery body, or {@code null} once retention has discarded it. Rows written before
+     * compression was introduced still carry the plain text column.
+     */
     public String getPayload() {
-        return payload;
+        return compressedPayload != null ? compressedPayload : payload;
+    }
+
+    public Integer getPayloadSize() {
+        return payloadSize;
     }
 
     public Instant getReceivedAt() {
@@ -1,6 +1,8 @@
 package com.aihub.hub.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -13,7 +15,11 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.HexFormat;
 
 @Entity
 @Table(name = "responses")
@@ -55,9 +61,27 @@ public class ResponseRecord {
     @Column(name = "raw_response", columnDefinition = "LONGTEXT")
     private String rawResponse;
 
+    @Column(name = "sandbox_job_id", length = 120)
+    private String sandboxJobId;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "content_revision", nullable = false)
+    private int contentRevision = 1;
+
+    @JsonIgnore
+    @Column(name = "revision_history_gzip")
+    @JdbcTypeCode(SqlTypes.LONGVARBINARY)
+    @Convert(converter = CompressedTextConverter.class)
+    private String revisionHistory;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt = Instant.now();
 
+    @Column(name = "updated_at")
+    private Instant updatedAt = createdAt;
+
     public ResponseRecord() {
     }
 
@@ -144,7 +168,65 @@ public class ResponseRecord {
         this.rawResponse = rawResponse;
     }
 
+    public String getSandboxJobId() {
+        return sandboxJobId;
+    }
+
+    public void setSandboxJobId(String sandboxJobId) {
+        this.sandboxJobId = sandboxJobId;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public int getContentRevision() {
+        return contentRevision;
+    }
+
+    public void setContentRevision(int contentRevision) {
+        this.contentRevision = contentRevision;
+    }
+
+    public String getRevisionHistory() {
+        return revisionHistory;
+    }
+
+    public void setRevisionHistory(String revisionHistory) {
+        this.revisionHistory = revisionHistory;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * SHA-256 over the content columns, used to skip rewriting a response whose content did not change.
+     */
+    public static String hashContent(String rootCause, String fixPlan, String unifiedDiff) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[]{rootCause, fixPlan, unifiedDiff}) {
+                if (part != null) {
+                    digest.update(part.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
 }
@@ -76,4 +76,16 @@ public class SourceRepositoryConfig {
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    /** Unmanaged copy with the same state, safe to share outside the persistence context. */
+    public SourceRepositoryConfig detachedCopy() {
+        SourceRepositoryConfig copy = new SourceRepositoryConfig();
+        copy.id = id;
+        copy.githubOwner = githubOwner;
+        copy.githubRepo = githubRepo;
+        copy.githubBranch = githubBranch;
+        copy.githubToken = githubToken;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
 }
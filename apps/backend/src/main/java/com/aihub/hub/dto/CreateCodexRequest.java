@@ -52,7 +52,11 @@ public class CreateCodexRequest {
         this.imageAttachments = imageAttachments;
     }
 
-    public record ImageAttachment(String name, String mimeType, Long size, String dataUrl) {
+    /**
+     * Either {@code dataUrl} with the inline content or {@code sha256} of a blob already uploaded to
+     * {@code /api/codex/attachments}. Requests are persisted with the digest only.
+     */
+    public record ImageAttachment(String name, String mimeType, Long size, String dataUrl, String sha256) {
     }
 
     public String getEnvironment() {
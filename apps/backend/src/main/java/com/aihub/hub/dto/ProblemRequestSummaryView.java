@@ -1,5 +1,7 @@
 package com.aihub.hub.dto;
 
+import com.aihub.hub.domain.CodexRequestStatus;
+
 import java.time.Instant;
 
 public record ProblemRequestSummaryView(
@@ -14,4 +16,19 @@ public record ProblemRequestSummaryView(
     String resolutionDifficulty,
     Instant createdAt
 ) {
+
+    /** Used by the JPQL constructor projection, which cannot call {@link Enum#name()}. */
+    public ProblemRequestSummaryView(Long id,
+                                     String environment,
+                                     String model,
+                                     CodexRequestStatus status,
+                                     String prompt,
+                                     String responseText,
+                                     String userComment,
+                                     String problemDescription,
+                                     String resolutionDifficulty,
+                                     Instant createdAt) {
+        this(id, environment, model, status != null ? status.name() : null, prompt, responseText, userComment,
+            problemDescription, resolutionDifficulty, createdAt);
+    }
 }
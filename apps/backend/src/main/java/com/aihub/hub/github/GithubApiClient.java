@@ -3,8 +3,11 @@ package com.aihub.hub.github;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.util.UriBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -128,12 +131,29 @@ public class GithubApiClient {
             .toBodilessEntity();
     }
 
-    public byte[] downloadRunLogs(String owner, String repo, long runId) {
+    public <T> T streamRunLogs(String owner, String repo, long runId, RunLogsHandler<T> handler) {
         return restClient.get()
             .uri("/repos/{owner}/{repo}/actions/runs/{runId}/logs", owner, repo, runId)
             .headers(headers -> headers.setAll(authHeaders()))
-            .retrieve()
-            .body(byte[].class);
+            .exchange((request, response) -> {
+                if (response.getStatusCode().isError()) {
+                    throw new RestClientResponseException(
+                        "Falha ao baixar logs da execução " + runId,
+                        response.getStatusCode(),
+                        response.getStatusText(),
+                        response.getHeaders(),
+                        response.getBody().readAllBytes(),
+                        StandardCharsets.UTF_8);
+                }
+                try (InputStream body = response.getBody()) {
+                    return handler.handle(body);
+                }
+            });
+    }
+
+    @FunctionalInterface
+    public interface RunLogsHandler<T> {
+        T handle(InputStream archive) throws IOException;
     }
 
     public JsonNode commentOnPullRequest(String owner, String repo, int number, String markdown) {
@@ -257,7 +277,12 @@ public class GithubApiClient {
             item.put("path", path);
             item.put("mode", "100644");
             item.put("type", "blob");
-            item.put("content", content);
+            if (content == null) {
+                // A null sha removes the path from the base tree.
+                item.put("sha", null);
+            } else {
+                item.put("content", content);
+            }
             treeItems.add(item);
         });
         body.put("tree", treeItems);
@@ -0,0 +1,12 @@
+package com.aihub.hub.logs.discovery;
+
+/**
+ * Published when the live Docker registry sees a labelled container appear, change or disappear.
+ * {@code environmentName} is the raw value of the environment label.
+ */
+public record ContainerChangedEvent(
+    String environmentName,
+    DiscoveredContainer container,
+    boolean removed
+) {
+}
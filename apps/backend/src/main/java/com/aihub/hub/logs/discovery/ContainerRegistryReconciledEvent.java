@@ -0,0 +1,10 @@
+package com.aihub.hub.logs.discovery;
+
+import java.util.Set;
+
+/**
+ * Published after each full listing of the labelled Docker containers. {@code runtimeIds} holds every labelled
+ * container the daemon reported, so discovered containers outside it no longer exist.
+ */
+public record ContainerRegistryReconciledEvent(Set<String> runtimeIds) {
+}
@@ -2,10 +2,13 @@ package com.aihub.hub.logs.discovery;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @ConfigurationProperties(prefix = "hub.logs.interpreter")
 public class LogsInterpreterProperties {
 
     private Discovery discovery = new Discovery();
+    private Streaming streaming = new Streaming();
 
     public Discovery getDiscovery() {
         return discovery;
@@ -15,6 +18,14 @@ public class LogsInterpreterProperties {
         this.discovery = discovery;
     }
 
+    public Streaming getStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(Streaming streaming) {
+        this.streaming = streaming;
+    }
+
     public static class Discovery {
         private DiscoveryMode mode = DiscoveryMode.MOCK;
         private Docker docker = new Docker();
@@ -41,6 +52,9 @@ public class LogsInterpreterProperties {
         private boolean tlsVerify;
         private String certPath;
         private String environmentLabel = "aihub.environment";
+        private int inspectParallelism = 8;
+        private Duration inspectTimeout = Duration.ofSeconds(5);
+        private boolean eventsEnabled = true;
 
         public String getHost() {
             return host;
@@ -73,5 +87,113 @@ public class LogsInterpreterProperties {
         public void setEnvironmentLabel(String environmentLabel) {
             this.environmentLabel = environmentLabel;
         }
+
+        public int getInspectParallelism() {
+            return inspectParallelism;
+        }
+
+        public void setInspectParallelism(int inspectParallelism) {
+            this.inspectParallelism = inspectParallelism;
+        }
+
+        public Duration getInspectTimeout() {
+            return inspectTimeout;
+        }
+
+        public void setInspectTimeout(Duration inspectTimeout) {
+            this.inspectTimeout = inspectTimeout;
+        }
+
+        public boolean isEventsEnabled() {
+            return eventsEnabled;
+        }
+
+        public void setEventsEnabled(boolean eventsEnabled) {
+            this.eventsEnabled = eventsEnabled;
+        }
+    }
+
+    public static class Streaming {
+        private int bufferLines = 5000;
+        private int maxLineChars = 4000;
+        private int initialTail = 200;
+        private int maxStreams = 50;
+        private int maxReadLines = 1000;
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        private Duration sseInterval = Duration.ofMillis(500);
+        private Duration sseTimeout = Duration.ofMinutes(30);
+        private int sseQueueEvents = 32;
+
+        public int getBufferLines() {
+            return bufferLines;
+        }
+
+        public void setBufferLines(int bufferLines) {
+            this.bufferLines = bufferLines;
+        }
+
+        public int getMaxLineChars() {
+            return maxLineChars;
+        }
+
+        public void setMaxLineChars(int maxLineChars) {
+            this.maxLineChars = maxLineChars;
+        }
+
+        public int getInitialTail() {
+            return initialTail;
+        }
+
+        public void setInitialTail(int initialTail) {
+            this.initialTail = initialTail;
+        }
+
+        public int getMaxStreams() {
+            return maxStreams;
+        }
+
+        public void setMaxStreams(int maxStreams) {
+            this.maxStreams = maxStreams;
+        }
+
+        public int getMaxReadLines() {
+            return maxReadLines;
+        }
+
+        public void setMaxReadLines(int maxReadLines) {
+            this.maxReadLines = maxReadLines;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public Duration getSseInterval() {
+            return sseInterval;
+        }
+
+        public void setSseInterval(Duration sseInterval) {
+            this.sseInterval = sseInterval;
+        }
+
+        public Duration getSseTimeout() {
+            return sseTimeout;
+        }
+
+        public void setSseTimeout(Duration sseTimeout) {
+            this.sseTimeout = sseTimeout;
+        }
+
+        public int getSseQueueEvents() {
+            return sseQueueEvents;
+        }
+
+        public void setSseQueueEvents(int sseQueueEvents) {
+            this.sseQueueEvents = sseQueueEvents;
+        }
     }
 }
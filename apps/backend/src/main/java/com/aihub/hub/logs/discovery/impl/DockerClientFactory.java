@@ -0,0 +1,41 @@
+package com.aihub.hub.logs.discovery.impl;
+
+import com.aihub.hub.logs.discovery.LogsInterpreterProperties;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.core.DefaultDockerClientConfig;
+import com.github.dockerjava.core.DockerClientImpl;
+import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
+import com.github.dockerjava.transport.DockerHttpClient;
+import org.springframework.util.StringUtils;
+
+public final class DockerClientFactory {
+
+    static final int MAX_CONNECTIONS = 100;
+
+    private DockerClientFactory() {
+    }
+
+    /**
+     * Builds the Docker client shared by discovery, the events subscription and log streaming. Closing the
+     * client also closes the pooled HTTP transport.
+     */
+    public static DockerClient create(LogsInterpreterProperties.Docker dockerProperties) {
+        DefaultDockerClientConfig.Builder configBuilder = DefaultDockerClientConfig.createDefaultConfigBuilder();
+        if (StringUtils.hasText(dockerProperties.getHost())) {
+            configBuilder = configBuilder.withDockerHost(dockerProperties.getHost());
+        }
+        if (dockerProperties.isTlsVerify()) {
+            configBuilder = configBuilder.withDockerTlsVerify(true);
+        }
+        if (StringUtils.hasText(dockerProperties.getCertPath())) {
+            configBuilder = configBuilder.withDockerCertPath(dockerProperties.getCertPath());
+        }
+        DefaultDockerClientConfig config = configBuilder.build();
+        DockerHttpClient httpClient = new ApacheDockerHttpClient.Builder()
+            .dockerHost(config.getDockerHost())
+            .sslConfig(config.getSSLConfig())
+            .maxConnections(MAX_CONNECTIONS)
+            .build();
+        return DockerClientImpl.getInstance(config, httpClient);
+    }
+}
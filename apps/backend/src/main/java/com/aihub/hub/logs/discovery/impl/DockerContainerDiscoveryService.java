@@ -1,76 +1,114 @@
 package com.aihub.hub.logs.discovery.impl;
 
 import com.aihub.hub.domain.EnvironmentRecord;
+import com.aihub.hub.logs.discovery.ContainerChangedEvent;
 import com.aihub.hub.logs.discovery.ContainerDiscoveryException;
 import com.aihub.hub.logs.discovery.ContainerDiscoveryResult;
 import com.aihub.hub.logs.discovery.ContainerDiscoveryService;
+import com.aihub.hub.logs.discovery.ContainerRegistryReconciledEvent;
 import com.aihub.hub.logs.discovery.DiscoveredContainer;
 import com.aihub.hub.logs.discovery.LogsInterpreterProperties;
+import com.aihub.hub.logs.discovery.impl.DockerContainerRegistry.Registration;
 import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.command.ListContainersCmd;
+import com.github.dockerjava.api.exception.NotFoundException;
 import com.github.dockerjava.api.model.Container;
 import com.github.dockerjava.api.model.ContainerNetwork;
 import com.github.dockerjava.api.model.ContainerPort;
+import com.github.dockerjava.api.model.Event;
+import com.github.dockerjava.api.model.EventType;
 import com.github.dockerjava.api.model.Ports;
-import com.github.dockerjava.core.DefaultDockerClientConfig;
-import com.github.dockerjava.core.DockerClientImpl;
-import com.github.dockerjava.transport.DockerHttpClient;
-import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.util.StringUtils;
 
+import java.io.Closeable;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DockerContainerDiscoveryService implements ContainerDiscoveryService {
 
+    private static final Logger log = LoggerFactory.getLogger(DockerContainerDiscoveryService.class);
+    private static final Set<String> CONTAINER_ACTIONS = Set.of("create", "start", "stop", "die", "rename", "destroy");
+    private static final Set<String> NETWORK_ACTIONS = Set.of("connect", "disconnect");
+    private static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(60);
+
     private final LogsInterpreterProperties.Docker dockerProperties;
     private final DockerClient dockerClient;
-    private final DockerHttpClient httpClient;
+    private final ExecutorService inspectExecutor;
+    private final ScheduledExecutorService eventExecutor;
+    private final DockerContainerRegistry registry = new DockerContainerRegistry();
+    private final ApplicationEventPublisher eventPublisher;
     private final Clock clock;
+    private volatile Closeable eventSubscription;
+    private volatile boolean running;
+    private Duration reconnectDelay = Duration.ofSeconds(1);
+    private long subscriptionGeneration;
 
-    public DockerContainerDiscoveryService(LogsInterpreterProperties.Docker dockerProperties, Clock clock) {
+    public DockerContainerDiscoveryService(LogsInterpreterProperties.Docker dockerProperties,
+                                           DockerClient dockerClient,
+                                           ApplicationEventPublisher eventPublisher,
+                                           Clock clock) {
         this.dockerProperties = dockerProperties;
+        this.dockerClient = dockerClient;
+        this.eventPublisher = eventPublisher;
         this.clock = clock;
-        DefaultDockerClientConfig.Builder configBuilder = DefaultDockerClientConfig.createDefaultConfigBuilder();
-        if (StringUtils.hasText(dockerProperties.getHost())) {
-            configBuilder = configBuilder.withDockerHost(dockerProperties.getHost());
-        }
-        if (dockerProperties.isTlsVerify()) {
-            configBuilder = configBuilder.withDockerTlsVerify(true);
-        }
-        if (StringUtils.hasText(dockerProperties.getCertPath())) {
-            configBuilder = configBuilder.withDockerCertPath(dockerProperties.getCertPath());
+        int parallelism = Math.max(1, Math.min(dockerProperties.getInspectParallelism(), DockerClientFactory.MAX_CONNECTIONS));
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.inspectExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "docker-inspect-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.eventExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "docker-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts the Docker events subscription that keeps the registry current. Requires the environment label,
+     * since the registry is indexed by it.
+     */
+    @PostConstruct
+    public void start() {
+        if (!dockerProperties.isEventsEnabled() || !StringUtils.hasText(dockerProperties.getEnvironmentLabel())) {
+            return;
         }
-        DefaultDockerClientConfig config = configBuilder.build();
-        this.httpClient = new ApacheDockerHttpClient.Builder()
-            .dockerHost(config.getDockerHost())
-            .sslConfig(config.getSSLConfig())
-            .maxConnections(100)
-            .build();
-        this.dockerClient = DockerClientImpl.getInstance(config, httpClient);
+        running = true;
+        eventExecutor.execute(this::subscribe);
     }
 
     @Override
     public ContainerDiscoveryResult discover(EnvironmentRecord environment) {
+        if (registry.isReady()) {
+            String expected = environment.getName() != null ? environment.getName().trim() : "";
+            return new ContainerDiscoveryResult("docker", clock.instant(), registry.containersFor(expected));
+        }
         try {
-            List<Container> containers = dockerClient.listContainersCmd()
-                .withShowAll(true)
-                .exec();
-            List<DiscoveredContainer> discovered = new ArrayList<>();
-            for (Container container : containers) {
-                if (!matchesEnvironment(container, environment)) {
-                    continue;
-                }
-                InspectContainerResponse inspect = dockerClient.inspectContainerCmd(container.getId()).exec();
-                String ipAddress = resolveIpAddress(inspect);
-                List<Integer> ports = resolvePorts(inspect, container);
-                discovered.add(new DiscoveredContainer(resolveName(container), container.getId(), ipAddress, ports));
-            }
+            List<Container> containers = listEnvironmentContainers(environment);
+            List<DiscoveredContainer> discovered = inspectAll(containers);
             Instant executedAt = clock.instant();
             return new ContainerDiscoveryResult("docker", executedAt, discovered);
         } catch (Exception ex) {
@@ -78,6 +116,220 @@ public class DockerContainerDiscoveryService implements ContainerDiscoveryServic
         }
     }
 
+    /**
+     * Pushes the environment label into the Docker API filter so the daemon only returns candidate containers.
+     * Docker compares label values exactly, so when nothing matches we retry with a key-only filter and keep
+     * the historical case-insensitive comparison.
+     */
+    private List<Container> listEnvironmentContainers(EnvironmentRecord environment) {
+        String labelKey = dockerProperties.getEnvironmentLabel();
+        if (!StringUtils.hasText(labelKey)) {
+            return listContainers().exec();
+        }
+        String expected = environment.getName() != null ? environment.getName().trim() : "";
+        if (!StringUtils.hasText(expected)) {
+            return List.of();
+        }
+        List<Container> exact = listContainers().withLabelFilter(Map.of(labelKey, expected)).exec();
+        if (!exact.isEmpty()) {
+            return exact;
+        }
+        return listContainers().withLabelFilter(List.of(labelKey)).exec().stream()
+            .filter(container -> matchesEnvironment(container, environment))
+            .toList();
+    }
+
+    private void subscribe() {
+        if (!running) {
+            return;
+        }
+        long generation = ++subscriptionGeneration;
+        try {
+            eventSubscription = dockerClient.eventsCmd()
+                .withEventTypeFilter(EventType.CONTAINER, EventType.NETWORK)
+                .exec(new ResultCallback.Adapter<Event>() {
+                    @Override
+                    public void onNext(Event event) {
+                        runOnEventThread(() -> handleEvent(event));
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        log.warn("Assinatura de eventos do Docker interrompida: {}", throwable.getMessage());
+                        runOnEventThread(() -> scheduleReconnect(generation));
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        runOnEventThread(() -> scheduleReconnect(generation));
+                    }
+                });
+            reconcile();
+            reconnectDelay = Duration.ofSeconds(1);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            log.warn("Não foi possível assinar os eventos do Docker: {}", ex.getMessage());
+            scheduleReconnect(generation);
+        }
+    }
+
+    private void runOnEventThread(Runnable task) {
+        if (running) {
+            eventExecutor.execute(task);
+        }
+    }
+
+    private void scheduleReconnect(long generation) {
+        if (generation != subscriptionGeneration) {
+            return;
+        }
+        subscriptionGeneration++;
+        registry.markStale();
+        closeSubscription();
+        if (!running) {
+            return;
+        }
+        Duration delay = reconnectDelay;
+        reconnectDelay = delay.multipliedBy(2).compareTo(MAX_RECONNECT_DELAY) > 0 ? MAX_RECONNECT_DELAY : delay.multipliedBy(2);
+        eventExecutor.schedule(this::subscribe, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Full listing used only when the subscription is (re)established; afterwards the registry is maintained
+     * from individual events.
+     */
+    private void reconcile() throws InterruptedException {
+        String labelKey = dockerProperties.getEnvironmentLabel();
+        List<Container> containers = listContainers().withLabelFilter(List.of(labelKey)).exec();
+        List<DiscoveredContainer> discovered = inspectAll(containers);
+        Map<String, Registration> current = new LinkedHashMap<>();
+        for (int i = 0; i < containers.size(); i++) {
+            String environmentName = containers.get(i).getLabels() != null ? containers.get(i).getLabels().get(labelKey) : null;
+            if (StringUtils.hasText(environmentName)) {
+                current.put(containers.get(i).getId(), new Registration(environmentName.trim(), discovered.get(i)));
+            }
+        }
+        publish(registry.reconcile(current));
+        try {
+            eventPublisher.publishEvent(new ContainerRegistryReconciledEvent(Set.copyOf(current.keySet())));
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao propagar a sincronização completa dos contêineres: {}", ex.getMessage());
+        }
+        log.info("Registro de contêineres Docker sincronizado com {} contêineres rotulados", current.size());
+    }
+
+    private void handleEvent(Event event) {
+        String containerId = containerIdOf(event);
+        if (containerId == null) {
+            return;
+        }
+        if ("destroy".equals(event.getAction())) {
+            publish(registry.remove(containerId));
+            return;
+        }
+        try {
+            InspectContainerResponse inspect = dockerClient.inspectContainerCmd(containerId).exec();
+            Map<String, String> labels = inspect.getConfig() != null ? inspect.getConfig().getLabels() : null;
+            String environmentName = labels != null ? labels.get(dockerProperties.getEnvironmentLabel()) : null;
+            if (!StringUtils.hasText(environmentName)) {
+                publish(registry.remove(containerId));
+                return;
+            }
+            String name = StringUtils.hasText(inspect.getName())
+                ? inspect.getName().replaceFirst("^/+", "")
+                : containerId.substring(0, Math.min(12, containerId.length()));
+            DiscoveredContainer container = new DiscoveredContainer(
+                name, containerId, resolveIpAddress(inspect), resolvePorts(inspect, null));
+            publish(registry.upsert(new Registration(environmentName.trim(), container)));
+        } catch (NotFoundException ex) {
+            publish(registry.remove(containerId));
+        } catch (Exception ex) {
+            log.warn("Falha ao atualizar o contêiner {} a partir do evento {}: {}", containerId, event.getAction(), ex.getMessage());
+        }
+    }
+
+    private String containerIdOf(Event event) {
+        String action = event.getAction();
+        if (action == null) {
+            return null;
+        }
+        if (event.getType() == EventType.NETWORK) {
+            return NETWORK_ACTIONS.contains(action) && event.getActor() != null && event.getActor().getAttributes() != null
+                ? event.getActor().getAttributes().get("container")
+                : null;
+        }
+        if (!CONTAINER_ACTIONS.contains(action)) {
+            return null;
+        }
+        return event.getActor() != null && StringUtils.hasText(event.getActor().getId())
+            ? event.getActor().getId()
+            : event.getId();
+    }
+
+    private void publish(List<ContainerChangedEvent> changes) {
+        for (ContainerChangedEvent change : changes) {
+            try {
+                eventPublisher.publishEvent(change);
+            } catch (RuntimeException ex) {
+                log.warn("Falha ao propagar alteração do contêiner {}: {}", change.container().runtimeId(), ex.getMessage());
+            }
+        }
+    }
+
+    private void closeSubscription() {
+        Closeable subscription = eventSubscription;
+        eventSubscription = null;
+        if (subscription != null) {
+            try {
+                subscription.close();
+            } catch (Exception ignored) {
+                // no-op
+            }
+        }
+    }
+
+    private ListContainersCmd listContainers() {
+        return dockerClient.listContainersCmd().withShowAll(true);
+    }
+
+    private List<DiscoveredContainer> inspectAll(List<Container> containers) throws InterruptedException {
+        if (containers.isEmpty()) {
+            return List.of();
+        }
+        List<CompletableFuture<InspectContainerResponse>> inspections = containers.stream()
+            .map(container -> CompletableFuture.supplyAsync(
+                () -> dockerClient.inspectContainerCmd(container.getId()).exec(), inspectExecutor))
+            .toList();
+
+        Duration timeout = dockerProperties.getInspectTimeout();
+        long deadline = System.nanoTime() + (timeout != null ? timeout.toNanos() : Duration.ofSeconds(5).toNanos());
+        List<DiscoveredContainer> discovered = new ArrayList<>(containers.size());
+        for (int i = 0; i < containers.size(); i++) {
+            Container container = containers.get(i);
+            InspectContainerResponse inspect = awaitInspect(container, inspections.get(i), deadline);
+            String ipAddress = inspect != null ? resolveIpAddress(inspect) : resolveIpAddress(container);
+            List<Integer> ports = resolvePorts(inspect, container);
+            discovered.add(new DiscoveredContainer(resolveName(container), container.getId(), ipAddress, ports));
+        }
+        return discovered;
+    }
+
+    private InspectContainerResponse awaitInspect(Container container,
+                                                  CompletableFuture<InspectContainerResponse> inspection,
+                                                  long deadline) throws InterruptedException {
+        try {
+            return inspection.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            inspection.cancel(true);
+            log.warn("Inspeção do contêiner {} excedeu o prazo; usando dados da listagem", container.getId());
+        } catch (ExecutionException ex) {
+            log.warn("Falha ao inspecionar o contêiner {}; usando dados da listagem: {}",
+                container.getId(), ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+        }
+        return null;
+    }
+
     private boolean matchesEnvironment(Container container, EnvironmentRecord environment) {
         String labelKey = dockerProperties.getEnvironmentLabel();
         if (!StringUtils.hasText(labelKey)) {
@@ -122,9 +374,22 @@ public class DockerContainerDiscoveryService implements ContainerDiscoveryServic
         return "127.0.0.1";
     }
 
+    private String resolveIpAddress(Container container) {
+        if (container.getNetworkSettings() != null && container.getNetworkSettings().getNetworks() != null) {
+            for (ContainerNetwork network : container.getNetworkSettings().getNetworks().values()) {
+                if (network != null && StringUtils.hasText(network.getIpAddress())) {
+                    return network.getIpAddress();
+                }
+            }
+        }
+        return "127.0.0.1";
+    }
+
     private List<Integer> resolvePorts(InspectContainerResponse inspect, Container container) {
         LinkedHashSet<Integer> ports = new LinkedHashSet<>();
-        Ports bindings = inspect.getNetworkSettings() != null ? inspect.getNetworkSettings().getPorts() : null;
+        Ports bindings = inspect != null && inspect.getNetworkSettings() != null
+            ? inspect.getNetworkSettings().getPorts()
+            : null;
         if (bindings != null && bindings.getBindings() != null) {
             bindings.getBindings().forEach((exposedPort, bindingArray) -> {
                 if (bindingArray != null && bindingArray.length > 0) {
@@ -146,7 +411,7 @@ public class DockerContainerDiscoveryService implements ContainerDiscoveryServic
                 }
             });
         }
-        if (ports.isEmpty() && container.getPorts() != null) {
+        if (ports.isEmpty() && container != null && container.getPorts() != null) {
             for (ContainerPort port : container.getPorts()) {
                 if (port == null) {
                     continue;
@@ -163,15 +428,9 @@ public class DockerContainerDiscoveryService implements ContainerDiscoveryServic
 
     @PreDestroy
     public void destroy() {
-        try {
-            dockerClient.close();
-        } catch (Exception ignored) {
-            // no-op
-        }
-        try {
-            httpClient.close();
-        } catch (Exception ignored) {
-            // no-op
-        }
+        running = false;
+        eventExecutor.shutdownNow();
+        closeSubscription();
+        inspectExecutor.shutdownNow();
     }
 }
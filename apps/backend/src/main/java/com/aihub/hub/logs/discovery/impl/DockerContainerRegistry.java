@@ -0,0 +1,100 @@
+package com.aihub.hub.logs.discovery.impl;
+
+import com.aihub.hub.logs.discovery.ContainerChangedEvent;
+import com.aihub.hub.logs.discovery.DiscoveredContainer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * In-memory view of labelled containers kept current by the Docker events stream. Writers are serialized by
+ * the event thread; readers get an immutable per-environment snapshot without locking.
+ */
+final class DockerContainerRegistry {
+
+    private final Map<String, Registration> byId = new HashMap<>();
+    private volatile Map<String, List<DiscoveredContainer>> byEnvironment = Map.of();
+    private volatile boolean ready;
+
+    boolean isReady() {
+        return ready;
+    }
+
+    void markStale() {
+        ready = false;
+    }
+
+    List<DiscoveredContainer> containersFor(String environmentName) {
+        return byEnvironment.getOrDefault(key(environmentName), List.of());
+    }
+
+    synchronized List<ContainerChangedEvent> reconcile(Map<String, Registration> current) {
+        List<ContainerChangedEvent> changes = new ArrayList<>();
+        for (Registration previous : List.copyOf(byId.values())) {
+            if (!current.containsKey(previous.container().runtimeId())) {
+                byId.remove(previous.container().runtimeId());
+                changes.add(new ContainerChangedEvent(previous.environmentName(), previous.container(), true));
+            }
+        }
+        for (Registration registration : current.values()) {
+            changes.addAll(put(registration));
+        }
+        rebuildSnapshot();
+        ready = true;
+        return changes;
+    }
+
+    synchronized List<ContainerChangedEvent> upsert(Registration registration) {
+        List<ContainerChangedEvent> changes = put(registration);
+        if (!changes.isEmpty()) {
+            rebuildSnapshot();
+        }
+        return changes;
+    }
+
+    synchronized List<ContainerChangedEvent> remove(String runtimeId) {
+        Registration previous = byId.remove(runtimeId);
+        if (previous == null) {
+            return List.of();
+        }
+        rebuildSnapshot();
+        return List.of(new ContainerChangedEvent(previous.environmentName(), previous.container(), true));
+    }
+
+    private List<ContainerChangedEvent> put(Registration registration) {
+        Registration previous = byId.put(registration.container().runtimeId(), registration);
+        if (registration.equals(previous)) {
+            return List.of();
+        }
+        List<ContainerChangedEvent> changes = new ArrayList<>(2);
+        if (previous != null && !key(previous.environmentName()).equals(key(registration.environmentName()))) {
+            changes.add(new ContainerChangedEvent(previous.environmentName(), previous.container(), true));
+        }
+        changes.add(new ContainerChangedEvent(registration.environmentName(), registration.container(), false));
+        return changes;
+    }
+
+    private void rebuildSnapshot() {
+        Map<String, List<DiscoveredContainer>> snapshot = new HashMap<>();
+        for (Registration registration : byId.values()) {
+            snapshot.computeIfAbsent(key(registration.environmentName()), ignored -> new ArrayList<>())
+                .add(registration.container());
+        }
+        snapshot.replaceAll((environment, containers) -> containers.stream()
+            .sorted(Comparator.comparing(DiscoveredContainer::name, Comparator.nullsLast(String::compareTo)))
+            .toList());
+        byEnvironment = Map.copyOf(snapshot);
+    }
+
+    private static String key(String environmentName) {
+        return Objects.requireNonNullElse(environmentName, "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    record Registration(String environmentName, DiscoveredContainer container) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.aihub.hub.logs.stream;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring of log lines with monotonically increasing sequence numbers. Writers never block: once the
+ * ring is full the oldest line is overwritten and readers holding an older cursor are told how many they missed.
+ */
+class ContainerLogBuffer {
+
+    private final ContainerLogLine[] lines;
+    private long nextSequence;
+
+    ContainerLogBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity deve ser positivo");
+        }
+        this.lines = new ContainerLogLine[capacity];
+    }
+
+    synchronized ContainerLogLine append(Instant timestamp, String stream, String message) {
+        ContainerLogLine line = new ContainerLogLine(nextSequence, timestamp, stream, message);
+        lines[(int) (nextSequence % lines.length)] = line;
+        nextSequence++;
+        return line;
+    }
+
+    synchronized Page read(long cursor, int limit) {
+        long oldest = Math.max(0, nextSequence - lines.length);
+        long start = cursor;
+        long dropped = 0;
+        if (start < oldest) {
+            dropped = oldest - Math.max(0, start);
+            start = oldest;
+        } else if (start > nextSequence) {
+            // Cursor from a previous attachment of the same container: restart from what is still buffered.
+            start = oldest;
+        }
+        long end = Math.min(nextSequence, start + Math.max(0, limit));
+        List<ContainerLogLine> page = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            page.add(lines[(int) (sequence % lines.length)]);
+        }
+        return new Page(page, end, dropped);
+    }
+
+    synchronized long nextSequence() {
+        return nextSequence;
+    }
+
+    record Page(List<ContainerLogLine> lines, long nextCursor, long droppedLines) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.aihub.hub.logs.stream;
+
+import java.util.List;
+
+/**
+ * A page of buffered log lines. {@code nextCursor} is the cursor to send on the following read and
+ * {@code droppedLines} counts lines that were evicted from the ring buffer before the caller got to them.
+ */
+public record ContainerLogChunk(
+    String containerId,
+    List<ContainerLogLine> lines,
+    long nextCursor,
+    long droppedLines,
+    boolean following
+) {
+}
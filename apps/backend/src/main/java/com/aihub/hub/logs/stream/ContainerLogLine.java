@@ -0,0 +1,6 @@
+package com.aihub.hub.logs.stream;
+
+import java.time.Instant;
+
+public record ContainerLogLine(long sequence, Instant timestamp, String stream, String message) {
+}
@@ -0,0 +1,86 @@
+package com.aihub.hub.logs.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.function.Supplier;
+
+/**
+ * Reassembles lines from Docker log frames, which may split a line (or a multi-byte character) anywhere. Lines
+ * longer than {@code maxLineChars} are truncated so a runaway writer cannot grow the partial buffer unbounded.
+ */
+class ContainerLogLineSplitter {
+
+    private final ContainerLogBuffer buffer;
+    private final String stream;
+    private final int maxLineChars;
+    private final Supplier<Instant> now;
+    private final ByteArrayOutputStream partial = new ByteArrayOutputStream();
+    private boolean truncated;
+
+    ContainerLogLineSplitter(ContainerLogBuffer buffer, String stream, int maxLineChars, Supplier<Instant> now) {
+        this.buffer = buffer;
+        this.stream = stream;
+        this.maxLineChars = Math.max(1, maxLineChars);
+        this.now = now;
+    }
+
+    synchronized void accept(byte[] payload) {
+        if (payload == null) {
+            return;
+        }
+        int lineStart = 0;
+        for (int i = 0; i < payload.length; i++) {
+            if (payload[i] == '\n') {
+                appendPartial(payload, lineStart, i - lineStart);
+                emit();
+                lineStart = i + 1;
+            }
+        }
+        appendPartial(payload, lineStart, payload.length - lineStart);
+    }
+
+    synchronized void flush() {
+        if (partial.size() > 0 || truncated) {
+            emit();
+        }
+    }
+
+    private void appendPartial(byte[] payload, int offset, int length) {
+        // UTF-8 needs at most 4 bytes per char; anything beyond that is certainly past the limit.
+        int room = maxLineChars * 4 - partial.size();
+        if (length > room) {
+            truncated = true;
+            length = Math.max(0, room);
+        }
+        partial.write(payload, offset, length);
+    }
+
+    private void emit() {
+        String raw = partial.toString(StandardCharsets.UTF_8);
+        partial.reset();
+        if (raw.endsWith("\r")) {
+            raw = raw.substring(0, raw.length() - 1);
+        }
+        Instant timestamp = null;
+        int space = raw.indexOf(' ');
+        if (space > 0) {
+            try {
+                timestamp = Instant.parse(raw.substring(0, space));
+                raw = raw.substring(space + 1);
+            } catch (DateTimeParseException ignored) {
+                // Not a Docker timestamp prefix; keep the whole line.
+            }
+        }
+        if (raw.length() > maxLineChars) {
+            raw = raw.substring(0, maxLineChars);
+            truncated = true;
+        }
+        if (truncated) {
+            raw = raw + "... [truncado]";
+            truncated = false;
+        }
+        buffer.append(timestamp != null ? timestamp : now.get(), stream, raw);
+    }
+}
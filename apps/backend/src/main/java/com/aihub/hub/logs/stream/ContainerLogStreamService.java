@@ -0,0 +1,382 @@
+package com.aihub.hub.logs.stream;
+
+import com.aihub.hub.logs.discovery.LogsInterpreterProperties;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.StreamType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+
+/**
+ * Follows container logs over the Docker API. One attachment per container feeds a bounded ring buffer that any
+ * number of cursor readers and SSE subscribers share; the Docker callback never waits on readers, so a slow client
+ * only loses the oldest lines (reported as {@code droppedLines}) instead of stalling the stream. SSE writes happen on
+ * a separate sender pool behind a bounded queue per subscriber; a client whose queue fills up is disconnected and
+ * resumes from its {@code Last-Event-ID}, so it never holds up the polling of other subscribers.
+ */
+@Service
+public class ContainerLogStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContainerLogStreamService.class);
+    private static final Duration EVICTION_INTERVAL = Duration.ofMinutes(1);
+
+    private final ObjectProvider<DockerClient> dockerClientProvider;
+    private final LogsInterpreterProperties.Streaming properties;
+    private final Clock clock;
+    private final LongFunction<SseEmitter> emitterFactory;
+    private final Map<String, TailSession> sessions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService sender;
+
+    @Autowired
+    public ContainerLogStreamService(ObjectProvider<DockerClient> dockerClientProvider,
+                                     LogsInterpreterProperties properties,
+                                     Clock clock) {
+        this(dockerClientProvider, properties.getStreaming(), clock, SseEmitter::new);
+    }
+
+    ContainerLogStreamService(ObjectProvider<DockerClient> dockerClientProvider,
+                              LogsInterpreterProperties.Streaming properties,
+                              Clock clock,
+                              LongFunction<SseEmitter> emitterFactory) {
+        this.dockerClientProvider = dockerClientProvider;
+        this.properties = properties;
+        this.clock = clock;
+        this.emitterFactory = emitterFactory;
+        this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "container-logs");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderThreads = new AtomicInteger();
+        this.sender = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "container-logs-sse-" + senderThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionMillis = EVICTION_INTERVAL.toMillis();
+        this.scheduler.scheduleWithFixedDelay(this::evictIdleSessions, evictionMillis, evictionMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public ContainerLogChunk read(String containerId, long cursor, int limit) {
+        TailSession session = attach(containerId);
+        session.touch();
+        return session.read(cursor, effectiveLimit(limit));
+    }
+
+    public SseEmitter subscribe(String containerId, long cursor) {
+        TailSession session = attach(containerId);
+        SseEmitter emitter = emitterFactory.apply(properties.getSseTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(session, emitter, cursor < 0 ? session.buffer.nextSequence() : cursor);
+        emitter.onCompletion(subscriber::release);
+        emitter.onTimeout(subscriber::release);
+        emitter.onError(error -> subscriber.release());
+        session.subscribers.incrementAndGet();
+        session.touch();
+
+        long intervalMillis = Math.max(50, properties.getSseInterval().toMillis());
+        subscriber.poller.set(scheduler.scheduleWithFixedDelay(subscriber::poll, 0, intervalMillis, TimeUnit.MILLISECONDS));
+        if (subscriber.closed.get()) {
+            subscriber.poller.get().cancel(false);
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        sender.shutdownNow();
+        sessions.values().forEach(TailSession::close);
+        sessions.clear();
+    }
+
+    void evictIdleSessions() {
+        Instant threshold = clock.instant().minus(properties.getIdleTimeout());
+        sessions.forEach((containerId, session) -> {
+            if (session.subscribers.get() == 0 && session.lastAccess().isBefore(threshold)
+                && sessions.remove(containerId, session)) {
+                session.close();
+                log.debug("Leitura de logs do container {} encerrada por inatividade", containerId);
+            }
+        });
+    }
+
+    private TailSession attach(String containerId) {
+        TailSession existing = sessions.get(containerId);
+        if (existing != null && !existing.restartCheckDue()) {
+            return existing;
+        }
+        DockerClient dockerClient = dockerClientProvider.getIfAvailable();
+        if (dockerClient == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Leitura de logs disponível apenas com a descoberta de containers via Docker.");
+        }
+        synchronized (sessions) {
+            existing = sessions.get(containerId);
+            if (existing != null) {
+                if (!existing.restartCheckDue() || !isRunning(dockerClient, existing)) {
+                    return existing;
+                }
+                // The container was started again: follow the new run, current subscribers still drain the old one.
+                sessions.remove(containerId, existing);
+                existing.close();
+            }
+            if (sessions.size() >= properties.getMaxStreams()) {
+                evictIdleSessions();
+                if (sessions.size() >= properties.getMaxStreams()) {
+                    throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Limite de containers acompanhados simultaneamente atingido. Tente novamente em instantes.");
+                }
+            }
+            TailSession session = new TailSession(containerId);
+            sessions.put(containerId, session);
+            try {
+                dockerClient.logContainerCmd(containerId)
+                    .withFollowStream(true)
+                    .withStdOut(true)
+                    .withStdErr(true)
+                    .withTimestamps(true)
+                    .withTail(Math.max(0, properties.getInitialTail()))
+                    .exec(session.callback);
+            } catch (RuntimeException ex) {
+                sessions.remove(containerId, session);
+                throw new ResponseStatusException(HttpStatus.BAD_GATEWAY,
+                    "Falha ao acompanhar os logs do container: " + ex.getMessage(), ex);
+            }
+            return session;
+        }
+    }
+
+    /**
+     * Whether the container of a finished session is running again. Checked at most once per
+     * {@link #EVICTION_INTERVAL}; until then, and when Docker cannot answer, the finished session keeps being served.
+     */
+    private boolean isRunning(DockerClient dockerClient, TailSession session) {
+        session.restartCheckedAt = clock.instant();
+        try {
+            InspectContainerResponse.ContainerState state =
+                dockerClient.inspectContainerCmd(session.containerId).exec().getState();
+            return state != null && Boolean.TRUE.equals(state.getRunning());
+        } catch (RuntimeException ex) {
+            log.debug("Não foi possível verificar se o container {} voltou a executar: {}", session.containerId,
+                ex.getMessage());
+            return false;
+        }
+    }
+
+    private int effectiveLimit(int limit) {
+        int max = Math.max(1, properties.getMaxReadLines());
+        return limit <= 0 ? max : Math.min(limit, max);
+    }
+
+    /**
+     * One SSE client. {@link #poll()} runs on the scheduler and only moves buffered lines into {@link #pending};
+     * {@link #drain()} does the blocking writes on the sender pool, one drain at a time per client.
+     */
+    private final class Subscriber {
+
+        private final TailSession session;
+        private final SseEmitter emitter;
+        private final AtomicLong position;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicReference<ScheduledFuture<?>> poller = new AtomicReference<>();
+        private volatile boolean ended;
+
+        private Subscriber(TailSession session, SseEmitter emitter, long cursor) {
+            this.session = session;
+            this.emitter = emitter;
+            this.position = new AtomicLong(cursor);
+            this.pending = new ArrayBlockingQueue<>(Math.max(1, properties.getSseQueueEvents()));
+        }
+
+        private void poll() {
+            if (closed.get() || ended) {
+                return;
+            }
+            session.touch();
+            ContainerLogChunk chunk = session.read(position.get(), effectiveLimit(properties.getMaxReadLines()));
+            SseEmitter.SseEventBuilder event;
+            if (!chunk.lines().isEmpty() || chunk.droppedLines() > 0) {
+                event = SseEmitter.event().name("logs").id(Long.toString(chunk.nextCursor())).data(chunk);
+            } else if (!chunk.following()) {
+                event = SseEmitter.event().name("end").data(chunk);
+            } else {
+                return;
+            }
+            if (!pending.offer(event)) {
+                log.debug("Cliente SSE de logs do container {} não acompanha o fluxo; conexão encerrada", session.containerId);
+                release();
+                // complete() waits for the emitter lock, which a blocked send may be holding.
+                try {
+                    sender.execute(emitter::complete);
+                } catch (RejectedExecutionException ignored) {
+                    // shutting down
+                }
+                return;
+            }
+            position.set(chunk.nextCursor());
+            if (!chunk.following() && chunk.lines().isEmpty()) {
+                ended = true;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    draining.set(false);
+                    release();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = pending.poll()) != null) {
+                    emitter.send(event);
+                }
+                if (ended && pending.isEmpty() && !closed.get()) {
+                    release();
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException ex) {
+                release();
+                emitter.completeWithError(ex);
+            } finally {
+                draining.set(false);
+            }
+            if (!closed.get() && !pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void release() {
+            if (closed.compareAndSet(false, true)) {
+                ScheduledFuture<?> future = poller.get();
+                if (future != null) {
+                    future.cancel(false);
+                }
+                pending.clear();
+                session.subscribers.decrementAndGet();
+                session.touch();
+            }
+        }
+    }
+
+    private final class TailSession {
+
+        private final String containerId;
+        private final ContainerLogBuffer buffer;
+        private final ContainerLogLineSplitter stdout;
+        private final ContainerLogLineSplitter stderr;
+        private final AtomicInteger subscribers = new AtomicInteger();
+        private final AtomicBoolean following = new AtomicBoolean(true);
+        private volatile Instant lastAccess;
+        private volatile Instant restartCheckedAt;
+        private final ResultCallback.Adapter<Frame> callback = new ResultCallback.Adapter<>() {
+            @Override
+            public void onNext(Frame frame) {
+                if (frame.getStreamType() == StreamType.STDERR) {
+                    stderr.accept(frame.getPayload());
+                } else {
+                    stdout.accept(frame.getPayload());
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                log.warn("Leitura de logs do container {} interrompida: {}", containerId, throwable.getMessage());
+                finish();
+                super.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                finish();
+                super.onComplete();
+            }
+        };
+
+        private TailSession(String containerId) {
+            this.containerId = containerId;
+            this.buffer = new ContainerLogBuffer(Math.max(1, properties.getBufferLines()));
+            this.stdout = new ContainerLogLineSplitter(buffer, "stdout", properties.getMaxLineChars(), clock::instant);
+            this.stderr = new ContainerLogLineSplitter(buffer, "stderr", properties.getMaxLineChars(), clock::instant);
+            this.lastAccess = clock.instant();
+        }
+
+        private ContainerLogChunk read(long cursor, int limit) {
+            ContainerLogBuffer.Page page = buffer.read(cursor, limit);
+            return new ContainerLogChunk(containerId, page.lines(), page.nextCursor(), page.droppedLines(), following.get());
+        }
+
+        private void touch() {
+            lastAccess = clock.instant();
+        }
+
+        private Instant lastAccess() {
+            return lastAccess;
+        }
+
+        private boolean restartCheckDue() {
+            Instant checkedAt = restartCheckedAt;
+            return !following.get() && checkedAt != null
+                && !clock.instant().isBefore(checkedAt.plus(EVICTION_INTERVAL));
+        }
+
+        /**
+         * The container stopped or the attachment failed. The session and its buffer stay until idle eviction so
+         * cursor readers still get the final lines; {@link #attach} replaces it once the container runs again.
+         */
+        private void finish() {
+            if (following.compareAndSet(true, false)) {
+                stdout.flush();
+                stderr.flush();
+                restartCheckedAt = clock.instant();
+            }
+        }
+
+        private void close() {
+            finish();
+            try {
+                callback.close();
+            } catch (IOException ignored) {
+                // no-op
+            }
+        }
+    }
+}
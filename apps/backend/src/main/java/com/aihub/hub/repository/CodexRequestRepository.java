@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import com.aihub.hub.dto.CodexRequestSummary;
 import com.aihub.hub.dto.CodexTokenRankingItem;
+import com.aihub.hub.dto.ProblemRequestSummaryView;
 
 import java.time.Instant;
 import java.util.Collection;
@@ -28,7 +29,8 @@ public interface CodexRequestRepository extends JpaRepository<CodexRequest, Long
             cr.timeoutCount, cr.httpGetCount, cr.httpGetSuccessCount, cr.dbQueryCount,
             cr.startedAt, cr.finishedAt, cr.durationMs, cr.cloneDurationMs, cr.createdAt, cr.interactionCount,
             problem.id, problem.title,
-            (select count(distinct log.documentPath) from CodexDocumentAccessLog log where log.codexRequest = cr),
+            case when cr.logsArchivedAt is not null then cast(cr.documentAccessCount as Long)
+                else (select count(distinct log.documentPath) from CodexDocumentAccessLog log where log.codexRequest = cr) end,
             cr.responseText, ''
         )
         from CodexRequest cr
@@ -47,7 +49,8 @@ public interface CodexRequestRepository extends JpaRepository<CodexRequest, Long
             cr.timeoutCount, cr.httpGetCount, cr.httpGetSuccessCount, cr.dbQueryCount,
             cr.startedAt, cr.finishedAt, cr.durationMs, cr.cloneDurationMs, cr.createdAt, cr.interactionCount,
             problem.id, problem.title,
-            (select count(distinct log.documentPath) from CodexDocumentAccessLog log where log.codexRequest = cr),
+            case when cr.logsArchivedAt is not null then cast(cr.documentAccessCount as Long)
+                else (select count(distinct log.documentPath) from CodexDocumentAccessLog log where log.codexRequest = cr) end,
             cr.responseText, ''
         )
         from CodexRequest cr
@@ -136,7 +139,16 @@ public interface CodexRequestRepository extends JpaRepository<CodexRequest, Long
         """)
     List<Object[]> findSalesImpactRowsByProfile(@Param("profile") CodexIntegrationProfile profile);
     List<CodexRequest> findAllByRatingOrderByCreatedAtDesc(Integer rating);
-    List<CodexRequest> findByProblemIdOrderByCreatedAtDesc(Long problemId);
+    @Query("""
+        select new com.aihub.hub.dto.ProblemRequestSummaryView(
+            cr.id, cr.environment, cr.model, cr.status, cr.prompt, cr.responseText,
+            cr.userComment, cr.problemDescription, cr.resolutionDifficulty, cr.createdAt
+        )
+        from CodexRequest cr
+        where cr.problem.id = :problemId
+        order by cr.createdAt desc
+        """)
+    List<ProblemRequestSummaryView> findRequestSummariesByProblemId(@Param("problemId") Long problemId);
     List<CodexRequest> findByWorkBatchKeyOrderByCreatedAtAsc(String workBatchKey);
     Optional<CodexRequest> findFirstByIdLessThanOrderByIdDesc(Long id);
     Optional<CodexRequest> findByExternalId(String externalId);
@@ -0,0 +1,7 @@
+package com.aihub.hub.repository;
+
+import com.aihub.hub.domain.CodexTranscriptChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CodexTranscriptChunkRepository extends JpaRepository<CodexTranscriptChunk, Long> {
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,4 +22,21 @@ public interface EnvironmentContainerRepository extends JpaRepository<Environmen
     @Modifying
     @Query("delete from EnvironmentContainerRecord c where c.environment.id = :environmentId and c.source = :source")
     void deleteByEnvironmentIdAndSource(@Param("environmentId") Long environmentId, @Param("source") EnvironmentContainerSource source);
+
+    @Modifying
+    @Query("delete from EnvironmentContainerRecord c where c.environment.id = :environmentId and c.source = :source "
+        + "and c.containerIdentifier = :containerIdentifier")
+    void deleteByEnvironmentIdAndSourceAndContainerIdentifier(@Param("environmentId") Long environmentId,
+                                                              @Param("source") EnvironmentContainerSource source,
+                                                              @Param("containerIdentifier") String containerIdentifier);
+
+    @Modifying
+    @Query("delete from EnvironmentContainerRecord c where c.source = :source")
+    int deleteBySource(@Param("source") EnvironmentContainerSource source);
+
+    @Modifying
+    @Query("delete from EnvironmentContainerRecord c where c.source = :source "
+        + "and (c.containerIdentifier is null or c.containerIdentifier not in :containerIdentifiers)")
+    int deleteBySourceAndContainerIdentifierNotIn(@Param("source") EnvironmentContainerSource source,
+                                                  @Param("containerIdentifiers") Collection<String> containerIdentifiers);
 }
@@ -1,8 +1,46 @@
 package com.aihub.hub.repository;
 
 import com.aihub.hub.domain.ProblemRecord;
+import com.aihub.hub.dto.ProblemSummaryView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ProblemRepository extends JpaRepository<ProblemRecord, Long> {
-    java.util.List<ProblemRecord> findByEnvironmentIdAndFinalizedAtIsNullOrderByIncludedAtDescCreatedAtDesc(Long environmentId);
+    @Query("""
+        select distinct p from ProblemRecord p
+        left join fetch p.environment
+        left join fetch p.project
+        left join fetch p.updates
+        order by p.includedAt desc, p.createdAt desc
+        """)
+    List<ProblemRecord> findAllWithDetails();
+
+    @Query(
+        value = "select p.id from ProblemRecord p order by p.includedAt desc, p.createdAt desc",
+        countQuery = "select count(p) from ProblemRecord p"
+    )
+    Page<Long> findIdsOrderByIncludedAtDesc(Pageable pageable);
+
+    @Query("""
+        select distinct p from ProblemRecord p
+        left join fetch p.environment
+        left join fetch p.project
+        left join fetch p.updates
+        where p.id in :ids
+        """)
+    List<ProblemRecord> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+        select new com.aihub.hub.dto.ProblemSummaryView(p.id, p.title, p.includedAt, p.totalCost)
+        from ProblemRecord p
+        where p.environment.id = :environmentId and p.finalizedAt is null
+        order by p.includedAt desc, p.createdAt desc
+        """)
+    List<ProblemSummaryView> findActiveSummariesByEnvironmentId(@Param("environmentId") Long environmentId);
 }
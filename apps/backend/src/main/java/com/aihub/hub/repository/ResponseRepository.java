@@ -16,4 +16,6 @@ public interface ResponseRepository extends JpaRepository<ResponseRecord, Long>
     Optional<ResponseRecord> findTopByRepoAndPrNumberOrderByCreatedAtDesc(String repo, Integer prNumber);
 
     Optional<ResponseRecord> findTopByRepoOrderByCreatedAtDesc(String repo);
+
+    Optional<ResponseRecord> findBySandboxJobId(String sandboxJobId);
 }
@@ -110,7 +110,7 @@ public class CiFixJobService {
             .orElseThrow(() -> new IllegalArgumentException("Job não encontrado"));
 
         SandboxOrchestratorClient.SandboxOrchestratorJobResponse orchestratorResponse =
-            sandboxOrchestratorClient.getJob(jobId);
+            sandboxOrchestratorClient.getJob(jobId, SandboxJobPayloadDecoder.Detail.WITHOUT_INTERACTION_CONTENT);
         populateFromOrchestrator(record, orchestratorResponse);
         record.setUpdatedAt(Instant.now());
         jobRepository.save(record);
@@ -0,0 +1,373 @@
+package com.aihub.hub.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Builds a failure-focused excerpt of a workflow run in a single pass over its log archive.
+ * Lines around failure signals are kept as ranked windows and selected by rank until the character
+ * budget is filled. The tail of each step is only used when the run shows no failure signal at all.
+ * A window keeps at most a third of the budget from its start and another third from its end, so a long
+ * run of signal lines does not grow it with the log.
+ */
+@Component
+public class CiLogExcerptExtractor {
+
+    private static final int ERROR_ANNOTATION_SCORE = 10;
+    private static final int NON_ZERO_EXIT_SCORE = 8;
+    private static final int FAILURE_MARKER_SCORE = 6;
+    private static final int EXCEPTION_SCORE = 5;
+    private static final int ERROR_LINE_SCORE = 4;
+    private static final int ENTRY_TAIL_SCORE = 1;
+    private static final String EXIT_CODE_MARKER = "Process completed with exit code ";
+
+    private static final Comparator<Window> BY_RANK = Comparator
+        .comparingInt(Window::score).reversed()
+        .thenComparing(Comparator.comparingInt(Window::entryIndex).reversed())
+        .thenComparing(Comparator.comparingInt(Window::firstLine).reversed());
+
+    private static final Comparator<Window> BY_POSITION = Comparator
+        .comparingInt(Window::entryIndex)
+        .thenComparingInt(Window::firstLine);
+
+    private final int budgetChars;
+    private final int contextBeforeLines;
+    private final int contextAfterLines;
+    private final int entryTailLines;
+    private final int maxLineChars;
+
+    public CiLogExcerptExtractor(@Value("${hub.logs.max-chars:20000}") int budgetChars,
+                                 @Value("${hub.logs.excerpt.context-before-lines:10}") int contextBeforeLines,
+                                 @Value("${hub.logs.excerpt.context-after-lines:20}") int contextAfterLines,
+                                 @Value("${hub.logs.excerpt.entry-tail-lines:15}") int entryTailLines,
+                                 @Value("${hub.logs.excerpt.max-line-chars:1000}") int maxLineChars) {
+        this.budgetChars = Math.max(1, budgetChars);
+        this.contextBeforeLines = Math.max(0, contextBeforeLines);
+        this.contextAfterLines = Math.max(0, contextAfterLines);
+        this.entryTailLines = Math.max(0, entryTailLines);
+        this.maxLineChars = Math.max(2, maxLineChars);
+    }
+
+    public String extract(InputStream archive) throws IOException {
+        Collector collector = new Collector();
+        WorkflowLogArchiveReader.read(archive, (name, content) -> {
+            collector.readEntry(name, content);
+            return true;
+        });
+        return collector.render();
+    }
+
+    static int signalScore(String line) {
+        int score = 0;
+        if (line.contains("##[error]")) {
+            score += ERROR_ANNOTATION_SCORE;
+        }
+        int exitIndex = line.indexOf(EXIT_CODE_MARKER);
+        if (exitIndex >= 0) {
+            int start = exitIndex + EXIT_CODE_MARKER.length();
+            if (start < line.length() && line.charAt(start) != '0') {
+                score += NON_ZERO_EXIT_SCORE;
+            }
+        }
+        if (line.contains("FAILED") || line.contains("BUILD FAILURE") || line.contains("FAILURE:")) {
+            score += FAILURE_MARKER_SCORE;
+        }
+        String trimmed = line.stripLeading();
+        if (trimmed.startsWith("Caused by:")
+            || trimmed.startsWith("Exception in thread")
+            || trimmed.startsWith("Traceback (most recent call last)")
+            || looksLikeExceptionHeader(trimmed)) {
+            score += EXCEPTION_SCORE;
+        }
+        if (trimmed.startsWith("[ERROR]")
+            || trimmed.startsWith("ERROR")
+            || trimmed.startsWith("Error:")
+            || trimmed.startsWith("error:")
+            || trimmed.startsWith("npm ERR!")
+            || trimmed.contains(": error ")) {
+            score += ERROR_LINE_SCORE;
+        }
+        return score;
+    }
+
+    private static boolean looksLikeExceptionHeader(String line) {
+        int colon = line.indexOf(':');
+        String head = colon > 0 ? line.substring(0, colon) : line;
+        if (head.indexOf(' ') >= 0) {
+            return false;
+        }
+        return head.endsWith("Exception") || head.endsWith("Error");
+    }
+
+    static String stripTimestamp(String line) {
+        // GitHub Actions prefixes every line with an ISO-8601 timestamp such as 2024-05-01T12:34:56.1234567Z
+        if (line.length() > 20 && line.charAt(4) == '-' && line.charAt(7) == '-' && line.charAt(10) == 'T') {
+            int space = line.indexOf(' ');
+            if (space > 19 && line.charAt(space - 1) == 'Z') {
+                return line.substring(space + 1);
+            }
+        }
+        return line;
+    }
+
+    private record Line(int number, String text) {
+    }
+
+    private static final class Window {
+        private final int entryIndex;
+        private final String entryName;
+        private final List<Line> lines = new ArrayList<>();
+        private Deque<Line> overflow;
+        private int overflowChars;
+        private int score;
+        private int chars;
+
+        private Window(int entryIndex, String entryName) {
+            this.entryIndex = entryIndex;
+            this.entryName = entryName;
+        }
+
+        private void add(Line line) {
+            lines.add(line);
+            chars += line.text().length() + 1;
+        }
+
+        /**
+         * Adds to the head until it holds {@code partChars}, then to a rolling tail of the same size; {@link #seal}
+         * joins both once the window is complete.
+         */
+        private void append(Line line, int partChars) {
+            if (overflow == null) {
+                if (chars < partChars) {
+                    add(line);
+                    return;
+                }
+                overflow = new ArrayDeque<>();
+            }
+            overflow.addLast(line);
+            overflowChars += line.text().length() + 1;
+            while (overflowChars > partChars && overflow.size() > 1) {
+                overflowChars -= overflow.removeFirst().text().length() + 1;
+            }
+        }
+
+        private void seal() {
+            if (overflow != null) {
+                overflow.forEach(this::add);
+                overflow = null;
+                overflowChars = 0;
+            }
+        }
+
+        private int entryIndex() {
+            return entryIndex;
+        }
+
+        private int firstLine() {
+            return lines.get(0).number();
+        }
+
+        private int lastLine() {
+            return lines.get(lines.size() - 1).number();
+        }
+
+        private int score() {
+            return score;
+        }
+
+        private Window keepLast(int maxChars) {
+            Window trimmed = new Window(entryIndex, entryName);
+            trimmed.score = score;
+            Deque<Line> kept = new ArrayDeque<>();
+            int total = 0;
+            for (int i = lines.size() - 1; i >= 0; i--) {
+                int size = lines.get(i).text().length() + 1;
+                if (total + size > maxChars && !kept.isEmpty()) {
+                    break;
+                }
+                kept.addFirst(lines.get(i));
+                total += size;
+            }
+            kept.forEach(trimmed::add);
+            return trimmed;
+        }
+    }
+
+    private final class Collector {
+        private final int windowPartChars = Math.max(1, budgetChars / 3);
+        private final List<Window> windows = new ArrayList<>();
+        private final HeadTailTextBuffer lineBuffer = new HeadTailTextBuffer(maxLineChars / 2, maxLineChars - maxLineChars / 2);
+        private int keptChars;
+        private int entryIndex = -1;
+
+        private String entryName;
+        private Deque<Line> recent;
+        private Deque<Line> tail;
+        private Window open;
+        private int afterRemaining;
+        private int lastWindowLine;
+        private int lineNumber;
+
+        private void readEntry(String name, Reader content) throws IOException {
+            entryIndex++;
+            entryName = name;
+            recent = new ArrayDeque<>();
+            tail = new ArrayDeque<>();
+            open = null;
+            afterRemaining = 0;
+            lastWindowLine = 0;
+            lineNumber = 0;
+
+            char[] chunk = new char[8192];
+            int read;
+            while ((read = content.read(chunk)) != -1) {
+                int start = 0;
+                for (int i = 0; i < read; i++) {
+                    if (chunk[i] == '\n') {
+                        lineBuffer.append(chunk, start, i - start);
+                        endLine();
+                        start = i + 1;
+                    }
+                }
+                lineBuffer.append(chunk, start, read - start);
+            }
+            if (lineBuffer.totalChars() > 0) {
+                endLine();
+            }
+            closeOpenWindow();
+            addTailWindow();
+        }
+
+        private void endLine() {
+            String raw = lineBuffer.render("…[%d caracteres omitidos]…");
+            lineBuffer.clear();
+            if (raw.endsWith("\r")) {
+                raw = raw.substring(0, raw.length() - 1);
+            }
+            Line line = new Line(++lineNumber, stripTimestamp(raw));
+            int score = signalScore(line.text());
+            if (score > 0) {
+                if (open == null) {
+                    open = new Window(entryIndex, entryName);
+                    recent.forEach(open::add);
+                }
+                recent.clear();
+                open.append(line, windowPartChars);
+                open.score += score;
+                afterRemaining = contextAfterLines;
+            } else if (open != null && afterRemaining > 0) {
+                open.append(line, windowPartChars);
+                afterRemaining--;
+                if (afterRemaining == 0) {
+                    closeOpenWindow();
+                }
+            } else {
+                pushBounded(recent, line, contextBeforeLines);
+            }
+            pushBounded(tail, line, entryTailLines);
+        }
+
+        private void pushBounded(Deque<Line> deque, Line line, int limit) {
+            if (limit == 0) {
+                return;
+            }
+            if (deque.size() == limit) {
+                deque.removeFirst();
+            }
+            deque.addLast(line);
+        }
+
+        private void closeOpenWindow() {
+            if (open == null) {
+                return;
+            }
+            open.seal();
+            lastWindowLine = open.lastLine();
+            keep(open);
+            open = null;
+        }
+
+        private void addTailWindow() {
+            Window window = new Window(entryIndex, entryName);
+            window.score = ENTRY_TAIL_SCORE;
+            for (Line line : tail) {
+                if (line.number() > lastWindowLine) {
+                    window.add(line);
+                }
+            }
+            if (!window.lines.isEmpty()) {
+                keep(window);
+            }
+        }
+
+        private void keep(Window window) {
+            windows.add(window);
+            keptChars += window.chars;
+            if (keptChars > budgetChars * 4L) {
+                prune();
+            }
+        }
+
+        private void prune() {
+            windows.sort(BY_RANK);
+            long total = 0;
+            int keep = 0;
+            while (keep < windows.size() && total + windows.get(keep).chars <= budgetChars * 2L) {
+                total += windows.get(keep++).chars;
+            }
+            windows.subList(Math.max(keep, 1), windows.size()).clear();
+            keptChars = windows.stream().mapToInt(window -> window.chars).sum();
+        }
+
+        private String render() {
+            boolean hasSignal = windows.stream().anyMatch(window -> window.score > ENTRY_TAIL_SCORE);
+            List<Window> ranked = new ArrayList<>(windows.stream()
+                .filter(window -> !hasSignal || window.score > ENTRY_TAIL_SCORE)
+                .toList());
+            ranked.sort(BY_RANK);
+            List<Window> selected = new ArrayList<>();
+            int remaining = budgetChars;
+            for (Window window : ranked) {
+                int cost = window.chars + window.entryName.length() + 32;
+                if (cost <= remaining) {
+                    selected.add(window);
+                    remaining -= cost;
+                } else if (selected.isEmpty()) {
+                    Window trimmed = window.keepLast(Math.max(1, remaining - window.entryName.length() - 32));
+                    selected.add(trimmed);
+                    remaining -= trimmed.chars + window.entryName.length() + 32;
+                }
+            }
+            selected.sort(BY_POSITION);
+
+            StringBuilder builder = new StringBuilder();
+            int currentEntry = -1;
+            int previousLastLine = 0;
+            for (Window window : selected) {
+                if (window.entryIndex != currentEntry) {
+                    builder.append("===== ").append(window.entryName).append(" =====\n");
+                    currentEntry = window.entryIndex;
+                    previousLastLine = 0;
+                }
+                for (Line line : window.lines) {
+                    if (line.number() > previousLastLine + 1) {
+                        builder.append("[... linhas ").append(previousLastLine + 1).append('-')
+                            .append(line.number() - 1).append(" omitidas ...]\n");
+                    }
+                    builder.append(line.text()).append('\n');
+                    previousLastLine = line.number();
+                }
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.aihub.hub.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves old Codex execution logs out of the hot tables. Interactions, HTTP calls and document accesses of finished
+ * requests are written to gzip NDJSON files under {@code hub.retention.archive-dir} and then deleted, after their
+ * counts are folded into {@code codex_requests}; old {@code responses} rows are archived the same way. Work runs in
+ * bounded chunks with a pause between them so the archive never competes with request traffic for long.
+ */
+@Component
+public class CodexLogRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CodexLogRetentionJob.class);
+
+    static final List<String> REQUEST_LOG_TABLES = List.of("codex_interactions", "codex_http_requests", "codex_document_accesses");
+
+    private static final String SELECT_ARCHIVABLE_REQUESTS =
+        "SELECT id FROM codex_requests WHERE logs_archived_at IS NULL AND created_at < ? "
+            + "AND status IN ('COMPLETED', 'FAILED', 'CANCELLED') ORDER BY id";
+    private static final String FOLD_REQUEST_COUNTERS =
+        "UPDATE codex_requests SET "
+            + "interaction_count = COALESCE(interaction_count, "
+            + "(SELECT COUNT(*) FROM codex_interactions i WHERE i.codex_request_id = codex_requests.id)), "
+            + "document_access_count = "
+            + "(SELECT COUNT(DISTINCT d.document_path) FROM codex_document_accesses d WHERE d.codex_request_id = codex_requests.id), "
+            + "logs_archived_at = ? WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Path archiveDir;
+    private final int requestLogRetentionDays;
+    private final int responseRetentionDays;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long pauseMs;
+    private final Clock clock;
+
+    @Autowired
+    public CodexLogRetentionJob(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                @Value("${hub.retention.archive-dir:${java.io.tmpdir}/aihub-archive}") String archiveDir,
+                                @Value("${hub.retention.codex-log-days:90}") int requestLogRetentionDays,
+                                @Value("${hub.retention.response-days:180}") int responseRetentionDays,
+                                @Value("${hub.retention.chunk-size:100}") int chunkSize,
+                                @Value("${hub.retention.max-chunks-per-run:200}") int maxChunksPerRun,
+                                @Value("${hub.retention.pause-ms:500}") long pauseMs) {
+        this(jdbcTemplate, transactionManager, objectMapper, Path.of(archiveDir), requestLogRetentionDays,
+            responseRetentionDays, chunkSize, maxChunksPerRun, pauseMs, Clock.systemUTC());
+    }
+
+    CodexLogRetentionJob(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         Path archiveDir,
+                         int requestLogRetentionDays,
+                         int responseRetentionDays,
+                         int chunkSize,
+                         int maxChunksPerRun,
+                         long pauseMs,
+                         Clock clock) {
+        this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate, "jdbcTemplate is required");
+        this.transactionTemplate = new TransactionTemplate(
+            Objects.requireNonNull(transactionManager, "transactionManager is required"));
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
+        this.archiveDir = archiveDir.toAbsolutePath().normalize();
+        this.requestLogRetentionDays = requestLogRetentionDays;
+        this.responseRetentionDays = responseRetentionDays;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxChunksPerRun = Math.max(1, maxChunksPerRun);
+        this.pauseMs = Math.max(0, pauseMs);
+        this.clock = clock;
+    }
+
+    @Scheduled(
+        initialDelayString = "${hub.retention.initial-delay-ms:600000}",
+        fixedDelayString = "${hub.retention.fixed-delay-ms:3600000}"
+    )
+    public void run() {
+        try {
+            int requests = archiveRequestLogs();
+            int responses = archiveResponses();
+            if (requests + responses > 0) {
+                log.info("Retenção de logs Codex: {} solicitações com logs arquivados, {} respostas arquivadas em {}",
+                    requests, responses, archiveDir);
+            }
+        } catch (Exception ex) {
+            log.error("Falha ao arquivar logs Codex antigos; uma nova tentativa será feita automaticamente", ex);
+        }
+    }
+
+    int archiveRequestLogs() {
+        if (requestLogRetentionDays <= 0) {
+            return 0;
+        }
+        Timestamp cutoff = cutoff(requestLogRetentionDays);
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Long> requestIds = jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_ARCHIVABLE_REQUESTS);
+                ps.setTimestamp(1, cutoff);
+                ps.setMaxRows(chunkSize);
+                return ps;
+            }, (rs, rowNum) -> rs.getLong(1));
+            if (requestIds.isEmpty()) {
+                return total;
+            }
+            String placeholders = placeholders(requestIds.size());
+            Map<String, Long> lastArchivedIds = new LinkedHashMap<>();
+            for (String table : REQUEST_LOG_TABLES) {
+                List<Long> archived = export(table,
+                    "SELECT * FROM " + table + " WHERE codex_request_id IN (" + placeholders + ") ORDER BY id",
+                    requestIds.toArray(), 0);
+                if (!archived.isEmpty()) {
+                    lastArchivedIds.put(table, archived.get(archived.size() - 1));
+                }
+            }
+            Timestamp archivedAt = Timestamp.from(clock.instant());
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Object> args = new ArrayList<>();
+                args.add(archivedAt);
+                args.addAll(requestIds);
+                jdbcTemplate.update(FOLD_REQUEST_COUNTERS.formatted(placeholders), args.toArray());
+                // Rows written after the export (a late callback) have higher ids and are left in place.
+                lastArchivedIds.forEach((table, lastId) -> {
+                    List<Object> deleteArgs = new ArrayList<>(requestIds);
+                    deleteArgs.add(lastId);
+                    jdbcTemplate.update(
+                        "DELETE FROM " + table + " WHERE codex_request_id IN (" + placeholders + ") AND id <= ?",
+                        deleteArgs.toArray());
+                });
+            });
+            total += requestIds.size();
+            if (requestIds.size() < chunkSize || !pause()) {
+                return total;
+            }
+        }
+        return total;
+    }
+
+    int archiveResponses() {
+        if (responseRetentionDays <= 0) {
+            return 0;
+        }
+        Timestamp cutoff = cutoff(responseRetentionDays);
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Long> ids = export("responses", "SELECT * FROM responses WHERE created_at < ? ORDER BY id",
+                new Object[] {cutoff}, chunkSize);
+            if (ids.isEmpty()) {
+                return total;
+            }
+            jdbcTemplate.update("DELETE FROM responses WHERE id IN (%s)".formatted(placeholders(ids.size())), ids.toArray());
+            total += ids.size();
+            if (ids.size() < chunkSize || !pause()) {
+                return total;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Streams the selected rows into one gzip NDJSON file and returns their ids in order. The file is only moved into
+     * place once complete, and is named after its id range so re-archiving the same rows replaces it.
+     */
+    private List<Long> export(String table, String sql, Object[] args, int maxRows) {
+        Path directory = archiveDir.resolve(table).resolve(YearMonth.from(clock.instant().atZone(ZoneOffset.UTC)).toString());
+        List<Long> ids = new ArrayList<>();
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, table + "-", ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(sql);
+                    for (int i = 0; i < args.length; i++) {
+                        ps.setObject(i + 1, args[i]);
+                    }
+                    if (maxRows > 0) {
+                        ps.setMaxRows(maxRows);
+                    }
+                    return ps;
+                }, rs -> {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int column = 1; column <= meta.getColumnCount(); column++) {
+                        int type = meta.getColumnType(column);
+                        Object value = type == Types.TIMESTAMP || type == Types.TIMESTAMP_WITH_TIMEZONE
+                            ? rs.getTimestamp(column)
+                            : JdbcUtils.getResultSetValue(rs, column);
+                        row.put(JdbcUtils.lookupColumnName(meta, column).toLowerCase(Locale.ROOT),
+                            value instanceof Timestamp timestamp ? timestamp.toInstant().toString() : value);
+                    }
+                    ids.add(rs.getLong("id"));
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(row));
+                        out.write('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+            if (ids.isEmpty()) {
+                Files.deleteIfExists(temp);
+                return ids;
+            }
+            Path target = directory.resolve("%s-%d-%d.ndjson.gz".formatted(table, ids.get(0), ids.get(ids.size() - 1)));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return ids;
+        } catch (IOException | UncheckedIOException ex) {
+            deleteQuietly(temp);
+            throw new IllegalStateException("Não foi possível arquivar registros de " + table + " em " + directory, ex);
+        } catch (RuntimeException ex) {
+            deleteQuietly(temp);
+            throw ex;
+        }
+    }
+
+    private boolean pause() {
+        if (pauseMs == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Timestamp cutoff(int days) {
+        return Timestamp.from(Instant.now(clock).minus(Duration.ofDays(days)));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // best effort; a leftover .tmp file is never read back
+        }
+    }
+}
@@ -16,9 +16,11 @@ import java.util.Optional;
 public class CodexModelPricingService {
 
     private final CodexModelPricingRepository repository;
+    private final ReferenceDataCache referenceDataCache;
 
-    public CodexModelPricingService(CodexModelPricingRepository repository) {
+    public CodexModelPricingService(CodexModelPricingRepository repository, ReferenceDataCache referenceDataCache) {
         this.repository = repository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Transactional(readOnly = true)
@@ -26,19 +28,25 @@ public class CodexModelPricingService {
         return repository.findAll(Sort.by(Sort.Direction.ASC, "modelName"));
     }
 
+    /**
+     * Returns a detached copy shared through {@link ReferenceDataCache}; changes must go through {@link #update}.
+     */
     @Transactional(readOnly = true)
     public Optional<CodexModelPricing> findByModelName(String modelName) {
         if (!StringUtils.hasText(modelName)) {
             return Optional.empty();
         }
-        return repository.findByModelNameIgnoreCase(modelName.trim());
+        return referenceDataCache.pricing(modelName, () ->
+            repository.findByModelNameIgnoreCase(modelName.trim()).map(CodexModelPricing::detachedCopy));
     }
 
     @Transactional
     public CodexModelPricing create(CodexModelPricingRequest request) {
         CodexModelPricing entity = new CodexModelPricing();
         apply(entity, request);
-        return repository.save(entity);
+        CodexModelPricing saved = repository.save(entity);
+        referenceDataCache.invalidatePricing();
+        return saved;
     }
 
     @Transactional
@@ -46,7 +54,9 @@ public class CodexModelPricingService {
         CodexModelPricing entity = repository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Modelo de pricing não encontrado: " + id));
         apply(entity, request);
-        return repository.save(entity);
+        CodexModelPricing saved = repository.save(entity);
+        referenceDataCache.invalidatePricing();
+        return saved;
     }
 
     @Transactional
@@ -55,6 +65,7 @@ public class CodexModelPricingService {
             throw new EntityNotFoundException("Modelo de pricing não encontrado: " + id);
         }
         repository.deleteById(id);
+        referenceDataCache.invalidatePricing();
     }
 
     private void apply(CodexModelPricing entity, CodexModelPricingRequest request) {
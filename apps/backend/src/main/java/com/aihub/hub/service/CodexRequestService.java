@@ -9,6 +9,7 @@ import com.aihub.hub.domain.EnvironmentRecord;
 import com.aihub.hub.domain.CodexRequest;
 import com.aihub.hub.domain.ProblemRecord;
 import com.aihub.hub.domain.CodexRequestStatus;
+import com.aihub.hub.domain.CodexTranscriptChunk;
 import com.aihub.hub.domain.PromptRecord;
 import com.aihub.hub.domain.ResponseRecord;
 import com.aihub.hub.dto.CreateCodexRequest;
@@ -23,10 +24,13 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.aihub.hub.github.GithubAppAuth;
 import com.aihub.hub.github.GithubApiClient;
 import com.aihub.hub.repository.CodexDocumentAccessRepository;
 import com.aihub.hub.repository.CodexHttpRequestRepository;
+import com.aihub.hub.repository.CodexTranscriptChunkRepository;
 import com.aihub.hub.repository.EnvironmentRepository;
 import com.aihub.hub.repository.CodexInteractionRepository;
 import com.aihub.hub.repository.CodexRequestRepository;
@@ -36,6 +40,7 @@ import com.aihub.hub.repository.ResponseRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.PageImpl;
@@ -71,7 +76,11 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -81,6 +90,7 @@ public class CodexRequestService {
     private static final Logger log = LoggerFactory.getLogger(CodexRequestService.class);
     private static final Duration SANDBOX_NOT_FOUND_GRACE_PERIOD = Duration.ofMinutes(15);
     private static final Duration DETAIL_REFRESH_MIN_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration DETAIL_REFRESH_MAX_WAIT = Duration.ofSeconds(3);
     private static final Set<Long> SANDBOX_REFRESHES_IN_PROGRESS = ConcurrentHashMap.newKeySet();
     private static final List<CodexRequestStatus> ACTIVE_QUEUE_STATUSES = List.of(CodexRequestStatus.PENDING, CodexRequestStatus.RUNNING);
     private static final int SUMMARY_PROMPT_PREVIEW_LIMIT = 2000;
@@ -95,6 +105,7 @@ public class CodexRequestService {
     private final PromptRepository promptRepository;
     private final ResponseRepository responseRepository;
     private final CodexInteractionRepository codexInteractionRepository;
+    private final CodexTranscriptChunkRepository codexTranscriptChunkRepository;
     private final CodexHttpRequestRepository codexHttpRequestRepository;
     private final CodexDocumentAccessRepository codexDocumentAccessRepository;
     private final EnvironmentRepository environmentRepository;
@@ -104,6 +115,8 @@ public class CodexRequestService {
     private final GithubAppAuth githubAppAuth;
     private final GithubApiClient githubApiClient;
     private final TokenCostCalculator tokenCostCalculator;
+    private final ImageAttachmentStore imageAttachmentStore;
+    private final ReferenceDataCache referenceDataCache;
     private final String defaultModel;
     private final String economyModel;
     private final String defaultBranch;
@@ -115,12 +128,15 @@ public class CodexRequestService {
     private final int smartEconomyEconomyTokenCeiling;
     private final boolean codexAppServerEnabled;
     private final ObjectMapper objectMapper;
+    private final int responseRevisionHistory;
+    private final String attachmentsBaseUrl;
     private final Map<Long, Instant> detailRefreshAttempts = new ConcurrentHashMap<>();
 
     public CodexRequestService(CodexRequestRepository codexRequestRepository,
                                PromptRepository promptRepository,
                                ResponseRepository responseRepository,
                                CodexInteractionRepository codexInteractionRepository,
+                               CodexTranscriptChunkRepository codexTranscriptChunkRepository,
                                CodexHttpRequestRepository codexHttpRequestRepository,
                                CodexDocumentAccessRepository codexDocumentAccessRepository,
                                EnvironmentRepository environmentRepository,
@@ -130,6 +146,8 @@ public class CodexRequestService {
                                GithubAppAuth githubAppAuth,
                                GithubApiClient githubApiClient,
                                TokenCostCalculator tokenCostCalculator,
+                               ImageAttachmentStore imageAttachmentStore,
+                               ReferenceDataCache referenceDataCache,
                                ObjectMapper objectMapper,
                                PlatformTransactionManager transactionManager,
                                @Value("${hub.codex.model:gpt-5-codex}") String defaultModel,
@@ -139,11 +157,14 @@ public class CodexRequestService {
                                @Value("${hub.dashboard.time-zone:America/Sao_Paulo}") String dashboardTimeZone,
                                @Value("${hub.codex.app-server-enabled:false}") boolean codexAppServerEnabled,
                                @Value("${hub.sandbox.callback.url:}") String sandboxCallbackUrl,
-                               @Value("${hub.sandbox.callback.secret:}") String sandboxCallbackSecret) {
+                               @Value("${hub.sandbox.callback.secret:}") String sandboxCallbackSecret,
+                               @Value("${hub.codex.responses.revision-history:5}") int responseRevisionHistory,
+                               @Value("${hub.codex.attachments.base-url:http://backend:8081}") String attachmentsBaseUrl) {
         this.codexRequestRepository = codexRequestRepository;
         this.promptRepository = promptRepository;
         this.responseRepository = responseRepository;
         this.codexInteractionRepository = codexInteractionRepository;
+        this.codexTranscriptChunkRepository = codexTranscriptChunkRepository;
         this.codexHttpRequestRepository = codexHttpRequestRepository;
         this.codexDocumentAccessRepository = codexDocumentAccessRepository;
         this.environmentRepository = environmentRepository;
@@ -153,6 +174,8 @@ public class CodexRequestService {
         this.githubAppAuth = githubAppAuth;
         this.githubApiClient = githubApiClient;
         this.tokenCostCalculator = tokenCostCalculator;
+        this.imageAttachmentStore = imageAttachmentStore;
+        this.referenceDataCache = referenceDataCache;
         this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
         this.defaultModel = defaultModel;
         this.economyModel = economyModel;
@@ -163,6 +186,8 @@ public class CodexRequestService {
         this.dashboardClock = Clock.system(dashboardZone);
         this.smartEconomyEconomyTokenCeiling = smartEconomyEconomyTokenCeiling > 0 ? smartEconomyEconomyTokenCeiling : 1_500_000;
         this.codexAppServerEnabled = codexAppServerEnabled;
+        this.responseRevisionHistory = Math.max(0, responseRevisionHistory);
+        this.attachmentsBaseUrl = StringUtils.hasText(attachmentsBaseUrl) ? attachmentsBaseUrl.trim() : "http://backend:8081";
         Objects.requireNonNull(transactionManager, "transactionManager is required");
         this.sandboxRefreshTemplate = new TransactionTemplate(transactionManager);
         this.sandboxRefreshTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
@@ -201,7 +226,8 @@ public class CodexRequestService {
         codexRequest.setTimeoutCount(0);
         codexRequest.setHttpGetCount(0);
         codexRequest.setDbQueryCount(0);
-        codexRequest.setImageAttachmentsJson(serializeImageAttachments(request.getImageAttachments()));
+        List<CreateCodexRequest.ImageAttachment> imageAttachments = storeImageAttachments(request.getImageAttachments());
+        codexRequest.setImageAttachmentsJson(serializeImageAttachments(imageAttachments));
 
         if (!isChatgptCodexSandboxProfile(profile)) {
             PromptMetadata metadata = extractMetadata(request.getEnvironment());
@@ -224,7 +250,7 @@ public class CodexRequestService {
             log.info("CodexRequest {} mantida em fila: já existe execução ativa para o perfil {}", saved.getId(), saved.getProfile());
             return saved;
         }
-        dispatchToSandbox(saved, request.getImageAttachments());
+        dispatchToSandbox(saved, imageAttachments);
         return saved;
     }
 
@@ -253,13 +279,55 @@ public class CodexRequestService {
             return List.of();
         }
         try {
-            return objectMapper.readValue(request.getImageAttachmentsJson(), new TypeReference<List<CreateCodexRequest.ImageAttachment>>() { });
+            List<CreateCodexRequest.ImageAttachment> attachments = objectMapper.readValue(
+                request.getImageAttachmentsJson(), new TypeReference<List<CreateCodexRequest.ImageAttachment>>() { });
+            return storeImageAttachments(attachments);
         } catch (JsonProcessingException ex) {
             log.error("Falha ao ler imagens anexadas da CodexRequest {} em fila", request.getId(), ex);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Não foi possível recuperar as imagens da solicitação em fila", ex);
         }
     }
 
+    /**
+     * Moves inline data URLs into the attachment store and keeps only name, type, size and digest. Rows queued before
+     * the store existed still carry data URLs and are converted here when dispatched.
+     */
+    private List<CreateCodexRequest.ImageAttachment> storeImageAttachments(List<CreateCodexRequest.ImageAttachment> attachments) {
+        if (attachments == null || attachments.isEmpty()) {
+            return List.of();
+        }
+        List<CreateCodexRequest.ImageAttachment> stored = new ArrayList<>();
+        for (CreateCodexRequest.ImageAttachment attachment : attachments) {
+            if (attachment == null) {
+                continue;
+            }
+            if (StringUtils.hasText(attachment.sha256())) {
+                String sha256 = ImageAttachmentStore.normalizeDigest(attachment.sha256());
+                if (!imageAttachmentStore.retain(sha256)) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Anexo " + sha256 + " não encontrado");
+                }
+                stored.add(new CreateCodexRequest.ImageAttachment(
+                    attachment.name(), attachment.mimeType(), attachment.size(), null, sha256));
+                continue;
+            }
+            try {
+                ImageAttachmentStore.StoredDataUrl blob = imageAttachmentStore.storeDataUrl(attachment.dataUrl());
+                String mimeType = StringUtils.hasText(attachment.mimeType()) ? attachment.mimeType() : blob.mimeType();
+                stored.add(new CreateCodexRequest.ImageAttachment(attachment.name(), mimeType, blob.size(), null, blob.sha256()));
+            } catch (IllegalArgumentException ex) {
+                log.warn("Anexo {} ignorado: {}", attachment.name(), ex.getMessage());
+            }
+        }
+        return stored;
+    }
+
+    private String attachmentUrl(String sha256) {
+        String base = attachmentsBaseUrl.endsWith("/")
+            ? attachmentsBaseUrl.substring(0, attachmentsBaseUrl.length() - 1)
+            : attachmentsBaseUrl;
+        return base + "/api/codex/attachments/" + sha256;
+    }
+
     private boolean hasActiveRequest(CodexIntegrationProfile profile) {
         return codexRequestRepository.existsByProfileAndStatusInAndExternalIdIsNotNull(profile, ACTIVE_QUEUE_STATUSES);
     }
@@ -287,18 +355,38 @@ public class CodexRequestService {
     /**
      * Reconciles the durable backend queue with the orchestrator's in-memory job registry.
      * A full VPS restart erases that registry, so requests that still carry an external id
-     * must be finalized before the next durable pending request can be dispatched.
+     * must be finalized before the next durable pending request can be dispatched. One batch status
+     * probe covers every active request; full payloads are fetched only for jobs that changed.
      */
     public void recoverQueueAfterRestart() {
         Set<CodexIntegrationProfile> temporarilyUnavailableProfiles = new HashSet<>();
         List<CodexRequest> activeRequests =
             codexRequestRepository.findByStatusInAndExternalIdIsNotNullOrderByCreatedAtAsc(ACTIVE_QUEUE_STATUSES);
 
+        Optional<Map<String, SandboxOrchestratorClient.SandboxJobStatus>> statuses;
+        try {
+            statuses = activeRequests.isEmpty()
+                ? Optional.empty()
+                : sandboxOrchestratorClient.getJobStatuses(activeRequests.stream().map(CodexRequest::getExternalId).toList());
+        } catch (Exception ex) {
+            log.warn("Não foi possível consultar o status em lote dos jobs ativos no sandbox; mantendo a fila para nova tentativa", ex);
+            activeRequests.forEach(request -> temporarilyUnavailableProfiles.add(resolveProfile(request.getProfile())));
+            activeRequests = List.of();
+            statuses = Optional.empty();
+        }
+
         for (CodexRequest request : activeRequests) {
             CodexIntegrationProfile profile = resolveProfile(request.getProfile());
             try {
-                SandboxOrchestratorClient.SandboxOrchestratorJobResponse response =
-                    sandboxOrchestratorClient.getJob(request.getExternalId());
+                SandboxOrchestratorClient.SandboxOrchestratorJobResponse response = null;
+                SandboxOrchestratorClient.SandboxJobStatus status =
+                    statuses.map(known -> known.get(request.getExternalId())).orElse(null);
+                if (statuses.isEmpty() || status != null) {
+                    if (status != null && matchesSandboxStatus(request, status)) {
+                        continue;
+                    }
+                    response = sandboxOrchestratorClient.getJob(request.getExternalId());
+                }
                 if (response != null) {
                     synchronizeRequestWithSandbox(request, response);
                     continue;
@@ -337,6 +425,31 @@ public class CodexRequestService {
         }
     }
 
+    /**
+     * True when the compact status shows nothing new for {@code request}: same mapped status and the same number of
+     * interactions, so the full job payload does not need to be fetched.
+     */
+    private boolean matchesSandboxStatus(CodexRequest request, SandboxOrchestratorClient.SandboxJobStatus status) {
+        CodexRequestStatus sandboxStatus = CodexRequestStatus.fromSandboxStatus(status.status());
+        return sandboxStatus != null
+            && sandboxStatus == request.getStatus()
+            && status.interactionCount() != null
+            && Objects.equals(status.interactionCount(), request.getInteractionCount());
+    }
+
+    /**
+     * Resolves the response produced by the request's sandbox job. Only requests without a job id fall back to the
+     * environment heuristics; a keyed request whose job recorded nothing has no response, since the latest record for
+     * the same repo/run/PR may belong to another request.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResponseRecord> findLatestResponse(CodexRequest request) {
+        if (StringUtils.hasText(request.getExternalId())) {
+            return responseRepository.findBySandboxJobId(request.getExternalId().trim());
+        }
+        return findLatestResponseForEnvironment(request.getEnvironment());
+    }
+
     public Optional<ResponseRecord> findLatestResponseForEnvironment(String environment) {
         PromptMetadata metadata = extractMetadata(environment);
         if (metadata == null || metadata.repo() == null) {
@@ -1052,6 +1165,9 @@ public class CodexRequestService {
         if (request.getInteractionCount() == null) {
             request.setInteractionCount(codexInteractionRepository.countByCodexRequestId(id));
         }
+        if (request.getLogsArchivedAt() != null) {
+            return request;
+        }
         List<CodexDocumentAccessRepository.DocumentAccessCount> documentAccessCounts =
             Optional.ofNullable(codexDocumentAccessRepository.countDocumentAccessesByRequestId(id)).orElse(List.of());
         request.setDocumentAccesses(
@@ -1094,25 +1210,19 @@ public class CodexRequestService {
             return null;
         }
 
-        Optional<EnvironmentRecord> record = environmentRepository.findByNameIgnoreCase(environmentName.trim());
-        if (record.isEmpty()) {
-            return null;
-        }
-
-        EnvironmentRecord environment = record.get();
-        if (!StringUtils.hasText(environment.getDbHost())
-            || !StringUtils.hasText(environment.getDbName())
-            || !StringUtils.hasText(environment.getDbUser())) {
-            return null;
-        }
-
-        return new SandboxJobRequest.DatabaseConnection(
-            environment.getDbHost().trim(),
-            environment.getDbPort(),
-            environment.getDbName().trim(),
-            environment.getDbUser().trim(),
-            environment.getDbPassword()
-        );
+        return referenceDataCache.environmentDatabase(environmentName, () ->
+            environmentRepository.findByNameIgnoreCase(environmentName.trim())
+                .filter(environment -> StringUtils.hasText(environment.getDbHost())
+                    && StringUtils.hasText(environment.getDbName())
+                    && StringUtils.hasText(environment.getDbUser()))
+                .map(environment -> new SandboxJobRequest.DatabaseConnection(
+                    environment.getDbHost().trim(),
+                    environment.getDbPort(),
+                    environment.getDbName().trim(),
+                    environment.getDbUser().trim(),
+                    environment.getDbPassword()
+                ))
+        ).orElse(null);
     }
 
 
@@ -1434,7 +1544,8 @@ public class CodexRequestService {
                     attachment.name(),
                     attachment.mimeType(),
                     attachment.size(),
-                    attachment.dataUrl()
+                    attachment.sha256(),
+                    attachmentUrl(attachment.sha256())
                 ))
                 .toList(),
             chatgptCodexProfile ? Boolean.FALSE : null
@@ -1595,24 +1706,46 @@ public class CodexRequestService {
             return false;
         }
 
-        AtomicBoolean updated = new AtomicBoolean(false);
+        // The detail view waits at most DETAIL_REFRESH_MAX_WAIT; a slower orchestrator finishes the refresh on the
+        // bulkhead thread and the next detail read picks it up.
+        CompletableFuture<Boolean> refresh;
         try {
-            SandboxOrchestratorClient.SandboxOrchestratorJobResponse response =
-                sandboxOrchestratorClient.getJob(request.getExternalId());
-            sandboxRefreshTemplate.executeWithoutResult(status ->
-                codexRequestRepository.findById(request.getId()).ifPresent(managed -> {
-                    boolean changed = synchronizeRequestWithSandbox(managed, response);
-                    if (changed) {
-                        updated.set(true);
-                    }
+            refresh = sandboxOrchestratorClient.getJobAsync(request.getExternalId())
+                .thenApply(response -> {
+                    AtomicBoolean updated = new AtomicBoolean(false);
+                    sandboxRefreshTemplate.executeWithoutResult(status ->
+                        codexRequestRepository.findById(request.getId()).ifPresent(managed -> {
+                            if (synchronizeRequestWithSandbox(managed, response)) {
+                                updated.set(true);
+                            }
+                        })
+                    );
+                    return updated.get();
                 })
-            );
-        } catch (Exception ex) {
-            log.error("Falha ao atualizar CodexRequest {} a partir do sandbox", request.getId(), ex);
-        } finally {
+                .whenComplete((updated, ex) -> {
+                    if (ex != null) {
+                        log.error("Falha ao atualizar CodexRequest {} a partir do sandbox", request.getId(), ex);
+                    }
+                    SANDBOX_REFRESHES_IN_PROGRESS.remove(request.getId());
+                });
+        } catch (RuntimeException ex) {
             SANDBOX_REFRESHES_IN_PROGRESS.remove(request.getId());
+            log.error("Falha ao atualizar CodexRequest {} a partir do sandbox", request.getId(), ex);
+            return false;
+        }
+
+        try {
+            return Boolean.TRUE.equals(refresh.get(DETAIL_REFRESH_MAX_WAIT.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException ex) {
+            log.info("Sandbox não respondeu em {} ms para CodexRequest {}; atualização continua em segundo plano",
+                DETAIL_REFRESH_MAX_WAIT.toMillis(), request.getId());
+            return false;
+        } catch (ExecutionException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
         }
-        return updated.get();
     }
 
     private boolean synchronizeRequestWithSandbox(CodexRequest request, SandboxOrchestratorClient.SandboxOrchestratorJobResponse response) {
@@ -1885,9 +2018,7 @@ public class CodexRequestService {
             updated = true;
         }
 
-        String transcript = buildOutboundInteractionTranscript(response.interactions());
-        if (StringUtils.hasText(transcript) && !Objects.equals(request.getModelTranscript(), transcript)) {
-            request.setModelTranscript(transcript);
+        if (appendOutboundTranscriptChunks(request, response.interactions())) {
             updated = true;
         }
 
@@ -1910,24 +2041,38 @@ public class CodexRequestService {
         return Optional.empty();
     }
 
-    private String buildOutboundInteractionTranscript(List<SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction> interactions) {
+    private boolean appendOutboundTranscriptChunks(CodexRequest request,
+                                                   List<SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction> interactions) {
         if (interactions == null || interactions.isEmpty()) {
-            return null;
+            return false;
         }
 
-        List<String> chunks = interactions.stream()
-            .filter(Objects::nonNull)
-            .filter(interaction -> CodexInteractionDirection.fromSandboxValue(interaction.direction()) == CodexInteractionDirection.OUTBOUND)
-            .map(SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction::content)
-            .filter(StringUtils::hasText)
-            .map(String::trim)
-            .toList();
-
-        if (chunks.isEmpty()) {
-            return null;
+        int highWaterMark = Optional.ofNullable(request.getTranscriptInteractionSeq()).orElse(0);
+        List<Map.Entry<Integer, SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction>> fresh = new ArrayList<>();
+        for (int index = 0; index < interactions.size(); index++) {
+            SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction interaction = interactions.get(index);
+            if (interaction == null) {
+                continue;
+            }
+            int sequence = Optional.ofNullable(interaction.sequence()).orElse(index + 1);
+            if (sequence > highWaterMark) {
+                fresh.add(Map.entry(sequence, interaction));
+            }
+        }
+        if (fresh.isEmpty()) {
+            return false;
         }
 
-        return String.join("\n\n", chunks);
+        fresh.sort(Map.Entry.comparingByKey());
+        for (Map.Entry<Integer, SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction> entry : fresh) {
+            SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction interaction = entry.getValue();
+            if (CodexInteractionDirection.fromSandboxValue(interaction.direction()) == CodexInteractionDirection.OUTBOUND
+                && StringUtils.hasText(interaction.content())) {
+                request.appendTranscriptChunk(entry.getKey(), interaction.content().trim());
+            }
+        }
+        request.setTranscriptInteractionSeq(fresh.get(fresh.size() - 1).getKey());
+        return true;
     }
 
     private Instant parseInstant(String value) {
@@ -1947,19 +2092,99 @@ public class CodexRequestService {
             return;
         }
 
-        boolean hasContent = (response.summary() != null && !response.summary().isBlank())
-            || (response.patch() != null && !response.patch().isBlank())
-            || (response.error() != null && !response.error().isBlank());
-        if (!hasContent) {
+        String rootCause = Optional.ofNullable(response.error()).filter(value -> !value.isBlank()).orElse(null);
+        String fixPlan = Optional.ofNullable(response.summary()).filter(value -> !value.isBlank()).orElse(null);
+        String unifiedDiff = Optional.ofNullable(response.patch()).filter(value -> !value.isBlank()).orElse(null);
+        if (rootCause == null && fixPlan == null && unifiedDiff == null) {
+            return;
+        }
+
+        String contentHash = ResponseRecord.hashContent(rootCause, fixPlan, unifiedDiff);
+        String jobId = StringUtils.hasText(response.jobId()) ? response.jobId().trim() : null;
+        if (jobId == null) {
+            ResponseRecord record = newResponseRecord(metadata, null, contentHash);
+            applyResponseContent(record, rootCause, fixPlan, unifiedDiff);
+            responseRepository.save(record);
+            return;
+        }
+
+        try {
+            sandboxRefreshTemplate.executeWithoutResult(status ->
+                upsertResponse(metadata, jobId, contentHash, rootCause, fixPlan, unifiedDiff));
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent sync of the same job inserted the row first; apply this content on top of it.
+            sandboxRefreshTemplate.executeWithoutResult(status ->
+                upsertResponse(metadata, jobId, contentHash, rootCause, fixPlan, unifiedDiff));
+        }
+    }
+
+    private void upsertResponse(PromptMetadata metadata,
+                                String jobId,
+                                String contentHash,
+                                String rootCause,
+                                String fixPlan,
+                                String unifiedDiff) {
+        Optional<ResponseRecord> existing = responseRepository.findBySandboxJobId(jobId);
+        if (existing.isPresent() && contentHash.equals(existing.get().getContentHash())) {
             return;
         }
 
+        ResponseRecord record = existing.orElseGet(() -> newResponseRecord(metadata, jobId, contentHash));
+        if (existing.isPresent()) {
+            appendRevisionHistory(record);
+            record.setContentRevision(record.getContentRevision() + 1);
+            record.setContentHash(contentHash);
+            record.setUpdatedAt(Instant.now());
+        }
+        applyResponseContent(record, rootCause, fixPlan, unifiedDiff);
+        responseRepository.saveAndFlush(record);
+    }
+
+    private ResponseRecord newResponseRecord(PromptMetadata metadata, String jobId, String contentHash) {
         PromptRecord prompt = findPromptRecord(metadata).orElse(null);
         ResponseRecord record = new ResponseRecord(prompt, metadata.repo(), metadata.runId(), metadata.prNumber());
-        Optional.ofNullable(response.summary()).filter(value -> !value.isBlank()).ifPresent(record::setFixPlan);
-        Optional.ofNullable(response.patch()).filter(value -> !value.isBlank()).ifPresent(record::setUnifiedDiff);
-        Optional.ofNullable(response.error()).filter(value -> !value.isBlank()).ifPresent(record::setRootCause);
-        responseRepository.save(record);
+        record.setSandboxJobId(jobId);
+        record.setContentHash(contentHash);
+        return record;
+    }
+
+    private void applyResponseContent(ResponseRecord record, String rootCause, String fixPlan, String unifiedDiff) {
+        record.setRootCause(rootCause);
+        record.setFixPlan(fixPlan);
+        record.setUnifiedDiff(unifiedDiff);
+    }
+
+    /**
+     * Keeps the last {@code hub.codex.responses.revision-history} superseded contents of a response as a gzip'd JSON
+     * array on the row itself, newest first.
+     */
+    private void appendRevisionHistory(ResponseRecord record) {
+        if (responseRevisionHistory <= 0) {
+            record.setRevisionHistory(null);
+            return;
+        }
+        ArrayNode history = objectMapper.createArrayNode();
+        ObjectNode previous = history.addObject();
+        previous.put("revision", record.getContentRevision());
+        previous.put("contentHash", record.getContentHash());
+        previous.put("updatedAt", Optional.ofNullable(record.getUpdatedAt()).orElse(record.getCreatedAt()).toString());
+        previous.put("rootCause", record.getRootCause());
+        previous.put("fixPlan", record.getFixPlan());
+        previous.put("unifiedDiff", record.getUnifiedDiff());
+        if (StringUtils.hasText(record.getRevisionHistory())) {
+            try {
+                JsonNode stored = objectMapper.readTree(record.getRevisionHistory());
+                for (JsonNode entry : stored) {
+                    if (history.size() >= responseRevisionHistory) {
+                        break;
+                    }
+                    history.add(entry);
+                }
+            } catch (JsonProcessingException ex) {
+                log.warn("Histórico de revisões da resposta {} inválido; será reiniciado", record.getId(), ex);
+            }
+        }
+        record.setRevisionHistory(history.toString());
     }
 
     private Optional<PromptRecord> findPromptRecord(PromptMetadata metadata) {
@@ -2110,7 +2335,13 @@ public class CodexRequestService {
 
     private CodexRequest saveRequest(CodexRequest request) {
         updateProblemCostAggregation(request);
-        return codexRequestRepository.save(request);
+        CodexRequest saved = codexRequestRepository.save(request);
+        List<CodexTranscriptChunk> chunks = request.drainPendingTranscriptChunks();
+        if (!chunks.isEmpty()) {
+            chunks.forEach(chunk -> chunk.setCodexRequest(saved));
+            codexTranscriptChunkRepository.saveAll(chunks);
+        }
+        return saved;
     }
 
     private void updateProblemCostAggregation(CodexRequest request) {
@@ -6,12 +6,15 @@ import com.aihub.hub.domain.EnvironmentRecord;
 import com.aihub.hub.dto.CreateEnvironmentContainerRequest;
 import com.aihub.hub.dto.EnvironmentContainerSyncResponse;
 import com.aihub.hub.dto.EnvironmentContainerView;
+import com.aihub.hub.logs.discovery.ContainerChangedEvent;
 import com.aihub.hub.logs.discovery.ContainerDiscoveryException;
 import com.aihub.hub.logs.discovery.ContainerDiscoveryResult;
 import com.aihub.hub.logs.discovery.ContainerDiscoveryService;
+import com.aihub.hub.logs.discovery.ContainerRegistryReconciledEvent;
 import com.aihub.hub.logs.discovery.DiscoveredContainer;
 import com.aihub.hub.repository.EnvironmentContainerRepository;
 import com.aihub.hub.repository.EnvironmentRepository;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -76,6 +79,17 @@ public class EnvironmentContainerService {
         containerRepository.delete(record);
     }
 
+    @Transactional(readOnly = true)
+    public String resolveRuntimeIdentifier(Long environmentId, Long containerId) {
+        EnvironmentContainerRecord record = containerRepository.findByIdAndEnvironmentId(containerId, environmentId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Container não encontrado para este ambiente."));
+        if (record.getContainerIdentifier() == null || record.getContainerIdentifier().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Container cadastrado manualmente não possui logs disponíveis para leitura.");
+        }
+        return record.getContainerIdentifier();
+    }
+
     public EnvironmentContainerSyncResponse refreshContainers(Long environmentId) {
         EnvironmentRecord environment = getEnvironment(environmentId);
         ContainerDiscoveryResult result;
@@ -98,21 +112,7 @@ public class EnvironmentContainerService {
                 skipped++;
                 continue;
             }
-            for (Integer port : container.ports()) {
-                if (port == null) {
-                    continue;
-                }
-                EnvironmentContainerRecord record = new EnvironmentContainerRecord();
-                record.setEnvironment(environment);
-                record.setName(resolveContainerName(container.name(), environment.getName()));
-                record.setContainerIdentifier(container.runtimeId());
-                record.setIpAddress(normalizeIp(container.ipAddress()));
-                record.setPort(port);
-                record.setSource(EnvironmentContainerSource.DISCOVERED);
-                record.setLastSeenAt(lastSeen);
-                containerRepository.save(record);
-                saved++;
-            }
+            saved += saveDiscovered(environment, container, lastSeen);
         }
 
         List<EnvironmentContainerView> updatedList = containerRepository.findByEnvironmentIdOrderByNameAsc(environmentId)
@@ -130,6 +130,60 @@ public class EnvironmentContainerService {
         );
     }
 
+    /**
+     * Applies a single change reported by the live Docker registry, replacing only the rows of that container.
+     */
+    @EventListener
+    public void onContainerChanged(ContainerChangedEvent event) {
+        if (event.environmentName() == null || event.container() == null || event.container().runtimeId() == null) {
+            return;
+        }
+        environmentRepository.findByNameIgnoreCase(event.environmentName().trim()).ifPresent(environment -> {
+            containerRepository.deleteByEnvironmentIdAndSourceAndContainerIdentifier(
+                environment.getId(), EnvironmentContainerSource.DISCOVERED, event.container().runtimeId());
+            if (!event.removed()) {
+                saveDiscovered(environment, event.container(), clock.instant());
+            }
+        });
+    }
+
+    /**
+     * A full reconcile reports every labelled container, so discovered rows for any other container, such as those
+     * recorded before a restart, are removed.
+     */
+    @EventListener
+    public void onRegistryReconciled(ContainerRegistryReconciledEvent event) {
+        if (event.runtimeIds().isEmpty()) {
+            containerRepository.deleteBySource(EnvironmentContainerSource.DISCOVERED);
+        } else {
+            containerRepository.deleteBySourceAndContainerIdentifierNotIn(
+                EnvironmentContainerSource.DISCOVERED, event.runtimeIds());
+        }
+    }
+
+    private int saveDiscovered(EnvironmentRecord environment, DiscoveredContainer container, Instant lastSeen) {
+        if (container.ports() == null) {
+            return 0;
+        }
+        int saved = 0;
+        for (Integer port : container.ports()) {
+            if (port == null) {
+                continue;
+            }
+            EnvironmentContainerRecord record = new EnvironmentContainerRecord();
+            record.setEnvironment(environment);
+            record.setName(resolveContainerName(container.name(), environment.getName()));
+            record.setContainerIdentifier(container.runtimeId());
+            record.setIpAddress(normalizeIp(container.ipAddress()));
+            record.setPort(port);
+            record.setSource(EnvironmentContainerSource.DISCOVERED);
+            record.setLastSeenAt(lastSeen);
+            containerRepository.save(record);
+            saved++;
+        }
+        return saved;
+    }
+
     private EnvironmentRecord getEnvironment(Long environmentId) {
         return environmentRepository.findById(environmentId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ambiente não encontrado."));
@@ -16,9 +16,11 @@ import java.util.List;
 public class EnvironmentService {
 
     private final EnvironmentRepository environmentRepository;
+    private final ReferenceDataCache referenceDataCache;
 
-    public EnvironmentService(EnvironmentRepository environmentRepository) {
+    public EnvironmentService(EnvironmentRepository environmentRepository, ReferenceDataCache referenceDataCache) {
         this.environmentRepository = environmentRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Transactional(readOnly = true)
@@ -41,6 +43,7 @@ public class EnvironmentService {
         applyConnectionData(record, request.dbHost(), request.dbPort(), request.dbName(), request.dbUser(), request.dbPassword());
 
         EnvironmentRecord saved = environmentRepository.save(record);
+        referenceDataCache.invalidateEnvironments();
         return EnvironmentView.from(saved);
     }
 
@@ -59,6 +62,7 @@ public class EnvironmentService {
         applyConnectionData(record, request.dbHost(), request.dbPort(), request.dbName(), request.dbUser(), request.dbPassword());
 
         EnvironmentRecord saved = environmentRepository.save(record);
+        referenceDataCache.invalidateEnvironments();
         return EnvironmentView.from(saved);
     }
 
@@ -0,0 +1,84 @@
+package com.aihub.hub.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Small bounded read-through cache. Values loaded while an invalidation runs are not stored, so an eviction
+ * triggered by a webhook can never be undone by a lookup that started before it.
+ */
+final class ExpiringLruCache<K, V> {
+
+    private final Map<K, Entry<V>> entries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long generation;
+
+    ExpiringLruCache(int maxEntries, Duration ttl, Clock clock) {
+        int capacity = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    V get(K key, Supplier<V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt().isAfter(clock.instant())) {
+                hits.increment();
+                return entry.value();
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        V value = loader.get();
+        if (value != null && !ttl.isZero() && !ttl.isNegative()) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, clock.instant().plus(ttl)));
+                }
+            }
+        }
+        return value;
+    }
+
+    synchronized int invalidateIf(Predicate<K> predicate) {
+        generation++;
+        int before = entries.size();
+        entries.keySet().removeIf(predicate);
+        return before - entries.size();
+    }
+
+    synchronized int invalidateAll() {
+        return invalidateIf(key -> true);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    private record Entry<V>(V value, Instant expiresAt) {
+    }
+}
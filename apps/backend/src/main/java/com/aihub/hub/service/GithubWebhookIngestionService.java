@@ -0,0 +1,425 @@
+package com.aihub.hub.service;
+
+import com.aihub.hub.domain.CompressedTextConverter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists GitHub webhook deliveries off the request thread. Deliveries are queued in a bounded buffer and
+ * written by a single worker in JDBC batches, deduplicated by delivery id. Payloads are stored gzip-compressed
+ * next to the handful of fields that are queried later.
+ */
+@Component
+public class GithubWebhookIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(GithubWebhookIngestionService.class);
+
+    private static final String INSERT_EVENT_SQL =
+        "INSERT INTO events (repo, event_type, delivery_id, action, workflow_run_id, conclusion, payload_gzip, "
+            + "payload_size, received_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_RUN_SQL =
+        "UPDATE runs SET status = ?, conclusion = ?, workflow_name = ?, logs_url = ?, updated_at = ? "
+            + "WHERE repo = ? AND run_id = ? AND attempt = ?";
+    private static final String INSERT_RUN_SQL =
+        "INSERT INTO runs (repo, run_id, attempt, status, conclusion, workflow_name, logs_url, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final long POLL_TIMEOUT_MS = 500;
+
+    public enum Outcome {
+        ACCEPTED,
+        DUPLICATE,
+        QUEUE_FULL
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxStoredPayloadBytes;
+    private final BlockingQueue<WebhookDelivery> queue;
+    private final Map<String, Boolean> recentDeliveries;
+    private final Counter acceptedCounter;
+    private final Counter duplicateCounter;
+    private final Counter rejectedCounter;
+    private final Counter persistedCounter;
+    private final Counter failedCounter;
+    private volatile boolean running;
+    private Thread worker;
+
+    @Autowired
+    public GithubWebhookIngestionService(JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager,
+                                         ObjectMapper objectMapper,
+                                         ApplicationEventPublisher eventPublisher,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${hub.github.webhook.queue-capacity:1000}") int queueCapacity,
+                                         @Value("${hub.github.webhook.batch-size:100}") int batchSize,
+                                         @Value("${hub.github.webhook.dedupe-cache-size:10000}") int dedupeCacheSize,
+                                         @Value("${hub.github.webhook.max-stored-payload-bytes:1048576}") int maxStoredPayloadBytes) {
+        this(jdbcTemplate, transactionManager, objectMapper, eventPublisher, meterRegistry, queueCapacity, batchSize, dedupeCacheSize,
+            maxStoredPayloadBytes, Clock.systemUTC());
+    }
+
+    GithubWebhookIngestionService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  int queueCapacity,
+                                  int batchSize,
+                                  int dedupeCacheSize,
+                                  int maxStoredPayloadBytes,
+                                  Clock clock) {
+        this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate, "jdbcTemplate is required");
+        this.transactionTemplate = new TransactionTemplate(
+            Objects.requireNonNull(transactionManager, "transactionManager is required"));
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
+        this.eventPublisher = Objects.requireNonNull(eventPublisher, "eventPublisher is required");
+        this.clock = clock;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxStoredPayloadBytes = maxStoredPayloadBytes;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        int cacheSize = Math.max(1, dedupeCacheSize);
+        this.recentDeliveries = Collections.synchronizedMap(new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        });
+
+        Gauge.builder("github_webhook_queue_depth", queue, BlockingQueue::size)
+            .description("Entregas de webhook aguardando persistência")
+            .register(meterRegistry);
+        Gauge.builder("github_webhook_queue_lag_seconds", this, GithubWebhookIngestionService::queueLagSeconds)
+            .description("Idade da entrega mais antiga na fila de webhooks")
+            .register(meterRegistry);
+        this.acceptedCounter = meterRegistry.counter("github_webhook_deliveries_total", "outcome", "accepted");
+        this.duplicateCounter = meterRegistry.counter("github_webhook_deliveries_total", "outcome", "duplicate");
+        this.rejectedCounter = meterRegistry.counter("github_webhook_deliveries_total", "outcome", "queue_full");
+        this.persistedCounter = meterRegistry.counter("github_webhook_deliveries_total", "outcome", "persisted");
+        this.failedCounter = meterRegistry.counter("github_webhook_deliveries_total", "outcome", "failed");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::runWorker, "github-webhook-ingestion");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.join(Duration.ofSeconds(10).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Outcome enqueue(String eventType, String deliveryId, String payload) {
+        if (recentDeliveries.putIfAbsent(deliveryId, Boolean.TRUE) != null) {
+            duplicateCounter.increment();
+            return Outcome.DUPLICATE;
+        }
+        if (!queue.offer(new WebhookDelivery(eventType, deliveryId, payload, clock.instant()))) {
+            recentDeliveries.remove(deliveryId);
+            rejectedCounter.increment();
+            return Outcome.QUEUE_FULL;
+        }
+        acceptedCounter.increment();
+        return Outcome.ACCEPTED;
+    }
+
+    int drainQueue() {
+        List<WebhookDelivery> batch = new ArrayList<>(batchSize);
+        int processed = 0;
+        while (queue.drainTo(batch, batchSize) > 0) {
+            processed += batch.size();
+            persist(batch);
+            batch.clear();
+        }
+        return processed;
+    }
+
+    private void runWorker() {
+        List<WebhookDelivery> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                WebhookDelivery first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                persist(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Falha inesperada ao persistir lote de webhooks do GitHub", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persist(List<WebhookDelivery> batch) {
+        Map<String, ParsedDelivery> pending = new LinkedHashMap<>();
+        for (WebhookDelivery delivery : batch) {
+            ParsedDelivery parsed = parse(delivery);
+            if (parsed != null) {
+                pending.putIfAbsent(delivery.deliveryId(), parsed);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        pending.keySet().removeAll(findStoredDeliveryIds(pending.keySet()));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<ParsedDelivery> deliveries = new ArrayList<>(pending.values());
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(deliveries));
+            persistedCounter.increment(deliveries.size());
+        } catch (DataAccessException batchFailure) {
+            log.warn("Falha ao gravar lote de {} webhooks; gravando individualmente", deliveries.size(), batchFailure);
+            for (ParsedDelivery delivery : deliveries) {
+                persistSingle(delivery);
+            }
+        }
+    }
+
+    private void persistSingle(ParsedDelivery delivery) {
+        try {
+            if (!findStoredDeliveryIds(Set.of(delivery.deliveryId())).isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> write(List.of(delivery)));
+            persistedCounter.increment();
+        } catch (DataAccessException e) {
+            recentDeliveries.remove(delivery.deliveryId());
+            failedCounter.increment();
+            log.error("Não foi possível gravar o webhook {} ({})", delivery.deliveryId(), delivery.eventType(), e);
+        }
+    }
+
+    private ParsedDelivery parse(WebhookDelivery delivery) {
+        try {
+            JsonNode json = objectMapper.readTree(delivery.payload());
+            String repo = json.path("repository").path("full_name").asText();
+            publishRepositoryChanges(delivery, json);
+            Long workflowRunId = null;
+            String conclusion = null;
+            RunUpdate run = null;
+            if ("workflow_run".equals(delivery.eventType())) {
+                JsonNode workflowRun = json.path("workflow_run");
+                workflowRunId = workflowRun.path("id").asLong();
+                conclusion = workflowRun.path("conclusion").asText(null);
+                run = new RunUpdate(
+                    repo,
+                    workflowRunId,
+                    workflowRun.path("run_attempt").asInt(1),
+                    workflowRun.path("status").asText(null),
+                    conclusion,
+                    workflowRun.path("name").asText(null),
+                    workflowRun.path("logs_url").asText(null)
+                );
+            } else if ("workflow_job".equals(delivery.eventType())) {
+                JsonNode workflowJob = json.path("workflow_job");
+                workflowRunId = workflowJob.hasNonNull("run_id") ? workflowJob.path("run_id").asLong() : null;
+                conclusion = workflowJob.path("conclusion").asText(null);
+            }
+            return new ParsedDelivery(delivery.eventType(), delivery.deliveryId(), repo,
+                json.path("action").asText(null), workflowRunId, conclusion, storedPayload(delivery.payload()),
+                delivery.payload().getBytes(StandardCharsets.UTF_8).length, delivery.receivedAt(), run);
+        } catch (Exception e) {
+            recentDeliveries.remove(delivery.deliveryId());
+            failedCounter.increment();
+            log.warn("Payload inválido no webhook {} ({}): {}", delivery.deliveryId(), delivery.eventType(), e.getMessage());
+            return null;
+        }
+    }
+
+    private List<String> findStoredDeliveryIds(Set<String> deliveryIds) {
+        String placeholders = String.join(", ", Collections.nCopies(deliveryIds.size(), "?"));
+        return jdbcTemplate.queryForList(
+            "SELECT delivery_id FROM events WHERE delivery_id IN (" + placeholders + ")",
+            String.class,
+            deliveryIds.toArray());
+    }
+
+    private Set<RunKey> findStoredRuns(List<RunUpdate> runs) {
+        String conditions = String.join(" OR ",
+            Collections.nCopies(runs.size(), "(repo = ? AND run_id = ? AND attempt = ?)"));
+        List<Object> args = new ArrayList<>();
+        for (RunUpdate run : runs) {
+            args.add(run.repo());
+            args.add(run.runId());
+            args.add(run.attempt());
+        }
+        return new HashSet<>(jdbcTemplate.query(
+            "SELECT repo, run_id, attempt FROM runs WHERE " + conditions,
+            (rs, rowNum) -> new RunKey(rs.getString("repo"), rs.getLong("run_id"), rs.getInt("attempt")),
+            args.toArray()));
+    }
+
+    private void write(List<ParsedDelivery> deliveries) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, deliveries, deliveries.size(), (ps, delivery) -> {
+            ps.setString(1, delivery.repo());
+            ps.setString(2, delivery.eventType());
+            ps.setString(3, delivery.deliveryId());
+            ps.setString(4, delivery.action());
+            ps.setObject(5, delivery.workflowRunId(), Types.BIGINT);
+            ps.setString(6, delivery.conclusion());
+            ps.setBytes(7, delivery.compressedPayload());
+            ps.setInt(8, delivery.payloadSize());
+            ps.setTimestamp(9, Timestamp.from(delivery.receivedAt()));
+        });
+
+        Map<RunKey, RunUpdate> latestRuns = new LinkedHashMap<>();
+        for (ParsedDelivery delivery : deliveries) {
+            RunUpdate run = delivery.run();
+            if (run != null) {
+                latestRuns.put(new RunKey(run.repo(), run.runId(), run.attempt()), run);
+            }
+        }
+        if (latestRuns.isEmpty()) {
+            return;
+        }
+
+        List<RunUpdate> runs = new ArrayList<>(latestRuns.values());
+        Timestamp now = Timestamp.from(clock.instant());
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_RUN_SQL, runs, runs.size(), (ps, run) -> {
+            ps.setString(1, run.status());
+            ps.setString(2, run.conclusion());
+            ps.setString(3, run.workflowName());
+            ps.setString(4, run.logsUrl());
+            ps.setTimestamp(5, now);
+            ps.setString(6, run.repo());
+            ps.setLong(7, run.runId());
+            ps.setInt(8, run.attempt());
+        })[0];
+
+        List<RunUpdate> missing = new ArrayList<>();
+        List<RunUpdate> unknown = new ArrayList<>();
+        for (int i = 0; i < runs.size(); i++) {
+            int count = updated != null && i < updated.length ? updated[i] : Statement.SUCCESS_NO_INFO;
+            if (count == 0) {
+                missing.add(runs.get(i));
+            } else if (count < 0) {
+                // Drivers may answer SUCCESS_NO_INFO for batched statements; only the table can tell whether the run exists.
+                unknown.add(runs.get(i));
+            }
+        }
+        if (!unknown.isEmpty()) {
+            Set<RunKey> existing = findStoredRuns(unknown);
+            for (RunUpdate run : unknown) {
+                if (!existing.contains(new RunKey(run.repo(), run.runId(), run.attempt()))) {
+                    missing.add(run);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_RUN_SQL, missing, missing.size(), (ps, run) -> {
+            ps.setString(1, run.repo());
+            ps.setLong(2, run.runId());
+            ps.setInt(3, run.attempt());
+            ps.setString(4, run.status());
+            ps.setString(5, run.conclusion());
+            ps.setString(6, run.workflowName());
+            ps.setString(7, run.logsUrl());
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+    }
+
+    private void publishRepositoryChanges(WebhookDelivery delivery, JsonNode json) {
+        for (RepositoryChangedEvent change : RepositoryChangedEvent.fromWebhook(delivery.eventType(), json)) {
+            try {
+                eventPublisher.publishEvent(change);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao propagar alteração do repositório {} (webhook {}): {}",
+                    change.repository(), delivery.deliveryId(), e.getMessage());
+            }
+        }
+    }
+
+    private byte[] storedPayload(String payload) {
+        byte[] compressed = CompressedTextConverter.compress(payload);
+        if (maxStoredPayloadBytes > 0 && compressed.length > maxStoredPayloadBytes) {
+            log.info("Payload de webhook com {} bytes compactados excede o limite de {} bytes; apenas os metadados serão gravados",
+                compressed.length, maxStoredPayloadBytes);
+            return null;
+        }
+        return compressed;
+    }
+
+    private double queueLagSeconds() {
+        WebhookDelivery oldest = queue.peek();
+        if (oldest == null) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(oldest.receivedAt(), clock.instant()).toMillis() / 1000.0);
+    }
+
+    private record WebhookDelivery(String eventType, String deliveryId, String payload, Instant receivedAt) {
+    }
+
+    private record ParsedDelivery(String eventType, String deliveryId, String repo, String action,
+                                  Long workflowRunId, String conclusion, byte[] compressedPayload, int payloadSize,
+                                  Instant receivedAt, RunUpdate run) {
+    }
+
+    private record RunUpdate(String repo, long runId, int attempt, String status, String conclusion,
+                             String workflowName, String logsUrl) {
+    }
+
+    private record RunKey(String repo, long runId, int attempt) {
+    }
+}
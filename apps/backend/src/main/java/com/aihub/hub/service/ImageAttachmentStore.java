@@ -0,0 +1,201 @@
+package com.aihub.hub.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Filesystem store for Codex request attachments, addressed by the SHA-256 of their content. Identical uploads share
+ * one file, so requests and sandbox jobs only need to carry the digest. Blobs no request refers to are removed by
+ * {@link ImageAttachmentSweepJob}; writing or retaining a blob refreshes its timestamp so a sweep leaves it alone.
+ */
+@Component
+public class ImageAttachmentStore {
+
+    private static final Pattern DIGEST = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern DATA_URL_PREFIX = Pattern.compile("^data:([^;,]+)?;base64,", Pattern.CASE_INSENSITIVE);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final long maxBytes;
+
+    public ImageAttachmentStore(@Value("${hub.codex.attachments.dir:${java.io.tmpdir}/aihub-attachments}") String root,
+                                @Value("${hub.codex.attachments.max-bytes:20971520}") long maxBytes) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+    }
+
+    public record StoredAttachment(String sha256, long size) {
+    }
+
+    public record StoredDataUrl(String sha256, long size, String mimeType) {
+    }
+
+    /**
+     * Copies {@code content} to a temporary file while hashing it and then moves it to its digest path; when the
+     * digest is already stored the copy is discarded and the existing blob is touched.
+     */
+    public StoredAttachment store(InputStream content) {
+        Path temp = null;
+        try {
+            Path tempDir = Files.createDirectories(root.resolve("tmp"));
+            temp = Files.createTempFile(tempDir, "upload-", ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                size = copyBounded(in, out);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(sha256);
+            if (Files.exists(target)) {
+                touch(target);
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredAttachment(sha256, size);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", ex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Falha ao gravar anexo", ex);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Stores the payload of a {@code data:<mime>;base64,...} URL, decoding it while it is written.
+     */
+    public StoredDataUrl storeDataUrl(String dataUrl) {
+        if (dataUrl == null) {
+            throw new IllegalArgumentException("Anexo sem conteúdo");
+        }
+        Matcher matcher = DATA_URL_PREFIX.matcher(dataUrl);
+        if (!matcher.lookingAt()) {
+            throw new IllegalArgumentException("Anexo com dataUrl inválido");
+        }
+        String mimeType = Optional.ofNullable(matcher.group(1)).map(String::trim).filter(value -> !value.isEmpty())
+            .orElse("application/octet-stream");
+        byte[] encoded = dataUrl.getBytes(StandardCharsets.ISO_8859_1);
+        InputStream decoded = Base64.getMimeDecoder()
+            .wrap(new ByteArrayInputStream(encoded, matcher.end(), encoded.length - matcher.end()));
+        StoredAttachment stored = store(decoded);
+        return new StoredDataUrl(stored.sha256(), stored.size(), mimeType);
+    }
+
+    public boolean contains(String sha256) {
+        return find(sha256).isPresent();
+    }
+
+    /**
+     * Like {@link #contains}, but also touches the blob so a sweep that has not seen the new reference keeps it.
+     */
+    public boolean retain(String sha256) {
+        Optional<Path> path = find(sha256);
+        path.ifPresent(ImageAttachmentStore::touch);
+        return path.isPresent();
+    }
+
+    /**
+     * Deletes blobs missing from {@code referenced} and last touched before {@code cutoff}, along with temporary files
+     * left by interrupted uploads. Returns the number of files deleted.
+     */
+    public int sweep(Set<String> referenced, Instant cutoff) {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        Path tempDir = root.resolve("tmp");
+        int deleted = 0;
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                if (!Files.isRegularFile(path) || !Files.getLastModifiedTime(path).toInstant().isBefore(cutoff)) {
+                    continue;
+                }
+                String name = path.getFileName().toString();
+                boolean orphanBlob = DIGEST.matcher(name).matches() && !referenced.contains(name);
+                if ((orphanBlob || tempDir.equals(path.getParent())) && Files.deleteIfExists(path)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Falha ao varrer anexos", ex);
+        }
+        return deleted;
+    }
+
+    public Optional<Path> find(String sha256) {
+        Path path = pathFor(normalizeDigest(sha256));
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    public static String normalizeDigest(String sha256) {
+        String normalized = sha256 == null ? "" : sha256.trim().toLowerCase(Locale.ROOT);
+        if (!DIGEST.matcher(normalized).matches()) {
+            throw new IllegalArgumentException("Identificador de anexo inválido");
+        }
+        return normalized;
+    }
+
+    private Path pathFor(String sha256) {
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    private long copyBounded(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > maxBytes) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Anexo excede o limite de " + maxBytes + " bytes");
+            }
+            out.write(buffer, 0, read);
+        }
+        return total;
+    }
+
+    private static void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+        } catch (IOException ignored) {
+            // the blob is still there; at worst an overlapping sweep removes it and the upload must be repeated
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // noop
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.aihub.hub.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deletes attachment blobs that no codex request refers to. Uploads get a grace period first, so a blob uploaded
+ * for a request that is still being created, or fetched by a sandbox job that is still starting, is not lost.
+ */
+@Component
+public class ImageAttachmentSweepJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageAttachmentSweepJob.class);
+    private static final Pattern SHA256_REFERENCE = Pattern.compile("\"sha256\"\\s*:\\s*\"([0-9a-fA-F]{64})\"");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImageAttachmentStore attachmentStore;
+    private final Duration grace;
+    private final Clock clock;
+
+    @Autowired
+    public ImageAttachmentSweepJob(JdbcTemplate jdbcTemplate,
+                                   ImageAttachmentStore attachmentStore,
+                                   @Value("${hub.codex.attachments.sweep.grace-hours:24}") long graceHours) {
+        this(jdbcTemplate, attachmentStore, Duration.ofHours(Math.max(1, graceHours)), Clock.systemUTC());
+    }
+
+    ImageAttachmentSweepJob(JdbcTemplate jdbcTemplate, ImageAttachmentStore attachmentStore, Duration grace, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.attachmentStore = attachmentStore;
+        this.grace = grace;
+        this.clock = clock;
+    }
+
+    @Scheduled(
+        initialDelayString = "${hub.codex.attachments.sweep.initial-delay-ms:600000}",
+        fixedDelayString = "${hub.codex.attachments.sweep.fixed-delay-ms:3600000}"
+    )
+    public void run() {
+        try {
+            int deleted = sweep();
+            if (deleted > 0) {
+                log.info("Varredura de anexos: {} arquivos sem referência removidos", deleted);
+            }
+        } catch (Exception ex) {
+            log.error("Falha ao varrer anexos sem referência; uma nova tentativa será feita automaticamente", ex);
+        }
+    }
+
+    /**
+     * A request created after the references are read has just stored or retained its blobs, so they are newer than
+     * the cutoff.
+     */
+    int sweep() {
+        Set<String> referenced = new HashSet<>();
+        jdbcTemplate.query(
+            "SELECT image_attachments_json FROM codex_requests WHERE image_attachments_json LIKE '%sha256%'",
+            rs -> {
+                Matcher matcher = SHA256_REFERENCE.matcher(rs.getString(1));
+                while (matcher.find()) {
+                    referenced.add(matcher.group(1).toLowerCase(Locale.ROOT));
+                }
+            });
+        return attachmentStore.sweep(referenced, clock.instant().minus(grace));
+    }
+}
@@ -117,13 +117,7 @@ public final class OpenAiExchangeLogger {
     }
 
     private static String sanitizeText(String value) {
-        if (value == null) {
-            return null;
-        }
-        String sanitized = value;
-        sanitized = sanitized.replaceAll("(?i)(access_token|refresh_token|id_token|subject_token|client_secret|code_verifier|authorization_code|device_auth_id|user_code|usercode)\\\"?\\s*[:=]\\s*\\\"?[^\\\",&}\\s]+", "$1=" + REDACTED);
-        sanitized = sanitized.replaceAll("(?i)(Bearer)\\s+[A-Za-z0-9._~+/-]+=*", "$1 " + REDACTED);
-        return sanitized;
+        return SecretRedactor.standard().redact(value);
     }
 
     private static boolean isSensitiveKey(String key) {
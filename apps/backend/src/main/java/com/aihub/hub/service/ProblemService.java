@@ -1,6 +1,5 @@
 package com.aihub.hub.service;
 
-import com.aihub.hub.domain.CodexRequest;
 import com.aihub.hub.domain.EnvironmentRecord;
 import com.aihub.hub.domain.ProblemRecord;
 import com.aihub.hub.domain.ProblemUpdateRecord;
@@ -16,7 +15,9 @@ import com.aihub.hub.repository.CodexRequestRepository;
 import com.aihub.hub.repository.EnvironmentRepository;
 import com.aihub.hub.repository.ProblemRepository;
 import com.aihub.hub.repository.ProjectRepository;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,7 +26,9 @@ import org.springframework.web.server.ResponseStatusException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ProblemService {
@@ -47,17 +50,34 @@ public class ProblemService {
 
     @Transactional(readOnly = true)
     public List<ProblemView> list() {
-        Sort sort = Sort.by(Sort.Order.desc("includedAt"), Sort.Order.desc("createdAt"));
-        return problemRepository.findAll(sort).stream()
+        return problemRepository.findAllWithDetails().stream()
             .map(this::toView)
             .toList();
     }
 
+    /**
+     * Pages over ids first and then fetch-joins the details of that page only, so the page costs the same three
+     * queries (ids, count, details) whatever its size.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProblemView> listPage(int page, int size) {
+        Page<Long> ids = problemRepository.findIdsOrderByIncludedAtDesc(PageRequest.of(page, size));
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        Map<Long, ProblemRecord> records = new HashMap<>();
+        for (ProblemRecord record : problemRepository.findAllWithDetailsByIdIn(ids.getContent())) {
+            records.put(record.getId(), record);
+        }
+        return ids.map(id -> toView(records.get(id)));
+    }
+
     @Transactional(readOnly = true)
     public ProblemView get(Long id) {
-        ProblemRecord record = problemRepository.findById(id)
+        return problemRepository.findAllWithDetailsByIdIn(List.of(id)).stream()
+            .findFirst()
+            .map(this::toView)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Problema não encontrado"));
-        return toView(record);
     }
 
     @Transactional(readOnly = true)
@@ -65,28 +85,19 @@ public class ProblemService {
         if (environmentId == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe o ambiente para filtrar os problemas ativos");
         }
-        EnvironmentRecord environment = environmentRepository.findById(environmentId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ambiente não encontrado"));
-        return problemRepository
-            .findByEnvironmentIdAndFinalizedAtIsNullOrderByIncludedAtDescCreatedAtDesc(environment.getId())
-            .stream()
-            .map(record -> new ProblemSummaryView(
-                record.getId(),
-                record.getTitle(),
-                record.getIncludedAt(),
-                record.getTotalCost()
-            ))
-            .toList();
+        if (!environmentRepository.existsById(environmentId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Ambiente não encontrado");
+        }
+        return problemRepository.findActiveSummariesByEnvironmentId(environmentId);
     }
 
 
     @Transactional(readOnly = true)
     public List<ProblemRequestSummaryView> listRequestHistory(Long problemId) {
-        ProblemRecord record = problemRepository.findById(problemId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Problema não encontrado"));
-        return codexRequestRepository.findByProblemIdOrderByCreatedAtDesc(record.getId()).stream()
-            .map(this::toRequestSummaryView)
-            .toList();
+        if (!problemRepository.existsById(problemId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Problema não encontrado");
+        }
+        return codexRequestRepository.findRequestSummariesByProblemId(problemId);
     }
 
     @Transactional
@@ -201,21 +212,6 @@ public class ProblemService {
     }
 
 
-    private ProblemRequestSummaryView toRequestSummaryView(CodexRequest request) {
-        return new ProblemRequestSummaryView(
-            request.getId(),
-            request.getEnvironment(),
-            request.getModel(),
-            request.getStatus() != null ? request.getStatus().name() : null,
-            request.getPrompt(),
-            request.getResponseText(),
-            request.getUserComment(),
-            request.getProblemDescription(),
-            request.getResolutionDifficulty(),
-            request.getCreatedAt()
-        );
-    }
-
     private ProblemUpdateView toUpdateView(ProblemUpdateRecord record) {
         return new ProblemUpdateView(
             record.getId(),
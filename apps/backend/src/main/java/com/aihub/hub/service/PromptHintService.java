@@ -23,6 +23,7 @@ public class PromptHintService {
 
     private final PromptHintRepository promptHintRepository;
     private final EnvironmentRepository environmentRepository;
+    private final ReferenceDataCache referenceDataCache;
     private final Comparator<PromptHintRecord> scopeComparator = (first, second) -> {
         boolean firstIsGlobal = first.getEnvironment() == null;
         boolean secondIsGlobal = second.getEnvironment() == null;
@@ -45,9 +46,11 @@ public class PromptHintService {
     };
 
     public PromptHintService(PromptHintRepository promptHintRepository,
-                             EnvironmentRepository environmentRepository) {
+                             EnvironmentRepository environmentRepository,
+                             ReferenceDataCache referenceDataCache) {
         this.promptHintRepository = promptHintRepository;
         this.environmentRepository = environmentRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Transactional(readOnly = true)
@@ -59,6 +62,10 @@ public class PromptHintService {
 
     @Transactional(readOnly = true)
     public List<PromptHintView> listForEnvironment(String environmentName) {
+        return referenceDataCache.promptHints(environmentName, () -> loadForEnvironment(environmentName));
+    }
+
+    private List<PromptHintView> loadForEnvironment(String environmentName) {
         List<PromptHintRecord> result = new ArrayList<>(promptHintRepository.findAllByEnvironmentIsNullOrderByLabelAsc());
         if (StringUtils.hasText(environmentName)) {
             environmentRepository.findByNameIgnoreCase(environmentName.trim())
@@ -76,6 +83,7 @@ public class PromptHintService {
         record.setType(resolveType(request.type()));
         record.setEnvironment(resolveEnvironment(request.environmentId()));
         PromptHintRecord saved = promptHintRepository.save(record);
+        referenceDataCache.invalidatePromptHints();
         return toView(saved);
     }
 
@@ -88,6 +96,7 @@ public class PromptHintService {
         record.setType(resolveType(request.type()));
         record.setEnvironment(resolveEnvironment(request.environmentId()));
         PromptHintRecord saved = promptHintRepository.save(record);
+        referenceDataCache.invalidatePromptHints();
         return toView(saved);
     }
 
@@ -97,6 +106,7 @@ public class PromptHintService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item opcional não encontrado");
         }
         promptHintRepository.deleteById(id);
+        referenceDataCache.invalidatePromptHints();
     }
 
     private EnvironmentRecord resolveEnvironment(Long environmentId) {
@@ -6,6 +6,7 @@ import com.aihub.hub.dto.PullRequestExplanationView;
 import com.aihub.hub.repository.PullRequestExplanationRepository;
 import com.aihub.hub.service.UnifiedDiffApplier.AppliedDiff;
 import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientResponseException;
 
@@ -13,8 +14,13 @@ import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 @Service
 public class PullRequestService {
@@ -25,15 +31,18 @@ public class PullRequestService {
     private final UnifiedDiffApplier diffApplier;
     private final AuditService auditService;
     private final PullRequestExplanationRepository explanationRepository;
+    private final ExecutorService contentExecutor;
 
     public PullRequestService(GithubApiClient githubApiClient,
                              UnifiedDiffApplier diffApplier,
                              AuditService auditService,
-                             PullRequestExplanationRepository explanationRepository) {
+                             PullRequestExplanationRepository explanationRepository,
+                             @Qualifier("githubContentExecutor") ExecutorService contentExecutor) {
         this.githubApiClient = githubApiClient;
         this.diffApplier = diffApplier;
         this.auditService = auditService;
         this.explanationRepository = explanationRepository;
+        this.contentExecutor = contentExecutor;
     }
 
     public JsonNode createFixPr(String actor,
@@ -46,32 +55,15 @@ public class PullRequestService {
         JsonNode branchData = githubApiClient.getBranch(owner, repo, baseBranch);
         String baseSha = branchData.get("object").get("sha").asText();
         String newBranch = "ai-hub/fix-" + Instant.now().getEpochSecond();
-        githubApiClient.createBranch(owner, repo, newBranch, baseSha);
 
         Map<String, AppliedDiff> parsed = diffApplier.parse(diff);
-        for (AppliedDiff fileDiff : parsed.values()) {
-            String path = fileDiff.getNewPath();
-            if (path == null) {
-                continue;
-            }
-            boolean newFile = fileDiff.getOldPath() == null || fileDiff.getOldPath().contains("/dev/null");
-            String existing = null;
-            String sha = null;
-            if (!newFile) {
-                try {
-                    JsonNode contentNode = githubApiClient.getContent(owner, repo, path, baseBranch);
-                    String encoded = contentNode.get("content").asText().replaceAll("\n", "");
-                    existing = new String(Base64.getDecoder().decode(encoded), StandardCharsets.UTF_8);
-                    sha = contentNode.get("sha").asText();
-                } catch (RestClientResponseException ex) {
-                    existing = "";
-                }
-            } else {
-                existing = "";
-            }
-            String updated = diffApplier.apply(existing, fileDiff);
-            githubApiClient.uploadContent(owner, repo, path, title + " (AI Hub)", updated, newBranch, sha);
-        }
+        Map<String, String> files = applyDiffs(owner, repo, baseBranch, parsed);
+
+        JsonNode baseCommit = githubApiClient.getCommit(owner, repo, baseSha);
+        JsonNode tree = githubApiClient.createTree(owner, repo, baseCommit.get("tree"), files);
+        JsonNode commit = githubApiClient.createCommit(owner, repo, title + " (AI Hub)", tree.get("sha").asText(), baseSha);
+        githubApiClient.createBranch(owner, repo, newBranch, commit.get("sha").asText());
+
         String prBody = buildPrBody(explanation);
         JsonNode pr = githubApiClient.createPullRequest(owner, repo, title, newBranch, baseBranch, prBody);
         auditService.record(actor, "create_fix_pr", owner + "/" + repo, Map.of("branch", newBranch, "title", title));
@@ -82,6 +74,64 @@ public class PullRequestService {
         return pr;
     }
 
+    /**
+     * Returns the new content of every file the diff touches, keyed by path; deleted files map to {@code null} so the
+     * tree drops them.
+     */
+    private Map<String, String> applyDiffs(String owner,
+                                           String repo,
+                                           String baseBranch,
+                                           Map<String, AppliedDiff> parsed) {
+        List<AppliedDiff> targets = parsed.values().stream()
+            .filter(fileDiff -> fileDiff.getNewPath() != null)
+            .filter(fileDiff -> fileDiff.isDeletion() || !isDevNull(fileDiff.getNewPath()))
+            .sorted(Comparator.comparing(PullRequestService::treePath))
+            .toList();
+        Map<String, String> files = new LinkedHashMap<>();
+        List<CompletableFuture<String>> updates = targets.stream()
+            .map(fileDiff -> fileDiff.isDeletion()
+                ? CompletableFuture.<String>completedFuture(null)
+                : CompletableFuture.supplyAsync(
+                    () -> diffApplier.apply(fetchExisting(owner, repo, baseBranch, fileDiff), fileDiff), contentExecutor))
+            .toList();
+        for (int i = 0; i < targets.size(); i++) {
+            files.put(treePath(targets.get(i)), join(updates.get(i)));
+        }
+        return files;
+    }
+
+    private static String treePath(AppliedDiff fileDiff) {
+        return fileDiff.isDeletion() ? fileDiff.getOldPath() : fileDiff.getNewPath();
+    }
+
+    private String fetchExisting(String owner, String repo, String baseBranch, AppliedDiff fileDiff) {
+        if (fileDiff.getOldPath() == null || isDevNull(fileDiff.getOldPath())) {
+            return "";
+        }
+        try {
+            JsonNode contentNode = githubApiClient.getContent(owner, repo, fileDiff.getNewPath(), baseBranch);
+            String encoded = contentNode.get("content").asText().replace("\n", "");
+            return new String(Base64.getDecoder().decode(encoded), StandardCharsets.UTF_8);
+        } catch (RestClientResponseException ex) {
+            return "";
+        }
+    }
+
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw ex;
+        }
+    }
+
+    private static boolean isDevNull(String path) {
+        return path.contains("/dev/null");
+    }
+
     public JsonNode createDraftPrFromBranch(String actor,
                                             String owner,
                                             String repo,
@@ -0,0 +1,122 @@
+package com.aihub.hub.service;
+
+import com.aihub.hub.domain.CodexModelPricing;
+import com.aihub.hub.domain.SourceRepositoryConfig;
+import com.aihub.hub.dto.PromptHintView;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache for the small tables read on every dispatch or callback (environments, prompt hints, model
+ * pricing and the source repository config). Write paths invalidate right away and again after their transaction
+ * commits, so a concurrent read that still sees the old row cannot leave it cached. Hits and misses are exported as
+ * {@code reference_cache_gets_total{cache,result}}.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final String SINGLETON_KEY = "config";
+
+    private final ExpiringLruCache<String, Optional<SandboxJobRequest.DatabaseConnection>> environmentDatabases;
+    private final ExpiringLruCache<String, List<PromptHintView>> promptHints;
+    private final ExpiringLruCache<String, Optional<CodexModelPricing>> pricing;
+    private final ExpiringLruCache<String, Optional<SourceRepositoryConfig>> sourceRepositoryConfig;
+
+    @Autowired
+    public ReferenceDataCache(MeterRegistry meterRegistry,
+                              @Value("${hub.reference-cache.ttl-seconds:300}") long ttlSeconds,
+                              @Value("${hub.reference-cache.max-entries:256}") int maxEntries) {
+        this(meterRegistry, Duration.ofSeconds(Math.max(0, ttlSeconds)), maxEntries, Clock.systemUTC());
+    }
+
+    ReferenceDataCache(MeterRegistry meterRegistry, Duration ttl, int maxEntries, Clock clock) {
+        this.environmentDatabases = register(meterRegistry, "environment_database", new ExpiringLruCache<>(maxEntries, ttl, clock));
+        this.promptHints = register(meterRegistry, "prompt_hints", new ExpiringLruCache<>(maxEntries, ttl, clock));
+        this.pricing = register(meterRegistry, "model_pricing", new ExpiringLruCache<>(maxEntries, ttl, clock));
+        this.sourceRepositoryConfig = register(meterRegistry, "source_repository_config", new ExpiringLruCache<>(1, ttl, clock));
+    }
+
+    Optional<SandboxJobRequest.DatabaseConnection> environmentDatabase(String environmentName,
+                                                                       Supplier<Optional<SandboxJobRequest.DatabaseConnection>> loader) {
+        return environmentDatabases.get(normalizeKey(environmentName), loader);
+    }
+
+    List<PromptHintView> promptHints(String environmentName, Supplier<List<PromptHintView>> loader) {
+        return promptHints.get(normalizeKey(environmentName), loader);
+    }
+
+    Optional<CodexModelPricing> pricing(String modelName, Supplier<Optional<CodexModelPricing>> loader) {
+        return pricing.get(normalizeKey(modelName), loader);
+    }
+
+    Optional<SourceRepositoryConfig> sourceRepositoryConfig(Supplier<Optional<SourceRepositoryConfig>> loader) {
+        return sourceRepositoryConfig.get(SINGLETON_KEY, loader);
+    }
+
+    /** Environment rows feed both the database connection and the environment scope of prompt hints. */
+    public void invalidateEnvironments() {
+        invalidate(environmentDatabases);
+        invalidate(promptHints);
+    }
+
+    public void invalidatePromptHints() {
+        invalidate(promptHints);
+    }
+
+    public void invalidatePricing() {
+        invalidate(pricing);
+    }
+
+    public void invalidateSourceRepositoryConfig() {
+        invalidate(sourceRepositoryConfig);
+    }
+
+    private static void invalidate(ExpiringLruCache<?, ?> cache) {
+        cache.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll();
+                }
+            });
+        }
+    }
+
+    private static String normalizeKey(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static <K, V> ExpiringLruCache<K, V> register(MeterRegistry meterRegistry,
+                                                          String name,
+                                                          ExpiringLruCache<K, V> cache) {
+        FunctionCounter.builder("reference_cache_gets_total", cache, ExpiringLruCache::hitCount)
+            .description("Consultas ao cache de dados de referência")
+            .tag("cache", name)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("reference_cache_gets_total", cache, ExpiringLruCache::missCount)
+            .description("Consultas ao cache de dados de referência")
+            .tag("cache", name)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        Gauge.builder("reference_cache_size", cache, ExpiringLruCache::size)
+            .description("Entradas mantidas no cache de dados de referência")
+            .tag("cache", name)
+            .register(meterRegistry);
+        return cache;
+    }
+}
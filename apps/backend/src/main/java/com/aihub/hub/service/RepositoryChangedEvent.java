@@ -0,0 +1,111 @@
+package com.aihub.hub.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Signals that a GitHub repository changed, derived from webhook deliveries. {@code branch == null} means the
+ * change is not tied to a single branch; an empty {@code paths} set means the affected files are unknown.
+ */
+public record RepositoryChangedEvent(String repository, String branch, Set<String> paths, boolean metadataChanged) {
+
+    /** GitHub lists at most this many commits in a push payload; larger pushes are treated as touching everything. */
+    private static final int PUSH_COMMIT_LIMIT = 20;
+
+    public RepositoryChangedEvent {
+        repository = normalizeRepository(repository);
+        paths = paths == null ? Set.of() : Set.copyOf(paths);
+    }
+
+    public static List<RepositoryChangedEvent> fromWebhook(String eventType, JsonNode payload) {
+        String repository = payload.path("repository").path("full_name").asText("");
+        if (repository.isBlank() || eventType == null) {
+            return List.of();
+        }
+        return switch (eventType) {
+            case "push" -> fromPush(repository, payload);
+            case "create", "delete" -> "branch".equals(payload.path("ref_type").asText())
+                ? List.of(new RepositoryChangedEvent(repository, payload.path("ref").asText(null), Set.of(), true))
+                : List.of();
+            case "pull_request" -> fromPullRequest(repository, payload);
+            default -> List.of();
+        };
+    }
+
+    /**
+     * Whether a cache entry for {@code repository}/{@code branch}/{@code path} may be stale after this change.
+     * Repository-level entries ({@code branch == null}) only go stale on metadata changes; branch-level entries
+     * ({@code path == null}) go stale on any change to the branch. Paths also match as directory prefixes.
+     */
+    public boolean affects(String repository, String branch, String path) {
+        if (!this.repository.equals(normalizeRepository(repository))) {
+            return false;
+        }
+        if (branch == null) {
+            return metadataChanged;
+        }
+        if (this.branch != null && !this.branch.equals(branch)) {
+            return false;
+        }
+        if (path == null || paths.isEmpty()) {
+            return true;
+        }
+        String prefix = path.endsWith("/") ? path : path + "/";
+        for (String changed : paths) {
+            if (changed.equals(path) || changed.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<RepositoryChangedEvent> fromPush(String repository, JsonNode payload) {
+        String ref = payload.path("ref").asText("");
+        if (!ref.startsWith("refs/heads/")) {
+            return List.of();
+        }
+        String branch = ref.substring("refs/heads/".length());
+        // A forced push drops commits whose files are not listed anywhere, so it is handled like a new branch.
+        boolean branchReplaced = payload.path("created").asBoolean(false) || payload.path("deleted").asBoolean(false)
+            || payload.path("forced").asBoolean(false);
+        JsonNode commits = payload.path("commits");
+        Set<String> paths = new LinkedHashSet<>();
+        if (commits.isArray() && !commits.isEmpty() && commits.size() < PUSH_COMMIT_LIMIT && !branchReplaced) {
+            for (JsonNode commit : commits) {
+                for (String field : List.of("added", "modified", "removed")) {
+                    commit.path(field).forEach(path -> paths.add(path.asText()));
+                }
+            }
+        }
+        return List.of(new RepositoryChangedEvent(repository, branch, paths, branchReplaced));
+    }
+
+    private static List<RepositoryChangedEvent> fromPullRequest(String repository, JsonNode payload) {
+        JsonNode pullRequest = payload.path("pull_request");
+        String action = payload.path("action").asText("");
+        List<RepositoryChangedEvent> events = new ArrayList<>();
+        if ("synchronize".equals(action) || "closed".equals(action) || "reopened".equals(action)) {
+            String head = pullRequest.path("head").path("ref").asText(null);
+            String headRepository = pullRequest.path("head").path("repo").path("full_name").asText(repository);
+            if (head != null) {
+                events.add(new RepositoryChangedEvent(headRepository, head, Set.of(), false));
+            }
+        }
+        if ("closed".equals(action) && pullRequest.path("merged").asBoolean(false)) {
+            String base = pullRequest.path("base").path("ref").asText(null);
+            if (base != null) {
+                events.add(new RepositoryChangedEvent(repository, base, Set.of(), false));
+            }
+        }
+        return events;
+    }
+
+    private static String normalizeRepository(String repository) {
+        return repository == null ? "" : repository.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -4,9 +4,14 @@ import com.aihub.hub.github.GithubApiClient;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
@@ -18,9 +23,35 @@ public class RepositoryContextBuilder {
 
     private static final Logger log = LoggerFactory.getLogger(RepositoryContextBuilder.class);
     private final GithubApiClient githubApiClient;
+    private final ExpiringLruCache<CacheKey, JsonNode> repositoryCache;
+    private final ExpiringLruCache<CacheKey, List<String>> treeCache;
+    private final ExpiringLruCache<CacheKey, JsonNode> contentCache;
 
     public RepositoryContextBuilder(GithubApiClient githubApiClient) {
+        this(githubApiClient, 360, 2000);
+    }
+
+    @Autowired
+    public RepositoryContextBuilder(GithubApiClient githubApiClient,
+                                    @Value("${hub.github.cache.ttl-minutes:360}") long cacheTtlMinutes,
+                                    @Value("${hub.github.cache.max-entries:2000}") int cacheMaxEntries) {
         this.githubApiClient = githubApiClient;
+        Duration ttl = Duration.ofMinutes(Math.max(0, cacheTtlMinutes));
+        Clock clock = Clock.systemUTC();
+        this.repositoryCache = new ExpiringLruCache<>(cacheMaxEntries, ttl, clock);
+        this.treeCache = new ExpiringLruCache<>(cacheMaxEntries, ttl, clock);
+        this.contentCache = new ExpiringLruCache<>(cacheMaxEntries, ttl, clock);
+    }
+
+    @EventListener
+    public void onRepositoryChanged(RepositoryChangedEvent event) {
+        int evicted = repositoryCache.invalidateIf(key -> key.isAffectedBy(event))
+            + treeCache.invalidateIf(key -> key.isAffectedBy(event))
+            + contentCache.invalidateIf(key -> key.isAffectedBy(event));
+        if (evicted > 0) {
+            log.debug("Removidas {} entradas de cache do repositório {} após alteração em {}",
+                evicted, event.repository(), event.branch());
+        }
     }
 
     public String build(String environment) {
@@ -36,7 +67,8 @@ public class RepositoryContextBuilder {
         String stage = "metadados do repositório";
         try {
             log.info("Iniciando montagem do contexto do repositório {} na etapa: {}", environment, stage);
-            JsonNode repository = githubApiClient.getRepository(coordinates.owner(), coordinates.repo());
+            JsonNode repository = repositoryCache.get(new CacheKey(coordinates.fullName(), null, null),
+                () -> githubApiClient.getRepository(coordinates.owner(), coordinates.repo()));
             String defaultBranch = repository.path("default_branch").asText("main");
             String description = repository.path("description").asText("");
 
@@ -66,23 +98,8 @@ public class RepositoryContextBuilder {
     private List<String> appendTreeSummary(StringBuilder builder, RepoCoordinates coordinates, String branch) {
         List<String> paths = new ArrayList<>();
         try {
-            log.info("Buscando árvore do repositório {}/{} na branch {}", coordinates.owner(), coordinates.repo(), branch);
-            JsonNode branchData = githubApiClient.getBranch(coordinates.owner(), coordinates.repo(), branch);
-            String baseSha = branchData.path("object").path("sha").asText(null);
-            if (baseSha == null || baseSha.isBlank()) {
-                return paths;
-            }
-
-            JsonNode tree = githubApiClient.getTree(coordinates.owner(), coordinates.repo(), baseSha, true);
-            JsonNode items = tree.path("tree");
-            if (items == null || !items.isArray() || items.isEmpty()) {
-                return paths;
-            }
-
-            paths = StreamSupport.stream(items.spliterator(), false)
-                .map(node -> node.path("path").asText(null))
-                .filter(path -> path != null && !path.isBlank())
-                .collect(Collectors.toList());
+            paths = treeCache.get(new CacheKey(coordinates.fullName(), branch, null),
+                () -> fetchTreePaths(coordinates, branch));
 
             if (!paths.isEmpty()) {
                 builder.append("\nArquivos: ").append(paths.size());
@@ -93,10 +110,30 @@ public class RepositoryContextBuilder {
         return paths;
     }
 
+    private List<String> fetchTreePaths(RepoCoordinates coordinates, String branch) {
+        log.info("Buscando árvore do repositório {}/{} na branch {}", coordinates.owner(), coordinates.repo(), branch);
+        JsonNode branchData = githubApiClient.getBranch(coordinates.owner(), coordinates.repo(), branch);
+        String baseSha = branchData.path("object").path("sha").asText(null);
+        if (baseSha == null || baseSha.isBlank()) {
+            return List.of();
+        }
+
+        JsonNode tree = githubApiClient.getTree(coordinates.owner(), coordinates.repo(), baseSha, true);
+        JsonNode items = tree.path("tree");
+        if (items == null || !items.isArray() || items.isEmpty()) {
+            return List.of();
+        }
+
+        return StreamSupport.stream(items.spliterator(), false)
+            .map(node -> node.path("path").asText(null))
+            .filter(path -> path != null && !path.isBlank())
+            .toList();
+    }
+
     private void appendReadmeContent(StringBuilder builder, RepoCoordinates coordinates, String branch) {
         try {
             log.info("Buscando README do repositório {}/{} na branch {}", coordinates.owner(), coordinates.repo(), branch);
-            JsonNode readme = githubApiClient.getContent(coordinates.owner(), coordinates.repo(), "README.md", branch);
+            JsonNode readme = content(coordinates, branch, "README.md");
             String encoded = readme.path("content").asText(null);
             if (encoded == null || encoded.isBlank()) {
                 return;
@@ -178,7 +215,7 @@ public class RepositoryContextBuilder {
 
     private String fetchFileContent(RepoCoordinates coordinates, String branch, String path) {
         try {
-            JsonNode contentNode = githubApiClient.getContent(coordinates.owner(), coordinates.repo(), path, branch);
+            JsonNode contentNode = content(coordinates, branch, path);
             String encoded = contentNode.path("content").asText(null);
             if (encoded == null || encoded.isBlank()) {
                 return null;
@@ -194,7 +231,22 @@ public class RepositoryContextBuilder {
         }
     }
 
+    private JsonNode content(RepoCoordinates coordinates, String branch, String path) {
+        return contentCache.get(new CacheKey(coordinates.fullName(), branch, path),
+            () -> githubApiClient.getContent(coordinates.owner(), coordinates.repo(), path, branch));
+    }
+
+    private record CacheKey(String repository, String branch, String path) {
+        boolean isAffectedBy(RepositoryChangedEvent event) {
+            return event.affects(repository, branch, path);
+        }
+    }
+
     private record RepoCoordinates(String owner, String repo) {
+        String fullName() {
+            return owner + "/" + repo;
+        }
+
         static RepoCoordinates from(String environment) {
             if (environment == null || environment.isBlank()) {
                 return null;
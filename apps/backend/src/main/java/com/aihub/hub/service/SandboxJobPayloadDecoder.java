@@ -0,0 +1,164 @@
+package com.aihub.hub.service;
+
+import com.aihub.hub.service.SandboxOrchestratorClient.SandboxOrchestratorJobResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Decodes sandbox job payloads (callbacks and orchestrator responses) straight from a {@link JsonParser}, without
+ * building the whole document as a {@link JsonNode} tree first. Array elements are decoded one at a time and only
+ * their scalar fields are kept, so the alias resolution of {@link SandboxOrchestratorJobResponse#from(JsonNode)} is
+ * reused unchanged.
+ */
+public final class SandboxJobPayloadDecoder {
+
+    public enum Detail {
+        FULL,
+        /** Skips interaction content; ids, directions and sequences are kept so counts stay accurate. */
+        WITHOUT_INTERACTION_CONTENT
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON_FACTORY = OBJECT_MAPPER.getFactory();
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+    private static final Set<String> INTERACTION_CONTENT = Set.of("content");
+
+    private SandboxJobPayloadDecoder() {
+    }
+
+    public static SandboxOrchestratorJobResponse decode(InputStream body, Detail detail) throws IOException {
+        if (body == null) {
+            return null;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return decode(parser, detail);
+        }
+    }
+
+    public static SandboxOrchestratorJobResponse decode(JsonParser parser, Detail detail) throws IOException {
+        JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+        if (token == null) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            return SandboxOrchestratorJobResponse.from(OBJECT_MAPPER.readTree(parser));
+        }
+
+        Set<String> skippedInteractionFields = detail == Detail.WITHOUT_INTERACTION_CONTENT ? INTERACTION_CONTENT : Set.of();
+        ObjectNode node = NODES.objectNode();
+        List<String> files = List.of();
+        List<SandboxOrchestratorJobResponse.Interaction> interactions = List.of();
+        List<SandboxOrchestratorJobResponse.HttpRequest> httpRequests = List.of();
+        List<SandboxOrchestratorJobResponse.DocumentAccess> documentAccesses = List.of();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "changedFiles" -> files =
+                    readArray(parser, Set.of(), SandboxOrchestratorJobResponse::changedFileFrom);
+                case "interactions" -> interactions =
+                    readArray(parser, skippedInteractionFields, SandboxOrchestratorJobResponse::interactionFrom);
+                case "httpRequests" -> httpRequests =
+                    readArray(parser, Set.of(), SandboxOrchestratorJobResponse::httpRequestFrom);
+                case "documentAccesses" -> documentAccesses =
+                    readArray(parser, Set.of(), SandboxOrchestratorJobResponse::documentAccessFrom);
+                case "usage" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        node.set(field, readScalars(parser, Set.of()));
+                    } else {
+                        parser.skipChildren();
+                        node.remove(field);
+                    }
+                }
+                default -> {
+                    if (value.isScalarValue()) {
+                        node.set(field, readScalar(parser));
+                    } else {
+                        parser.skipChildren();
+                        node.remove(field);
+                    }
+                }
+            }
+        }
+
+        return SandboxOrchestratorJobResponse.assemble(node, files, interactions, httpRequests, documentAccesses);
+    }
+
+    private static <T> List<T> readArray(JsonParser parser,
+                                         Set<String> skippedFields,
+                                         Function<JsonNode, T> mapper) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return List.of();
+        }
+        List<T> values = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            JsonNode element;
+            if (token == JsonToken.START_OBJECT) {
+                element = readScalars(parser, skippedFields);
+            } else if (token.isScalarValue()) {
+                element = readScalar(parser);
+            } else {
+                parser.skipChildren();
+                element = MissingNode.getInstance();
+            }
+            T value = mapper.apply(element);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the object the parser is positioned on, keeping scalar fields only: nested objects and arrays are never
+     * consulted by the alias lookups, and {@code skippedFields} are dropped without materialising their text.
+     */
+    private static ObjectNode readScalars(JsonParser parser, Set<String> skippedFields) throws IOException {
+        ObjectNode node = NODES.objectNode();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isScalarValue() && !skippedFields.contains(field)) {
+                node.set(field, readScalar(parser));
+            } else {
+                parser.skipChildren();
+                node.remove(field);
+            }
+        }
+        return node;
+    }
+
+    private static JsonNode readScalar(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_STRING -> TextNode.valueOf(parser.getText());
+            case VALUE_TRUE -> BooleanNode.TRUE;
+            case VALUE_FALSE -> BooleanNode.FALSE;
+            case VALUE_NUMBER_INT -> switch (parser.getNumberType()) {
+                case INT -> NODES.numberNode(parser.getIntValue());
+                case LONG -> NODES.numberNode(parser.getLongValue());
+                default -> NODES.numberNode(parser.getBigIntegerValue());
+            };
+            case VALUE_NUMBER_FLOAT -> NODES.numberNode(parser.getDoubleValue());
+            default -> NullNode.getInstance();
+        };
+    }
+}
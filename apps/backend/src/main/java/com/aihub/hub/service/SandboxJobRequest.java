@@ -26,7 +26,8 @@ public record SandboxJobRequest(
         String name,
         String mimeType,
         Long size,
-        String dataUrl
+        String sha256,
+        String url
     ) { }
     public record DatabaseConnection(
         String host,
@@ -6,17 +6,28 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 @Component
 public class SandboxOrchestratorClient {
@@ -24,19 +35,31 @@ public class SandboxOrchestratorClient {
     private static final Logger log = LoggerFactory.getLogger(SandboxOrchestratorClient.class);
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+    private static final int STATUS_BATCH_SIZE = 200;
 
     private final RestClient restClient;
     private final String jobsPath;
+    private final SandboxOrchestratorResilience resilience;
 
     public SandboxOrchestratorClient(
         RestClient sandboxOrchestratorRestClient,
-        @Value("${hub.sandbox.orchestrator.jobs-path:/jobs}") String jobsPath
+        @Value("${hub.sandbox.orchestrator.jobs-path:/jobs}") String jobsPath,
+        SandboxOrchestratorResilience resilience
     ) {
         this.restClient = sandboxOrchestratorRestClient;
         this.jobsPath = jobsPath;
+        this.resilience = resilience;
     }
 
     public Map<String, Object> readCodexAccount() {
+        return resilience.call(SandboxOrchestratorResilience.Call.ACCOUNT, this::fetchCodexAccount);
+    }
+
+    public CompletableFuture<Map<String, Object>> readCodexAccountAsync() {
+        return resilience.submit(SandboxOrchestratorResilience.Call.ACCOUNT, this::fetchCodexAccount);
+    }
+
+    private Map<String, Object> fetchCodexAccount() {
         try {
             return restClient.get()
                 .uri("/codex-app-server/account/read")
@@ -48,6 +71,10 @@ public class SandboxOrchestratorClient {
     }
 
     public Map<String, Object> startCodexLogin(String type) {
+        return resilience.call(SandboxOrchestratorResilience.Call.ACCOUNT, () -> postCodexLoginStart(type));
+    }
+
+    private Map<String, Object> postCodexLoginStart(String type) {
         try {
             return restClient.post()
                 .uri("/codex-app-server/account/login/start")
@@ -61,6 +88,10 @@ public class SandboxOrchestratorClient {
     }
 
     public Map<String, Object> cancelCodexLogin(String loginId) {
+        return resilience.call(SandboxOrchestratorResilience.Call.ACCOUNT, () -> postCodexLoginCancel(loginId));
+    }
+
+    private Map<String, Object> postCodexLoginCancel(String loginId) {
         try {
             return restClient.post()
                 .uri("/codex-app-server/account/login/cancel")
@@ -74,6 +105,10 @@ public class SandboxOrchestratorClient {
     }
 
     public Map<String, Object> logoutCodexAccount() {
+        return resilience.call(SandboxOrchestratorResilience.Call.ACCOUNT, this::postCodexLogout);
+    }
+
+    private Map<String, Object> postCodexLogout() {
         try {
             return restClient.post()
                 .uri("/codex-app-server/account/logout")
@@ -86,6 +121,7 @@ public class SandboxOrchestratorClient {
         }
     }
 
+    // Maintenance calls bypass the bulkheads and the circuit breaker: they are how an unhealthy orchestrator is fixed.
     public Map<String, Object> maintenanceStatus() {
         return restClient.get().uri("/maintenance/status").retrieve().body(Map.class);
     }
@@ -101,6 +137,10 @@ public class SandboxOrchestratorClient {
     }
 
     public List<Map<String, Object>> listCodexModels() {
+        return resilience.call(SandboxOrchestratorResilience.Call.ACCOUNT, this::fetchCodexModels);
+    }
+
+    private List<Map<String, Object>> fetchCodexModels() {
         try {
             List<Map<String, Object>> response = restClient.get()
                 .uri("/codex-app-server/models")
@@ -135,6 +175,14 @@ public class SandboxOrchestratorClient {
     }
 
     public SandboxOrchestratorJobResponse createJob(SandboxJobRequest request) {
+        return resilience.call(SandboxOrchestratorResilience.Call.DISPATCH, () -> postJob(request));
+    }
+
+    public CompletableFuture<SandboxOrchestratorJobResponse> createJobAsync(SandboxJobRequest request) {
+        return resilience.submit(SandboxOrchestratorResilience.Call.DISPATCH, () -> postJob(request));
+    }
+
+    private SandboxOrchestratorJobResponse postJob(SandboxJobRequest request) {
         Map<String, Object> body = new HashMap<>();
         body.put("jobId", request.jobId());
         Optional.ofNullable(request.repoSlug()).ifPresent(value -> body.put("repoSlug", value));
@@ -167,24 +215,35 @@ public class SandboxOrchestratorClient {
         Optional.ofNullable(request.imageAttachments()).filter(value -> !value.isEmpty()).ifPresent(value -> body.put("imageAttachments", value));
 
         log.info("Enviando job {} para sandbox-orchestrator no path {}", request.jobId(), jobsPath);
-        JsonNode response = restClient.post()
+        return restClient.post()
             .uri(jobsPath)
             .contentType(MediaType.APPLICATION_JSON)
             .body(body)
-            .retrieve()
-            .body(JsonNode.class);
-
-        return SandboxOrchestratorJobResponse.from(response);
+            .exchange((httpRequest, response) -> decodeJobResponse(response, SandboxJobPayloadDecoder.Detail.FULL));
     }
 
     public SandboxOrchestratorJobResponse getJob(String jobId) {
+        return getJob(jobId, SandboxJobPayloadDecoder.Detail.FULL);
+    }
+
+    public SandboxOrchestratorJobResponse getJob(String jobId, SandboxJobPayloadDecoder.Detail detail) {
+        return resilience.call(SandboxOrchestratorResilience.Call.REFRESH, () -> fetchJob(jobId, detail));
+    }
+
+    public CompletableFuture<SandboxOrchestratorJobResponse> getJobAsync(String jobId) {
+        return getJobAsync(jobId, SandboxJobPayloadDecoder.Detail.FULL);
+    }
+
+    public CompletableFuture<SandboxOrchestratorJobResponse> getJobAsync(String jobId, SandboxJobPayloadDecoder.Detail detail) {
+        return resilience.submit(SandboxOrchestratorResilience.Call.REFRESH, () -> fetchJob(jobId, detail));
+    }
+
+    private SandboxOrchestratorJobResponse fetchJob(String jobId, SandboxJobPayloadDecoder.Detail detail) {
         log.info("Consultando job {} no sandbox-orchestrator", jobId);
         try {
-            JsonNode response = restClient.get()
+            return restClient.get()
                 .uri(jobsPath + "/" + jobId)
-                .retrieve()
-                .body(JsonNode.class);
-            return SandboxOrchestratorJobResponse.from(response);
+                .exchange((httpRequest, response) -> decodeJobResponse(response, detail));
         } catch (HttpClientErrorException.NotFound ex) {
             log.warn("Job {} não encontrado no sandbox-orchestrator", jobId);
             return null;
@@ -192,21 +251,94 @@ public class SandboxOrchestratorClient {
     }
 
     public SandboxOrchestratorJobResponse cancelJob(String jobId) {
+        return resilience.call(SandboxOrchestratorResilience.Call.CANCEL, () -> postJobCancel(jobId));
+    }
+
+    public CompletableFuture<SandboxOrchestratorJobResponse> cancelJobAsync(String jobId) {
+        return resilience.submit(SandboxOrchestratorResilience.Call.CANCEL, () -> postJobCancel(jobId));
+    }
+
+    private SandboxOrchestratorJobResponse postJobCancel(String jobId) {
         log.info("Solicitando cancelamento do job {} no sandbox-orchestrator", jobId);
         try {
-            JsonNode response = restClient.post()
+            return restClient.post()
                 .uri(jobsPath + "/" + jobId + "/cancel")
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(Map.of())
-                .retrieve()
-                .body(JsonNode.class);
-            return SandboxOrchestratorJobResponse.from(response);
+                .exchange((httpRequest, response) -> decodeJobResponse(response, SandboxJobPayloadDecoder.Detail.FULL));
         } catch (HttpClientErrorException.NotFound ex) {
             log.warn("Job {} não encontrado no sandbox-orchestrator ao cancelar", jobId);
             return null;
         }
     }
 
+    /**
+     * Probes the status of many jobs in one round-trip per {@value #STATUS_BATCH_SIZE} ids. Jobs unknown to the
+     * orchestrator are absent from the map; an empty optional means the orchestrator has no batch endpoint.
+     */
+    public Optional<Map<String, SandboxJobStatus>> getJobStatuses(Collection<String> jobIds) {
+        List<String> ids = jobIds.stream().filter(id -> id != null && !id.isBlank()).distinct().toList();
+        Map<String, SandboxJobStatus> statuses = new LinkedHashMap<>();
+        for (int start = 0; start < ids.size(); start += STATUS_BATCH_SIZE) {
+            List<String> batch = ids.subList(start, Math.min(ids.size(), start + STATUS_BATCH_SIZE));
+            JsonNode body;
+            try {
+                body = resilience.call(SandboxOrchestratorResilience.Call.REFRESH, () -> restClient.post()
+                    .uri(jobsPath + "/status")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("jobIds", batch))
+                    .retrieve()
+                    .body(JsonNode.class));
+            } catch (HttpClientErrorException.NotFound | HttpClientErrorException.MethodNotAllowed ex) {
+                log.info("sandbox-orchestrator sem endpoint de status em lote ({}); usando consulta por job", ex.getStatusCode());
+                return Optional.empty();
+            }
+            if (body == null) {
+                continue;
+            }
+            for (JsonNode node : body.path("jobs")) {
+                SandboxJobStatus status = SandboxJobStatus.from(node);
+                if (status != null) {
+                    statuses.put(status.jobId(), status);
+                }
+            }
+        }
+        log.info("Status em lote do sandbox-orchestrator: {} jobs consultados, {} encontrados", ids.size(), statuses.size());
+        return Optional.of(statuses);
+    }
+
+    private SandboxOrchestratorJobResponse decodeJobResponse(ClientHttpResponse response,
+                                                             SandboxJobPayloadDecoder.Detail detail) throws IOException {
+        HttpStatusCode status = response.getStatusCode();
+        if (status.is4xxClientError()) {
+            throw HttpClientErrorException.create(status, response.getStatusText(), response.getHeaders(),
+                response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (status.is5xxServerError()) {
+            throw HttpServerErrorException.create(status, response.getStatusText(), response.getHeaders(),
+                response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (InputStream body = response.getBody()) {
+            return SandboxJobPayloadDecoder.decode(body, detail);
+        }
+    }
+
+    public record SandboxJobStatus(String jobId, String status, String updatedAt, Integer interactionCount) {
+
+        static SandboxJobStatus from(JsonNode node) {
+            String jobId = SandboxOrchestratorJobResponse.readText(node, "jobId", "job_id", "id");
+            if (jobId == null) {
+                return null;
+            }
+            return new SandboxJobStatus(
+                jobId,
+                SandboxOrchestratorJobResponse.readText(node, "status"),
+                SandboxOrchestratorJobResponse.readText(node, "updatedAt", "updated_at"),
+                SandboxOrchestratorJobResponse.readInt(node, "interactionCount", "interaction_count")
+            );
+        }
+    }
+
     public record SandboxOrchestratorJobResponse(
         String jobId,
         String status,
@@ -292,98 +424,32 @@ public class SandboxOrchestratorClient {
             if (node == null || node.isMissingNode()) {
                 return null;
             }
-            List<String> files = Optional.ofNullable(node.path("changedFiles"))
-                .filter(JsonNode::isArray)
-                .stream()
-                .flatMap(array -> {
-                    java.util.List<String> values = new java.util.ArrayList<>();
-                    array.forEach(item -> {
-                        String text = item.asText(null);
-                        if (text != null && !text.isBlank()) {
-                            values.add(text.trim());
-                        }
-                    });
-                    return values.stream();
-                })
-                .toList();
-
-            java.util.List<Interaction> interactions = null;
-            JsonNode interactionsNode = node.path("interactions");
-            if (interactionsNode != null && interactionsNode.isArray()) {
-                java.util.List<Interaction> values = new java.util.ArrayList<>();
-                interactionsNode.forEach(element -> {
-                    if (element == null || element.isMissingNode() || element.isNull()) {
-                        return;
-                    }
-                    String interactionId = readText(element, "id", "interactionId", "interaction_id");
-                    if (interactionId == null || interactionId.isBlank()) {
-                        return;
-                    }
-                    String direction = readText(element, "direction");
-                    String content = readText(element, "content");
-                    Integer tokenCount = readInt(element, "tokenCount", "token_count");
-                    String createdAt = readText(element, "createdAt", "created_at");
-                    Integer sequence = readInt(element, "sequence");
-                    values.add(new Interaction(interactionId, direction, content, tokenCount, createdAt, sequence));
-                });
-                if (!values.isEmpty()) {
-                    interactions = java.util.List.copyOf(values);
-                }
-            }
-
-            java.util.List<HttpRequest> httpRequests = null;
-            JsonNode httpRequestsNode = node.path("httpRequests");
-            if (httpRequestsNode != null && httpRequestsNode.isArray()) {
-                java.util.List<HttpRequest> values = new java.util.ArrayList<>();
-                httpRequestsNode.forEach(element -> {
-                    if (element == null || element.isMissingNode() || element.isNull()) {
-                        return;
-                    }
-                    String url = readText(element, "url");
-                    if (url == null || url.isBlank()) {
-                        return;
-                    }
-                    String callId = readText(element, "callId", "call_id");
-                    Integer status = readInt(element, "status", "statusCode", "status_code");
-                    Boolean success = readBoolean(element, "success");
-                    String toolName = readText(element, "toolName", "tool_name");
-                    String requestedAt = readText(element, "requestedAt", "requested_at");
-                    values.add(new HttpRequest(callId, url, status, success, toolName, requestedAt));
-                });
-                if (!values.isEmpty()) {
-                    httpRequests = java.util.List.copyOf(values);
-                }
-            }
-
-            java.util.List<DocumentAccess> documentAccesses = null;
-            JsonNode documentAccessesNode = node.path("documentAccesses");
-            if (documentAccessesNode != null && documentAccessesNode.isArray()) {
-                java.util.List<DocumentAccess> values = new java.util.ArrayList<>();
-                documentAccessesNode.forEach(element -> {
-                    if (element == null || element.isMissingNode() || element.isNull()) {
-                        return;
-                    }
-                    String documentPath = readText(element, "documentPath", "document_path");
-                    if (documentPath == null || documentPath.isBlank()) {
-                        return;
-                    }
-                    String accessId = readText(element, "accessId", "access_id");
-                    String toolName = readText(element, "toolName", "tool_name");
-                    String requestedPath = readText(element, "requestedPath", "requested_path");
-                    String command = readText(element, "command");
-                    String accessedAt = readText(element, "accessedAt", "accessed_at");
-                    values.add(new DocumentAccess(accessId, documentPath, toolName, requestedPath, command, accessedAt));
-                });
-                if (!values.isEmpty()) {
-                    documentAccesses = java.util.List.copyOf(values);
-                }
-            }
+            return assemble(
+                node,
+                mapArray(node.path("changedFiles"), SandboxOrchestratorJobResponse::changedFileFrom),
+                mapArray(node.path("interactions"), SandboxOrchestratorJobResponse::interactionFrom),
+                mapArray(node.path("httpRequests"), SandboxOrchestratorJobResponse::httpRequestFrom),
+                mapArray(node.path("documentAccesses"), SandboxOrchestratorJobResponse::documentAccessFrom)
+            );
+        }
 
+        /**
+         * Builds the response from the top-level scalars (plus {@code usage}) in {@code node} and the already decoded
+         * arrays; shared by {@link #from(JsonNode)} and {@link SandboxJobPayloadDecoder}.
+         */
+        static SandboxOrchestratorJobResponse assemble(
+            JsonNode node,
+            List<String> files,
+            List<Interaction> interactionValues,
+            List<HttpRequest> httpRequestValues,
+            List<DocumentAccess> documentAccessValues
+        ) {
+            List<Interaction> interactions = interactionValues.isEmpty() ? null : List.copyOf(interactionValues);
             return new SandboxOrchestratorJobResponse(
                 node.path("jobId").asText(null),
                 node.path("status").asText(null),
                 node.path("summary").asText(null),
-                files.isEmpty() ? null : files,
+                files.isEmpty() ? null : List.copyOf(files),
                 node.path("patch").asText(null),
                 resolvePullRequestUrl(node),
                 node.path("error").asText(null),
@@ -402,12 +468,81 @@ public class SandboxOrchestratorClient {
                 readInt(node, "dbQueryCount", "db_query_count"),
                 resolveInteractionCount(node, interactions),
                 interactions,
-                httpRequests,
-                documentAccesses,
+                httpRequestValues.isEmpty() ? null : List.copyOf(httpRequestValues),
+                documentAccessValues.isEmpty() ? null : List.copyOf(documentAccessValues),
                 readText(node, "workBranch", "work_branch")
             );
         }
 
+        static String changedFileFrom(JsonNode item) {
+            String text = item.asText(null);
+            if (text != null && !text.isBlank()) {
+                return text.trim();
+            }
+            return null;
+        }
+
+        static Interaction interactionFrom(JsonNode element) {
+            if (element == null || element.isMissingNode() || element.isNull()) {
+                return null;
+            }
+            String interactionId = readText(element, "id", "interactionId", "interaction_id");
+            if (interactionId == null || interactionId.isBlank()) {
+                return null;
+            }
+            String direction = readText(element, "direction");
+            String content = readText(element, "content");
+            Integer tokenCount = readInt(element, "tokenCount", "token_count");
+            String createdAt = readText(element, "createdAt", "created_at");
+            Integer sequence = readInt(element, "sequence");
+            return new Interaction(interactionId, direction, content, tokenCount, createdAt, sequence);
+        }
+
+        static HttpRequest httpRequestFrom(JsonNode element) {
+            if (element == null || element.isMissingNode() || element.isNull()) {
+                return null;
+            }
+            String url = readText(element, "url");
+            if (url == null || url.isBlank()) {
+                return null;
+            }
+            String callId = readText(element, "callId", "call_id");
+            Integer status = readInt(element, "status", "statusCode", "status_code");
+            Boolean success = readBoolean(element, "success");
+            String toolName = readText(element, "toolName", "tool_name");
+            String requestedAt = readText(element, "requestedAt", "requested_at");
+            return new HttpRequest(callId, url, status, success, toolName, requestedAt);
+        }
+
+        static DocumentAccess documentAccessFrom(JsonNode element) {
+            if (element == null || element.isMissingNode() || element.isNull()) {
+                return null;
+            }
+            String documentPath = readText(element, "documentPath", "document_path");
+            if (documentPath == null || documentPath.isBlank()) {
+                return null;
+            }
+            String accessId = readText(element, "accessId", "access_id");
+            String toolName = readText(element, "toolName", "tool_name");
+            String requestedPath = readText(element, "requestedPath", "requested_path");
+            String command = readText(element, "command");
+            String accessedAt = readText(element, "accessedAt", "accessed_at");
+            return new DocumentAccess(accessId, documentPath, toolName, requestedPath, command, accessedAt);
+        }
+
+        private static <T> List<T> mapArray(JsonNode array, Function<JsonNode, T> mapper) {
+            List<T> values = new ArrayList<>();
+            if (array != null && array.isArray()) {
+                array.forEach(element -> {
+                    T value = mapper.apply(element);
+                    if (value != null) {
+                        values.add(value);
+                    }
+                });
+            }
+            return values;
+        }
+
         public record Interaction(
             String id,
             String direction,
@@ -0,0 +1,327 @@
+package com.aihub.hub.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs sandbox-orchestrator calls on one bounded pool per call type, so a stuck orchestrator cannot hold more than
+ * that pool's threads, and fails them fast through a shared circuit breaker once consecutive transport or 5xx
+ * failures reach the threshold.
+ */
+@Component
+public class SandboxOrchestratorResilience {
+
+    private static final Logger log = LoggerFactory.getLogger(SandboxOrchestratorResilience.class);
+
+    public enum Call {
+        DISPATCH,
+        REFRESH,
+        CANCEL,
+        ACCOUNT;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    enum CircuitState {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final Map<Call, ThreadPoolExecutor> bulkheads = new EnumMap<>(Call.class);
+    private final Map<Call, Counter> rejectedByBulkhead = new EnumMap<>(Call.class);
+    private final Map<Call, Counter> rejectedByCircuit = new EnumMap<>(Call.class);
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration callTimeout;
+
+    @Autowired
+    public SandboxOrchestratorResilience(MeterRegistry meterRegistry,
+                                         @Value("${hub.sandbox.orchestrator.bulkhead.dispatch:4}") int dispatchConcurrency,
+                                         @Value("${hub.sandbox.orchestrator.bulkhead.refresh:8}") int refreshConcurrency,
+                                         @Value("${hub.sandbox.orchestrator.bulkhead.cancel:2}") int cancelConcurrency,
+                                         @Value("${hub.sandbox.orchestrator.bulkhead.account:2}") int accountConcurrency,
+                                         @Value("${hub.sandbox.orchestrator.bulkhead.queue-capacity:16}") int queueCapacity,
+                                         @Value("${hub.sandbox.orchestrator.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                         @Value("${hub.sandbox.orchestrator.circuit-breaker.open-ms:30000}") long openMs,
+                                         @Value("${hub.sandbox.orchestrator.call-timeout-ms:60000}") long callTimeoutMs) {
+        this(meterRegistry,
+            Map.of(
+                Call.DISPATCH, dispatchConcurrency,
+                Call.REFRESH, refreshConcurrency,
+                Call.CANCEL, cancelConcurrency,
+                Call.ACCOUNT, accountConcurrency
+            ),
+            queueCapacity,
+            failureThreshold,
+            Duration.ofMillis(Math.max(1, openMs)),
+            Duration.ofMillis(Math.max(1, callTimeoutMs)),
+            Clock.systemUTC());
+    }
+
+    SandboxOrchestratorResilience(MeterRegistry meterRegistry,
+                                  Map<Call, Integer> concurrency,
+                                  int queueCapacity,
+                                  int failureThreshold,
+                                  Duration openDuration,
+                                  Duration callTimeout,
+                                  Clock clock) {
+        this.meterRegistry = meterRegistry;
+        this.callTimeout = callTimeout;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration, clock);
+        for (Call call : Call.values()) {
+            int threads = Math.max(1, concurrency.getOrDefault(call, 1));
+            AtomicInteger threadCounter = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sandbox-" + call.tag() + "-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+            executor.allowCoreThreadTimeOut(true);
+            bulkheads.put(call, executor);
+
+            Gauge.builder("sandbox_orchestrator_bulkhead_active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Chamadas ao sandbox-orchestrator em execução")
+                .tag("call", call.tag())
+                .register(meterRegistry);
+            Gauge.builder("sandbox_orchestrator_bulkhead_queued", executor, pool -> pool.getQueue().size())
+                .description("Chamadas ao sandbox-orchestrator aguardando vaga no bulkhead")
+                .tag("call", call.tag())
+                .register(meterRegistry);
+            rejectedByBulkhead.put(call,
+                meterRegistry.counter("sandbox_orchestrator_rejected_total", "call", call.tag(), "reason", "bulkhead_full"));
+            rejectedByCircuit.put(call,
+                meterRegistry.counter("sandbox_orchestrator_rejected_total", "call", call.tag(), "reason", "circuit_open"));
+        }
+        Gauge.builder("sandbox_orchestrator_circuit_state", circuitBreaker, breaker -> breaker.state().ordinal())
+            .description("Estado do circuit breaker do sandbox-orchestrator (0=fechado, 1=aberto, 2=meio-aberto)")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code action} on the bulkhead of {@code call}. The returned future fails with a 503
+     * {@link ResponseStatusException} without touching the orchestrator when the circuit is open or the bulkhead
+     * is full.
+     */
+    public <T> CompletableFuture<T> submit(Call call, Supplier<T> action) {
+        if (!circuitBreaker.tryAcquire()) {
+            rejectedByCircuit.get(call).increment();
+            return CompletableFuture.failedFuture(unavailable("circuito aberto após falhas consecutivas"));
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            bulkheads.get(call).execute(() -> run(call, action, result));
+        } catch (RejectedExecutionException ex) {
+            circuitBreaker.release();
+            rejectedByBulkhead.get(call).increment();
+            result.completeExceptionally(unavailable("limite de chamadas simultâneas (" + call.tag() + ") atingido"));
+        }
+        return result;
+    }
+
+    /**
+     * Blocking form of {@link #submit}: waits up to the call timeout for the bulkhead result and rethrows the
+     * original exception. A call still queued when the caller gives up is cancelled and never reaches the
+     * orchestrator.
+     */
+    public <T> T call(Call call, Supplier<T> action) {
+        CompletableFuture<T> result = submit(call, action);
+        try {
+            return result.get(callTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Chamada ao sandbox-orchestrator interrompida", ex);
+        } catch (TimeoutException ex) {
+            result.cancel(false);
+            throw unavailable("sem resposta em " + callTimeout.toMillis() + " ms (" + call.tag() + ")");
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    CircuitState circuitState() {
+        return circuitBreaker.state();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        bulkheads.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    /**
+     * The timer is recorded before the future completes, so a caller that has seen the result also sees its sample.
+     * Whatever the action throws, the permit is given back and the future completed.
+     */
+    private <T> void run(Call call, Supplier<T> action, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            circuitBreaker.release();
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        T value = null;
+        Throwable failure = null;
+        String outcome = "success";
+        try {
+            value = action.get();
+            circuitBreaker.onSuccess();
+        } catch (RuntimeException ex) {
+            failure = ex;
+            if (countsAsFailure(ex)) {
+                outcome = "failure";
+                circuitBreaker.onFailure();
+            } else {
+                outcome = "client_error";
+                circuitBreaker.onSuccess();
+            }
+        } catch (Throwable ex) {
+            failure = ex;
+            outcome = "error";
+            circuitBreaker.release();
+        }
+        try {
+            sample.stop(Timer.builder("sandbox_orchestrator_request")
+                .description("Latência das chamadas ao sandbox-orchestrator")
+                .tag("call", call.tag())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        } finally {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+
+    private static boolean countsAsFailure(RuntimeException ex) {
+        return ex instanceof ResourceAccessException || ex instanceof HttpServerErrorException;
+    }
+
+    private static ResponseStatusException unavailable(String reason) {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Sandbox-orchestrator indisponível: " + reason);
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        Throwable current = cause;
+        while (current instanceof CompletionException && current.getCause() != null) {
+            current = current.getCause();
+        }
+        if (current instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (current instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(current);
+    }
+
+    /**
+     * Consecutive-failure breaker: opens at the threshold, lets a single trial call through once the open period
+     * has elapsed, and closes again when that trial succeeds.
+     */
+    static final class CircuitBreaker {
+
+        private final int failureThreshold;
+        private final Duration openDuration;
+        private final Clock clock;
+        private CircuitState state = CircuitState.CLOSED;
+        private int consecutiveFailures;
+        private Instant openedAt;
+        private boolean trialInFlight;
+
+        CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+            this.failureThreshold = Math.max(1, failureThreshold);
+            this.openDuration = openDuration;
+            this.clock = clock;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (state == CircuitState.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+                transition(CircuitState.HALF_OPEN);
+            }
+            return switch (state) {
+                case CLOSED -> true;
+                case OPEN -> false;
+                case HALF_OPEN -> {
+                    if (trialInFlight) {
+                        yield false;
+                    }
+                    trialInFlight = true;
+                    yield true;
+                }
+            };
+        }
+
+        /** Gives back a permit that never reached the orchestrator. */
+        synchronized void release() {
+            trialInFlight = false;
+        }
+
+        synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            trialInFlight = false;
+            if (state != CircuitState.CLOSED) {
+                transition(CircuitState.CLOSED);
+            }
+        }
+
+        synchronized void onFailure() {
+            trialInFlight = false;
+            consecutiveFailures++;
+            if (state == CircuitState.HALF_OPEN || (state == CircuitState.CLOSED && consecutiveFailures >= failureThreshold)) {
+                openedAt = clock.instant();
+                transition(CircuitState.OPEN);
+            }
+        }
+
+        synchronized CircuitState state() {
+            return state;
+        }
+
+        private void transition(CircuitState next) {
+            log.warn("Circuit breaker do sandbox-orchestrator: {} -> {} ({} falhas consecutivas)", state, next, consecutiveFailures);
+            state = next;
+        }
+    }
+}
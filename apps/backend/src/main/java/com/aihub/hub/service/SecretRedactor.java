@@ -0,0 +1,427 @@
+package com.aihub.hub.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Redacts credentials from text in a single pass. An Aho-Corasick automaton over the rule
+ * triggers ({@code ghs_}, {@code AKIA}, {@code Bearer}, {@code access_token}...) finds candidate
+ * positions, and each candidate is confirmed with a bounded lookahead before its secret is skipped.
+ * The same engine serves in-memory strings and {@link Reader}/{@link Writer} streams of any size.
+ */
+public final class SecretRedactor {
+
+    private static final String REDACTED = "[redacted]";
+    private static final int MAX_SEPARATOR_LOOKAHEAD = 64;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int ALPHABET = 128;
+
+    private static final SecretRedactor STANDARD = new SecretRedactor(List.of(
+        Rule.token("ghs_", "[REDACTED_TOKEN]"),
+        Rule.token("gho_", "[REDACTED_TOKEN]"),
+        Rule.fixed("AKIA", 16, "[REDACTED_AWS]"),
+        Rule.keyValue("access_token"),
+        Rule.keyValue("refresh_token"),
+        Rule.keyValue("id_token"),
+        Rule.keyValue("subject_token"),
+        Rule.keyValue("client_secret"),
+        Rule.keyValue("code_verifier"),
+        Rule.keyValue("authorization_code"),
+        Rule.keyValue("device_auth_id"),
+        Rule.keyValue("user_code"),
+        Rule.keyValue("usercode"),
+        Rule.bearer("Bearer")
+    ));
+
+    private final int[][] transitions;
+    private final Rule[] outputs;
+    private final int[] depths;
+
+    private SecretRedactor(List<Rule> rules) {
+        List<int[]> gotoTable = new ArrayList<>();
+        List<Rule> nodeOutputs = new ArrayList<>();
+        List<Integer> nodeDepths = new ArrayList<>();
+        gotoTable.add(newRow());
+        nodeOutputs.add(null);
+        nodeDepths.add(0);
+        for (Rule rule : rules) {
+            int node = 0;
+            for (char c : rule.trigger().toCharArray()) {
+                int symbol = fold(c);
+                if (symbol < 0) {
+                    throw new IllegalArgumentException("Gatilho de redação deve ser ASCII: " + rule.trigger());
+                }
+                if (gotoTable.get(node)[symbol] < 0) {
+                    gotoTable.add(newRow());
+                    nodeOutputs.add(null);
+                    nodeDepths.add(nodeDepths.get(node) + 1);
+                    gotoTable.get(node)[symbol] = gotoTable.size() - 1;
+                }
+                node = gotoTable.get(node)[symbol];
+            }
+            nodeOutputs.set(node, rule);
+        }
+
+        int size = gotoTable.size();
+        int[] failure = new int[size];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int child = gotoTable.get(0)[symbol];
+            if (child < 0) {
+                gotoTable.get(0)[symbol] = 0;
+            } else {
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            if (nodeOutputs.get(node) == null) {
+                nodeOutputs.set(node, nodeOutputs.get(failure[node]));
+            }
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = gotoTable.get(node)[symbol];
+                if (child < 0) {
+                    gotoTable.get(node)[symbol] = gotoTable.get(failure[node])[symbol];
+                } else {
+                    failure[child] = gotoTable.get(failure[node])[symbol];
+                    queue.add(child);
+                }
+            }
+        }
+
+        this.transitions = gotoTable.toArray(new int[0][]);
+        this.outputs = nodeOutputs.toArray(new Rule[0]);
+        this.depths = nodeDepths.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public static SecretRedactor standard() {
+        return STANDARD;
+    }
+
+    public String redact(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        char[] chars = text.toCharArray();
+        StringWriter out = new StringWriter(chars.length);
+        Scan scan = new Scan(out);
+        try {
+            scan.run(chars, chars.length, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return scan.redactions == 0 ? text : out.toString();
+    }
+
+    public void redact(Reader in, Writer out) throws IOException {
+        Scan scan = new Scan(out);
+        char[] buffer = new char[BUFFER_SIZE];
+        int length = 0;
+        boolean eof = false;
+        while (!eof) {
+            int read = in.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                eof = true;
+            } else {
+                length += read;
+            }
+            int retained = scan.run(buffer, length, eof);
+            System.arraycopy(buffer, retained, buffer, 0, length - retained);
+            length -= retained;
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int fold(char c) {
+        if (c >= ALPHABET) {
+            return -1;
+        }
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isAwsKeyChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isValueChar(char c) {
+        return c != '"' && c != ',' && c != '&' && c != '}' && !isWhitespace(c);
+    }
+
+    private static boolean isBearerChar(char c) {
+        return isAlphanumeric(c) || c == '.' || c == '_' || c == '~' || c == '+' || c == '/' || c == '-';
+    }
+
+    private static boolean isPadding(char c) {
+        return c == '=';
+    }
+
+    @FunctionalInterface
+    private interface CharClass {
+        boolean test(char c);
+    }
+
+    private enum Kind {
+        TOKEN, FIXED, KEY_VALUE, BEARER
+    }
+
+    private record Rule(String trigger, boolean caseSensitive, Kind kind, int fixedLength, String replacement) {
+
+        /** {@code trigger[A-Za-z0-9]+}, replaced as a whole. */
+        static Rule token(String trigger, String replacement) {
+            return new Rule(trigger, true, Kind.TOKEN, 0, replacement);
+        }
+
+        /** {@code trigger[0-9A-Z]{length}}, replaced as a whole. */
+        static Rule fixed(String trigger, int length, String replacement) {
+            return new Rule(trigger, true, Kind.FIXED, length, replacement);
+        }
+
+        /** Case-insensitive {@code key"?\s*[:=]\s*"?value}; the key is kept and the value redacted. */
+        static Rule keyValue(String key) {
+            return new Rule(key, false, Kind.KEY_VALUE, 0, REDACTED);
+        }
+
+        /** Case-insensitive {@code scheme\s+credential=*}; the scheme is kept and the credential redacted. */
+        static Rule bearer(String scheme) {
+            return new Rule(scheme, false, Kind.BEARER, 0, REDACTED);
+        }
+    }
+
+    private final class Scan {
+        private static final int NO_MATCH = -1;
+        private static final int NEED_MORE = -2;
+
+        private final Writer out;
+        private int state;
+        private int position;
+        private int carriedFlushed;
+        private CharClass skip;
+        private CharClass skipAfter;
+        private int redactions;
+
+        private int matchEnd;
+        private int secretStart;
+        private String replacement;
+        private CharClass matchSkip;
+        private CharClass matchSkipAfter;
+
+        private Scan(Writer out) {
+            this.out = out;
+        }
+
+        /**
+         * Scans {@code buffer[position, length)} and writes every character that can no longer be part
+         * of a secret. Returns the index of the first character the caller must keep for the next call.
+         * Characters before {@code flushed} have already been written or redacted.
+         */
+        private int run(char[] buffer, int length, boolean eof) throws IOException {
+            int flushed = carriedFlushed;
+            int i = position;
+            while (i < length) {
+                char c = buffer[i];
+                int previousState = state;
+                CharClass previousSkip = skip;
+                CharClass previousSkipAfter = skipAfter;
+                int previousFlushed = flushed;
+
+                boolean consumed = consume(c);
+                if (consumed) {
+                    flushed = i + 1;
+                }
+                int symbol = fold(c);
+                state = symbol < 0 ? 0 : transitions[state][symbol];
+                Rule rule = outputs[state];
+                if (rule == null) {
+                    i++;
+                    continue;
+                }
+                int start = i + 1 - rule.trigger().length();
+                int result = confirm(buffer, start, i + 1, length, eof, rule);
+                if (result == NEED_MORE) {
+                    // Only the automaton context of the candidate is carried over; plain text before it is written
+                    // now, so a candidate at the end of a full buffer always frees room for the next read.
+                    int keepFrom = i + 1 - depths[state];
+                    state = previousState;
+                    skip = previousSkip;
+                    skipAfter = previousSkipAfter;
+                    if (previousFlushed < keepFrom) {
+                        out.write(buffer, previousFlushed, keepFrom - previousFlushed);
+                    }
+                    carriedFlushed = Math.max(0, previousFlushed - keepFrom);
+                    position = i - keepFrom;
+                    return keepFrom;
+                }
+                if (result == NO_MATCH || (consumed && coveredBySkip(buffer, i + 1, secretStart))) {
+                    i++;
+                    continue;
+                }
+                if (start >= flushed) {
+                    out.write(buffer, flushed, start - flushed);
+                    out.write(replacement);
+                } else {
+                    out.write(overlapReplacement(rule, flushed - start));
+                }
+                redactions++;
+                skip = matchSkip;
+                skipAfter = matchSkipAfter;
+                state = 0;
+                i = matchEnd;
+                flushed = matchEnd;
+            }
+            if (eof) {
+                out.write(buffer, flushed, length - flushed);
+                carriedFlushed = 0;
+                position = 0;
+                return length;
+            }
+            int keepFrom = length - depths[state];
+            if (flushed < keepFrom) {
+                out.write(buffer, flushed, keepFrom - flushed);
+                flushed = keepFrom;
+            }
+            carriedFlushed = flushed - keepFrom;
+            position = length - keepFrom;
+            return keepFrom;
+        }
+
+        private boolean consume(char c) {
+            while (skip != null) {
+                if (skip.test(c)) {
+                    return true;
+                }
+                skip = skipAfter;
+                skipAfter = null;
+            }
+            return false;
+        }
+
+        private boolean coveredBySkip(char[] buffer, int from, int to) {
+            if (skip == null || to >= buffer.length) {
+                return false;
+            }
+            for (int k = from; k <= to; k++) {
+                if (!skip.test(buffer[k])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String overlapReplacement(Rule rule, int alreadyRedacted) {
+            if (rule.kind() == Kind.KEY_VALUE || rule.kind() == Kind.BEARER) {
+                return replacement.substring(Math.min(alreadyRedacted, rule.trigger().length()));
+            }
+            return replacement;
+        }
+
+        private int confirm(char[] buffer, int start, int triggerEnd, int length, boolean eof, Rule rule) {
+            if (rule.caseSensitive() && !new String(buffer, start, triggerEnd - start).equals(rule.trigger())) {
+                return NO_MATCH;
+            }
+            int p = triggerEnd;
+            switch (rule.kind()) {
+                case TOKEN -> {
+                    if (p >= length) {
+                        return eof ? NO_MATCH : NEED_MORE;
+                    }
+                    if (!isAlphanumeric(buffer[p])) {
+                        return NO_MATCH;
+                    }
+                    return matched(p, p, rule.replacement(), SecretRedactor::isAlphanumeric, null);
+                }
+                case FIXED -> {
+                    if (p + rule.fixedLength() > length) {
+                        return eof ? NO_MATCH : NEED_MORE;
+                    }
+                    for (int k = p; k < p + rule.fixedLength(); k++) {
+                        if (!isAwsKeyChar(buffer[k])) {
+                            return NO_MATCH;
+                        }
+                    }
+                    return matched(p, p + rule.fixedLength(), rule.replacement(), null, null);
+                }
+                case KEY_VALUE -> {
+                    if (p < length && buffer[p] == '"') {
+                        p++;
+                    }
+                    p = skipWhitespace(buffer, p, length);
+                    if (p >= length) {
+                        return p - triggerEnd > MAX_SEPARATOR_LOOKAHEAD || eof ? NO_MATCH : NEED_MORE;
+                    }
+                    if (buffer[p] != ':' && buffer[p] != '=') {
+                        return NO_MATCH;
+                    }
+                    p = skipWhitespace(buffer, p + 1, length);
+                    if (p < length && buffer[p] == '"') {
+                        p++;
+                    }
+                    if (p >= length) {
+                        return p - triggerEnd > 2 * MAX_SEPARATOR_LOOKAHEAD || eof ? NO_MATCH : NEED_MORE;
+                    }
+                    if (!isValueChar(buffer[p])) {
+                        return NO_MATCH;
+                    }
+                    String key = new String(buffer, start, triggerEnd - start);
+                    return matched(p, p, key + "=" + rule.replacement(), SecretRedactor::isValueChar, null);
+                }
+                case BEARER -> {
+                    int afterSpaces = skipWhitespace(buffer, p, length);
+                    if (afterSpaces >= length) {
+                        return afterSpaces - triggerEnd > MAX_SEPARATOR_LOOKAHEAD || eof ? NO_MATCH : NEED_MORE;
+                    }
+                    if (afterSpaces == p || !isBearerChar(buffer[afterSpaces])) {
+                        return NO_MATCH;
+                    }
+                    String scheme = new String(buffer, start, triggerEnd - start);
+                    return matched(afterSpaces, afterSpaces, scheme + " " + rule.replacement(),
+                        SecretRedactor::isBearerChar, SecretRedactor::isPadding);
+                }
+                default -> {
+                    return NO_MATCH;
+                }
+            }
+        }
+
+        private int skipWhitespace(char[] buffer, int p, int length) {
+            int limit = Math.min(length, p + MAX_SEPARATOR_LOOKAHEAD + 1);
+            while (p < limit && isWhitespace(buffer[p])) {
+                p++;
+            }
+            return p;
+        }
+
+        private int matched(int secret, int end, String text, CharClass skipClass, CharClass skipAfterClass) {
+            secretStart = secret;
+            matchEnd = end;
+            replacement = text;
+            matchSkip = skipClass;
+            matchSkipAfter = skipAfterClass;
+            return end;
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.aihub.hub.domain.SourceRepositoryConfig;
 import com.aihub.hub.dto.SourceModuleChangeView;
 import com.aihub.hub.github.GithubApiClient;
 import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -17,6 +19,8 @@ import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 public class SourceModuleChangeService {
@@ -35,7 +39,22 @@ public class SourceModuleChangeService {
     private final String githubOwner;
     private final String githubRepo;
     private final String githubBranch;
+    private final ExpiringLruCache<CommitCacheKey, Optional<Instant>> lastCommitCache;
 
+    public SourceModuleChangeService(
+        Clock clock,
+        GithubApiClient githubApiClient,
+        SourceRepositoryConfigService sourceRepositoryConfigService,
+        String githubOwner,
+        String githubRepo,
+        String githubBranch,
+        String configuredRepositoryRoot
+    ) {
+        this(clock, githubApiClient, sourceRepositoryConfigService, githubOwner, githubRepo, githubBranch,
+            configuredRepositoryRoot, 360);
+    }
+
+    @Autowired
     public SourceModuleChangeService(
         Clock clock,
         GithubApiClient githubApiClient,
@@ -43,7 +62,8 @@ public class SourceModuleChangeService {
         @Value("${hub.source.repository.owner:${GITHUB_SOURCE_OWNER:paulofor}}") String githubOwner,
         @Value("${hub.source.repository.repo:${GITHUB_SOURCE_REPO:ai-hub}}") String githubRepo,
         @Value("${hub.source.repository.branch:${GITHUB_SOURCE_BRANCH:main}}") String githubBranch,
-        @Value("${hub.source.repository.root:${HUB_SOURCE_REPOSITORY_ROOT:}}") String configuredRepositoryRoot
+        @Value("${hub.source.repository.root:${HUB_SOURCE_REPOSITORY_ROOT:}}") String configuredRepositoryRoot,
+        @Value("${hub.github.cache.ttl-minutes:360}") long cacheTtlMinutes
     ) {
         this.clock = clock;
         this.githubApiClient = githubApiClient;
@@ -52,6 +72,12 @@ public class SourceModuleChangeService {
         this.githubRepo = githubRepo;
         this.githubBranch = githubBranch;
         this.repositoryRoot = discoverRepositoryRoot(configuredRepositoryRoot);
+        this.lastCommitCache = new ExpiringLruCache<>(64, Duration.ofMinutes(Math.max(0, cacheTtlMinutes)), clock);
+    }
+
+    @EventListener
+    public void onRepositoryChanged(RepositoryChangedEvent event) {
+        lastCommitCache.invalidateIf(key -> event.affects(key.repository(), key.branch(), key.modulePath()));
     }
 
     public List<SourceModuleChangeView> listModuleChanges() {
@@ -103,16 +129,8 @@ public class SourceModuleChangeService {
         if (githubOwner.isBlank() || githubRepo.isBlank()) {
             return null;
         }
-        try {
-            JsonNode commits = githubApiClient.listCommits(githubOwner, githubRepo, githubBranch, modulePath, 1);
-            if (commits == null || !commits.isArray() || commits.isEmpty()) {
-                return null;
-            }
-            JsonNode date = commits.get(0).path("commit").path("committer").path("date");
-            return date.isTextual() ? Instant.parse(date.asText()) : null;
-        } catch (RuntimeException ex) {
-            return null;
-        }
+        return cachedLastCommitInstant(githubOwner, githubRepo, githubBranch, modulePath,
+            () -> githubApiClient.listCommits(githubOwner, githubRepo, githubBranch, modulePath, 1));
     }
 
     private Instant lastCommitInstantFromGithubConfig(String modulePath, SourceRepositoryConfig config) {
@@ -122,20 +140,31 @@ public class SourceModuleChangeService {
             || config.getGithubToken() == null || config.getGithubToken().isBlank()) {
             return null;
         }
-        try {
-            JsonNode commits = githubApiClient.listCommitsWithToken(
+        return cachedLastCommitInstant(config.getGithubOwner(), config.getGithubRepo(), config.getGithubBranch(), modulePath,
+            () -> githubApiClient.listCommitsWithToken(
                 config.getGithubOwner(),
                 config.getGithubRepo(),
                 config.getGithubBranch(),
                 modulePath,
                 1,
                 config.getGithubToken()
-            );
-            if (commits == null || !commits.isArray() || commits.isEmpty()) {
-                return null;
-            }
-            JsonNode date = commits.get(0).path("commit").path("committer").path("date");
-            return date.isTextual() ? Instant.parse(date.asText()) : null;
+            ));
+    }
+
+    private Instant cachedLastCommitInstant(String owner,
+                                            String repo,
+                                            String branch,
+                                            String modulePath,
+                                            Supplier<JsonNode> listCommits) {
+        try {
+            return lastCommitCache.get(new CommitCacheKey(owner + "/" + repo, branch, modulePath), () -> {
+                JsonNode commits = listCommits.get();
+                if (commits == null || !commits.isArray() || commits.isEmpty()) {
+                    return Optional.empty();
+                }
+                JsonNode date = commits.get(0).path("commit").path("committer").path("date");
+                return date.isTextual() ? Optional.of(Instant.parse(date.asText())) : Optional.empty();
+            }).orElse(null);
         } catch (RuntimeException ex) {
             return null;
         }
@@ -185,4 +214,7 @@ public class SourceModuleChangeService {
 
     private record SourceModule(String name, String path) {
     }
+
+    private record CommitCacheKey(String repository, String branch, String modulePath) {
+    }
 }
@@ -21,10 +21,14 @@ public class SourceRepositoryConfigService {
 
     private final SourceRepositoryConfigRepository repository;
     private final Clock clock;
+    private final ReferenceDataCache referenceDataCache;
 
-    public SourceRepositoryConfigService(SourceRepositoryConfigRepository repository, Clock clock) {
+    public SourceRepositoryConfigService(SourceRepositoryConfigRepository repository,
+                                         Clock clock,
+                                         ReferenceDataCache referenceDataCache) {
         this.repository = repository;
         this.clock = clock;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Transactional(readOnly = true)
@@ -34,9 +38,13 @@ public class SourceRepositoryConfigService {
             .orElseGet(SourceRepositoryConfigView::empty);
     }
 
+    /**
+     * Returns a detached copy shared through {@link ReferenceDataCache}; changes must go through {@link #saveConfig}.
+     */
     @Transactional(readOnly = true)
     public Optional<SourceRepositoryConfig> getConfig() {
-        return repository.findById(SINGLETON_ID);
+        return referenceDataCache.sourceRepositoryConfig(() ->
+            repository.findById(SINGLETON_ID).map(SourceRepositoryConfig::detachedCopy));
     }
 
     @Transactional
@@ -61,7 +69,9 @@ public class SourceRepositoryConfigService {
         }
         config.setUpdatedAt(clock.instant());
 
-        return SourceRepositoryConfigView.from(repository.save(config));
+        SourceRepositoryConfigView view = SourceRepositoryConfigView.from(repository.save(config));
+        referenceDataCache.invalidateSourceRepositoryConfig();
+        return view;
     }
 
     private static String normalizeNullable(String value) {
@@ -1,181 +1,368 @@
 package com.aihub.hub.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @Component
 public class UnifiedDiffApplier {
 
+    private static final int DEFAULT_FUZZ_FACTOR = 2;
+    private static final int DEFAULT_MAX_FUZZ_OFFSET = 1000;
+
+    private final int fuzzFactor;
+    private final int maxFuzzOffset;
+
+    public UnifiedDiffApplier() {
+        this(DEFAULT_FUZZ_FACTOR, DEFAULT_MAX_FUZZ_OFFSET);
+    }
+
+    @Autowired
+    public UnifiedDiffApplier(@Value("${hub.diff.fuzz-factor:2}") int fuzzFactor,
+                              @Value("${hub.diff.max-fuzz-offset:1000}") int maxFuzzOffset) {
+        this.fuzzFactor = Math.max(0, fuzzFactor);
+        this.maxFuzzOffset = Math.max(0, maxFuzzOffset);
+    }
+
     public Map<String, AppliedDiff> parse(String diffText) {
-        Map<String, AppliedDiff> result = new HashMap<>();
-        String[] lines = diffText.split("\n");
+        try {
+            return parse(new StringReader(diffText));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Map<String, AppliedDiff> parse(Reader diff) throws IOException {
+        Map<String, AppliedDiff> result = new LinkedHashMap<>();
+        LineReader reader = new LineReader(diff);
         AppliedDiff current = null;
         Hunk currentHunk = null;
-        for (String rawLine : lines) {
-            String line = rawLine;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            boolean insideHunk = currentHunk != null && currentHunk.expectsMoreLines();
             if (line.startsWith("diff --git")) {
                 current = new AppliedDiff();
-                current.hunks = new ArrayList<>();
-                result.put("pending", current);
-            } else if (line.startsWith("--- ")) {
-                if (current != null) {
-                    current.oldPath = line.substring(4).trim();
+                currentHunk = null;
+            } else if (line.startsWith("--- ") && !insideHunk) {
+                if (current == null || current.newPath != null) {
+                    current = new AppliedDiff();
                 }
-            } else if (line.startsWith("+++ ")) {
+                current.oldPath = stripPrefix(line.substring(4).trim(), "a/");
+                currentHunk = null;
+            } else if (line.startsWith("+++ ") && !insideHunk) {
                 if (current != null) {
-                    current.newPath = line.substring(4).trim();
-                    if (current.newPath.startsWith("b/")) {
-                        current.newPath = current.newPath.substring(2);
-                    }
-                    if (current.oldPath != null && current.oldPath.startsWith("a/")) {
-                        current.oldPath = current.oldPath.substring(2);
-                    }
-                    result.put(current.newPath, current);
+                    current.newPath = stripPrefix(line.substring(4).trim(), "b/");
+                    result.put(current.isDeletion() ? current.oldPath : current.newPath, current);
                 }
+                currentHunk = null;
             } else if (line.startsWith("@@")) {
                 if (current != null) {
                     currentHunk = new Hunk();
-                    currentHunk.lines = new ArrayList<>();
                     String[] parts = line.split(" ");
                     if (parts.length >= 3) {
-                        currentHunk.originalStart = parseStart(parts[1]);
-                        currentHunk.newStart = parseStart(parts[2]);
+                        currentHunk.originalStart = parseNumber(parts[1], 0);
+                        currentHunk.originalCount = parseNumber(parts[1], 1);
+                        currentHunk.newStart = parseNumber(parts[2], 0);
+                        currentHunk.newCount = parseNumber(parts[2], 1);
                     }
                     current.hunks.add(currentHunk);
                 }
-            } else {
-                if (currentHunk != null) {
-                    currentHunk.lines.add(line);
-                }
+            } else if (currentHunk != null) {
+                currentHunk.add(line);
             }
         }
-        result.remove("pending");
         return result;
     }
 
-    private int parseStart(String chunk) {
+    private static String stripPrefix(String path, String prefix) {
+        return path.startsWith(prefix) ? path.substring(prefix.length()) : path;
+    }
+
+    private static int parseNumber(String chunk, int index) {
         String[] split = chunk.substring(1).split(",");
-        return Integer.parseInt(split[0]);
+        if (index >= split.length) {
+            return 1;
+        }
+        return Integer.parseInt(split[index]);
     }
 
     public String apply(String originalContent, AppliedDiff diff) {
-        List<String> originalLines;
-        if (originalContent == null) {
-            originalLines = new ArrayList<>();
-        } else {
-            originalLines = new ArrayList<>(Arrays.asList(originalContent.split("\n", -1)));
-            if (originalContent.endsWith("\n")) {
-                originalLines.add("");
-            }
-        }
-        List<String> result = new ArrayList<>();
+        return applyWithPlacements(originalContent, diff).content();
+    }
+
+    /**
+     * Same as {@link #apply}, also reporting where each hunk landed relative to its header and how many context
+     * lines had to be dropped to place it.
+     */
+    PatchResult applyWithPlacements(String originalContent, AppliedDiff diff) {
+        SourceLines source = new SourceLines(originalContent == null ? "" : originalContent);
+        StringBuilder result = new StringBuilder(source.text.length() + 256);
+        List<HunkPlacement> placements = new ArrayList<>(diff.hunks.size());
         int originalIndex = 0;
         for (Hunk hunk : diff.hunks) {
-            int target = computeHunkStart(originalLines, hunk, originalIndex);
-            while (originalIndex < target && originalIndex < originalLines.size()) {
-                result.add(originalLines.get(originalIndex++));
+            Placement placement = place(source, hunk, originalIndex);
+            placements.add(new HunkPlacement(placement.start - Math.max(hunk.originalStart - 1, 0), placement.fuzz));
+            while (originalIndex < placement.start && originalIndex < source.count) {
+                source.appendLine(result, originalIndex++);
             }
-            for (String line : hunk.lines) {
+            for (int h = hunk.indexAfterContext(placement.skippedLines); h < hunk.lines.size(); h++) {
+                String line = hunk.lines.get(h);
                 if (line.isEmpty()) {
                     continue;
                 }
-                char symbol = line.charAt(0);
-                String value = line.length() > 1 ? line.substring(1) : "";
-                switch (symbol) {
+                switch (line.charAt(0)) {
                     case ' ' -> {
-                        if (originalIndex < originalLines.size()) {
-                            result.add(originalLines.get(originalIndex++));
+                        if (originalIndex < source.count) {
+                            source.appendLine(result, originalIndex++);
                         } else {
-                            result.add(value);
+                            result.append(line, 1, line.length()).append('\n');
                         }
                     }
                     case '-' -> {
-                        if (originalIndex < originalLines.size()) {
+                        if (originalIndex < source.count) {
                             originalIndex++;
                         }
                     }
-                    case '+' -> result.add(value);
+                    case '+' -> result.append(line, 1, line.length()).append('\n');
                     default -> {
                     }
                 }
             }
         }
-        while (originalIndex < originalLines.size()) {
-            result.add(originalLines.get(originalIndex++));
+        while (originalIndex < source.count) {
+            source.appendLine(result, originalIndex++);
+        }
+        if (result.isEmpty()) {
+            result.append('\n');
         }
-        return String.join("\n", result).replaceAll("\n$", "") + "\n";
+        return new PatchResult(result.toString(), placements);
     }
 
-    private int computeHunkStart(List<String> originalLines, Hunk hunk, int processedIndex) {
+    private Placement place(SourceLines source, Hunk hunk, int processedIndex) {
         int expectedIndex = Math.max(hunk.originalStart - 1, 0);
-        List<String> contextLines = extractContextLines(hunk);
-        if (contextLines.isEmpty() || originalLines.isEmpty()) {
-            return Math.max(expectedIndex, processedIndex);
+        List<String> preimage = hunk.preimage();
+        if (preimage.isEmpty() || source.count == 0) {
+            return new Placement(Math.max(expectedIndex, processedIndex), 0, 0);
         }
 
-        int matchIndex = findContextPosition(originalLines, contextLines, expectedIndex);
-        return Math.max(matchIndex, processedIndex);
-    }
+        int exact = source.find(preimage, 0, preimage.size(), expectedIndex, processedIndex, Integer.MAX_VALUE);
+        if (exact >= 0) {
+            return new Placement(exact, 0, 0);
+        }
 
-    private List<String> extractContextLines(Hunk hunk) {
-        List<String> context = new ArrayList<>();
-        for (String line : hunk.lines) {
-            if (line.isEmpty()) {
+        int leadingContext = hunk.leadingContext();
+        int trailingContext = hunk.trailingContext();
+        for (int fuzz = 1; fuzz <= fuzzFactor; fuzz++) {
+            int top = Math.min(fuzz, leadingContext);
+            int bottom = Math.min(fuzz, trailingContext);
+            if (top + bottom == 0 || top + bottom >= preimage.size()) {
                 continue;
             }
-            char symbol = line.charAt(0);
-            if (symbol == ' ' || symbol == '-') {
-                context.add(line.substring(1));
+            int match = source.find(preimage, top, preimage.size() - bottom,
+                expectedIndex + top, processedIndex, maxFuzzOffset);
+            if (match >= 0) {
+                int start = match - top;
+                int skipped = Math.max(0, processedIndex - start);
+                return new Placement(start + skipped, skipped, fuzz);
             }
         }
-        return context;
+
+        int anchor = source.nearestOccurrence(preimage.get(0), expectedIndex);
+        return new Placement(Math.max(anchor, processedIndex), 0, 0);
     }
 
-    private int findContextPosition(List<String> originalLines, List<String> contextLines, int expectedIndex) {
-        int contextSize = contextLines.size();
-        if (contextSize == 0) {
-            return expectedIndex;
+    private record Placement(int start, int skippedLines, int fuzz) {
+    }
+
+    record PatchResult(String content, List<HunkPlacement> hunks) {
+    }
+
+    /** {@code offset} is in lines from the hunk header; {@code fuzz} is the context trimmed from each end. */
+    record HunkPlacement(int offset, int fuzz) {
+    }
+
+    /**
+     * Original content addressed by line offsets, with a lazily built hash index so context
+     * anchors are looked up in O(1) instead of scanning the whole file for every hunk.
+     */
+    private static final class SourceLines {
+        private final String text;
+        private final int[] starts;
+        private final int[] ends;
+        private final int count;
+        private Map<Integer, int[]> positionsByHash;
+
+        private SourceLines(String text) {
+            this.text = text;
+            int capacity = 16;
+            int[] lineStarts = new int[capacity];
+            int[] lineEnds = new int[capacity];
+            int lines = 0;
+            int start = 0;
+            int length = text.length();
+            while (start < length) {
+                int newline = text.indexOf('\n', start);
+                int end = newline < 0 ? length : newline;
+                if (lines == lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+                    lineEnds = Arrays.copyOf(lineEnds, lines * 2);
+                }
+                lineStarts[lines] = start;
+                lineEnds[lines] = end;
+                lines++;
+                start = end + 1;
+            }
+            this.starts = lineStarts;
+            this.ends = lineEnds;
+            this.count = lines;
         }
 
-        int lastPossibleStart = originalLines.size() - contextSize;
-        for (int start = 0; start <= lastPossibleStart; start++) {
-            boolean matches = true;
-            for (int i = 0; i < contextSize; i++) {
-                if (!originalLines.get(start + i).equals(contextLines.get(i))) {
-                    matches = false;
-                    break;
+        private void appendLine(StringBuilder out, int index) {
+            out.append(text, starts[index], ends[index]).append('\n');
+        }
+
+        private boolean lineEquals(int index, String line) {
+            int length = ends[index] - starts[index];
+            return length == line.length() && text.regionMatches(starts[index], line, 0, length);
+        }
+
+        private int hashOf(int index) {
+            int hash = 0;
+            for (int i = starts[index]; i < ends[index]; i++) {
+                hash = 31 * hash + text.charAt(i);
+            }
+            return hash;
+        }
+
+        private int[] positions(String line) {
+            if (positionsByHash == null) {
+                Map<Integer, int[]> index = new HashMap<>(Math.max(16, count * 2));
+                for (int i = 0; i < count; i++) {
+                    index.merge(hashOf(i), new int[]{i}, SourceLines::concat);
+                }
+                positionsByHash = index;
+            }
+            return positionsByHash.getOrDefault(line.hashCode(), new int[0]);
+        }
+
+        private static int[] concat(int[] left, int[] right) {
+            int[] merged = Arrays.copyOf(left, left.length + right.length);
+            System.arraycopy(right, 0, merged, left.length, right.length);
+            return merged;
+        }
+
+        /**
+         * Finds where {@code lines[from, to)} occurs, anchored on its rarest line, choosing the
+         * occurrence closest to {@code expected} that starts at or after {@code minStart} and within
+         * {@code maxOffset} lines of {@code expected}. Returns -1 when there is none.
+         */
+        private int find(List<String> lines, int from, int to, int expected, int minStart, int maxOffset) {
+            int anchorOffset = -1;
+            int[] anchorPositions = null;
+            for (int i = from; i < to; i++) {
+                int[] candidates = positions(lines.get(i));
+                if (anchorPositions == null || candidates.length < anchorPositions.length) {
+                    anchorPositions = candidates;
+                    anchorOffset = i - from;
+                    if (candidates.length == 0) {
+                        return -1;
+                    }
+                }
+            }
+            int best = -1;
+            long bestDistance = Long.MAX_VALUE;
+            for (int position : anchorPositions) {
+                int start = position - anchorOffset;
+                long distance = Math.abs((long) start - expected);
+                if (start < minStart || start + (to - from) > count || distance > maxOffset || distance >= bestDistance) {
+                    continue;
+                }
+                if (matchesAt(lines, from, to, start)) {
+                    best = start;
+                    bestDistance = distance;
                 }
             }
-            if (matches) {
-                return start;
+            return best;
+        }
+
+        private boolean matchesAt(List<String> lines, int from, int to, int start) {
+            for (int i = from; i < to; i++) {
+                if (!lineEquals(start + i - from, lines.get(i))) {
+                    return false;
+                }
             }
+            return true;
         }
 
-        String anchor = contextLines.get(0);
-        int bestIndex = expectedIndex;
-        int smallestDistance = Integer.MAX_VALUE;
-        for (int i = 0; i < originalLines.size(); i++) {
-            if (originalLines.get(i).equals(anchor)) {
-                int distance = Math.abs(i - expectedIndex);
-                if (distance < smallestDistance) {
+        private int nearestOccurrence(String line, int expected) {
+            int best = expected;
+            int smallestDistance = Integer.MAX_VALUE;
+            for (int position : positions(line)) {
+                int distance = Math.abs(position - expected);
+                if (distance < smallestDistance && lineEquals(position, line)) {
                     smallestDistance = distance;
-                    bestIndex = i;
+                    best = position;
                 }
             }
+            return best;
         }
+    }
 
-        return bestIndex;
+    /**
+     * Splits on {@code '\n'} only, so carriage returns of CRLF content survive the round trip.
+     */
+    private static final class LineReader {
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+
+        private LineReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = null;
+            while (true) {
+                if (position >= limit) {
+                    limit = reader.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return line == null ? null : line.toString();
+                    }
+                }
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                if (line == null) {
+                    line = new StringBuilder(position - start);
+                }
+                line.append(buffer, start, position - start);
+                if (position < limit) {
+                    position++;
+                    return line.toString();
+                }
+            }
+        }
     }
 
     public static class AppliedDiff {
         private String oldPath;
         private String newPath;
-        private List<Hunk> hunks;
+        private final List<Hunk> hunks = new ArrayList<>();
 
         public String getOldPath() {
             return oldPath;
@@ -188,11 +375,86 @@ public class UnifiedDiffApplier {
         public List<Hunk> getHunks() {
             return hunks;
         }
+
+        /** Whether the diff removes {@link #getOldPath()}; deletions are keyed by their old path. */
+        public boolean isDeletion() {
+            return newPath != null && newPath.contains("/dev/null") && oldPath != null && !oldPath.contains("/dev/null");
+        }
     }
 
     private static class Hunk {
         private int originalStart;
+        private int originalCount;
         private int newStart;
-        private List<String> lines;
+        private int newCount;
+        private int seenOriginal;
+        private int seenNew;
+        private final List<String> lines = new ArrayList<>();
+
+        private void add(String line) {
+            lines.add(line);
+            char symbol = line.isEmpty() ? ' ' : line.charAt(0);
+            if (symbol == ' ' || symbol == '-') {
+                seenOriginal++;
+            }
+            if (symbol == ' ' || symbol == '+') {
+                seenNew++;
+            }
+        }
+
+        private boolean expectsMoreLines() {
+            return seenOriginal < originalCount || seenNew < newCount;
+        }
+
+        private List<String> preimage() {
+            List<String> context = new ArrayList<>();
+            for (String line : lines) {
+                if (!line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '-')) {
+                    context.add(line.substring(1));
+                }
+            }
+            return context;
+        }
+
+        private int leadingContext() {
+            int count = 0;
+            for (String line : lines) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.charAt(0) != ' ') {
+                    break;
+                }
+                count++;
+            }
+            return count;
+        }
+
+        private int trailingContext() {
+            int count = 0;
+            for (int i = lines.size() - 1; i >= 0; i--) {
+                String line = lines.get(i);
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.charAt(0) != ' ') {
+                    break;
+                }
+                count++;
+            }
+            return count;
+        }
+
+        private int indexAfterContext(int contextLines) {
+            int index = 0;
+            int skipped = 0;
+            while (skipped < contextLines && index < lines.size()) {
+                if (!lines.get(index).isEmpty()) {
+                    skipped++;
+                }
+                index++;
+            }
+            return index;
+        }
     }
 }
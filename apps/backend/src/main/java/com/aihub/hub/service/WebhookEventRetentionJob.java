@@ -0,0 +1,171 @@
+package com.aihub.hub.service;
+
+import com.aihub.hub.domain.CompressedTextConverter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the webhook events table small: compresses rows written before payload compression existed, discards
+ * payloads past their retention window while keeping the extracted columns, and finally deletes expired rows.
+ */
+@Component
+public class WebhookEventRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookEventRetentionJob.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final int payloadRetentionDays;
+    private final int retentionDays;
+    private final int chunkSize;
+
+    @Autowired
+    public WebhookEventRetentionJob(JdbcTemplate jdbcTemplate,
+                                    ObjectMapper objectMapper,
+                                    @Value("${hub.github.webhook.retention.payload-days:30}") int payloadRetentionDays,
+                                    @Value("${hub.github.webhook.retention.event-days:180}") int retentionDays,
+                                    @Value("${hub.github.webhook.retention.chunk-size:500}") int chunkSize) {
+        this(jdbcTemplate, objectMapper, payloadRetentionDays, retentionDays, chunkSize, Clock.systemUTC());
+    }
+
+    WebhookEventRetentionJob(JdbcTemplate jdbcTemplate,
+                             ObjectMapper objectMapper,
+                             int payloadRetentionDays,
+                             int retentionDays,
+                             int chunkSize,
+                             Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.payloadRetentionDays = payloadRetentionDays;
+        this.retentionDays = retentionDays;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.clock = clock;
+    }
+
+    @Scheduled(
+        initialDelayString = "${hub.github.webhook.retention.initial-delay-ms:300000}",
+        fixedDelayString = "${hub.github.webhook.retention.fixed-delay-ms:3600000}"
+    )
+    public void run() {
+        try {
+            int compacted = compactLegacyPayloads();
+            int stripped = discardExpiredPayloads();
+            int deleted = deleteExpiredEvents();
+            if (compacted + stripped + deleted > 0) {
+                log.info("Retenção de webhooks: {} payloads compactados, {} payloads descartados, {} eventos removidos",
+                    compacted, stripped, deleted);
+            }
+        } catch (Exception ex) {
+            log.error("Falha ao aplicar a retenção de eventos de webhook; uma nova tentativa será feita automaticamente", ex);
+        }
+    }
+
+    int compactLegacyPayloads() {
+        int total = 0;
+        while (true) {
+            List<LegacyEvent> chunk = jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, event_type, payload FROM events WHERE payload IS NOT NULL ORDER BY id");
+                ps.setMaxRows(chunkSize);
+                return ps;
+            }, (rs, rowNum) -> new LegacyEvent(rs.getLong("id"), rs.getString("event_type"), rs.getString("payload")));
+            if (chunk.isEmpty()) {
+                return total;
+            }
+            jdbcTemplate.batchUpdate(
+                "UPDATE events SET action = ?, workflow_run_id = ?, conclusion = ?, payload_gzip = ?, payload_size = ?, "
+                    + "payload = NULL WHERE id = ?",
+                chunk,
+                chunk.size(),
+                (ps, event) -> {
+                    JsonNode json = readQuietly(event.payload());
+                    JsonNode source = json.path("workflow_run".equals(event.eventType()) ? "workflow_run" : "workflow_job");
+                    JsonNode runId = source.path("workflow_run".equals(event.eventType()) ? "id" : "run_id");
+                    ps.setString(1, json.path("action").asText(null));
+                    ps.setObject(2, runId.isNumber() ? runId.asLong() : null, Types.BIGINT);
+                    ps.setString(3, source.path("conclusion").asText(null));
+                    ps.setBytes(4, CompressedTextConverter.compress(event.payload()));
+                    ps.setInt(5, event.payload().getBytes(StandardCharsets.UTF_8).length);
+                    ps.setLong(6, event.id());
+                });
+            total += chunk.size();
+            if (chunk.size() < chunkSize) {
+                return total;
+            }
+        }
+    }
+
+    int discardExpiredPayloads() {
+        if (payloadRetentionDays <= 0) {
+            return 0;
+        }
+        return inChunks(
+            "SELECT id FROM events WHERE received_at < ? AND payload_gzip IS NOT NULL ORDER BY id",
+            "UPDATE events SET payload_gzip = NULL WHERE id IN (%s)",
+            cutoff(payloadRetentionDays));
+    }
+
+    int deleteExpiredEvents() {
+        if (retentionDays <= 0) {
+            return 0;
+        }
+        return inChunks(
+            "SELECT id FROM events WHERE received_at < ? ORDER BY id",
+            "DELETE FROM events WHERE id IN (%s)",
+            cutoff(retentionDays));
+    }
+
+    private int inChunks(String selectSql, String updateTemplate, Timestamp cutoff) {
+        int total = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(selectSql);
+                ps.setTimestamp(1, cutoff);
+                ps.setMaxRows(chunkSize);
+                return ps;
+            }, (rs, rowNum) -> rs.getLong(1));
+            if (ids.isEmpty()) {
+                return total;
+            }
+            String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            jdbcTemplate.update(updateTemplate.formatted(placeholders), ids.toArray());
+            total += ids.size();
+            if (ids.size() < chunkSize) {
+                return total;
+            }
+        }
+    }
+
+    private Timestamp cutoff(int days) {
+        return Timestamp.from(Instant.now(clock).minus(Duration.ofDays(days)));
+    }
+
+    private JsonNode readQuietly(String payload) {
+        try {
+            return objectMapper.readTree(payload);
+        } catch (Exception e) {
+            return objectMapper.missingNode();
+        }
+    }
+
+    private record LegacyEvent(long id, String eventType, String payload) {
+    }
+}
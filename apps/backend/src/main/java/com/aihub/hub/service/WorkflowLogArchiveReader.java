@@ -0,0 +1,62 @@
+package com.aihub.hub.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Walks a workflow run log archive entry by entry straight from the source stream,
+ * decoding each entry as UTF-8 without splitting multibyte sequences across reads.
+ */
+public final class WorkflowLogArchiveReader {
+
+    private WorkflowLogArchiveReader() {
+    }
+
+    public static void read(InputStream archive, EntryVisitor visitor) throws IOException {
+        ZipInputStream zis = new ZipInputStream(archive, StandardCharsets.UTF_8);
+        ZipEntry entry;
+        while ((entry = zis.getNextEntry()) != null) {
+            if (entry.isDirectory()) {
+                continue;
+            }
+            Reader content = new InputStreamReader(new EntryInputStream(zis), newDecoder());
+            if (!visitor.visit(entry.getName(), content)) {
+                return;
+            }
+        }
+    }
+
+    private static CharsetDecoder newDecoder() {
+        return StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    @FunctionalInterface
+    public interface EntryVisitor {
+        /**
+         * @return {@code false} to stop reading the remaining entries
+         */
+        boolean visit(String name, Reader content) throws IOException;
+    }
+
+    private static final class EntryInputStream extends FilterInputStream {
+
+        private EntryInputStream(ZipInputStream zis) {
+            super(zis);
+        }
+
+        @Override
+        public void close() {
+            // the archive stream belongs to the caller; only the current entry is exposed
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.aihub.hub.web;
+
+import com.aihub.hub.service.ImageAttachmentStore;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/codex/attachments")
+public class CodexAttachmentController {
+
+    private final ImageAttachmentStore attachmentStore;
+
+    public CodexAttachmentController(ImageAttachmentStore attachmentStore) {
+        this.attachmentStore = attachmentStore;
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> upload(
+        InputStream body,
+        @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType
+    ) {
+        ImageAttachmentStore.StoredAttachment stored = attachmentStore.store(body);
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
+            "sha256", stored.sha256(),
+            "size", stored.size(),
+            "mimeType", StringUtils.hasText(contentType) ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE
+        ));
+    }
+
+    /**
+     * Serves the stored bytes; Range requests are answered with 206 partial content.
+     */
+    @GetMapping("/{sha256}")
+    public ResponseEntity<Resource> download(@PathVariable String sha256) {
+        Path path = attachmentStore.find(sha256)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Anexo não encontrado"));
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+            .eTag(ImageAttachmentStore.normalizeDigest(sha256))
+            .body(new FileSystemResource(path));
+    }
+}
@@ -424,7 +424,7 @@ public class CodexController {
             return payload;
         }
 
-        ResponseRecord response = codexRequestService.findLatestResponseForEnvironment(request.getEnvironment())
+        ResponseRecord response = codexRequestService.findLatestResponse(request)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nenhuma resposta encontrada na tabela responses para esta solicitação"));
 
         String diff = Optional.ofNullable(response.getUnifiedDiff())
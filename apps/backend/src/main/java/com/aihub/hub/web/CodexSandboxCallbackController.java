@@ -1,8 +1,9 @@
 package com.aihub.hub.web;
 
 import com.aihub.hub.service.CodexRequestService;
+import com.aihub.hub.service.SandboxJobPayloadDecoder;
 import com.aihub.hub.service.SandboxOrchestratorClient;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,12 +11,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 @RestController
@@ -35,17 +37,21 @@ public class CodexSandboxCallbackController {
 
     @PostMapping("/callbacks/sandbox")
     public ResponseEntity<Map<String, Object>> handleSandboxCallback(
-        @RequestBody JsonNode payload,
+        InputStream payload,
         @RequestHeader(value = "X-Sandbox-Callback-Token", required = false) String providedSecret
-    ) {
+    ) throws IOException {
         if (StringUtils.hasText(expectedSecret)) {
             if (!StringUtils.hasText(providedSecret) || !expectedSecret.equals(providedSecret.trim())) {
                 throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token de callback inválido");
             }
         }
 
-        SandboxOrchestratorClient.SandboxOrchestratorJobResponse response =
-            SandboxOrchestratorClient.SandboxOrchestratorJobResponse.from(payload);
+        SandboxOrchestratorClient.SandboxOrchestratorJobResponse response;
+        try {
+            response = SandboxJobPayloadDecoder.decode(payload, SandboxJobPayloadDecoder.Detail.FULL);
+        } catch (JsonProcessingException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Payload do sandbox inválido");
+        }
 
         if (response == null || !StringUtils.hasText(response.jobId())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Payload do sandbox inválido");
@@ -0,0 +1,50 @@
+package com.aihub.hub.web;
+
+import com.aihub.hub.logs.stream.ContainerLogChunk;
+import com.aihub.hub.logs.stream.ContainerLogStreamService;
+import com.aihub.hub.service.EnvironmentContainerService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/environments/{environmentId}/containers/{containerId}/logs")
+public class ContainerLogController {
+
+    private final EnvironmentContainerService containerService;
+    private final ContainerLogStreamService logStreamService;
+
+    public ContainerLogController(EnvironmentContainerService containerService,
+                                  ContainerLogStreamService logStreamService) {
+        this.containerService = containerService;
+        this.logStreamService = logStreamService;
+    }
+
+    @GetMapping
+    public ContainerLogChunk readLogs(
+        @PathVariable Long environmentId,
+        @PathVariable Long containerId,
+        @RequestParam(defaultValue = "0") long cursor,
+        @RequestParam(defaultValue = "0") int limit
+    ) {
+        String runtimeId = containerService.resolveRuntimeIdentifier(environmentId, containerId);
+        return logStreamService.read(runtimeId, cursor, limit);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLogs(
+        @PathVariable Long environmentId,
+        @PathVariable Long containerId,
+        @RequestParam(required = false) Long cursor,
+        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        String runtimeId = containerService.resolveRuntimeIdentifier(environmentId, containerId);
+        long start = lastEventId != null ? lastEventId : cursor != null ? cursor : 0L;
+        return logStreamService.subscribe(runtimeId, start);
+    }
+}
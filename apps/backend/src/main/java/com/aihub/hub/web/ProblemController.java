@@ -29,8 +29,14 @@ public class ProblemController {
     }
 
     @GetMapping
-    public List<ProblemView> list() {
-        return problemService.list();
+    public Object list(@RequestParam(required = false) Integer page,
+                       @RequestParam(required = false) Integer size) {
+        if (page == null && size == null) {
+            return problemService.list();
+        }
+        int resolvedPage = page != null ? page : 0;
+        int resolvedSize = size != null ? size : 20;
+        return problemService.listPage(resolvedPage, resolvedSize);
     }
 
     @GetMapping("/active")
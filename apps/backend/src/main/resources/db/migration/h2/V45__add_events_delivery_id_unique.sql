@@ -0,0 +1,2 @@
+DELETE FROM events WHERE id NOT IN (SELECT min_id FROM (SELECT MIN(id) AS min_id FROM events GROUP BY delivery_id) kept);
+CREATE UNIQUE INDEX uq_events_delivery_id ON events(delivery_id);
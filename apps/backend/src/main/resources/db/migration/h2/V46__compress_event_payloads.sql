@@ -0,0 +1,10 @@
+ALTER TABLE events ADD COLUMN action VARCHAR(80);
+ALTER TABLE events ADD COLUMN workflow_run_id BIGINT;
+ALTER TABLE events ADD COLUMN conclusion VARCHAR(60);
+ALTER TABLE events ADD COLUMN payload_gzip VARBINARY;
+ALTER TABLE events ADD COLUMN payload_size INT;
+
+ALTER TABLE events ALTER COLUMN payload SET NULL;
+
+CREATE INDEX idx_events_repo_type ON events(repo, event_type, received_at);
+CREATE INDEX idx_events_workflow_run ON events(workflow_run_id);
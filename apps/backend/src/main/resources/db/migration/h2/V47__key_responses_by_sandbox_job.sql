@@ -0,0 +1,10 @@
+ALTER TABLE responses ADD COLUMN sandbox_job_id VARCHAR(120);
+ALTER TABLE responses ADD COLUMN content_hash VARCHAR(64);
+ALTER TABLE responses ADD COLUMN content_revision INT NOT NULL DEFAULT 1;
+ALTER TABLE responses ADD COLUMN revision_history_gzip VARBINARY;
+ALTER TABLE responses ADD COLUMN updated_at TIMESTAMP;
+
+UPDATE responses SET updated_at = created_at;
+
+CREATE UNIQUE INDEX uq_responses_sandbox_job_id ON responses(sandbox_job_id);
+CREATE INDEX idx_responses_repo_created ON responses(repo, created_at);
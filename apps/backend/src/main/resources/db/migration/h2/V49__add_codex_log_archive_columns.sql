@@ -0,0 +1,5 @@
+ALTER TABLE codex_requests ADD COLUMN document_access_count INT;
+ALTER TABLE codex_requests ADD COLUMN logs_archived_at TIMESTAMP;
+
+CREATE INDEX idx_codex_requests_logs_archived ON codex_requests(logs_archived_at, created_at);
+CREATE INDEX idx_responses_created_at ON responses(created_at);
@@ -0,0 +1,3 @@
+DELETE newer FROM events newer
+    JOIN events older ON older.delivery_id = newer.delivery_id AND older.id < newer.id;
+CREATE UNIQUE INDEX uq_events_delivery_id ON events(delivery_id);
@@ -0,0 +1,10 @@
+ALTER TABLE events
+    ADD COLUMN action VARCHAR(80),
+    ADD COLUMN workflow_run_id BIGINT,
+    ADD COLUMN conclusion VARCHAR(60),
+    ADD COLUMN payload_gzip LONGBLOB,
+    ADD COLUMN payload_size INT,
+    MODIFY COLUMN payload LONGTEXT NULL;
+
+CREATE INDEX idx_events_repo_type ON events(repo, event_type, received_at);
+CREATE INDEX idx_events_workflow_run ON events(workflow_run_id);
@@ -0,0 +1,14 @@
+ALTER TABLE codex_requests ADD COLUMN transcript_interaction_seq INT NULL;
+
+UPDATE codex_requests SET transcript_interaction_seq = COALESCE(interaction_count, 0) WHERE model_transcript IS NOT NULL;
+
+CREATE TABLE codex_transcript_chunks (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    codex_request_id BIGINT NOT NULL,
+    interaction_sequence INT NOT NULL,
+    content LONGTEXT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    CONSTRAINT fk_codex_transcript_chunks_request FOREIGN KEY (codex_request_id) REFERENCES codex_requests (id)
+);
+
+CREATE UNIQUE INDEX uq_codex_transcript_chunks_request_sequence ON codex_transcript_chunks (codex_request_id, interaction_sequence);
@@ -0,0 +1,6 @@
+ALTER TABLE codex_requests
+    ADD COLUMN document_access_count INT NULL,
+    ADD COLUMN logs_archived_at TIMESTAMP(6) NULL;
+
+CREATE INDEX idx_codex_requests_logs_archived ON codex_requests(logs_archived_at, created_at);
+CREATE INDEX idx_responses_created_at ON responses(created_at);
@@ -0,0 +1,4 @@
+DELETE FROM events newer
+    USING events older
+    WHERE older.delivery_id = newer.delivery_id AND older.id < newer.id;
+CREATE UNIQUE INDEX uq_events_delivery_id ON events(delivery_id);
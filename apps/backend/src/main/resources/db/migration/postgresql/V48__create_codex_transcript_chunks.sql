@@ -0,0 +1,13 @@
+ALTER TABLE codex_requests ADD COLUMN transcript_interaction_seq INTEGER;
+
+UPDATE codex_requests SET transcript_interaction_seq = COALESCE(interaction_count, 0) WHERE model_transcript IS NOT NULL;
+
+CREATE TABLE codex_transcript_chunks (
+    id BIGSERIAL PRIMARY KEY,
+    codex_request_id BIGINT NOT NULL REFERENCES codex_requests(id),
+    interaction_sequence INTEGER NOT NULL,
+    content TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE UNIQUE INDEX uq_codex_transcript_chunks_request_sequence ON codex_transcript_chunks (codex_request_id, interaction_sequence);
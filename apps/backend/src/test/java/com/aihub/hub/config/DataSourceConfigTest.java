@@ -0,0 +1,88 @@
+package com.aihub.hub.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceConfigTest {
+
+    private final DataSourceConfig config = new DataSourceConfig();
+    private final HikariDataSource writePool = pool("hub-write");
+    private final HikariDataSource readPool = pool("hub-read");
+
+    @AfterEach
+    void tearDown() {
+        writePool.close();
+        readPool.close();
+    }
+
+    @Test
+    void writeAfterReadInTheSameOpenEntityManagerUsesTheWritePool() {
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(config.dataSource(writePool, readPool, 0, 0));
+        factoryBean.setPackagesToScan(DataSourceConfig.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Map<String, Object> properties = new HashMap<>();
+        config.connectionHandlingCustomizer().customize(properties);
+        factoryBean.setJpaPropertyMap(properties);
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        // Same binding OpenEntityManagerInViewInterceptor sets up for a web request.
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        String readFrom;
+        try {
+            readFrom = readOnly.execute(status -> poolName(entityManager));
+            readWrite.executeWithoutResult(status ->
+                entityManager.createNativeQuery("INSERT INTO audit_marker (id) VALUES (1)").executeUpdate());
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+            factoryBean.destroy();
+        }
+
+        assertThat(readFrom).isEqualTo("hub-read");
+        assertThat(count(writePool)).isEqualTo(1);
+        assertThat(count(readPool)).isZero();
+    }
+
+    private static String poolName(EntityManager entityManager) {
+        return (String) entityManager.createNativeQuery("SELECT name FROM pool_name").getSingleResult();
+    }
+
+    private static int count(HikariDataSource pool) {
+        return new JdbcTemplate(pool).queryForObject("SELECT COUNT(*) FROM audit_marker", Integer.class);
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(2);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(pool);
+        jdbcTemplate.execute("CREATE TABLE pool_name (name VARCHAR(32) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO pool_name (name) VALUES (?)", name);
+        jdbcTemplate.execute("CREATE TABLE audit_marker (id BIGINT PRIMARY KEY)");
+        return pool;
+    }
+}
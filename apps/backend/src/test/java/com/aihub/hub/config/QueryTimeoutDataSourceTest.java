@@ -0,0 +1,46 @@
+package com.aihub.hub.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueryTimeoutDataSourceTest {
+
+    @Test
+    void statementsGetThePoolTimeoutUnlessOneIsAlreadySet() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement fresh = mock(PreparedStatement.class);
+        Statement preset = mock(Statement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("select 1")).thenReturn(fresh);
+        when(connection.createStatement()).thenReturn(preset);
+        when(preset.getQueryTimeout()).thenReturn(5);
+
+        Connection wrapped = new QueryTimeoutDataSource(target, 30).getConnection();
+
+        assertThat(wrapped.prepareStatement("select 1")).isSameAs(fresh);
+        assertThat(wrapped.createStatement()).isSameAs(preset);
+        verify(fresh).setQueryTimeout(30);
+        verify(preset, never()).setQueryTimeout(30);
+        assertThat(wrapped).isEqualTo(wrapped).isNotEqualTo(connection);
+    }
+
+    @Test
+    void zeroTimeoutReturnsTheTargetConnectionUnchanged() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        assertThat(new QueryTimeoutDataSource(target, 0).getConnection()).isSameAs(connection);
+    }
+}
@@ -0,0 +1,28 @@
+package com.aihub.hub.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    @Test
+    void roundTripsTextAndShrinksRepetitivePayloads() {
+        String payload = "{\"workflow_run\":{\"name\":\"CI – build\",\"conclusion\":\"failure\"}}".repeat(500);
+
+        byte[] stored = converter.convertToDatabaseColumn(payload);
+
+        assertThat(stored.length).isLessThan(payload.getBytes(StandardCharsets.UTF_8).length / 10);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(payload);
+    }
+
+    @Test
+    void keepsNullsAsNulls() {
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+}
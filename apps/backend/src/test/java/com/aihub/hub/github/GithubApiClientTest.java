@@ -1,6 +1,7 @@
 package com.aihub.hub.github;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.AfterEach;
@@ -10,6 +11,8 @@ import org.springframework.web.client.RestClient;
 
 import java.io.IOException;
 import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -89,4 +92,33 @@ class GithubApiClientTest {
         assertThat(recorded.getPath()).isEqualTo("/repos/owner/repo/compare/main...ai-hub%2Fcodex-owner-repo-main-chatgpt_codex_mkt");
         assertThat(recorded.getHeader("Authorization")).isEqualTo("Bearer token");
     }
+
+    @Test
+    void createTreeSendsNullShaForDeletedFiles() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"sha\":\"new-tree\"}").addHeader("Content-Type", "application/json"));
+        RestClient restClient = RestClient.builder().baseUrl(server.url("/").toString()).build();
+        GithubAppAuth auth = new GithubAppAuth(restClient, Clock.systemUTC(), "1", GithubAppAuthTest.TEST_KEY, "", "1") {
+            @Override
+            public String getInstallationToken() {
+                return "token";
+            }
+        };
+        client = new GithubApiClient(restClient, auth);
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("src/App.java", "class App {}\n");
+        files.put("old.txt", null);
+
+        client.createTree("owner", "repo", new ObjectMapper().createObjectNode().put("sha", "base-tree"), files);
+
+        var recorded = server.takeRequest();
+        assertThat(recorded.getPath()).isEqualTo("/repos/owner/repo/git/trees");
+        JsonNode body = new ObjectMapper().readTree(recorded.getBody().readUtf8());
+        assertThat(body.path("base_tree").asText()).isEqualTo("base-tree");
+        assertThat(body.at("/tree/0/content").asText()).isEqualTo("class App {}\n");
+        assertThat(body.at("/tree/0").has("sha")).isFalse();
+        assertThat(body.at("/tree/1/path").asText()).isEqualTo("old.txt");
+        assertThat(body.at("/tree/1").has("sha")).isTrue();
+        assertThat(body.at("/tree/1/sha").isNull()).isTrue();
+        assertThat(body.at("/tree/1").has("content")).isFalse();
+    }
 }
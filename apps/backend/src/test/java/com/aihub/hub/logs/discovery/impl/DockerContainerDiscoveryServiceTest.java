@@ -0,0 +1,233 @@
+package com.aihub.hub.logs.discovery.impl;
+
+import com.aihub.hub.domain.EnvironmentRecord;
+import com.aihub.hub.logs.discovery.ContainerChangedEvent;
+import com.aihub.hub.logs.discovery.ContainerDiscoveryResult;
+import com.aihub.hub.logs.discovery.ContainerRegistryReconciledEvent;
+import com.aihub.hub.logs.discovery.DiscoveredContainer;
+import com.aihub.hub.logs.discovery.LogsInterpreterProperties;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.EventsCmd;
+import com.github.dockerjava.api.command.InspectContainerCmd;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.command.ListContainersCmd;
+import com.github.dockerjava.api.model.Container;
+import com.github.dockerjava.api.model.ContainerConfig;
+import com.github.dockerjava.api.model.ContainerNetwork;
+import com.github.dockerjava.api.model.Event;
+import com.github.dockerjava.api.model.EventActor;
+import com.github.dockerjava.api.model.EventType;
+import com.github.dockerjava.api.model.NetworkSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DockerContainerDiscoveryServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-01T12:00:00Z"), ZoneOffset.UTC);
+    private static final String LABEL = "aihub.environment";
+
+    private final DockerClient dockerClient = mock(DockerClient.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final LogsInterpreterProperties.Docker properties = new LogsInterpreterProperties.Docker();
+    private final AtomicReference<ResultCallback<Event>> eventsCallback = new AtomicReference<>();
+    private DockerContainerDiscoveryService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void fallsBackToKeyOnlyLabelFilterAndComparesValuesIgnoringCase() {
+        ListContainersCmd exactCmd = listCmd(List.of());
+        ListContainersCmd keyCmd = listCmd(List.of(
+            container("c1", "api", Map.of(LABEL, " Staging ")),
+            container("c2", "other", Map.of(LABEL, "production"))));
+        when(dockerClient.listContainersCmd()).thenReturn(exactCmd, keyCmd);
+        stubInspect(Map.of("c1", inspect("10.0.0.2")));
+        service = newService();
+
+        ContainerDiscoveryResult result = service.discover(new EnvironmentRecord("staging", null));
+
+        verify(exactCmd).withLabelFilter(Map.of(LABEL, "staging"));
+        verify(keyCmd).withLabelFilter(List.of(LABEL));
+        assertThat(result.containers()).containsExactly(new DiscoveredContainer("api", "c1", "10.0.0.2", List.of()));
+    }
+
+    @Test
+    void inspectsInBoundedParallelAndFallsBackToListingDataOnTimeout() throws Exception {
+        properties.setInspectParallelism(2);
+        properties.setInspectTimeout(Duration.ofMillis(300));
+        ListContainersCmd exactCmd = listCmd(List.of(
+            container("slow", "slow", Map.of(LABEL, "staging")),
+            container("c2", "api", Map.of(LABEL, "staging")),
+            container("c3", "worker", Map.of(LABEL, "staging"))));
+        when(dockerClient.listContainersCmd()).thenReturn(exactCmd);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Map<String, String> addresses = Map.of("slow", "10.0.0.1", "c2", "10.0.0.2", "c3", "10.0.0.3");
+        addresses.forEach((id, address) -> {
+            InspectContainerResponse response = inspect(address);
+            InspectContainerCmd cmd = mock(InspectContainerCmd.class);
+            when(cmd.exec()).thenAnswer(exec -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    if ("slow".equals(id)) {
+                        release.await(5, TimeUnit.SECONDS);
+                    }
+                    return response;
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+            when(dockerClient.inspectContainerCmd(id)).thenReturn(cmd);
+        });
+        service = newService();
+
+        long started = System.nanoTime();
+        ContainerDiscoveryResult result = service.discover(new EnvironmentRecord("staging", null));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        release.countDown();
+
+        assertThat(result.containers()).extracting(DiscoveredContainer::ipAddress)
+            .containsExactly("127.0.0.1", "10.0.0.2", "10.0.0.3");
+        assertThat(maxInFlight).hasValueLessThanOrEqualTo(2);
+        assertThat(elapsedMs).isLessThan(3000);
+    }
+
+    @Test
+    void reconcileListsLabelledContainersAndServesDiscoveryFromTheRegistry() {
+        ListContainersCmd reconcileCmd = listCmd(List.of(
+            container("c1", "api", Map.of(LABEL, " Staging ")),
+            container("c2", "orphan", Map.of(LABEL, " "))));
+        when(dockerClient.listContainersCmd()).thenReturn(reconcileCmd);
+        stubInspect(Map.of("c1", inspect("10.0.0.2"), "c2", inspect("10.0.0.3")));
+        stubEvents();
+        service = newService();
+
+        service.start();
+
+        DiscoveredContainer api = new DiscoveredContainer("api", "c1", "10.0.0.2", List.of());
+        verify(eventPublisher, timeout(2000)).publishEvent(new ContainerChangedEvent("Staging", api, false));
+        verify(eventPublisher, timeout(2000)).publishEvent(new ContainerRegistryReconciledEvent(Set.of("c1")));
+        verify(reconcileCmd).withLabelFilter(List.of(LABEL));
+        assertThat(service.discover(new EnvironmentRecord("staging", null)).containers()).containsExactly(api);
+        verify(dockerClient, times(1)).listContainersCmd();
+    }
+
+    @Test
+    void eventsUpsertAndRemoveContainersInTheRegistry() {
+        ListContainersCmd reconcileCmd = listCmd(List.of());
+        when(dockerClient.listContainersCmd()).thenReturn(reconcileCmd);
+        EventsCmd eventsCmd = stubEvents();
+        service = newService();
+        service.start();
+        verify(eventsCmd, timeout(2000)).exec(any());
+
+        InspectContainerResponse started = inspect("10.0.0.4");
+        ContainerConfig config = mock(ContainerConfig.class);
+        when(config.getLabels()).thenReturn(Map.of(LABEL, "staging"));
+        when(started.getConfig()).thenReturn(config);
+        when(started.getName()).thenReturn("/worker");
+        stubInspect(Map.of("c4", started));
+        DiscoveredContainer worker = new DiscoveredContainer("worker", "c4", "10.0.0.4", List.of());
+
+        eventsCallback.get().onNext(event(EventType.CONTAINER, "start", "c4"));
+        verify(eventPublisher, timeout(2000)).publishEvent(new ContainerChangedEvent("staging", worker, false));
+        assertThat(service.discover(new EnvironmentRecord("staging", null)).containers()).containsExactly(worker);
+
+        eventsCallback.get().onNext(event(EventType.CONTAINER, "exec_start", "c4"));
+        eventsCallback.get().onNext(event(EventType.CONTAINER, "destroy", "c4"));
+        verify(eventPublisher, timeout(2000)).publishEvent(new ContainerChangedEvent("staging", worker, true));
+        assertThat(service.discover(new EnvironmentRecord("staging", null)).containers()).isEmpty();
+        verify(dockerClient, times(1)).inspectContainerCmd("c4");
+    }
+
+    private DockerContainerDiscoveryService newService() {
+        return new DockerContainerDiscoveryService(properties, dockerClient, eventPublisher, CLOCK);
+    }
+
+    private ListContainersCmd listCmd(List<Container> containers) {
+        ListContainersCmd cmd = mock(ListContainersCmd.class);
+        when(cmd.withShowAll(anyBoolean())).thenReturn(cmd);
+        when(cmd.withLabelFilter(anyMap())).thenReturn(cmd);
+        when(cmd.withLabelFilter(anyCollection())).thenReturn(cmd);
+        when(cmd.exec()).thenReturn(containers);
+        return cmd;
+    }
+
+    private EventsCmd stubEvents() {
+        EventsCmd eventsCmd = mock(EventsCmd.class);
+        when(eventsCmd.withEventTypeFilter(any(EventType[].class))).thenReturn(eventsCmd);
+        when(eventsCmd.exec(any())).thenAnswer(invocation -> {
+            eventsCallback.set(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(dockerClient.eventsCmd()).thenReturn(eventsCmd);
+        return eventsCmd;
+    }
+
+    private void stubInspect(Map<String, InspectContainerResponse> responses) {
+        responses.forEach((id, response) -> {
+            InspectContainerCmd cmd = mock(InspectContainerCmd.class);
+            when(cmd.exec()).thenReturn(response);
+            when(dockerClient.inspectContainerCmd(id)).thenReturn(cmd);
+        });
+    }
+
+    private static Container container(String id, String name, Map<String, String> labels) {
+        Container container = mock(Container.class);
+        when(container.getId()).thenReturn(id);
+        when(container.getNames()).thenReturn(new String[] {"/" + name});
+        when(container.getLabels()).thenReturn(labels);
+        return container;
+    }
+
+    private static Event event(EventType type, String action, String containerId) {
+        EventActor actor = mock(EventActor.class);
+        when(actor.getId()).thenReturn(containerId);
+        Event event = mock(Event.class);
+        when(event.getType()).thenReturn(type);
+        when(event.getAction()).thenReturn(action);
+        when(event.getActor()).thenReturn(actor);
+        return event;
+    }
+
+    private static InspectContainerResponse inspect(String ipAddress) {
+        ContainerNetwork network = mock(ContainerNetwork.class);
+        when(network.getIpAddress()).thenReturn(ipAddress);
+        NetworkSettings networkSettings = mock(NetworkSettings.class);
+        when(networkSettings.getNetworks()).thenReturn(Map.of("bridge", network));
+        InspectContainerResponse response = mock(InspectContainerResponse.class);
+        when(response.getNetworkSettings()).thenReturn(networkSettings);
+        return response;
+    }
+}
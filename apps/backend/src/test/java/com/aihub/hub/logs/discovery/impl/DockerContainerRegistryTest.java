@@ -0,0 +1,62 @@
+package com.aihub.hub.logs.discovery.impl;
+
+import com.aihub.hub.logs.discovery.ContainerChangedEvent;
+import com.aihub.hub.logs.discovery.DiscoveredContainer;
+import com.aihub.hub.logs.discovery.impl.DockerContainerRegistry.Registration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DockerContainerRegistryTest {
+
+    private final DockerContainerRegistry registry = new DockerContainerRegistry();
+
+    @Test
+    void reconcileIndexesContainersByEnvironmentLabelIgnoringCase() {
+        DiscoveredContainer api = new DiscoveredContainer("api", "c1", "10.0.0.2", List.of(8080));
+        DiscoveredContainer worker = new DiscoveredContainer("worker", "c2", "10.0.0.3", List.of(9090));
+
+        List<ContainerChangedEvent> changes = registry.reconcile(Map.of(
+            "c1", new Registration("Staging", api),
+            "c2", new Registration("production", worker)));
+
+        assertThat(registry.isReady()).isTrue();
+        assertThat(changes).hasSize(2).noneMatch(ContainerChangedEvent::removed);
+        assertThat(registry.containersFor(" staging ")).containsExactly(api);
+        assertThat(registry.containersFor("PRODUCTION")).containsExactly(worker);
+        assertThat(registry.containersFor("unknown")).isEmpty();
+    }
+
+    @Test
+    void reportsOnlyEffectiveChanges() {
+        DiscoveredContainer api = new DiscoveredContainer("api", "c1", "10.0.0.2", List.of(8080));
+        registry.reconcile(Map.of("c1", new Registration("staging", api)));
+
+        assertThat(registry.upsert(new Registration("staging", api))).isEmpty();
+
+        DiscoveredContainer moved = new DiscoveredContainer("api", "c1", "10.0.0.9", List.of(8080));
+        assertThat(registry.upsert(new Registration("staging", moved)))
+            .containsExactly(new ContainerChangedEvent("staging", moved, false));
+        assertThat(registry.containersFor("staging")).containsExactly(moved);
+
+        assertThat(registry.remove("c1")).containsExactly(new ContainerChangedEvent("staging", moved, true));
+        assertThat(registry.remove("c1")).isEmpty();
+        assertThat(registry.containersFor("staging")).isEmpty();
+    }
+
+    @Test
+    void reconcileRemovesContainersThatDisappearedWhileDisconnected() {
+        DiscoveredContainer api = new DiscoveredContainer("api", "c1", "10.0.0.2", List.of(8080));
+        registry.reconcile(Map.of("c1", new Registration("staging", api)));
+        registry.markStale();
+
+        List<ContainerChangedEvent> changes = registry.reconcile(Map.of());
+
+        assertThat(registry.isReady()).isTrue();
+        assertThat(changes).containsExactly(new ContainerChangedEvent("staging", api, true));
+        assertThat(registry.containersFor("staging")).isEmpty();
+    }
+}
@@ -0,0 +1,39 @@
+package com.aihub.hub.logs.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContainerLogBufferTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+
+    @Test
+    void readPagesByCursorAndReportsOverwrittenLines() {
+        ContainerLogBuffer buffer = new ContainerLogBuffer(3);
+        for (int i = 0; i < 5; i++) {
+            buffer.append(NOW, "stdout", "linha " + i);
+        }
+
+        ContainerLogBuffer.Page page = buffer.read(0, 2);
+
+        assertThat(page.droppedLines()).isEqualTo(2);
+        assertThat(page.lines()).extracting(ContainerLogLine::message).containsExactly("linha 2", "linha 3");
+        assertThat(page.nextCursor()).isEqualTo(4);
+
+        ContainerLogBuffer.Page next = buffer.read(page.nextCursor(), 10);
+        assertThat(next.droppedLines()).isZero();
+        assertThat(next.lines()).extracting(ContainerLogLine::sequence).containsExactly(4L);
+        assertThat(buffer.read(next.nextCursor(), 10).lines()).isEmpty();
+    }
+
+    @Test
+    void cursorBeyondHeadRestartsFromOldestBufferedLine() {
+        ContainerLogBuffer buffer = new ContainerLogBuffer(10);
+        buffer.append(NOW, "stdout", "a");
+
+        assertThat(buffer.read(500, 10).lines()).extracting(ContainerLogLine::message).containsExactly("a");
+    }
+}
@@ -0,0 +1,92 @@
+package com.aihub.hub.logs.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContainerLogLineSplitterTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+
+    @Test
+    void joinsFramesAndParsesDockerTimestamps() {
+        ContainerLogBuffer buffer = new ContainerLogBuffer(10);
+        ContainerLogLineSplitter splitter = new ContainerLogLineSplitter(buffer, "stderr", 20, () -> NOW);
+
+        splitter.accept("2024-05-01T11:59:58.123456789Z erro ao con".getBytes(StandardCharsets.UTF_8));
+        splitter.accept("ectar\r\nsem timestamp\nparcial".getBytes(StandardCharsets.UTF_8));
+
+        ContainerLogBuffer.Page page = buffer.read(0, 10);
+        assertThat(page.lines()).hasSize(2);
+        assertThat(page.lines().get(0).timestamp()).isEqualTo(Instant.parse("2024-05-01T11:59:58.123456789Z"));
+        assertThat(page.lines().get(0).message()).isEqualTo("erro ao conectar");
+        assertThat(page.lines().get(0).stream()).isEqualTo("stderr");
+        assertThat(page.lines().get(1).timestamp()).isEqualTo(NOW);
+
+        splitter.flush();
+        assertThat(buffer.read(2, 10).lines()).extracting(ContainerLogLine::message).containsExactly("parcial");
+    }
+
+    @Test
+    void truncatesOversizedLines() {
+        ContainerLogBuffer buffer = new ContainerLogBuffer(10);
+        ContainerLogLineSplitter splitter = new ContainerLogLineSplitter(buffer, "stdout", 5, () -> NOW);
+
+        splitter.accept("x".repeat(100).getBytes(StandardCharsets.UTF_8));
+        splitter.accept("\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(buffer.read(0, 10).lines()).extracting(ContainerLogLine::message)
+            .containsExactly("xxxxx... [truncado]");
+    }
+
+    @Test
+    void keepsMultiByteCharactersSplitAcrossFrames() {
+        ContainerLogBuffer buffer = new ContainerLogBuffer(10);
+        ContainerLogLineSplitter splitter = new ContainerLogLineSplitter(buffer, "stdout", 100, () -> NOW);
+        byte[] payload = "conexão ok\n".getBytes(StandardCharsets.UTF_8);
+        int split = "conex".length() + 1;
+
+        splitter.accept(Arrays.copyOfRange(payload, 0, split));
+        splitter.accept(Arrays.copyOfRange(payload, split, payload.length));
+
+        assertThat(buffer.read(0, 10).lines()).extracting(ContainerLogLine::message).containsExactly("conexão ok");
+    }
+
+    @Test
+    void emitsEveryLineOfAFrameAndKeepsEmptyLines() {
+        ContainerLogBuffer buffer = new ContainerLogBuffer(10);
+        ContainerLogLineSplitter splitter = new ContainerLogLineSplitter(buffer, "stdout", 100, () -> NOW);
+
+        splitter.accept("a\n\r\nb\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(buffer.read(0, 10).lines()).extracting(ContainerLogLine::message).containsExactly("a", "", "b");
+    }
+
+    @Test
+    void flushWithoutPendingTextAddsNothing() {
+        ContainerLogBuffer buffer = new ContainerLogBuffer(10);
+        ContainerLogLineSplitter splitter = new ContainerLogLineSplitter(buffer, "stdout", 100, () -> NOW);
+
+        splitter.accept("completa\n".getBytes(StandardCharsets.UTF_8));
+        splitter.accept(null);
+        splitter.flush();
+
+        assertThat(buffer.nextSequence()).isEqualTo(1);
+    }
+
+    @Test
+    void truncationOnlyAffectsTheOversizedLine() {
+        ContainerLogBuffer buffer = new ContainerLogBuffer(10);
+        ContainerLogLineSplitter splitter = new ContainerLogLineSplitter(buffer, "stdout", 3, () -> NOW);
+
+        splitter.accept("abcdefghijklmnop\nxy".getBytes(StandardCharsets.UTF_8));
+        splitter.flush();
+
+        assertThat(buffer.read(0, 10).lines()).extracting(ContainerLogLine::message)
+            .containsExactly("abc... [truncado]", "xy");
+    }
+}
@@ -0,0 +1,222 @@
+package com.aihub.hub.logs.stream;
+
+import com.aihub.hub.logs.discovery.LogsInterpreterProperties;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.InspectContainerCmd;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.command.LogContainerCmd;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.StreamType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ContainerLogStreamServiceTest {
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-10-01T12:00:00Z"));
+    private final Clock clock = mock(Clock.class);
+    private final DockerClient dockerClient = mock(DockerClient.class);
+    private final AtomicReference<ResultCallback<Frame>> logCallback = new AtomicReference<>();
+    private final Deque<RecordingEmitter> emitters = new ArrayDeque<>();
+    private final LogsInterpreterProperties.Streaming properties = new LogsInterpreterProperties.Streaming();
+    private ContainerLogStreamService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        LogContainerCmd logCmd = mock(LogContainerCmd.class);
+        when(logCmd.withFollowStream(anyBoolean())).thenReturn(logCmd);
+        when(logCmd.withStdOut(anyBoolean())).thenReturn(logCmd);
+        when(logCmd.withStdErr(anyBoolean())).thenReturn(logCmd);
+        when(logCmd.withTimestamps(anyBoolean())).thenReturn(logCmd);
+        when(logCmd.withTail(anyInt())).thenReturn(logCmd);
+        when(logCmd.exec(any())).thenAnswer(invocation -> {
+            logCallback.set(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(dockerClient.logContainerCmd("c1")).thenReturn(logCmd);
+        when(clock.instant()).thenAnswer(invocation -> now.get());
+        ObjectProvider<DockerClient> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(dockerClient);
+
+        properties.setSseInterval(Duration.ofMillis(50));
+        properties.setSseQueueEvents(1);
+        service = new ContainerLogStreamService(provider, properties, clock, timeout -> emitters.removeFirst());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void slowSubscriberIsDisconnectedWithoutHoldingUpOthers() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(unblock);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        emitters.add(slow);
+        emitters.add(fast);
+        service.subscribe("c1", 0);
+        service.subscribe("c1", 0);
+
+        try {
+            int line = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!slow.completeRequested && System.nanoTime() < deadline) {
+                logCallback.get().onNext(frame("linha " + line++ + "\n"));
+                Thread.sleep(60);
+            }
+            String last = "linha " + (line - 1);
+
+            assertThat(slow.completeRequested).isTrue();
+            await(() -> fast.messages().contains(last));
+            assertThat(slow.sent).hasSize(1);
+        } finally {
+            unblock.countDown();
+        }
+    }
+
+    @Test
+    void endedStreamIsDeliveredToSubscribers() {
+        RecordingEmitter subscriber = new RecordingEmitter(null);
+        emitters.add(subscriber);
+        service.subscribe("c1", 0);
+
+        logCallback.get().onNext(frame("última linha\n"));
+        logCallback.get().onComplete();
+
+        await(() -> subscriber.completeRequested);
+        assertThat(subscriber.messages()).containsExactly("última linha");
+        assertThat(subscriber.sent).last().matches(chunk -> !chunk.following());
+    }
+
+    @Test
+    void cursorReadsReturnTheLogsOfAnExitedContainer() {
+        assertThat(service.read("c1", 0, 10).lines()).isEmpty();
+        logCallback.get().onNext(frame("iniciando\nencerrado com erro\n"));
+        logCallback.get().onComplete();
+
+        ContainerLogChunk chunk = service.read("c1", 0, 10);
+        ContainerLogChunk again = service.read("c1", 0, 10);
+
+        assertThat(chunk.lines()).extracting(ContainerLogLine::message).containsExactly("iniciando", "encerrado com erro");
+        assertThat(chunk.following()).isFalse();
+        assertThat(again).isEqualTo(chunk);
+        verify(dockerClient, times(1)).logContainerCmd("c1");
+    }
+
+    @Test
+    void followsTheContainerAgainOnceItRunsAfterExiting() {
+        service.read("c1", 0, 10);
+        logCallback.get().onNext(frame("primeira execução\n"));
+        logCallback.get().onComplete();
+        InspectContainerResponse.ContainerState state = mock(InspectContainerResponse.ContainerState.class);
+        InspectContainerResponse inspect = mock(InspectContainerResponse.class);
+        when(inspect.getState()).thenReturn(state);
+        InspectContainerCmd inspectCmd = mock(InspectContainerCmd.class);
+        when(inspectCmd.exec()).thenReturn(inspect);
+        when(dockerClient.inspectContainerCmd("c1")).thenReturn(inspectCmd);
+
+        now.set(now.get().plusSeconds(30));
+        assertThat(service.read("c1", 0, 10).following()).isFalse();
+        verify(dockerClient, never()).inspectContainerCmd("c1");
+
+        now.set(now.get().plusSeconds(60));
+        when(state.getRunning()).thenReturn(false);
+        assertThat(service.read("c1", 0, 10).lines()).hasSize(1);
+
+        now.set(now.get().plusSeconds(60));
+        when(state.getRunning()).thenReturn(true);
+        ContainerLogChunk restarted = service.read("c1", 0, 10);
+
+        assertThat(restarted.following()).isTrue();
+        assertThat(restarted.lines()).isEmpty();
+        verify(dockerClient, times(2)).inspectContainerCmd("c1");
+        verify(dockerClient, times(2)).logContainerCmd("c1");
+    }
+
+    private static Frame frame(String text) {
+        return new Frame(StreamType.STDOUT, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condição não atingida a tempo").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    /**
+     * Records chunks instead of writing them; with a latch, {@code send} blocks while holding the emitter lock the
+     * way a servlet write to a stalled client does.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch unblock;
+        private final List<ContainerLogChunk> sent = new CopyOnWriteArrayList<>();
+        private volatile boolean completeRequested;
+
+        private RecordingEmitter(CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) throws IOException {
+            builder.build().stream()
+                .map(DataWithMediaType::getData)
+                .filter(ContainerLogChunk.class::isInstance)
+                .map(ContainerLogChunk.class::cast)
+                .forEach(sent::add);
+            if (unblock != null) {
+                try {
+                    unblock.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completeRequested = true;
+            super.complete();
+        }
+
+        private List<String> messages() {
+            return sent.stream().flatMap(chunk -> chunk.lines().stream()).map(ContainerLogLine::message).toList();
+        }
+    }
+}
@@ -101,7 +101,7 @@ class CiFixJobServiceTest {
         refreshPayload.putArray("changedFiles").add("src/Main.java");
         refreshPayload.put("pullRequestUrl", "https://github.com/owner/repo/pull/101");
         refreshPayload.put("timeoutCount", 0);
-        when(sandboxOrchestratorClient.getJob("job-refresh"))
+        when(sandboxOrchestratorClient.getJob("job-refresh", SandboxJobPayloadDecoder.Detail.WITHOUT_INTERACTION_CONTENT))
             .thenReturn(SandboxOrchestratorClient.SandboxOrchestratorJobResponse.from(refreshPayload));
 
         CiFixJobService service = buildService();
@@ -130,7 +130,7 @@ class CiFixJobServiceTest {
 
         when(jobRepository.findByJobId("job-refresh-snake")).thenReturn(Optional.of(record));
         when(jobRepository.save(record)).thenReturn(record);
-        when(sandboxOrchestratorClient.getJob("job-refresh-snake"))
+        when(sandboxOrchestratorClient.getJob("job-refresh-snake", SandboxJobPayloadDecoder.Detail.WITHOUT_INTERACTION_CONTENT))
             .thenReturn(SandboxOrchestratorClient.SandboxOrchestratorJobResponse.from(payload));
 
         CiFixJobService service = buildService();
@@ -0,0 +1,152 @@
+package com.aihub.hub.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CiLogExcerptExtractorTest {
+
+    private static final int BUDGET = 4000;
+
+    private final CiLogExcerptExtractor extractor = new CiLogExcerptExtractor(BUDGET, 10, 20, 15, 1000);
+
+    @Test
+    void recordedMavenFailureKeepsFailingTestsWithinBudget() throws Exception {
+        Path recorded = fixture("ci-logs/maven-test-failure");
+        long rawChars = totalChars(recorded);
+
+        String excerpt = extractor.extract(zip(recorded));
+
+        assertThat(excerpt.length()).isLessThanOrEqualTo(BUDGET);
+        assertThat(rawChars / excerpt.length()).isGreaterThanOrEqualTo(50);
+        assertThat(excerpt)
+            .contains("===== build/2_Run mvn test.txt =====")
+            .contains("UnifiedDiffApplierTest.applyUsesContextToPlaceHunkWhenLineNumbersAreShifted")
+            .contains("org.opentest4j.AssertionFailedError")
+            .contains("[INFO] BUILD FAILURE")
+            .contains("##[error]Process completed with exit code 1.")
+            .doesNotContain("Download action repository")
+            .doesNotContain("2024-05-01T");
+
+        String legacyHead = readAll(recorded).substring(0, BUDGET);
+        assertThat(legacyHead).doesNotContain("BUILD FAILURE");
+    }
+
+    @Test
+    void fallsBackToStepTailsWhenNoFailureSignalIsFound() throws IOException {
+        StringBuilder log = new StringBuilder();
+        for (int i = 1; i <= 500; i++) {
+            log.append("step output ").append(i).append('\n');
+        }
+
+        String excerpt = extractor.extract(zip(List.of("job/1_Run.txt"), List.of(log.toString())));
+
+        assertThat(excerpt)
+            .startsWith("===== job/1_Run.txt =====\n[... linhas 1-485 omitidas ...]\n")
+            .endsWith("step output 500\n")
+            .doesNotContain("step output 485\n");
+    }
+
+    @Test
+    void capsVeryLongLinesKeepingBothEnds() throws IOException {
+        String longLine = "##[error]" + "x".repeat(50_000) + "END";
+
+        String excerpt = extractor.extract(zip(List.of("job/1_Run.txt"), List.of(longLine)));
+
+        assertThat(excerpt).contains("##[error]").contains("END").contains("caracteres omitidos");
+        assertThat(excerpt.length()).isLessThan(1200);
+    }
+
+    @Test
+    void longRunOfErrorLinesKeepsTheFirstAndLastErrorsWithinBudget() throws IOException {
+        StringBuilder log = new StringBuilder("build started\n");
+        for (int i = 1; i <= 200_000; i++) {
+            log.append("[ERROR] cannot find symbol ").append(i).append('\n');
+        }
+        log.append("##[error]Process completed with exit code 1.\n");
+
+        String excerpt = extractor.extract(zip(List.of("job/1_Run.txt"), List.of(log.toString())));
+
+        assertThat(excerpt.length()).isLessThanOrEqualTo(BUDGET);
+        assertThat(excerpt)
+            .startsWith("===== job/1_Run.txt =====\nbuild started\n[ERROR] cannot find symbol 1\n")
+            .contains(" omitidas ...]\n")
+            .contains("[ERROR] cannot find symbol 200000\n")
+            .endsWith("##[error]Process completed with exit code 1.\n")
+            .doesNotContain("cannot find symbol 100000\n");
+    }
+
+    @Test
+    void scoresCommonFailureSignals() {
+        assertThat(CiLogExcerptExtractor.signalScore("##[error]Process completed with exit code 2.")).isGreaterThan(10);
+        assertThat(CiLogExcerptExtractor.signalScore("Process completed with exit code 0.")).isZero();
+        assertThat(CiLogExcerptExtractor.signalScore("java.lang.IllegalStateException: boom")).isPositive();
+        assertThat(CiLogExcerptExtractor.signalScore("npm ERR! code ELIFECYCLE")).isPositive();
+        assertThat(CiLogExcerptExtractor.signalScore("FAILED tests/test_api.py::test_create")).isPositive();
+        assertThat(CiLogExcerptExtractor.signalScore("[INFO] Tests run: 4, Failures: 0, Errors: 0")).isZero();
+        assertThat(CiLogExcerptExtractor.stripTimestamp("2024-05-01T12:00:01.1234567Z hello")).isEqualTo("hello");
+        assertThat(CiLogExcerptExtractor.stripTimestamp("plain line")).isEqualTo("plain line");
+    }
+
+    private static Path fixture(String name) throws URISyntaxException {
+        return Path.of(CiLogExcerptExtractorTest.class.getClassLoader().getResource(name).toURI());
+    }
+
+    private static List<Path> entries(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static long totalChars(Path directory) throws IOException {
+        return readAll(directory).length();
+    }
+
+    private static String readAll(Path directory) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (Path entry : entries(directory)) {
+            builder.append(Files.readString(entry, StandardCharsets.UTF_8));
+        }
+        return builder.toString();
+    }
+
+    private static InputStream zip(Path directory) throws IOException {
+        List<Path> files = entries(directory);
+        List<String> names = files.stream().map(path -> "build/" + path.getFileName()).toList();
+        List<String> contents = files.stream().map(CiLogExcerptExtractorTest::read).toList();
+        return zip(names, contents);
+    }
+
+    private static String read(Path path) {
+        try {
+            return Files.readString(path, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static InputStream zip(List<String> names, List<String> contents) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(output, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < names.size(); i++) {
+                zos.putNextEntry(new ZipEntry(names.get(i)));
+                zos.write(contents.get(i).getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(output.toByteArray());
+    }
+}
@@ -0,0 +1,125 @@
+package com.aihub.hub.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CodexLogRetentionJobTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-01T12:00:00Z"), ZoneOffset.UTC);
+    private static final Timestamp OLD = Timestamp.from(Instant.parse("2026-08-01T00:00:00Z"));
+    private static final Timestamp RECENT = Timestamp.from(Instant.parse("2026-09-25T00:00:00Z"));
+
+    @TempDir
+    Path archiveDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JdbcTemplate jdbcTemplate;
+    private CodexLogRetentionJob job;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:retention-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE codex_requests (id BIGINT PRIMARY KEY, status VARCHAR(32) NOT NULL, "
+            + "created_at TIMESTAMP NOT NULL, interaction_count INT, document_access_count INT, logs_archived_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE codex_interactions (id BIGINT PRIMARY KEY, codex_request_id BIGINT NOT NULL, "
+            + "content VARCHAR(200) NOT NULL, created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE codex_http_requests (id BIGINT PRIMARY KEY, codex_request_id BIGINT NOT NULL, "
+            + "url VARCHAR(200) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE codex_document_accesses (id BIGINT PRIMARY KEY, codex_request_id BIGINT NOT NULL, "
+            + "document_path VARCHAR(200) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE responses (id BIGINT PRIMARY KEY, repo VARCHAR(200) NOT NULL, "
+            + "created_at TIMESTAMP NOT NULL)");
+        job = new CodexLogRetentionJob(jdbcTemplate, new DataSourceTransactionManager(dataSource), objectMapper,
+            archiveDir, 30, 30, 1, 10, 0, CLOCK);
+    }
+
+    @Test
+    void archivesLogsOfOldFinishedRequestsAndKeepsTheirCounters() throws Exception {
+        jdbcTemplate.update("INSERT INTO codex_requests (id, status, created_at) VALUES (1, 'COMPLETED', ?)", OLD);
+        jdbcTemplate.update("INSERT INTO codex_requests (id, status, created_at) VALUES (2, 'RUNNING', ?)", OLD);
+        jdbcTemplate.update("INSERT INTO codex_requests (id, status, created_at) VALUES (3, 'FAILED', ?)", RECENT);
+        jdbcTemplate.update("INSERT INTO codex_interactions VALUES (10, 1, 'primeira', ?)", OLD);
+        jdbcTemplate.update("INSERT INTO codex_interactions VALUES (11, 1, 'segunda', ?)", OLD);
+        jdbcTemplate.update("INSERT INTO codex_interactions VALUES (12, 2, 'em andamento', ?)", OLD);
+        jdbcTemplate.update("INSERT INTO codex_http_requests VALUES (20, 1, 'https://example.com')");
+        jdbcTemplate.update("INSERT INTO codex_document_accesses VALUES (30, 1, 'docs/a.md')");
+        jdbcTemplate.update("INSERT INTO codex_document_accesses VALUES (32, 1, 'docs/a.md')");
+        jdbcTemplate.update("INSERT INTO codex_document_accesses VALUES (33, 1, 'docs/c.md')");
+        jdbcTemplate.update("INSERT INTO codex_document_accesses VALUES (31, 3, 'docs/b.md')");
+
+        int archived = job.archiveRequestLogs();
+
+        assertThat(archived).isEqualTo(1);
+        Map<String, Object> request = jdbcTemplate.queryForMap(
+            "SELECT interaction_count, document_access_count, logs_archived_at FROM codex_requests WHERE id = 1");
+        assertThat(request.get("interaction_count")).isEqualTo(2);
+        assertThat(request.get("document_access_count")).isEqualTo(2);
+        assertThat(request.get("logs_archived_at")).isNotNull();
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM codex_interactions ORDER BY id", Long.class)).containsExactly(12L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM codex_http_requests", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM codex_document_accesses", Long.class)).containsExactly(31L);
+
+        List<JsonNode> interactions = readArchive("codex_interactions", "codex_interactions-10-11.ndjson.gz");
+        assertThat(interactions).extracting(node -> node.path("content").asText()).containsExactly("primeira", "segunda");
+        assertThat(interactions.get(0).path("created_at").asText()).isEqualTo("2026-08-01T00:00:00Z");
+        assertThat(job.archiveRequestLogs()).isZero();
+    }
+
+    @Test
+    void archivesOldResponsesInChunks() throws Exception {
+        jdbcTemplate.update("INSERT INTO responses VALUES (1, 'org/repo', ?)", OLD);
+        jdbcTemplate.update("INSERT INTO responses VALUES (2, 'org/repo', ?)", OLD);
+        jdbcTemplate.update("INSERT INTO responses VALUES (3, 'org/repo', ?)", RECENT);
+
+        int archived = job.archiveResponses();
+
+        assertThat(archived).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM responses", Long.class)).containsExactly(3L);
+        assertThat(readArchive("responses", "responses-1-1.ndjson.gz")).hasSize(1);
+        assertThat(readArchive("responses", "responses-2-2.ndjson.gz")).hasSize(1);
+        try (Stream<Path> files = Files.walk(archiveDir)) {
+            assertThat(files.filter(path -> path.toString().endsWith(".tmp"))).isEmpty();
+        }
+    }
+
+    private List<JsonNode> readArchive(String table, String fileName) throws Exception {
+        Path file = archiveDir.resolve(table).resolve("2026-10").resolve(fileName);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().map(this::readTree).toList();
+        }
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
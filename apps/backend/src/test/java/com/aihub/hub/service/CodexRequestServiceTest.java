@@ -4,10 +4,12 @@ import com.aihub.hub.domain.CodexIntegrationProfile;
 import com.aihub.hub.domain.CodexDocumentAccessLog;
 import com.aihub.hub.domain.CodexInteractionRecord;
 import com.aihub.hub.domain.CodexRequest;
+import com.aihub.hub.domain.ResponseRecord;
 import com.aihub.hub.dto.CreateCodexRequest;
 import com.aihub.hub.dto.CodexDashboardMetrics;
 import com.aihub.hub.dto.CodexRequestSummary;
 import com.aihub.hub.domain.CodexRequestStatus;
+import com.aihub.hub.domain.CodexTranscriptChunk;
 import com.aihub.hub.domain.CodexReasoningEffort;
 import com.aihub.hub.github.GithubAppAuth;
 import com.aihub.hub.github.GithubApiClient;
@@ -16,10 +18,13 @@ import com.aihub.hub.repository.CodexHttpRequestRepository;
 import com.aihub.hub.repository.EnvironmentRepository;
 import com.aihub.hub.repository.CodexInteractionRepository;
 import com.aihub.hub.repository.CodexRequestRepository;
+import com.aihub.hub.repository.CodexTranscriptChunkRepository;
 import com.aihub.hub.repository.PromptRepository;
 import com.aihub.hub.repository.ProblemRepository;
 import com.aihub.hub.repository.ResponseRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -46,6 +51,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
@@ -69,6 +76,7 @@ class CodexRequestServiceTest {
     private final PromptRepository promptRepository = mock(PromptRepository.class);
     private final ResponseRepository responseRepository = mock(ResponseRepository.class);
     private final CodexInteractionRepository codexInteractionRepository = mock(CodexInteractionRepository.class);
+    private final CodexTranscriptChunkRepository codexTranscriptChunkRepository = mock(CodexTranscriptChunkRepository.class);
     private final ProblemRepository problemRepository = mock(ProblemRepository.class);
     private final CodexHttpRequestRepository codexHttpRequestRepository = mock(CodexHttpRequestRepository.class);
     private final CodexDocumentAccessRepository codexDocumentAccessRepository = mock(CodexDocumentAccessRepository.class);
@@ -77,6 +85,7 @@ class CodexRequestServiceTest {
     private final GithubAppAuth githubAppAuth = mock(GithubAppAuth.class);
     private final GithubApiClient githubApiClient = mock(GithubApiClient.class);
     private final TokenCostCalculator tokenCostCalculator = mock(TokenCostCalculator.class);
+    private final ImageAttachmentStore imageAttachmentStore = mock(ImageAttachmentStore.class);
     private final PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
         @Override
         public TransactionStatus getTransaction(TransactionDefinition definition) {
@@ -102,6 +111,7 @@ class CodexRequestServiceTest {
             promptRepository,
             responseRepository,
             codexInteractionRepository,
+            codexTranscriptChunkRepository,
             codexHttpRequestRepository,
             codexDocumentAccessRepository,
             environmentRepository,
@@ -111,6 +121,8 @@ class CodexRequestServiceTest {
             githubAppAuth,
             githubApiClient,
             tokenCostCalculator,
+            imageAttachmentStore,
+            new ReferenceDataCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 16, Clock.systemUTC()),
             new ObjectMapper(),
             transactionManager,
             "gpt-5-codex",
@@ -120,7 +132,9 @@ class CodexRequestServiceTest {
             "America/Sao_Paulo",
             codexAppServerEnabled,
             null,
-            null
+            null,
+            5,
+            "http://backend:8081"
         );
     }
 
@@ -521,14 +535,14 @@ class CodexRequestServiceTest {
 
         when(codexRequestRepository.findById(729L)).thenReturn(Optional.of(request));
         when(codexInteractionRepository.countByCodexRequestId(729L)).thenReturn(2);
-        when(sandboxOrchestratorClient.getJob("job-detail-running")).thenReturn(null);
+        when(sandboxOrchestratorClient.getJobAsync("job-detail-running")).thenReturn(CompletableFuture.completedFuture(null));
 
         CodexRequestService service = buildService(false);
 
         service.find(729L);
         service.find(729L);
 
-        verify(sandboxOrchestratorClient, times(1)).getJob("job-detail-running");
+        verify(sandboxOrchestratorClient, times(1)).getJobAsync("job-detail-running");
     }
 
     @Test
@@ -609,6 +623,85 @@ class CodexRequestServiceTest {
         verify(codexRequestRepository).save(request);
     }
 
+    @Test
+    void handleSandboxCallbackWritesResponseOncePerJobAndContentRevision() throws Exception {
+        CodexRequest request = new CodexRequest("owner/repo@main", "gpt-5", CodexIntegrationProfile.STANDARD, "fix things");
+        request.setExternalId("job-response");
+        request.setStatus(CodexRequestStatus.RUNNING);
+        request.setCreatedAt(Instant.parse("2024-01-01T00:00:00Z"));
+
+        AtomicReference<ResponseRecord> stored = new AtomicReference<>();
+        when(codexRequestRepository.findByExternalId("job-response")).thenReturn(Optional.of(request));
+        when(codexRequestRepository.save(any(CodexRequest.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(responseRepository.findBySandboxJobId("job-response")).thenAnswer(invocation -> Optional.ofNullable(stored.get()));
+        when(responseRepository.saveAndFlush(any(ResponseRecord.class))).thenAnswer(invocation -> {
+            stored.set(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        CodexRequestService service = buildService();
+        service.handleSandboxCallback(runningResponse("job-response", "Plano", "diff --git a/x b/x"));
+        service.handleSandboxCallback(runningResponse("job-response", "Plano", "diff --git a/x b/x"));
+
+        verify(responseRepository, times(1)).saveAndFlush(any(ResponseRecord.class));
+        assertThat(stored.get().getSandboxJobId()).isEqualTo("job-response");
+        assertThat(stored.get().getContentRevision()).isEqualTo(1);
+
+        service.handleSandboxCallback(runningResponse("job-response", "Plano", "diff --git a/y b/y"));
+
+        verify(responseRepository, times(2)).saveAndFlush(any(ResponseRecord.class));
+        assertThat(stored.get().getUnifiedDiff()).isEqualTo("diff --git a/y b/y");
+        assertThat(stored.get().getContentRevision()).isEqualTo(2);
+        JsonNode history = new ObjectMapper().readTree(stored.get().getRevisionHistory());
+        assertThat(history).hasSize(1);
+        assertThat(history.get(0).path("unifiedDiff").asText()).isEqualTo("diff --git a/x b/x");
+        verify(promptRepository, times(1)).findTopByRepoOrderByCreatedAtDesc(anyString());
+    }
+
+    @Test
+    void findLatestResponseDoesNotFallBackToTheEnvironmentForKeyedRequests() {
+        CodexRequest keyed = new CodexRequest("owner/repo@main", "gpt-5", CodexIntegrationProfile.STANDARD, "fix things");
+        keyed.setExternalId("job-without-response");
+        CodexRequest legacy = new CodexRequest("owner/repo@main", "gpt-5", CodexIntegrationProfile.STANDARD, "fix things");
+        ResponseRecord environmentRecord = new ResponseRecord();
+        when(responseRepository.findBySandboxJobId("job-without-response")).thenReturn(Optional.empty());
+        when(responseRepository.findTopByRepoOrderByCreatedAtDesc(anyString())).thenReturn(Optional.of(environmentRecord));
+
+        CodexRequestService service = buildService();
+
+        assertThat(service.findLatestResponse(keyed)).isEmpty();
+        verify(responseRepository, never()).findTopByRepoOrderByCreatedAtDesc(anyString());
+        assertThat(service.findLatestResponse(legacy)).containsSame(environmentRecord);
+    }
+
+    private SandboxOrchestratorClient.SandboxOrchestratorJobResponse runningResponse(String jobId, String summary, String patch) {
+        return new SandboxOrchestratorClient.SandboxOrchestratorJobResponse(
+            jobId,
+            "RUNNING",
+            summary,
+            null,
+            patch,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            "2024-01-01T00:01:00Z",
+            null,
+            null,
+            0,
+            0,
+            0,
+            0,
+            null,
+            null,
+            null,
+            null
+        );
+    }
+
     @Test
     void terminalSandboxUpdateIsKeptWhenNextQueuedDispatchFails() {
         CodexRequest completedRequest = new CodexRequest("owner/repo@main", "gpt-5", CodexIntegrationProfile.STANDARD, "done");
@@ -726,6 +819,41 @@ class CodexRequestServiceTest {
         verify(codexRequestRepository, never()).save(running);
     }
 
+    @Test
+    void recoveryProbesStatusesInBulkAndFetchesOnlyChangedJobs() {
+        CodexRequest unchanged = new CodexRequest("owner/repo@main", "gpt-5", CodexIntegrationProfile.STANDARD, "unchanged");
+        unchanged.setExternalId("job-unchanged");
+        unchanged.setStatus(CodexRequestStatus.RUNNING);
+        unchanged.setInteractionCount(3);
+        CodexRequest changed = new CodexRequest("owner/repo@main", "gpt-5", CodexIntegrationProfile.STANDARD, "changed");
+        changed.setExternalId("job-changed");
+        changed.setStatus(CodexRequestStatus.RUNNING);
+        changed.setInteractionCount(3);
+        CodexRequest missing = new CodexRequest("owner/repo@main", "gpt-5", CodexIntegrationProfile.STANDARD, "missing");
+        missing.setExternalId("job-missing");
+        missing.setStatus(CodexRequestStatus.RUNNING);
+        missing.setStartedAt(Instant.parse("2024-01-01T00:00:00Z"));
+
+        when(codexRequestRepository.findByStatusInAndExternalIdIsNotNullOrderByCreatedAtAsc(any()))
+            .thenReturn(List.of(unchanged, changed, missing));
+        when(sandboxOrchestratorClient.getJobStatuses(List.of("job-unchanged", "job-changed", "job-missing")))
+            .thenReturn(Optional.of(Map.of(
+                "job-unchanged", new SandboxOrchestratorClient.SandboxJobStatus("job-unchanged", "RUNNING", "2024-01-01T00:05:00Z", 3),
+                "job-changed", new SandboxOrchestratorClient.SandboxJobStatus("job-changed", "RUNNING", "2024-01-01T00:05:00Z", 4)
+            )));
+        when(sandboxOrchestratorClient.getJob("job-changed")).thenReturn(transcriptResponse("job-changed", List.of()));
+        when(codexRequestRepository.save(any(CodexRequest.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        buildService().recoverQueueAfterRestart();
+
+        verify(sandboxOrchestratorClient, never()).getJob("job-unchanged");
+        verify(sandboxOrchestratorClient).getJob("job-changed");
+        verify(sandboxOrchestratorClient, never()).getJob("job-missing");
+        assertThat(unchanged.getStatus()).isEqualTo(CodexRequestStatus.RUNNING);
+        assertThat(missing.getStatus()).isEqualTo(CodexRequestStatus.FAILED);
+        assertThat(missing.getResponseText()).contains("interrompida pela reinicialização do servidor");
+    }
+
     @Test
     void handleSandboxCallbackKeepsSummaryForUserAndPersistsFullOutboundTranscript() {
         CodexRequest request = new CodexRequest("owner/repo@main", "gpt-5", CodexIntegrationProfile.CHATGPT_CODEX, "verifique esse erro");
@@ -800,6 +928,74 @@ class CodexRequestServiceTest {
         verify(codexInteractionRepository, never()).existsBySandboxInteractionId(anyString());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void handleSandboxCallbackAppendsOnlyInteractionsPastTheTranscriptHighWaterMark() {
+        CodexRequest request = new CodexRequest("owner/repo@main", "gpt-5", CodexIntegrationProfile.CHATGPT_CODEX, "investigue");
+        request.setExternalId("job-incremental");
+        request.setCreatedAt(Instant.parse("2024-01-01T00:00:00Z"));
+
+        when(codexRequestRepository.findByExternalId("job-incremental")).thenReturn(Optional.of(request));
+        when(codexRequestRepository.save(any(CodexRequest.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction inbound =
+            new SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction(
+                "in-1", "INBOUND", "verifique esse erro", null, "2024-01-01T00:01:10Z", 1);
+        SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction firstOutbound =
+            new SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction(
+                "out-1", "OUTBOUND", "Primeira análise.", null, "2024-01-01T00:01:20Z", 2);
+        SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction secondOutbound =
+            new SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction(
+                "out-2", "OUTBOUND", "  Correção aplicada.  ", null, "2024-01-01T00:02:00Z", 3);
+
+        CodexRequestService service = buildService();
+        service.handleSandboxCallback(transcriptResponse("job-incremental", List.of(inbound, firstOutbound)));
+        service.handleSandboxCallback(transcriptResponse("job-incremental", List.of(inbound, firstOutbound, secondOutbound)));
+        boolean repeated = service.handleSandboxCallback(
+            transcriptResponse("job-incremental", List.of(inbound, firstOutbound, secondOutbound)));
+
+        ArgumentCaptor<Iterable<CodexTranscriptChunk>> chunks = ArgumentCaptor.forClass(Iterable.class);
+        verify(codexTranscriptChunkRepository, times(2)).saveAll(chunks.capture());
+        assertThat(chunks.getAllValues())
+            .extracting(batch -> batch.iterator().next().getInteractionSequence())
+            .containsExactly(2, 3);
+        assertThat(chunks.getAllValues()).allSatisfy(batch -> assertThat(batch).hasSize(1));
+        assertThat(repeated).isFalse();
+        assertThat(request.getTranscriptInteractionSeq()).isEqualTo(3);
+        assertThat(request.getModelTranscript()).isEqualTo("Primeira análise.\n\nCorreção aplicada.");
+    }
+
+    private SandboxOrchestratorClient.SandboxOrchestratorJobResponse transcriptResponse(
+        String jobId,
+        List<SandboxOrchestratorClient.SandboxOrchestratorJobResponse.Interaction> interactions
+    ) {
+        return new SandboxOrchestratorClient.SandboxOrchestratorJobResponse(
+            jobId,
+            "RUNNING",
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            "2024-01-01T00:01:00Z",
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            interactions.size(),
+            interactions,
+            null,
+            null
+        );
+    }
+
     @Test
     void handleSandboxCallbackUsesExplicitInteractionCountWhenInteractionsAreNotReturned() {
         CodexRequest request = new CodexRequest("owner/repo@main", "gpt-5", CodexIntegrationProfile.CHATGPT_CODEX, "investigue");
@@ -971,6 +1167,22 @@ class CodexRequestServiceTest {
             );
     }
 
+    @Test
+    void findKeepsTheFoldedDocumentCountOfArchivedRequests() {
+        CodexRequest request = new CodexRequest("owner/repo@main", "gpt-5", CodexIntegrationProfile.CHATGPT_CODEX, "analise docs");
+        ReflectionTestUtils.setField(request, "id", 124L);
+        request.setInteractionCount(4);
+        ReflectionTestUtils.setField(request, "documentAccessCount", 3);
+        ReflectionTestUtils.setField(request, "logsArchivedAt", Instant.parse("2026-10-01T12:00:00Z"));
+        when(codexRequestRepository.findById(124L)).thenReturn(Optional.of(request));
+
+        CodexRequest found = buildService().find(124L);
+
+        assertThat(found.getDocumentAccessCount()).isEqualTo(3);
+        assertThat(found.getDocumentAccesses()).isEmpty();
+        verify(codexDocumentAccessRepository, never()).countDocumentAccessesByRequestId(124L);
+    }
+
     private CodexDocumentAccessRepository.DocumentAccessCount documentAccessCount(String documentPath, long accessCount) {
         return new CodexDocumentAccessRepository.DocumentAccessCount() {
             @Override
@@ -1003,6 +1215,32 @@ class CodexRequestServiceTest {
         assertThat(created.getVersion()).isEqualTo(CodexRequest.DEFAULT_VERSION);
     }
 
+    @Test
+    void createStoresAttachmentsByDigestAndSendsReferencesToSandbox() {
+        CodexRequestService service = buildService();
+        String sha256 = "a".repeat(64);
+        when(promptRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(codexRequestRepository.save(any(CodexRequest.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sandboxOrchestratorClient.createJob(any())).thenReturn(null);
+        when(imageAttachmentStore.storeDataUrl("data:image/png;base64,QUJD"))
+            .thenReturn(new ImageAttachmentStore.StoredDataUrl(sha256, 3, "image/png"));
+
+        CreateCodexRequest payload = new CreateCodexRequest();
+        payload.setEnvironment("owner/repo@main");
+        payload.setPrompt("veja o print");
+        payload.setProfile(CodexIntegrationProfile.STANDARD);
+        payload.setImageAttachments(List.of(
+            new CreateCodexRequest.ImageAttachment("print.png", null, null, "data:image/png;base64,QUJD", null)));
+
+        CodexRequest created = service.create(payload);
+
+        assertThat(created.getImageAttachmentsJson()).contains(sha256).doesNotContain("base64");
+        ArgumentCaptor<SandboxJobRequest> job = ArgumentCaptor.forClass(SandboxJobRequest.class);
+        verify(sandboxOrchestratorClient).createJob(job.capture());
+        assertThat(job.getValue().imageAttachments()).containsExactly(new SandboxJobRequest.ImageAttachment(
+            "print.png", "image/png", 3L, sha256, "http://backend:8081/api/codex/attachments/" + sha256));
+    }
+
     @Test
     void smartEconomyFallsBackToStandardModelWhenFootprintExceedsThreshold() {
         CodexRequestService service = buildService();
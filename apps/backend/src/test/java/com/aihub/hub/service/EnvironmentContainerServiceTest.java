@@ -0,0 +1,41 @@
+package com.aihub.hub.service;
+
+import com.aihub.hub.domain.EnvironmentContainerSource;
+import com.aihub.hub.logs.discovery.ContainerDiscoveryService;
+import com.aihub.hub.logs.discovery.ContainerRegistryReconciledEvent;
+import com.aihub.hub.repository.EnvironmentContainerRepository;
+import com.aihub.hub.repository.EnvironmentRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class EnvironmentContainerServiceTest {
+
+    private final EnvironmentContainerRepository containerRepository = mock(EnvironmentContainerRepository.class);
+    private final EnvironmentContainerService service = new EnvironmentContainerService(
+        mock(EnvironmentRepository.class), containerRepository, mock(ContainerDiscoveryService.class), Clock.systemUTC());
+
+    @Test
+    void fullReconcileRemovesDiscoveredRowsOfContainersItDidNotReport() {
+        service.onRegistryReconciled(new ContainerRegistryReconciledEvent(Set.of("c1", "c2")));
+
+        verify(containerRepository).deleteBySourceAndContainerIdentifierNotIn(
+            EnvironmentContainerSource.DISCOVERED, Set.of("c1", "c2"));
+        verify(containerRepository, never()).deleteBySource(any());
+    }
+
+    @Test
+    void fullReconcileWithoutContainersRemovesEveryDiscoveredRow() {
+        service.onRegistryReconciled(new ContainerRegistryReconciledEvent(Set.of()));
+
+        verify(containerRepository).deleteBySource(EnvironmentContainerSource.DISCOVERED);
+        verify(containerRepository, never()).deleteBySourceAndContainerIdentifierNotIn(any(), anyCollection());
+    }
+}
@@ -0,0 +1,152 @@
+package com.aihub.hub.service;
+
+import com.aihub.hub.service.GithubWebhookIngestionService.Outcome;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GithubWebhookIngestionServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GithubWebhookIngestionService service = new GithubWebhookIngestionService(
+        jdbcTemplate,
+        mock(PlatformTransactionManager.class),
+        new ObjectMapper(),
+        eventPublisher,
+        meterRegistry,
+        2,
+        10,
+        100,
+        64 * 1024,
+        Clock.fixed(Instant.parse("2024-05-01T12:00:00Z"), ZoneOffset.UTC));
+
+    @Test
+    void enqueueRejectsRepeatedDeliveriesAndFullQueue() {
+        assertThat(service.enqueue("push", "d-1", "{}")).isEqualTo(Outcome.ACCEPTED);
+        assertThat(service.enqueue("push", "d-1", "{}")).isEqualTo(Outcome.DUPLICATE);
+        assertThat(service.enqueue("push", "d-2", "{}")).isEqualTo(Outcome.ACCEPTED);
+        assertThat(service.enqueue("push", "d-3", "{}")).isEqualTo(Outcome.QUEUE_FULL);
+
+        assertThat(meterRegistry.get("github_webhook_queue_depth").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("github_webhook_deliveries_total").tag("outcome", "duplicate").counter().count())
+            .isEqualTo(1);
+        assertThat(service.enqueue("push", "d-3", "{}")).isEqualTo(Outcome.QUEUE_FULL);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drainQueueWritesNewDeliveriesAndRunsInBatches() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT delivery_id FROM events"), eq(String.class), any(Object[].class)))
+            .thenReturn(List.of("d-1"));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE runs"), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class)))
+            .thenReturn(new int[][]{{0}});
+
+        String runPayload = """
+            {"repository":{"full_name":"acme/app"},
+             "workflow_run":{"id":42,"run_attempt":2,"status":"completed","conclusion":"failure","name":"CI"}}
+            """;
+        service.enqueue("workflow_run", "d-1", runPayload);
+        service.enqueue("workflow_run", "d-2", runPayload);
+
+        assertThat(service.drainQueue()).isEqualTo(2);
+
+        ArgumentCaptor<Collection<Object>> events = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO events"), events.capture(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        assertThat(events.getValue()).hasSize(1);
+        assertThat(events.getValue().iterator().next().toString())
+            .contains("d-2", "acme/app", "workflowRunId=42", "conclusion=failure");
+
+        ArgumentCaptor<Collection<Object>> insertedRuns = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO runs"), insertedRuns.capture(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        assertThat(insertedRuns.getValue()).hasSize(1);
+        assertThat(insertedRuns.getValue().iterator().next().toString()).contains("runId=42", "attempt=2");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drainQueueLooksUpRunsWhoseUpdateCountIsUnknown() {
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE runs"), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class)))
+            .thenReturn(new int[][]{{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO}});
+        when(jdbcTemplate.query(startsWith("SELECT repo, run_id, attempt FROM runs"), any(RowMapper.class), any(Object[].class)))
+            .thenAnswer(invocation -> {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("repo")).thenReturn("acme/app");
+                when(rs.getLong("run_id")).thenReturn(42L);
+                when(rs.getInt("attempt")).thenReturn(1);
+                return List.of(invocation.<RowMapper<Object>>getArgument(1).mapRow(rs, 0));
+            });
+
+        service.enqueue("workflow_run", "d-1", """
+            {"repository":{"full_name":"acme/app"},"workflow_run":{"id":42,"run_attempt":1,"status":"completed"}}
+            """);
+        service.enqueue("workflow_run", "d-2", """
+            {"repository":{"full_name":"acme/app"},"workflow_run":{"id":43,"run_attempt":1,"status":"queued"}}
+            """);
+
+        assertThat(service.drainQueue()).isEqualTo(2);
+
+        ArgumentCaptor<Collection<Object>> insertedRuns = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO runs"), insertedRuns.capture(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        assertThat(insertedRuns.getValue()).singleElement().asString().contains("runId=43");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drainQueueDropsMalformedPayloadsAndAllowsRedelivery() {
+        service.enqueue("push", "d-1", "{not json");
+
+        service.drainQueue();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        assertThat(service.enqueue("push", "d-1", "{}")).isEqualTo(Outcome.ACCEPTED);
+    }
+
+    @Test
+    void drainQueuePublishesRepositoryChangesFromPushes() {
+        service.enqueue("push", "d-1", """
+            {"ref":"refs/heads/main","repository":{"full_name":"Acme/App"},
+             "commits":[{"added":["docs/a.md"],"modified":["apps/backend/pom.xml"],"removed":[]}]}
+            """);
+
+        service.drainQueue();
+
+        ArgumentCaptor<Object> published = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(published.capture());
+        assertThat(published.getValue()).isEqualTo(new RepositoryChangedEvent(
+            "acme/app", "main", Set.of("docs/a.md", "apps/backend/pom.xml"), false));
+    }
+}
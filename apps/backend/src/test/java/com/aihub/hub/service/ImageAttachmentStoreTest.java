@@ -0,0 +1,63 @@
+package com.aihub.hub.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageAttachmentStoreTest {
+
+    private static final String ABC_SHA256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    @TempDir
+    Path root;
+
+    @Test
+    void storeKeepsOneFilePerDigest() throws Exception {
+        ImageAttachmentStore store = new ImageAttachmentStore(root.toString(), 1024);
+
+        ImageAttachmentStore.StoredAttachment first = store.store(stream("abc"));
+        ImageAttachmentStore.StoredDataUrl second = store.storeDataUrl("data:image/png;base64,YWJj");
+
+        assertThat(first).isEqualTo(new ImageAttachmentStore.StoredAttachment(ABC_SHA256, 3));
+        assertThat(second).isEqualTo(new ImageAttachmentStore.StoredDataUrl(ABC_SHA256, 3, "image/png"));
+        assertThat(store.find(ABC_SHA256.toUpperCase())).hasValueSatisfying(path ->
+            assertThat(path).hasContent("abc"));
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+        }
+    }
+
+    @Test
+    void storeRejectsContentAboveTheLimitWithoutLeavingFiles() throws Exception {
+        ImageAttachmentStore store = new ImageAttachmentStore(root.toString(), 2);
+
+        assertThatThrownBy(() -> store.store(stream("abc")))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("limite");
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    void invalidReferencesAreRejected() {
+        ImageAttachmentStore store = new ImageAttachmentStore(root.toString(), 1024);
+
+        assertThatThrownBy(() -> store.find("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.storeDataUrl("https://example.com/a.png")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.contains("0".repeat(64))).isFalse();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,84 @@
+package com.aihub.hub.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageAttachmentSweepJobTest {
+
+    private static final Instant NOW = Instant.now();
+
+    @TempDir
+    Path root;
+
+    private JdbcTemplate jdbcTemplate;
+    private ImageAttachmentStore store;
+    private ImageAttachmentSweepJob job;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:attachment-sweep-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE codex_requests (id BIGINT PRIMARY KEY, image_attachments_json LONGTEXT)");
+        store = new ImageAttachmentStore(root.toString(), 1024);
+        job = new ImageAttachmentSweepJob(jdbcTemplate, store, Duration.ofHours(24), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void deletesOnlyOldBlobsThatNoRequestRefersTo() throws Exception {
+        String referenced = storeAged("referenciado", Duration.ofDays(3));
+        String orphan = storeAged("órfão", Duration.ofDays(3));
+        String recent = storeAged("recém-enviado", Duration.ofHours(1));
+        Path leftover = Files.createFile(root.resolve("tmp").resolve("upload-1.part"));
+        Files.setLastModifiedTime(leftover, FileTime.from(NOW.minus(Duration.ofDays(3))));
+        jdbcTemplate.update("INSERT INTO codex_requests (id, image_attachments_json) VALUES (1, ?)",
+            "[{\"name\":\"print.png\",\"sha256\":\"" + referenced.toUpperCase() + "\"}]");
+        jdbcTemplate.update("INSERT INTO codex_requests (id, image_attachments_json) VALUES (2, NULL)");
+
+        assertThat(job.sweep()).isEqualTo(2);
+
+        assertThat(store.contains(referenced)).isTrue();
+        assertThat(store.contains(orphan)).isFalse();
+        assertThat(store.contains(recent)).isTrue();
+        assertThat(leftover).doesNotExist();
+    }
+
+    @Test
+    void retainedOrReuploadedBlobsSurviveTheSweep() throws Exception {
+        String retained = storeAged("reutilizado", Duration.ofDays(3));
+        String reuploaded = storeAged("reenviado", Duration.ofDays(3));
+
+        assertThat(store.retain(retained)).isTrue();
+        store.store(stream("reenviado"));
+
+        assertThat(job.sweep()).isZero();
+        assertThat(store.contains(retained)).isTrue();
+        assertThat(store.contains(reuploaded)).isTrue();
+    }
+
+    private String storeAged(String content, Duration age) throws Exception {
+        String sha256 = store.store(stream(content)).sha256();
+        Files.setLastModifiedTime(store.find(sha256).orElseThrow(), FileTime.from(NOW.minus(age)));
+        return sha256;
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package com.aihub.hub.service;
+
+import com.aihub.hub.domain.ProblemRecord;
+import com.aihub.hub.dto.ProblemRequestSummaryView;
+import com.aihub.hub.dto.ProblemView;
+import com.aihub.hub.repository.CodexRequestRepository;
+import com.aihub.hub.repository.EnvironmentRepository;
+import com.aihub.hub.repository.ProblemRepository;
+import com.aihub.hub.repository.ProjectRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProblemServiceTest {
+
+    private final ProblemRepository problemRepository = mock(ProblemRepository.class);
+    private final CodexRequestRepository codexRequestRepository = mock(CodexRequestRepository.class);
+    private final ProblemService service = new ProblemService(
+        problemRepository,
+        codexRequestRepository,
+        mock(EnvironmentRepository.class),
+        mock(ProjectRepository.class)
+    );
+
+    @Test
+    void listPageLoadsDetailsOnlyForThePageAndKeepsItsOrder() {
+        when(problemRepository.findIdsOrderByIncludedAtDesc(PageRequest.of(0, 2)))
+            .thenReturn(new PageImpl<>(List.of(7L, 3L), PageRequest.of(0, 2), 5));
+        when(problemRepository.findAllWithDetailsByIdIn(List.of(7L, 3L)))
+            .thenReturn(List.of(problem(3L, "Antigo"), problem(7L, "Recente")));
+
+        Page<ProblemView> page = service.listPage(0, 2);
+
+        assertThat(page.getContent()).extracting(ProblemView::id).containsExactly(7L, 3L);
+        assertThat(page.getContent()).extracting(ProblemView::title).containsExactly("Recente", "Antigo");
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        verify(problemRepository, never()).findAll(any(Sort.class));
+    }
+
+    @Test
+    void listRequestHistoryUsesTheSummaryProjection() {
+        ProblemRequestSummaryView summary = new ProblemRequestSummaryView(
+            1L, "prod", "gpt-5-codex", "COMPLETED", "prompt", "resposta", null, null, null, null);
+        when(problemRepository.existsById(4L)).thenReturn(true);
+        when(codexRequestRepository.findRequestSummariesByProblemId(4L)).thenReturn(List.of(summary));
+
+        assertThat(service.listRequestHistory(4L)).containsExactly(summary);
+        verify(problemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void listRequestHistoryRejectsUnknownProblem() {
+        when(problemRepository.existsById(9L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.listRequestHistory(9L))
+            .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        verify(codexRequestRepository, never()).findRequestSummariesByProblemId(anyLong());
+    }
+
+    private static ProblemRecord problem(Long id, String title) {
+        ProblemRecord record = new ProblemRecord();
+        ReflectionTestUtils.setField(record, "id", id);
+        record.setTitle(title);
+        record.setDescription("descrição");
+        record.setIncludedAt(LocalDate.of(2026, 9, 1));
+        return record;
+    }
+}
@@ -5,20 +5,29 @@ import com.aihub.hub.dto.CreatePromptHintRequest;
 import com.aihub.hub.dto.PromptHintView;
 import com.aihub.hub.repository.EnvironmentRepository;
 import com.aihub.hub.repository.PromptHintRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class PromptHintServiceTest {
 
     private final PromptHintRepository promptHintRepository = mock(PromptHintRepository.class);
     private final EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
-    private final PromptHintService service = new PromptHintService(promptHintRepository, environmentRepository);
+    private final PromptHintService service = new PromptHintService(promptHintRepository, environmentRepository,
+        new ReferenceDataCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 16, Clock.systemUTC()));
 
     @Test
     void createStoresPromptTypeWhenTypeIsOmitted() {
@@ -44,4 +53,18 @@ class PromptHintServiceTest {
             .isInstanceOf(ResponseStatusException.class)
             .hasMessageContaining("Tipo de item opcional inválido");
     }
+
+    @Test
+    void listForEnvironmentIsCachedUntilAHintChanges() {
+        when(promptHintRepository.findAllByEnvironmentIsNullOrderByLabelAsc()).thenReturn(List.of());
+        when(environmentRepository.findByNameIgnoreCase("prod")).thenReturn(Optional.empty());
+        when(promptHintRepository.save(any(PromptHintRecord.class))).thenAnswer((invocation) -> invocation.getArgument(0));
+
+        service.listForEnvironment("prod");
+        service.listForEnvironment(" PROD ");
+        service.create(new CreatePromptHintRequest("Item", "Texto", null, null));
+        service.listForEnvironment("prod");
+
+        verify(promptHintRepository, times(2)).findAllByEnvironmentIsNullOrderByLabelAsc();
+    }
 }
@@ -0,0 +1,115 @@
+package com.aihub.hub.service;
+
+import com.aihub.hub.github.GithubApiClient;
+import com.aihub.hub.repository.PullRequestExplanationRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PullRequestServiceTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final GithubApiClient githubApiClient = mock(GithubApiClient.class);
+    private final AuditService auditService = mock(AuditService.class);
+    private final PullRequestExplanationRepository explanationRepository = mock(PullRequestExplanationRepository.class);
+    private final ExecutorService contentExecutor = Executors.newFixedThreadPool(2);
+    private final PullRequestService service = new PullRequestService(
+        githubApiClient, new UnifiedDiffApplier(), auditService, explanationRepository, contentExecutor);
+
+    @AfterEach
+    void tearDown() {
+        contentExecutor.shutdownNow();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createFixPrCommitsAllFilesInSingleTreeAndCommit() {
+        ObjectNode branch = OBJECT_MAPPER.createObjectNode();
+        branch.putObject("object").put("sha", "base-sha");
+        when(githubApiClient.getBranch("owner", "repo", "main")).thenReturn(branch);
+
+        ObjectNode baseCommit = OBJECT_MAPPER.createObjectNode();
+        baseCommit.putObject("tree").put("sha", "base-tree");
+        when(githubApiClient.getCommit("owner", "repo", "base-sha")).thenReturn(baseCommit);
+
+        when(githubApiClient.getContent("owner", "repo", "src/App.java", "main"))
+            .thenReturn(content("class App {\n}\n"));
+        when(githubApiClient.createTree(eq("owner"), eq("repo"), any(JsonNode.class), any(Map.class)))
+            .thenReturn(OBJECT_MAPPER.createObjectNode().put("sha", "new-tree"));
+        when(githubApiClient.createCommit("owner", "repo", "Fix build (AI Hub)", "new-tree", "base-sha"))
+            .thenReturn(OBJECT_MAPPER.createObjectNode().put("sha", "new-commit"));
+        when(githubApiClient.createPullRequest(eq("owner"), eq("repo"), eq("Fix build"), anyString(), eq("main"), anyString()))
+            .thenReturn(OBJECT_MAPPER.createObjectNode().put("number", 7));
+
+        String diff = String.join("\n",
+            "diff --git a/src/App.java b/src/App.java",
+            "--- a/src/App.java",
+            "+++ b/src/App.java",
+            "@@ -1,2 +1,3 @@",
+            " class App {",
+            "+    int value;",
+            " }",
+            "diff --git a/docs/NOTES.md b/docs/NOTES.md",
+            "--- /dev/null",
+            "+++ b/docs/NOTES.md",
+            "@@ -0,0 +1,1 @@",
+            "+notes",
+            "diff --git a/old.txt b/old.txt",
+            "deleted file mode 100644",
+            "--- a/old.txt",
+            "+++ /dev/null",
+            "@@ -1,1 +0,0 @@",
+            "-old",
+            "diff --git a/legacy/Old.java b/legacy/Old.java",
+            "deleted file mode 100644",
+            "--- a/legacy/Old.java",
+            "+++ /dev/null",
+            "@@ -1,1 +0,0 @@",
+            "-class Old {}");
+
+        service.createFixPr("alice", "owner", "repo", "main", "Fix build", diff, "explicação");
+
+        ArgumentCaptor<Map<String, String>> filesCaptor = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<JsonNode> baseTreeCaptor = ArgumentCaptor.forClass(JsonNode.class);
+        verify(githubApiClient).createTree(eq("owner"), eq("repo"), baseTreeCaptor.capture(), filesCaptor.capture());
+        assertThat(baseTreeCaptor.getValue().get("sha").asText()).isEqualTo("base-tree");
+        assertThat(filesCaptor.getValue()).containsOnlyKeys("docs/NOTES.md", "legacy/Old.java", "old.txt", "src/App.java");
+        assertThat(filesCaptor.getValue()).containsEntry("old.txt", null).containsEntry("legacy/Old.java", null);
+        assertThat(filesCaptor.getValue().get("src/App.java")).isEqualTo("class App {\n    int value;\n}\n");
+        assertThat(filesCaptor.getValue().get("docs/NOTES.md")).isEqualTo("notes\n");
+
+        ArgumentCaptor<String> branchCaptor = ArgumentCaptor.forClass(String.class);
+        verify(githubApiClient).createBranch(eq("owner"), eq("repo"), branchCaptor.capture(), eq("new-commit"));
+        assertThat(branchCaptor.getValue()).startsWith("ai-hub/fix-");
+        verify(githubApiClient, never()).getContent("owner", "repo", "docs/NOTES.md", "main");
+        verify(githubApiClient, never()).getContent("owner", "repo", "old.txt", "main");
+        verify(githubApiClient, never()).uploadContent(anyString(), anyString(), anyString(), anyString(), anyString(), anyString(), any());
+        verify(githubApiClient, never()).updateBranchToCommit(anyString(), anyString(), anyString(), anyString());
+    }
+
+    private static JsonNode content(String text) {
+        ObjectNode node = OBJECT_MAPPER.createObjectNode();
+        node.put("content", Base64.getMimeEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8)));
+        node.put("sha", "blob-sha");
+        return node;
+    }
+}
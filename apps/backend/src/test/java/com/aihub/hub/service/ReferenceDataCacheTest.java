@@ -0,0 +1,85 @@
+package com.aihub.hub.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenceDataCacheTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-01T12:00:00Z"), ZoneOffset.UTC);
+    private static final SandboxJobRequest.DatabaseConnection CONNECTION =
+        new SandboxJobRequest.DatabaseConnection("db", 3306, "hub", "reader", "secret");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReferenceDataCache cache = new ReferenceDataCache(meterRegistry, Duration.ofMinutes(5), 16, CLOCK);
+
+    @Test
+    void lookupsAreSharedAcrossCaseAndCountedAsHitsAndMisses() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.environmentDatabase("Prod", () -> load(loads, Optional.of(CONNECTION)));
+        Optional<SandboxJobRequest.DatabaseConnection> cached =
+            cache.environmentDatabase(" prod ", () -> load(loads, Optional.empty()));
+        cache.environmentDatabase("missing", () -> load(loads, Optional.empty()));
+        cache.environmentDatabase("missing", () -> load(loads, Optional.empty()));
+
+        assertThat(cached).contains(CONNECTION);
+        assertThat(loads).hasValue(2);
+        assertThat(gets("environment_database", "hit")).isEqualTo(2.0);
+        assertThat(gets("environment_database", "miss")).isEqualTo(2.0);
+        assertThat(meterRegistry.get("reference_cache_size").tag("cache", "environment_database").gauge().value())
+            .isEqualTo(2.0);
+    }
+
+    @Test
+    void environmentChangesAlsoDropPromptHints() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.environmentDatabase("prod", () -> load(loads, Optional.of(CONNECTION)));
+        cache.promptHints("prod", () -> load(loads, List.of()));
+
+        cache.invalidateEnvironments();
+        cache.environmentDatabase("prod", () -> load(loads, Optional.of(CONNECTION)));
+        cache.promptHints("prod", () -> load(loads, List.of()));
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void invalidationIsRepeatedAfterTheWriteTransactionCommits() {
+        AtomicInteger loads = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidatePricing();
+            cache.pricing("gpt-5-codex", () -> load(loads, Optional.empty()));
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        cache.pricing("gpt-5-codex", () -> load(loads, Optional.empty()));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private double gets(String cacheName, String result) {
+        return meterRegistry.get("reference_cache_gets_total").tags("cache", cacheName, "result", result)
+            .functionCounter().count();
+    }
+
+    private static <T> T load(AtomicInteger loads, T value) {
+        loads.incrementAndGet();
+        return value;
+    }
+}
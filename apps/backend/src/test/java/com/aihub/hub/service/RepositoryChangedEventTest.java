@@ -0,0 +1,65 @@
+package com.aihub.hub.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryChangedEventTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void pushAffectsOnlyTouchedPathsAndTheirDirectories() throws Exception {
+        List<RepositoryChangedEvent> events = RepositoryChangedEvent.fromWebhook("push", OBJECT_MAPPER.readTree("""
+            {"ref":"refs/heads/main","repository":{"full_name":"owner/repo"},
+             "commits":[{"added":[],"modified":["apps/backend/pom.xml"],"removed":["old.txt"]}]}
+            """));
+
+        assertThat(events).hasSize(1);
+        RepositoryChangedEvent event = events.get(0);
+        assertThat(event.affects("Owner/Repo", "main", "apps/backend")).isTrue();
+        assertThat(event.affects("owner/repo", "main", "old.txt")).isTrue();
+        assertThat(event.affects("owner/repo", "main", "apps/frontend")).isFalse();
+        assertThat(event.affects("owner/repo", "main", null)).isTrue();
+        assertThat(event.affects("owner/repo", "develop", "old.txt")).isFalse();
+        assertThat(event.affects("owner/repo", null, null)).isFalse();
+    }
+
+    @Test
+    void forcedPushInvalidatesTheWholeBranchAndRepository() throws Exception {
+        List<RepositoryChangedEvent> events = RepositoryChangedEvent.fromWebhook("push", OBJECT_MAPPER.readTree("""
+            {"ref":"refs/heads/main","forced":true,"repository":{"full_name":"owner/repo"},
+             "commits":[{"added":[],"modified":["README.md"],"removed":[]}]}
+            """));
+
+        assertThat(events).containsExactly(new RepositoryChangedEvent("owner/repo", "main", Set.of(), true));
+        RepositoryChangedEvent event = events.get(0);
+        assertThat(event.affects("owner/repo", "main", "apps/backend/pom.xml")).isTrue();
+        assertThat(event.affects("owner/repo", null, null)).isTrue();
+        assertThat(event.affects("owner/repo", "develop", null)).isFalse();
+    }
+
+    @Test
+    void branchLifecycleAndMergedPullRequestsInvalidateWholeBranches() throws Exception {
+        List<RepositoryChangedEvent> created = RepositoryChangedEvent.fromWebhook("create", OBJECT_MAPPER.readTree("""
+            {"ref":"feature/x","ref_type":"branch","repository":{"full_name":"owner/repo"}}
+            """));
+        List<RepositoryChangedEvent> tag = RepositoryChangedEvent.fromWebhook("create", OBJECT_MAPPER.readTree("""
+            {"ref":"v1.0.0","ref_type":"tag","repository":{"full_name":"owner/repo"}}
+            """));
+        List<RepositoryChangedEvent> merged = RepositoryChangedEvent.fromWebhook("pull_request", OBJECT_MAPPER.readTree("""
+            {"action":"closed","repository":{"full_name":"owner/repo"},
+             "pull_request":{"merged":true,"head":{"ref":"feature/x","repo":{"full_name":"owner/repo"}},
+                             "base":{"ref":"main"}}}
+            """));
+
+        assertThat(created).containsExactly(new RepositoryChangedEvent("owner/repo", "feature/x", Set.of(), true));
+        assertThat(tag).isEmpty();
+        assertThat(merged).extracting(RepositoryChangedEvent::branch).containsExactly("feature/x", "main");
+        assertThat(merged.get(1).affects("owner/repo", "main", "README.md")).isTrue();
+    }
+}
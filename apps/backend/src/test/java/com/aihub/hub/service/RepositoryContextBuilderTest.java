@@ -9,10 +9,12 @@ import org.mockito.Mockito;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 class RepositoryContextBuilderTest {
@@ -64,6 +66,32 @@ class RepositoryContextBuilderTest {
         verify(githubApiClient, never()).getContent("owner", "repo", "//external-host", "main");
     }
 
+    @Test
+    void shouldReuseCachedGithubReadsUntilWebhookInvalidatesChangedPaths() throws Exception {
+        Mockito.when(githubApiClient.getRepository("owner", "repo"))
+            .thenReturn(json("{\"default_branch\":\"main\",\"description\":\"\"}"));
+        Mockito.when(githubApiClient.getBranch("owner", "repo", "main"))
+            .thenReturn(json("{\"object\":{\"sha\":\"commit-sha\"}}"));
+        Mockito.when(githubApiClient.getTree("owner", "repo", "commit-sha", true))
+            .thenReturn(json("{\"tree\":[{\"path\":\"README.md\"},{\"path\":\"src/App.java\"}]}"));
+        Mockito.when(githubApiClient.getContent("owner", "repo", "README.md", "main"))
+            .thenReturn(json("{\"content\":\"\"}"));
+        String encoded = Base64.getEncoder().encodeToString("requested file content".getBytes(StandardCharsets.UTF_8));
+        Mockito.when(githubApiClient.getContent("owner", "repo", "src/App.java", "main"))
+            .thenReturn(json("{\"content\":\"" + encoded + "\"}"));
+
+        contextBuilder.build("owner/repo", List.of("src/App.java"));
+        contextBuilder.build("owner/repo", List.of("src/App.java"));
+        contextBuilder.onRepositoryChanged(new RepositoryChangedEvent("owner/repo", "main", Set.of("src/App.java"), false));
+        contextBuilder.onRepositoryChanged(new RepositoryChangedEvent("owner/other", "main", Set.of("README.md"), false));
+        contextBuilder.build("owner/repo", List.of("src/App.java"));
+
+        verify(githubApiClient, times(1)).getRepository("owner", "repo");
+        verify(githubApiClient, times(2)).getBranch("owner", "repo", "main");
+        verify(githubApiClient, times(1)).getContent("owner", "repo", "README.md", "main");
+        verify(githubApiClient, times(2)).getContent("owner", "repo", "src/App.java", "main");
+    }
+
     private JsonNode json(String content) throws Exception {
         return objectMapper.readTree(content);
     }
@@ -0,0 +1,80 @@
+package com.aihub.hub.service;
+
+import com.aihub.hub.service.SandboxOrchestratorClient.SandboxOrchestratorJobResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SandboxJobPayloadDecoderTest {
+
+    private static final String PAYLOAD = """
+        {
+          "jobId": "job-1",
+          "status": "RUNNING",
+          "summary": "resumo",
+          "metadata": {"jobId": "ignored", "nested": [1, 2, {"a": "b"}]},
+          "changedFiles": [" src/A.java ", "", 7, {"path": "x"}, ["y"], null],
+          "pull_request_url": "https://github.com/acme/app/pull/1",
+          "usage": {"input_tokens": 120, "output_tokens": "30", "total_cost": 0.125, "extra": {"deep": true}},
+          "cached_input_tokens": 12,
+          "duration_ms": "4500",
+          "interactionCount": 1,
+          "interactions": [
+            {"id": "i-1", "direction": "INBOUND", "content": "pergunta", "sequence": 1, "meta": {"content": "no"}},
+            {"interaction_id": "i-2", "direction": "OUTBOUND", "content": "resposta", "token_count": 42, "sequence": "2"},
+            {"direction": "OUTBOUND", "content": "sem id"},
+            "not-an-object",
+            null
+          ],
+          "httpRequests": [{"call_id": "c-1", "url": "https://example.com", "status_code": 200, "success": "true"}],
+          "documentAccesses": [{"document_path": "docs/a.md", "command": "cat docs/a.md"}, {"command": "ls"}],
+          "work_branch": "codex/job-1",
+          "status": "COMPLETED"
+        }
+        """;
+
+    @Test
+    void decodeMatchesTreeParsing() throws Exception {
+        SandboxOrchestratorJobResponse expected =
+            SandboxOrchestratorJobResponse.from(new ObjectMapper().readTree(PAYLOAD));
+
+        SandboxOrchestratorJobResponse decoded = decode(PAYLOAD, SandboxJobPayloadDecoder.Detail.FULL);
+
+        assertThat(decoded).isEqualTo(expected);
+        assertThat(decoded.status()).isEqualTo("COMPLETED");
+        assertThat(decoded.changedFiles()).containsExactly("src/A.java", "7");
+        assertThat(decoded.promptTokens()).isEqualTo(120);
+        assertThat(decoded.completionTokens()).isEqualTo(30);
+        assertThat(decoded.cost()).isEqualByComparingTo(new BigDecimal("0.125"));
+        assertThat(decoded.interactionCount()).isEqualTo(2);
+        assertThat(decoded.interactions()).extracting(SandboxOrchestratorJobResponse.Interaction::content)
+            .containsExactly("pergunta", "resposta");
+    }
+
+    @Test
+    void decodeCanSkipInteractionContentAndKeepCounts() throws Exception {
+        SandboxOrchestratorJobResponse decoded =
+            decode(PAYLOAD, SandboxJobPayloadDecoder.Detail.WITHOUT_INTERACTION_CONTENT);
+
+        assertThat(decoded.interactionCount()).isEqualTo(2);
+        assertThat(decoded.interactions()).extracting(SandboxOrchestratorJobResponse.Interaction::id)
+            .containsExactly("i-1", "i-2");
+        assertThat(decoded.interactions()).extracting(SandboxOrchestratorJobResponse.Interaction::content)
+            .containsOnlyNulls();
+        assertThat(decoded.interactions().get(1).sequence()).isEqualTo(2);
+    }
+
+    @Test
+    void decodeReturnsNullForEmptyBody() throws Exception {
+        assertThat(decode("", SandboxJobPayloadDecoder.Detail.FULL)).isNull();
+    }
+
+    private SandboxOrchestratorJobResponse decode(String json, SandboxJobPayloadDecoder.Detail detail) throws Exception {
+        return SandboxJobPayloadDecoder.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), detail);
+    }
+}
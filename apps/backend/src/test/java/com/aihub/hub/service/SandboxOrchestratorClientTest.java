@@ -1,12 +1,16 @@
 package com.aihub.hub.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -139,11 +143,48 @@ class SandboxOrchestratorClientTest {
         }
     }
 
+    @Test
+    void getJobStatusesReadsCompactStatusesFromBatchEndpoint() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody("""
+                    {
+                      "jobs": [{"jobId": "job-a", "status": "RUNNING", "updatedAt": "2026-07-16T15:00:00Z", "interactionCount": 4}],
+                      "missing": ["job-b"]
+                    }
+                    """));
+            SandboxOrchestratorClient client = clientFor(server);
+
+            Optional<Map<String, SandboxOrchestratorClient.SandboxJobStatus>> statuses =
+                client.getJobStatuses(List.of("job-a", "job-b", "job-a"));
+
+            assertThat(statuses).hasValueSatisfying(value -> assertThat(value).containsOnly(Map.entry("job-a",
+                new SandboxOrchestratorClient.SandboxJobStatus("job-a", "RUNNING", "2026-07-16T15:00:00Z", 4))));
+            RecordedRequest recorded = server.takeRequest();
+            assertThat(recorded.getPath()).isEqualTo("/jobs/status");
+            assertThat(recorded.getBody().readUtf8()).isEqualTo("{\"jobIds\":[\"job-a\",\"job-b\"]}");
+        }
+    }
+
+    @Test
+    void getJobStatusesIsEmptyWhenOrchestratorHasNoBatchEndpoint() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(404).setBody("Cannot POST /jobs/status"));
+            SandboxOrchestratorClient client = clientFor(server);
+
+            assertThat(client.getJobStatuses(List.of("job-a"))).isEmpty();
+        }
+    }
+
     private SandboxOrchestratorClient clientFor(MockWebServer server) {
         RestClient restClient = RestClient.builder()
             .requestFactory(new JdkClientHttpRequestFactory())
             .baseUrl(server.url("/").toString())
             .build();
-        return new SandboxOrchestratorClient(restClient, "/jobs");
+        SandboxOrchestratorResilience resilience =
+            new SandboxOrchestratorResilience(new SimpleMeterRegistry(), 2, 2, 1, 1, 4, 5, 30_000, 60_000);
+        return new SandboxOrchestratorClient(restClient, "/jobs", resilience);
     }
 }
@@ -0,0 +1,183 @@
+package com.aihub.hub.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SandboxOrchestratorResilienceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-01T12:00:00Z");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Clock clock = mock(Clock.class);
+    private SandboxOrchestratorResilience resilience;
+
+    @AfterEach
+    void tearDown() {
+        if (resilience != null) {
+            resilience.destroy();
+        }
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresAndFailsFastWithoutCallingTheOrchestrator() {
+        when(clock.instant()).thenReturn(NOW);
+        resilience = resilience(1, 1, 2);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            assertThatThrownBy(() -> resilience.call(SandboxOrchestratorResilience.Call.REFRESH, () -> {
+                calls.incrementAndGet();
+                throw new ResourceAccessException("timeout");
+            })).isInstanceOf(ResourceAccessException.class);
+        }
+
+        assertThatThrownBy(() -> resilience.call(SandboxOrchestratorResilience.Call.DISPATCH, calls::incrementAndGet))
+            .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(calls).hasValue(2);
+        assertThat(resilience.circuitState()).isEqualTo(SandboxOrchestratorResilience.CircuitState.OPEN);
+        assertThat(meterRegistry.get("sandbox_orchestrator_rejected_total")
+            .tags("call", "dispatch", "reason", "circuit_open").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("sandbox_orchestrator_circuit_state").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void halfOpenTrialClosesTheCircuitWhenItSucceeds() {
+        when(clock.instant()).thenReturn(NOW);
+        resilience = resilience(1, 1, 1);
+        assertThatThrownBy(() -> resilience.call(SandboxOrchestratorResilience.Call.REFRESH, () -> {
+            throw new ResourceAccessException("connection refused");
+        })).isInstanceOf(ResourceAccessException.class);
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(31));
+        String result = resilience.call(SandboxOrchestratorResilience.Call.REFRESH, () -> "ok");
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(resilience.circuitState()).isEqualTo(SandboxOrchestratorResilience.CircuitState.CLOSED);
+        assertThat(meterRegistry.get("sandbox_orchestrator_request")
+            .tags("call", "refresh", "outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        when(clock.instant()).thenReturn(NOW);
+        resilience = resilience(1, 1, 1);
+
+        assertThatThrownBy(() -> resilience.call(SandboxOrchestratorResilience.Call.CANCEL, () -> {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        })).isInstanceOf(HttpClientErrorException.class);
+
+        assertThat(resilience.circuitState()).isEqualTo(SandboxOrchestratorResilience.CircuitState.CLOSED);
+    }
+
+    @Test
+    void fullBulkheadRejectsOnlyItsOwnCallType() throws Exception {
+        when(clock.instant()).thenReturn(NOW);
+        resilience = resilience(1, 1, 5);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        CompletableFuture<String> running = resilience.submit(SandboxOrchestratorResilience.Call.REFRESH, () -> {
+            started.countDown();
+            await(release);
+            return "running";
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = resilience.submit(SandboxOrchestratorResilience.Call.REFRESH, () -> "queued");
+        CompletableFuture<String> rejected = resilience.submit(SandboxOrchestratorResilience.Call.REFRESH, () -> "rejected");
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThat(resilience.call(SandboxOrchestratorResilience.Call.DISPATCH, () -> "dispatch")).isEqualTo("dispatch");
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+        assertThat(meterRegistry.get("sandbox_orchestrator_rejected_total")
+            .tags("call", "refresh", "reason", "bulkhead_full").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void callGivesUpWithServiceUnavailableAndDropsTheQueuedAction() throws Exception {
+        when(clock.instant()).thenReturn(NOW);
+        resilience = resilience(1, 1, 5, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queuedCalls = new AtomicInteger();
+        CompletableFuture<String> running = resilience.submit(SandboxOrchestratorResilience.Call.REFRESH, () -> {
+            await(release);
+            return "running";
+        });
+
+        assertThatThrownBy(() -> resilience.call(SandboxOrchestratorResilience.Call.REFRESH, queuedCalls::incrementAndGet))
+            .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(resilience.submit(SandboxOrchestratorResilience.Call.REFRESH, () -> "next").get(5, TimeUnit.SECONDS))
+            .isEqualTo("next");
+        assertThat(queuedCalls).hasValue(0);
+    }
+
+    @Test
+    void errorsCompleteTheFutureAndReleaseTheHalfOpenTrial() throws Exception {
+        when(clock.instant()).thenReturn(NOW);
+        resilience = resilience(1, 1, 1);
+        assertThatThrownBy(() -> resilience.call(SandboxOrchestratorResilience.Call.REFRESH, () -> {
+            throw new ResourceAccessException("connection refused");
+        })).isInstanceOf(ResourceAccessException.class);
+        when(clock.instant()).thenReturn(NOW.plusSeconds(31));
+
+        CompletableFuture<String> trial = resilience.submit(SandboxOrchestratorResilience.Call.REFRESH, () -> {
+            throw new StackOverflowError();
+        });
+
+        assertThatThrownBy(() -> trial.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        assertThat(meterRegistry.get("sandbox_orchestrator_request")
+            .tags("call", "refresh", "outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(resilience.call(SandboxOrchestratorResilience.Call.REFRESH, () -> "ok")).isEqualTo("ok");
+        assertThat(resilience.circuitState()).isEqualTo(SandboxOrchestratorResilience.CircuitState.CLOSED);
+    }
+
+    private SandboxOrchestratorResilience resilience(int concurrency, int queueCapacity, int failureThreshold) {
+        return resilience(concurrency, queueCapacity, failureThreshold, Duration.ofSeconds(5));
+    }
+
+    private SandboxOrchestratorResilience resilience(int concurrency, int queueCapacity, int failureThreshold,
+                                                     Duration callTimeout) {
+        Map<SandboxOrchestratorResilience.Call, Integer> limits = Map.of(
+            SandboxOrchestratorResilience.Call.DISPATCH, concurrency,
+            SandboxOrchestratorResilience.Call.REFRESH, concurrency,
+            SandboxOrchestratorResilience.Call.CANCEL, concurrency,
+            SandboxOrchestratorResilience.Call.ACCOUNT, concurrency
+        );
+        return new SandboxOrchestratorResilience(meterRegistry, limits, queueCapacity, failureThreshold, Duration.ofSeconds(30),
+            callTimeout, clock);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
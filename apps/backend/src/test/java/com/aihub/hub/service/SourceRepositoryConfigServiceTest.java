@@ -3,10 +3,12 @@ package com.aihub.hub.service;
 import com.aihub.hub.domain.SourceRepositoryConfig;
 import com.aihub.hub.dto.SourceRepositoryConfigRequest;
 import com.aihub.hub.repository.SourceRepositoryConfigRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.util.Optional;
@@ -23,7 +25,8 @@ class SourceRepositoryConfigServiceTest {
     private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-07-23T03:50:00Z"), ZoneOffset.UTC);
 
     private final SourceRepositoryConfigRepository repository = mock(SourceRepositoryConfigRepository.class);
-    private final SourceRepositoryConfigService service = new SourceRepositoryConfigService(repository, CLOCK);
+    private final SourceRepositoryConfigService service = new SourceRepositoryConfigService(
+        repository, CLOCK, new ReferenceDataCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 16, CLOCK));
 
     @Test
     void emptyConfigViewUsesAiHubRepositoryDefaults() {
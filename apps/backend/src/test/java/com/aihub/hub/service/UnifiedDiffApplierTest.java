@@ -1,14 +1,23 @@
 package com.aihub.hub.service;
 
 import com.aihub.hub.service.UnifiedDiffApplier.AppliedDiff;
+import com.aihub.hub.service.UnifiedDiffApplier.HunkPlacement;
+import com.aihub.hub.service.UnifiedDiffApplier.PatchResult;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class UnifiedDiffApplierTest {
 
+    private static final String[] REPEATED_LINES = {"}", "{", "", "return value;", "--- separador", "+ total"};
+
     private final UnifiedDiffApplier diffApplier = new UnifiedDiffApplier();
 
     @Test
@@ -42,4 +51,133 @@ class UnifiedDiffApplierTest {
 
         assertThat(updated).isEqualTo(expected);
     }
+
+    @Test
+    void applyToleratesDriftedContextWithinFuzzFactor() {
+        String originalContent = String.join("\n",
+                "package demo;",
+                "import java.util.List;",
+                "// licença atualizada",
+                "class Demo {",
+                "    int value;",
+                "}");
+
+        String diff = String.join("\n",
+                "--- a/Demo.java",
+                "+++ b/Demo.java",
+                "@@ -1,4 +1,5 @@",
+                " // licença antiga",
+                " class Demo {",
+                "     int value;",
+                "+    int other;",
+                " }");
+
+        PatchResult result = diffApplier.applyWithPlacements(originalContent, diffApplier.parse(diff).get("Demo.java"));
+
+        assertThat(result.hunks()).containsExactly(new HunkPlacement(2, 1));
+        assertThat(result.content()).isEqualTo(String.join("\n",
+                "package demo;",
+                "import java.util.List;",
+                "// licença atualizada",
+                "class Demo {",
+                "    int value;",
+                "    int other;",
+                "}") + "\n");
+    }
+
+    @Test
+    void applyReproducesGeneratedEditsFromTheirDiffs() {
+        for (int seed = 0; seed < 2000; seed++) {
+            Random random = new Random(seed);
+            // Repeated lines make placement ambiguous, so only diffs over distinct lines get drifted headers.
+            boolean repeatedLines = seed % 2 == 0;
+            int drift = repeatedLines ? 0 : random.nextInt(11) - 5;
+            List<String> original = new ArrayList<>();
+            for (int i = 0, size = 1 + random.nextInt(60); i < size; i++) {
+                original.add(repeatedLines && random.nextBoolean()
+                        ? REPEATED_LINES[random.nextInt(REPEATED_LINES.length)]
+                        : "line " + i);
+            }
+
+            StringBuilder diff = new StringBuilder("--- a/file.txt\n+++ b/file.txt\n");
+            List<String> expected = new ArrayList<>();
+            int copied = 0;
+            int newOffset = 0;
+            for (int hunk = 0, hunks = 1 + random.nextInt(3); hunk < hunks && copied < original.size(); hunk++) {
+                int change = copied + random.nextInt(original.size() - copied);
+                int from = Math.max(copied, change - 3);
+                int removed = Math.min(random.nextInt(3), original.size() - change);
+                int to = Math.min(original.size(), change + removed + 3);
+                int added = removed == 0 ? 1 + random.nextInt(2) : random.nextInt(3);
+                diff.append("@@ -%d,%d +%d,%d @@\n".formatted(from + 1 + drift, to - from,
+                        from + 1 + newOffset + drift, to - from - removed + added));
+                expected.addAll(original.subList(copied, from));
+                for (int i = from; i < change; i++) {
+                    diff.append(' ').append(original.get(i)).append('\n');
+                    expected.add(original.get(i));
+                }
+                for (int i = change; i < change + removed; i++) {
+                    diff.append('-').append(original.get(i)).append('\n');
+                }
+                for (int i = 0; i < added; i++) {
+                    diff.append('+').append("added ").append(hunk).append('.').append(i).append('\n');
+                    expected.add("added " + hunk + "." + i);
+                }
+                for (int i = change + removed; i < to; i++) {
+                    diff.append(' ').append(original.get(i)).append('\n');
+                    expected.add(original.get(i));
+                }
+                newOffset += added - removed;
+                copied = to;
+            }
+            expected.addAll(original.subList(copied, original.size()));
+
+            String updated = diffApplier.apply(String.join("\n", original) + "\n",
+                    diffApplier.parse(diff.toString()).get("file.txt"));
+
+            assertThat(updated).as("seed %d", seed).isEqualTo(String.join("\n", expected) + "\n");
+        }
+    }
+
+    @Test
+    void applyPrefersOccurrenceClosestToHunkHeader() {
+        String originalContent = String.join("\n",
+                "}", "value", "}", "a", "b", "c", "}", "value", "}");
+
+        String diff = String.join("\n",
+                "--- a/file.txt",
+                "+++ b/file.txt",
+                "@@ -7,3 +7,3 @@",
+                " }",
+                "-value",
+                "+changed",
+                " }");
+
+        String updated = diffApplier.apply(originalContent, diffApplier.parse(diff).get("file.txt"));
+
+        assertThat(updated).isEqualTo(String.join("\n",
+                "}", "value", "}", "a", "b", "c", "}", "changed", "}") + "\n");
+    }
+
+    @Test
+    void parseReadsMultipleFilesAndRemovedLinesThatLookLikeHeaders() throws IOException {
+        String diff = String.join("\n",
+                "--- a/schema.sql",
+                "+++ b/schema.sql",
+                "@@ -1,2 +1,1 @@",
+                "--- comentário antigo",
+                " create table demo (id int);",
+                "--- /dev/null",
+                "+++ b/README.md",
+                "@@ -0,0 +1,1 @@",
+                "+# Demo");
+
+        Map<String, AppliedDiff> parsed = diffApplier.parse(new StringReader(diff));
+
+        assertThat(parsed).containsOnlyKeys("schema.sql", "README.md");
+        assertThat(diffApplier.apply("-- comentário antigo\ncreate table demo (id int);\n", parsed.get("schema.sql")))
+                .isEqualTo("create table demo (id int);\n");
+        assertThat(parsed.get("README.md").getOldPath()).isEqualTo("/dev/null");
+        assertThat(diffApplier.apply("", parsed.get("README.md"))).isEqualTo("# Demo\n");
+    }
 }
@@ -0,0 +1,122 @@
+package com.aihub.hub.service;
+
+import com.aihub.hub.domain.CompressedTextConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebhookEventRetentionJobTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-01T12:00:00Z"), ZoneOffset.UTC);
+    private static final Timestamp EXPIRED = Timestamp.from(Instant.parse("2026-05-01T00:00:00Z"));
+    private static final Timestamp OLD = Timestamp.from(Instant.parse("2026-08-01T00:00:00Z"));
+    private static final Timestamp PAYLOAD_CUTOFF = Timestamp.from(Instant.parse("2026-09-01T12:00:00Z"));
+    private static final Timestamp EVENT_CUTOFF = Timestamp.from(Instant.parse("2026-07-03T12:00:00Z"));
+    private static final Timestamp RECENT = Timestamp.from(Instant.parse("2026-09-25T00:00:00Z"));
+
+    private JdbcTemplate jdbcTemplate;
+    private WebhookEventRetentionJob job;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:webhook-retention-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE events (id BIGINT PRIMARY KEY, repo VARCHAR(200) NOT NULL, "
+            + "event_type VARCHAR(80) NOT NULL, delivery_id VARCHAR(100) NOT NULL, payload LONGTEXT, "
+            + "received_at TIMESTAMP NOT NULL, action VARCHAR(80), workflow_run_id BIGINT, conclusion VARCHAR(60), "
+            + "payload_gzip VARBINARY, payload_size INT)");
+        job = new WebhookEventRetentionJob(jdbcTemplate, new ObjectMapper(), 30, 90, 2, CLOCK);
+    }
+
+    @Test
+    void compactsLegacyPayloadsInChunksAndExtractsTheirColumns() {
+        String run = "{\"action\":\"completed\",\"workflow_run\":{\"id\":42,\"conclusion\":\"failure\"}}";
+        String workflowJob = "{\"action\":\"queued\",\"workflow_job\":{\"run_id\":43}}";
+        insertLegacy(1, "workflow_run", run, RECENT);
+        insertLegacy(2, "workflow_job", workflowJob, RECENT);
+        insertLegacy(3, "push", "não é json", RECENT);
+
+        int compacted = job.compactLegacyPayloads();
+
+        assertThat(compacted).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM events WHERE payload IS NOT NULL", Integer.class))
+            .isZero();
+        Map<String, Object> first = jdbcTemplate.queryForMap(
+            "SELECT action, workflow_run_id, conclusion, payload_gzip, payload_size FROM events WHERE id = 1");
+        assertThat(first.get("action")).isEqualTo("completed");
+        assertThat(first.get("workflow_run_id")).isEqualTo(42L);
+        assertThat(first.get("conclusion")).isEqualTo("failure");
+        assertThat(CompressedTextConverter.decompress((byte[]) first.get("payload_gzip"))).isEqualTo(run);
+        assertThat(first.get("payload_size")).isEqualTo(run.length());
+        assertThat(jdbcTemplate.queryForMap("SELECT action, workflow_run_id FROM events WHERE id = 2"))
+            .containsEntry("action", "queued")
+            .containsEntry("workflow_run_id", 43L);
+        Map<String, Object> unreadable = jdbcTemplate.queryForMap(
+            "SELECT action, workflow_run_id, payload_gzip FROM events WHERE id = 3");
+        assertThat(unreadable.get("action")).isNull();
+        assertThat(unreadable.get("workflow_run_id")).isNull();
+        assertThat(CompressedTextConverter.decompress((byte[]) unreadable.get("payload_gzip"))).isEqualTo("não é json");
+        assertThat(job.compactLegacyPayloads()).isZero();
+    }
+
+    @Test
+    void discardsPayloadsAndDeletesEventsOnlyPastTheirCutoffs() {
+        insertCompacted(1, EXPIRED);
+        insertCompacted(2, EXPIRED);
+        insertCompacted(3, EXPIRED);
+        insertCompacted(4, EVENT_CUTOFF);
+        insertCompacted(5, OLD);
+        insertCompacted(6, PAYLOAD_CUTOFF);
+        insertCompacted(7, RECENT);
+
+        int stripped = job.discardExpiredPayloads();
+
+        assertThat(stripped).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM events WHERE payload_gzip IS NOT NULL ORDER BY id", Long.class))
+            .containsExactly(6L, 7L);
+        assertThat(jdbcTemplate.queryForList("SELECT action FROM events ORDER BY id", String.class))
+            .containsOnly("completed");
+
+        int deleted = job.deleteExpiredEvents();
+
+        assertThat(deleted).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM events ORDER BY id", Long.class))
+            .containsExactly(4L, 5L, 6L, 7L);
+        assertThat(job.discardExpiredPayloads()).isZero();
+        assertThat(job.deleteExpiredEvents()).isZero();
+    }
+
+    @Test
+    void nonPositiveRetentionDisablesTheCleanup() {
+        insertCompacted(1, EXPIRED);
+        job = new WebhookEventRetentionJob(jdbcTemplate, new ObjectMapper(), 0, 0, 2, CLOCK);
+
+        assertThat(job.discardExpiredPayloads()).isZero();
+        assertThat(job.deleteExpiredEvents()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM events WHERE payload_gzip IS NOT NULL", Integer.class))
+            .isEqualTo(1);
+    }
+
+    private void insertLegacy(long id, String eventType, String payload, Timestamp receivedAt) {
+        jdbcTemplate.update("INSERT INTO events (id, repo, event_type, delivery_id, payload, received_at) "
+            + "VALUES (?, 'org/repo', ?, ?, ?, ?)", id, eventType, "delivery-" + id, payload, receivedAt);
+    }
+
+    private void insertCompacted(long id, Timestamp receivedAt) {
+        jdbcTemplate.update("INSERT INTO events (id, repo, event_type, delivery_id, received_at, action, payload_gzip, "
+                + "payload_size) VALUES (?, 'org/repo', 'workflow_run', ?, ?, 'completed', ?, 2)",
+            id, "delivery-" + id, receivedAt, CompressedTextConverter.compress("{}"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.aihub.hub.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkflowLogArchiveReaderTest {
+
+    @Test
+    void decodesMultibyteCharactersSplitAcrossReadBoundaries() throws IOException {
+        String content = "x".repeat(8191) + "çãé ✓ falhou";
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("build/1_Checkout.txt", "checkout ok");
+        entries.put("build/2_Test.txt", content);
+
+        Map<String, String> read = new LinkedHashMap<>();
+        WorkflowLogArchiveReader.read(zip(entries), (name, reader) -> {
+            read.put(name, HeadTailTextBuffer.capture(reader, 100_000, 0).head());
+            return true;
+        });
+
+        assertThat(read).containsExactlyEntriesOf(entries);
+    }
+
+    @Test
+    void stopsWhenVisitorDeclinesRemainingEntries() throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("a.txt", "a");
+        entries.put("b.txt", "b");
+
+        List<String> visited = new ArrayList<>();
+        WorkflowLogArchiveReader.read(zip(entries), (name, reader) -> {
+            visited.add(name);
+            return false;
+        });
+
+        assertThat(visited).containsExactly("a.txt");
+    }
+
+    @Test
+    void headTailBufferKeepsBothEndsAndCountsOmittedCharacters() throws IOException {
+        String text = "HEAD-" + "m".repeat(50_000) + "-TAIL";
+
+        HeadTailTextBuffer buffer = HeadTailTextBuffer.capture(new StringReader(text), 5, 5);
+
+        assertThat(buffer.head()).isEqualTo("HEAD-");
+        assertThat(buffer.tail()).isEqualTo("-TAIL");
+        assertThat(buffer.totalChars()).isEqualTo(text.length());
+        assertThat(buffer.omittedChars()).isEqualTo(50_000);
+        assertThat(buffer.render("[%d]")).isEqualTo("HEAD-[50000]-TAIL");
+    }
+
+    @Test
+    void headTailBufferWrapsTailAcrossSmallAppends() {
+        HeadTailTextBuffer buffer = new HeadTailTextBuffer(2, 4);
+        for (char c : "abcdefghij".toCharArray()) {
+            buffer.append(new char[]{c}, 0, 1);
+        }
+
+        assertThat(buffer.head()).isEqualTo("ab");
+        assertThat(buffer.tail()).isEqualTo("ghij");
+        assertThat(buffer.render("..")).isEqualTo("ab..ghij");
+    }
+
+    private static InputStream zip(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(output, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zos.putNextEntry(new ZipEntry(entry.getKey()));
+                zos.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(output.toByteArray());
+    }
+}
@@ -32,6 +32,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
 
@@ -127,7 +128,7 @@ class CodexControllerTest {
         response.setFixPlan("Plano resumido antigo");
 
         when(codexRequestService.find(730L)).thenReturn(completedRequest);
-        when(codexRequestService.findLatestResponseForEnvironment("paulofor/marketing-hub")).thenReturn(Optional.of(response));
+        when(codexRequestService.findLatestResponse(any())).thenReturn(Optional.of(response));
         when(pullRequestService.createFixPr(
             eq("codex-ui"),
             eq("paulofor"),
@@ -172,7 +173,7 @@ class CodexControllerTest {
         response.setUnifiedDiff("diff --git a/app.txt b/app.txt\n--- a/app.txt\n+++ b/app.txt\n@@ -1 +1 @@\n-antigo\n+novo");
 
         when(codexRequestService.find(731L)).thenReturn(completedRequest);
-        when(codexRequestService.findLatestResponseForEnvironment("paulofor/marketing-hub")).thenReturn(Optional.of(response));
+        when(codexRequestService.findLatestResponse(any())).thenReturn(Optional.of(response));
         when(pullRequestService.createFixPr(
             eq("codex-ui"),
             eq("paulofor"),
@@ -200,6 +201,64 @@ class CodexControllerTest {
         assertThat(explanationCaptor.getValue()).doesNotContain("Adiciona campos estruturados");
     }
 
+    @Test
+    void createPrUsesTheResponseRecordedForTheRequestJob() {
+        CodexRequestService codexRequestService = mock(CodexRequestService.class);
+        PullRequestService pullRequestService = mock(PullRequestService.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        CodexController controller = new CodexController(codexRequestService, pullRequestService, objectMapper);
+
+        CodexRequest completedRequest = new CodexRequest("paulofor/marketing-hub", "gpt-5.5", null, "prompt");
+        ReflectionTestUtils.setField(completedRequest, "id", 732L);
+        completedRequest.setStatus(CodexRequestStatus.COMPLETED);
+        completedRequest.setExternalId("job-732");
+
+        ResponseRecord jobResponse = new ResponseRecord();
+        jobResponse.setSandboxJobId("job-732");
+        jobResponse.setUnifiedDiff("diff --git a/job.txt b/job.txt\n--- a/job.txt\n+++ b/job.txt\n@@ -1 +1 @@\n-antigo\n+novo");
+
+        when(codexRequestService.find(732L)).thenReturn(completedRequest);
+        when(codexRequestService.findLatestResponse(completedRequest)).thenReturn(Optional.of(jobResponse));
+        when(pullRequestService.createFixPr(anyString(), anyString(), anyString(), anyString(), anyString(), anyString(), anyString()))
+            .thenReturn(objectMapper.createObjectNode().put("html_url", "https://github.com/paulofor/marketing-hub/pull/3").put("number", 3));
+
+        controller.createPr(732L, "owner", "codex-ui");
+
+        verify(codexRequestService).findLatestResponse(completedRequest);
+        verify(codexRequestService, never()).findLatestResponseForEnvironment(anyString());
+        verify(pullRequestService).createFixPr(
+            eq("codex-ui"),
+            eq("paulofor"),
+            eq("marketing-hub"),
+            eq("main"),
+            eq("AI Hub: Correção da solicitação #732"),
+            eq(jobResponse.getUnifiedDiff()),
+            anyString()
+        );
+    }
+
+    @Test
+    void createPrReportsNoResponseWhenTheRequestJobRecordedNone() {
+        CodexRequestService codexRequestService = mock(CodexRequestService.class);
+        PullRequestService pullRequestService = mock(PullRequestService.class);
+        CodexController controller = new CodexController(codexRequestService, pullRequestService, new ObjectMapper());
+        CodexRequest completedRequest = new CodexRequest("paulofor/marketing-hub", "gpt-5.5", null, "prompt");
+        completedRequest.setStatus(CodexRequestStatus.COMPLETED);
+        completedRequest.setExternalId("job-733");
+        when(codexRequestService.find(733L)).thenReturn(completedRequest);
+        when(codexRequestService.findLatestResponse(completedRequest)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> controller.createPr(733L, "owner", "codex-ui"))
+            .isInstanceOfSatisfying(ResponseStatusException.class, ex -> {
+                assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat(ex.getReason()).isEqualTo("Nenhuma resposta encontrada na tabela responses para esta solicitação");
+            });
+
+        verify(codexRequestService, never()).findLatestResponseForEnvironment(anyString());
+        verify(pullRequestService, never()).createFixPr(anyString(), anyString(), anyString(), anyString(), anyString(),
+            anyString(), anyString());
+    }
+
     @Test
     void createPrRejectsFailedRequestBeforeLookingForReusableResponse() {
         CodexRequestService codexRequestService = mock(CodexRequestService.class);
@@ -215,7 +274,7 @@ class CodexControllerTest {
                 assertThat(ex.getReason()).isEqualTo("Só é possível criar PR para uma solicitação concluída com sucesso");
             });
 
-        verify(codexRequestService, never()).findLatestResponseForEnvironment("paulofor/marketing-hub");
+        verify(codexRequestService, never()).findLatestResponse(any());
         verify(pullRequestService, never()).createFixPr(
             org.mockito.ArgumentMatchers.anyString(),
             org.mockito.ArgumentMatchers.anyString(),
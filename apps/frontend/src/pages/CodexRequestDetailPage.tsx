@@ -536,7 +536,7 @@ export default function CodexRequestDetailPage() {
               <div className="flex flex-wrap items-center justify-between gap-2">
                 <h4 className="text-sm font-semibold text-slate-700 dark:text-slate-200">Documentos lidos</h4>
                 <span className="text-xs text-slate-500">
-                  {request.documentAccesses.length.toLocaleString('pt-BR')} documento{request.documentAccesses.length === 1 ? '' : 's'}
+                  {(request.documentAccessCount ?? request.documentAccesses.length).toLocaleString('pt-BR')} documento{(request.documentAccessCount ?? request.documentAccesses.length) === 1 ? '' : 's'}
                 </span>
               </div>
               {request.documentAccesses.length > 0 ? (
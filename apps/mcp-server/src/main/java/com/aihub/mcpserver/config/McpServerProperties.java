@@ -2,13 +2,33 @@ package com.aihub.mcpserver.config;
 
 import jakarta.validation.constraints.Min;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+
 @Validated
 @ConfigurationProperties(prefix = "mcp.server")
 public record McpServerProperties(
         String apiToken,
         @Min(1) long commandTimeoutSeconds,
-        @Min(1024) int maxOutputChars
+        @Min(1024) int maxOutputChars,
+        @DefaultValue("HEAD_TAIL") OutputCaptureMode outputCapture,
+        @DefaultValue("4000") @Min(0) int outputHeadChars,
+        @DefaultValue ShellPool shellPool,
+        @DefaultValue Execution execution
 ) {
+
+    public record ShellPool(
+            @DefaultValue("4") @Min(0) int size,
+            @DefaultValue("200") @Min(1) int maxCommandsPerWorker
+    ) {
+    }
+
+    public record Execution(
+            @DefaultValue("8") @Min(1) int maxConcurrency,
+            @DefaultValue("32") @Min(0) int maxQueued,
+            @DefaultValue("10s") Duration queueTimeout
+    ) {
+    }
 }
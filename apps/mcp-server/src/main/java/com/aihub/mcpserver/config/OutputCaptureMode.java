@@ -0,0 +1,8 @@
+package com.aihub.mcpserver.config;
+
+public enum OutputCaptureMode {
+    /** Keeps only the first {@code max-output-chars} characters. */
+    HEAD,
+    /** Keeps {@code output-head-chars} from the start and the rest of the budget from the end of the output. */
+    HEAD_TAIL
+}
@@ -1,29 +1,106 @@
 package com.aihub.mcpserver.controller;
 
+import com.aihub.mcpserver.config.McpServerProperties;
+import com.aihub.mcpserver.model.CommandExit;
+import com.aihub.mcpserver.model.CommandOutputChunk;
 import com.aihub.mcpserver.model.CommandRequest;
 import com.aihub.mcpserver.model.CommandResponse;
+import com.aihub.mcpserver.service.CommandExecutionScheduler;
+import com.aihub.mcpserver.service.CommandRejectedException;
 import com.aihub.mcpserver.service.LinuxCommandService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/mcp/tools")
 public class LinuxCommandController {
 
+    private static final long EMITTER_GRACE_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
     private final LinuxCommandService linuxCommandService;
+    private final CommandExecutionScheduler scheduler;
+    private final McpServerProperties properties;
 
-    public LinuxCommandController(LinuxCommandService linuxCommandService) {
+    public LinuxCommandController(LinuxCommandService linuxCommandService,
+                                  CommandExecutionScheduler scheduler,
+                                  McpServerProperties properties) {
         this.linuxCommandService = linuxCommandService;
+        this.scheduler = scheduler;
+        this.properties = properties;
     }
 
     @PostMapping("/linux-command")
-    public ResponseEntity<CommandResponse> execute(@Valid @RequestBody CommandRequest request)
+    public ResponseEntity<CommandResponse> execute(@Valid @RequestBody CommandRequest request,
+                                                   HttpServletRequest servletRequest)
             throws Exception {
-        CommandResponse response = linuxCommandService.execute(request.command());
-        return ResponseEntity.ok(response);
+        try (CommandExecutionScheduler.Permit ignored = scheduler.acquire(clientKey(servletRequest))) {
+            CommandResponse response = linuxCommandService.execute(request.command());
+            return ResponseEntity.ok(response);
+        }
+    }
+
+    /**
+     * Same command execution, but output is pushed as {@code stdout}/{@code stderr} SSE events while the command
+     * runs, followed by a single {@code exit} event.
+     */
+    @PostMapping(value = "/linux-command/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@Valid @RequestBody CommandRequest request, HttpServletRequest servletRequest)
+            throws InterruptedException {
+        CommandExecutionScheduler.Permit permit = scheduler.acquire(clientKey(servletRequest));
+        SseEmitter emitter = new SseEmitter(
+                TimeUnit.SECONDS.toMillis(properties.commandTimeoutSeconds()) + EMITTER_GRACE_MILLIS);
+        Thread.ofVirtual().name("linux-command-stream").start(() -> {
+            try (permit) {
+                CommandExit exit = linuxCommandService.stream(request.command(), (stream, chunk) -> {
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .name(stream.name().toLowerCase(Locale.ROOT))
+                                .data(new CommandOutputChunk(chunk), MediaType.APPLICATION_JSON));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                emitter.send(SseEmitter.event().name("exit").data(exit, MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.completeWithError(e);
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    @ExceptionHandler(CommandRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleRejected(CommandRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    /**
+     * Fairness is per bearer token; without one (token auth disabled) callers are told apart by address.
+     */
+    private String clientKey(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return StringUtils.hasText(authorization) ? authorization : request.getRemoteAddr();
     }
 }
@@ -0,0 +1,9 @@
+package com.aihub.mcpserver.model;
+
+public record CommandExit(
+        int exitCode,
+        boolean timedOut,
+        long stdoutBytes,
+        long stderrBytes
+) {
+}
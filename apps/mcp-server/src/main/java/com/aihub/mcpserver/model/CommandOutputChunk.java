@@ -0,0 +1,6 @@
+package com.aihub.mcpserver.model;
+
+public record CommandOutputChunk(
+        String data
+) {
+}
@@ -3,6 +3,9 @@ package com.aihub.mcpserver.model;
 public record CommandResponse(
         int exitCode,
         String stdout,
-        String stderr
+        String stderr,
+        long stdoutBytes,
+        long stderrBytes,
+        boolean truncated
 ) {
 }
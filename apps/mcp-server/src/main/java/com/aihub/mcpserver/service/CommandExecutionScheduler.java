@@ -0,0 +1,196 @@
+package com.aihub.mcpserver.service;
+
+import com.aihub.mcpserver.config.McpServerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds how many commands run at once. Callers beyond {@code max-concurrency} wait in per-client queues that are
+ * served round-robin, so one client issuing a burst of heavy commands cannot starve the others. Waiting is bounded
+ * by {@code queue-timeout} and by {@code max-queued}; beyond either the caller is rejected with a retry hint.
+ */
+@Component
+public class CommandExecutionScheduler {
+
+    private final int maxConcurrency;
+    private final int maxQueued;
+    private final Duration queueTimeout;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Map<String, Deque<Ticket>> queues = new HashMap<>();
+    private final Deque<String> rotation = new ArrayDeque<>();
+    private final Timer queueDuration;
+    private final Timer runDuration;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedDeadline;
+    private int running;
+    private int queued;
+
+    public CommandExecutionScheduler(McpServerProperties properties, MeterRegistry meterRegistry) {
+        McpServerProperties.Execution execution = properties.execution();
+        this.maxConcurrency = execution == null ? 8 : Math.max(1, execution.maxConcurrency());
+        this.maxQueued = execution == null ? 32 : Math.max(0, execution.maxQueued());
+        this.queueTimeout = execution == null || execution.queueTimeout() == null
+                ? Duration.ofSeconds(10)
+                : execution.queueTimeout();
+        this.queueDuration = meterRegistry.timer("mcp_command_queue_duration");
+        this.runDuration = meterRegistry.timer("mcp_command_run_duration");
+        this.rejectedQueueFull = meterRegistry.counter("mcp_command_rejected_total", "reason", "queue_full");
+        this.rejectedDeadline = meterRegistry.counter("mcp_command_rejected_total", "reason", "deadline");
+        meterRegistry.gauge("mcp_command_running", this, scheduler -> scheduler.snapshot(true));
+        meterRegistry.gauge("mcp_command_queued", this, scheduler -> scheduler.snapshot(false));
+    }
+
+    /**
+     * Waits for an execution slot. The returned permit must be closed once the command finished.
+     *
+     * @throws CommandRejectedException when the queue is full or the slot was not granted in time
+     */
+    public Permit acquire(String clientKey) throws InterruptedException {
+        long startedNanos = System.nanoTime();
+        lock.lock();
+        try {
+            if (running < maxConcurrency && queued == 0) {
+                running++;
+                return grantedPermit(startedNanos);
+            }
+            if (queued >= maxQueued) {
+                rejectedQueueFull.increment();
+                throw new CommandRejectedException("Too many commands queued", retryAfterSeconds());
+            }
+            String key = clientKey == null ? "" : clientKey;
+            Ticket ticket = new Ticket(key, lock.newCondition());
+            Deque<Ticket> queue = queues.get(key);
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                queues.put(key, queue);
+                rotation.addLast(key);
+            }
+            queue.addLast(ticket);
+            queued++;
+
+            long remainingNanos = queueTimeout.toNanos();
+            try {
+                while (!ticket.granted && remainingNanos > 0) {
+                    remainingNanos = ticket.condition.awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                abandon(ticket);
+                throw e;
+            }
+            if (!ticket.granted) {
+                abandon(ticket);
+                rejectedDeadline.increment();
+                throw new CommandRejectedException("Timed out waiting for an execution slot", retryAfterSeconds());
+            }
+            return grantedPermit(startedNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Permit grantedPermit(long startedNanos) {
+        long grantedNanos = System.nanoTime();
+        queueDuration.record(grantedNanos - startedNanos, TimeUnit.NANOSECONDS);
+        return new Permit(grantedNanos);
+    }
+
+    private void abandon(Ticket ticket) {
+        if (ticket.granted) {
+            running--;
+            grantNext();
+            return;
+        }
+        Deque<Ticket> queue = queues.get(ticket.clientKey);
+        if (queue != null && queue.remove(ticket)) {
+            queued--;
+            if (queue.isEmpty()) {
+                queues.remove(ticket.clientKey);
+                rotation.remove(ticket.clientKey);
+            }
+        }
+    }
+
+    private void release(long grantedNanos) {
+        runDuration.record(System.nanoTime() - grantedNanos, TimeUnit.NANOSECONDS);
+        lock.lock();
+        try {
+            running--;
+            grantNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void grantNext() {
+        while (running < maxConcurrency && !rotation.isEmpty()) {
+            String key = rotation.pollFirst();
+            Deque<Ticket> queue = queues.get(key);
+            Ticket ticket = queue.pollFirst();
+            queued--;
+            if (queue.isEmpty()) {
+                queues.remove(key);
+            } else {
+                rotation.addLast(key);
+            }
+            ticket.granted = true;
+            running++;
+            ticket.condition.signal();
+        }
+    }
+
+    private long retryAfterSeconds() {
+        double meanRunSeconds = runDuration.mean(TimeUnit.SECONDS);
+        double estimate = Math.max(1.0, meanRunSeconds) * (queued + 1) / maxConcurrency;
+        return Math.max(1, (long) Math.ceil(estimate));
+    }
+
+    private double snapshot(boolean runningCount) {
+        lock.lock();
+        try {
+            return runningCount ? running : queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public final class Permit implements AutoCloseable {
+
+        private final long grantedNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long grantedNanos) {
+            this.grantedNanos = grantedNanos;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release(grantedNanos);
+            }
+        }
+    }
+
+    private static final class Ticket {
+
+        private final String clientKey;
+        private final Condition condition;
+        private boolean granted;
+
+        private Ticket(String clientKey, Condition condition) {
+            this.clientKey = clientKey;
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.aihub.mcpserver.service;
+
+@FunctionalInterface
+public interface CommandOutputListener {
+
+    /**
+     * Receives output as soon as it is read from the process. Called from the stdout and stderr reader threads;
+     * throwing aborts the command.
+     */
+    void onOutput(CommandStream stream, String chunk);
+}
@@ -0,0 +1,15 @@
+package com.aihub.mcpserver.service;
+
+public class CommandRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CommandRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,6 @@
+package com.aihub.mcpserver.service;
+
+public enum CommandStream {
+    STDOUT,
+    STDERR
+}
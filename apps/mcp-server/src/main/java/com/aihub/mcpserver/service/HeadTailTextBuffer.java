@@ -0,0 +1,71 @@
+package com.aihub.mcpserver.service;
+
+/**
+ * Keeps the first {@code headLimit} and the last {@code tailLimit} characters of an arbitrarily
+ * long text in bounded memory, counting everything that was seen in between.
+ */
+final class HeadTailTextBuffer {
+
+    private final char[] head;
+    private final char[] tail;
+    private int headLength;
+    private int tailStart;
+    private int tailLength;
+    private long totalChars;
+
+    HeadTailTextBuffer(int headLimit, int tailLimit) {
+        this.head = new char[Math.max(0, headLimit)];
+        this.tail = new char[Math.max(0, tailLimit)];
+    }
+
+    void append(char[] chars, int offset, int length) {
+        totalChars += length;
+        int headCopy = Math.min(length, head.length - headLength);
+        if (headCopy > 0) {
+            System.arraycopy(chars, offset, head, headLength, headCopy);
+            headLength += headCopy;
+            offset += headCopy;
+            length -= headCopy;
+        }
+        if (length <= 0 || tail.length == 0) {
+            return;
+        }
+        if (length >= tail.length) {
+            System.arraycopy(chars, offset + length - tail.length, tail, 0, tail.length);
+            tailStart = 0;
+            tailLength = tail.length;
+            return;
+        }
+        int writePos = (tailStart + tailLength) % tail.length;
+        int firstPart = Math.min(length, tail.length - writePos);
+        System.arraycopy(chars, offset, tail, writePos, firstPart);
+        System.arraycopy(chars, offset + firstPart, tail, 0, length - firstPart);
+        int overflow = Math.max(0, tailLength + length - tail.length);
+        tailLength = Math.min(tail.length, tailLength + length);
+        tailStart = (tailStart + overflow) % tail.length;
+    }
+
+    long totalChars() {
+        return totalChars;
+    }
+
+    long omittedChars() {
+        return totalChars - headLength - tailLength;
+    }
+
+    boolean isTruncated() {
+        return omittedChars() > 0;
+    }
+
+    String head() {
+        return new String(head, 0, headLength);
+    }
+
+    String tail() {
+        StringBuilder builder = new StringBuilder(tailLength);
+        int firstPart = Math.min(tailLength, tail.length - tailStart);
+        builder.append(tail, tailStart, firstPart);
+        builder.append(tail, 0, tailLength - firstPart);
+        return builder.toString();
+    }
+}
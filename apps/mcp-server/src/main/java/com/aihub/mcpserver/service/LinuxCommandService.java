@@ -1,61 +1,248 @@
 package com.aihub.mcpserver.service;
 
+import com.aihub.mcpserver.model.CommandExit;
 import com.aihub.mcpserver.model.CommandResponse;
 import com.aihub.mcpserver.config.McpServerProperties;
+import com.aihub.mcpserver.config.OutputCaptureMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 @Service
 public class LinuxCommandService {
 
+    static final int TIMEOUT_EXIT_CODE = 124;
+    private static final int READ_BUFFER_CHARS = 8192;
+    private static final long DRAIN_GRACE_MILLIS = 1000;
+
     private final McpServerProperties properties;
+    // Readers spend their life blocked on pipe reads; virtual threads keep them off the common pool.
+    private final ExecutorService readers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("linux-command-reader-", 0).factory());
+
+    private final ShellWorkerPool shellWorkerPool;
+    private final Timer pooledDuration;
+    private final Timer spawnedDuration;
 
-    public LinuxCommandService(McpServerProperties properties) {
+    @Autowired
+    public LinuxCommandService(McpServerProperties properties,
+                               ShellWorkerPool shellWorkerPool,
+                               MeterRegistry meterRegistry) {
         this.properties = properties;
+        this.shellWorkerPool = shellWorkerPool;
+        this.pooledDuration = meterRegistry.timer("mcp_command_duration", "executor", "pool");
+        this.spawnedDuration = meterRegistry.timer("mcp_command_duration", "executor", "process");
+    }
+
+    LinuxCommandService(McpServerProperties properties) {
+        this(properties, null, new SimpleMeterRegistry());
     }
 
     public CommandResponse execute(String command) throws IOException, InterruptedException {
+        OutputCapture stdout = new OutputCapture(properties);
+        OutputCapture stderr = new OutputCapture(properties);
+        CommandExit exit = run(command, stdout::append, stderr::append);
+        String stderrText = exit.timedOut() ? stderr + timeoutMessage() : stderr.toString();
+        return new CommandResponse(
+                exit.exitCode(),
+                stdout.toString(),
+                stderrText,
+                exit.stdoutBytes(),
+                exit.stderrBytes(),
+                stdout.isTruncated() || stderr.isTruncated());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readers.shutdownNow();
+    }
+
+    /**
+     * Runs the command and hands output to the listener as it arrives instead of buffering it. Output already
+     * produced when the timeout fires is still delivered before the exit is returned.
+     */
+    public CommandExit stream(String command, CommandOutputListener listener) throws IOException, InterruptedException {
+        CommandExit exit = run(
+                command,
+                chunk -> listener.onOutput(CommandStream.STDOUT, chunk),
+                chunk -> listener.onOutput(CommandStream.STDERR, chunk));
+        if (exit.timedOut()) {
+            listener.onOutput(CommandStream.STDERR, timeoutMessage());
+        }
+        return exit;
+    }
+
+    private CommandExit run(String command, Consumer<String> stdoutSink, Consumer<String> stderrSink)
+            throws IOException, InterruptedException {
+        Optional<ShellWorker> worker = shellWorkerPool == null ? Optional.empty() : shellWorkerPool.acquire();
+        if (worker.isPresent()) {
+            long started = System.nanoTime();
+            try {
+                return worker.get().run(command, stdoutSink, stderrSink, properties.commandTimeoutSeconds());
+            } catch (IOException e) {
+                // The worker died before receiving the command; run it in a fresh process instead.
+            } finally {
+                shellWorkerPool.release(worker.get());
+                pooledDuration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+        long started = System.nanoTime();
+        try {
+            return spawn(command, stdoutSink, stderrSink);
+        } finally {
+            spawnedDuration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private CommandExit spawn(String command, Consumer<String> stdoutSink, Consumer<String> stderrSink)
+            throws IOException, InterruptedException {
         Process process = new ProcessBuilder("/bin/bash", "-lc", command).start();
-        CompletableFuture<String> stdout = CompletableFuture.supplyAsync(() -> readStream(process.getInputStream()));
-        CompletableFuture<String> stderr = CompletableFuture.supplyAsync(() -> readStream(process.getErrorStream()));
+        CountingInputStream stdoutBytes = new CountingInputStream(process.getInputStream());
+        CountingInputStream stderrBytes = new CountingInputStream(process.getErrorStream());
+        CompletableFuture<Void> stdout = CompletableFuture.runAsync(() -> pump(process, stdoutBytes, stdoutSink), readers);
+        CompletableFuture<Void> stderr = CompletableFuture.runAsync(() -> pump(process, stderrBytes, stderrSink), readers);
 
         boolean completed = process.waitFor(properties.commandTimeoutSeconds(), TimeUnit.SECONDS);
         if (!completed) {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
             process.destroyForcibly();
-            return new CommandResponse(
-                    124,
-                    stdout.getNow(""),
-                    "Command timed out after " + properties.commandTimeoutSeconds() + " seconds");
+            // Killing bash closes its end of the pipes; give the readers a moment to hand over what was already
+            // written, but do not wait on background children that may still hold the pipes open.
+            awaitReaders(stdout, stderr);
+            return new CommandExit(TIMEOUT_EXIT_CODE, true, stdoutBytes.count(), stderrBytes.count());
         }
 
         int exitCode = process.exitValue();
-        return new CommandResponse(exitCode, stdout.join(), stderr.join());
-    }
-
-    private String readStream(java.io.InputStream inputStream) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-            StringBuilder output = new StringBuilder();
-            String line;
-            boolean truncated = false;
-            while ((line = reader.readLine()) != null) {
-                if (!truncated) {
-                    output.append(line).append(System.lineSeparator());
-                    if (output.length() > properties.maxOutputChars()) {
-                        output.setLength(properties.maxOutputChars());
-                        output.append(System.lineSeparator()).append("[output truncated]");
-                        truncated = true;
-                    }
+        stdout.join();
+        stderr.join();
+        return new CommandExit(exitCode, false, stdoutBytes.count(), stderrBytes.count());
+    }
+
+    private void pump(Process process, InputStream inputStream, Consumer<String> sink) {
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            char[] buffer = new char[READ_BUFFER_CHARS];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                if (read > 0) {
+                    sink.accept(new String(buffer, 0, read));
                 }
             }
-            return output.toString();
         } catch (IOException e) {
-            return e.getMessage();
+            // The stream is closed once the process is destroyed; whatever was read so far has been delivered.
+        } catch (RuntimeException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+    }
+
+    private void awaitReaders(CompletableFuture<?> stdout, CompletableFuture<?> stderr) throws InterruptedException {
+        try {
+            CompletableFuture.allOf(stdout, stderr).get(DRAIN_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException ignored) {
+            // Partial output is returned as captured.
+        }
+    }
+
+    private String timeoutMessage() {
+        return "Command timed out after " + properties.commandTimeoutSeconds() + " seconds";
+    }
+
+    /**
+     * Buffered output for the JSON response. The reader keeps draining the pipe after the budget is spent so the
+     * child never blocks on a full pipe; in {@link OutputCaptureMode#HEAD_TAIL} mode the end of the output is kept
+     * as well, which is usually the interesting part of logs and build output. Keeps the historical contract of
+     * line-terminated output.
+     */
+    static final class OutputCapture {
+
+        private final OutputCaptureMode mode;
+        private final HeadTailTextBuffer buffer;
+
+        OutputCapture(McpServerProperties properties) {
+            this.mode = properties.outputCapture() == null ? OutputCaptureMode.HEAD_TAIL : properties.outputCapture();
+            int max = properties.maxOutputChars();
+            int head = mode == OutputCaptureMode.HEAD ? max : Math.min(Math.max(0, properties.outputHeadChars()), max);
+            this.buffer = new HeadTailTextBuffer(head, max - head);
+        }
+
+        synchronized void append(String chunk) {
+            char[] chars = chunk.toCharArray();
+            buffer.append(chars, 0, chars.length);
+        }
+
+        synchronized boolean isTruncated() {
+            return buffer.isTruncated();
+        }
+
+        @Override
+        public synchronized String toString() {
+            if (!buffer.isTruncated()) {
+                return terminate(buffer.head() + buffer.tail());
+            }
+            if (mode == OutputCaptureMode.HEAD) {
+                return buffer.head() + System.lineSeparator() + "[output truncated]";
+            }
+            return buffer.head()
+                    + System.lineSeparator()
+                    + "[output truncated: " + buffer.omittedChars() + " of " + buffer.totalChars() + " chars omitted]"
+                    + System.lineSeparator()
+                    + terminate(buffer.tail());
+        }
+
+        private static String terminate(String output) {
+            if (output.isEmpty() || output.charAt(output.length() - 1) == '\n') {
+                return output;
+            }
+            return output + System.lineSeparator();
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private volatile long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        long count() {
+            return count;
         }
     }
 }
@@ -0,0 +1,263 @@
+package com.aihub.mcpserver.service;
+
+import com.aihub.mcpserver.model.CommandExit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * A long-lived login shell that runs one command at a time. Requests are framed as a random token line, the
+ * command lines and the token line again; the command runs in a subshell with stdin from {@code /dev/null}, so
+ * directory changes, variables and {@code exit} do not leak into the next command. Completion is signalled by the
+ * token on both streams, followed by the exit status on stdout.
+ */
+final class ShellWorker {
+
+    private static final String LOOP = String.join("\n",
+            "while IFS= read -r __mcp_token; do",
+            "  __mcp_command=",
+            "  while IFS= read -r __mcp_line && [ \"$__mcp_line\" != \"$__mcp_token\" ]; do",
+            "    __mcp_command+=\"$__mcp_line\"$'\\n'",
+            "  done",
+            "  ( eval \"$__mcp_command\" ) </dev/null",
+            "  __mcp_status=$?",
+            "  printf '%s %d\\n' \"$__mcp_token\" \"$__mcp_status\"",
+            "  printf '%s\\n' \"$__mcp_token\" >&2",
+            "done");
+    private static final int READ_BUFFER_CHARS = 8192;
+    private static final long DRAIN_GRACE_MILLIS = 1000;
+
+    private final Process process;
+    private final Writer stdin;
+    private final AtomicReference<Exchange> current = new AtomicReference<>();
+    private final CompletableFuture<Void> stdoutReader;
+    private final CompletableFuture<Void> stderrReader;
+    private volatile boolean broken;
+    private int commandsRun;
+
+    private ShellWorker(Process process, ExecutorService readers) {
+        this.process = process;
+        this.stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        this.stdoutReader = CompletableFuture.runAsync(
+                () -> read(process.getInputStream(), new FrameScanner(true)), readers);
+        this.stderrReader = CompletableFuture.runAsync(
+                () -> read(process.getErrorStream(), new FrameScanner(false)), readers);
+    }
+
+    static ShellWorker start(ExecutorService readers) throws IOException {
+        return new ShellWorker(new ProcessBuilder("/bin/bash", "-lc", LOOP).start(), readers);
+    }
+
+    /**
+     * Runs a command and blocks until both streams report completion or the timeout fires. A timed out or failed
+     * worker is killed and must not be reused. An {@link IOException} means the command was never sent.
+     */
+    CommandExit run(String command, Consumer<String> stdoutSink, Consumer<String> stderrSink, long timeoutSeconds)
+            throws IOException, InterruptedException {
+        Exchange exchange = new Exchange("__MCP_" + UUID.randomUUID().toString().replace("-", ""), stdoutSink, stderrSink);
+        current.set(exchange);
+        commandsRun++;
+        try {
+            stdin.write(exchange.token + "\n" + command + "\n" + exchange.token + "\n");
+            stdin.flush();
+        } catch (IOException e) {
+            current.set(null);
+            destroy();
+            throw e;
+        }
+        try {
+            CompletableFuture.allOf(exchange.status, exchange.stderrDone).get(timeoutSeconds, TimeUnit.SECONDS);
+            return new CommandExit(exchange.status.join(), false, exchange.stdoutBytes.get(), exchange.stderrBytes.get());
+        } catch (TimeoutException e) {
+            destroy();
+            awaitReaders();
+            return new CommandExit(LinuxCommandService.TIMEOUT_EXIT_CODE, true,
+                    exchange.stdoutBytes.get(), exchange.stderrBytes.get());
+        } catch (ExecutionException e) {
+            destroy();
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Shell worker exited while running the command", e.getCause());
+        } finally {
+            current.set(null);
+        }
+    }
+
+    boolean isReusable(int maxCommands) {
+        return !broken && process.isAlive() && commandsRun < maxCommands;
+    }
+
+    void destroy() {
+        broken = true;
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private void awaitReaders() throws InterruptedException {
+        try {
+            CompletableFuture.allOf(stdoutReader, stderrReader).get(DRAIN_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException ignored) {
+            // Partial output is returned as delivered.
+        }
+    }
+
+    private void read(InputStream inputStream, FrameScanner scanner) {
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            char[] buffer = new char[READ_BUFFER_CHARS];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                scanner.accept(current.get(), buffer, read);
+            }
+        } catch (IOException ignored) {
+            // The worker was destroyed.
+        } finally {
+            broken = true;
+            scanner.flush();
+            Exchange exchange = current.get();
+            if (exchange != null) {
+                IllegalStateException exited = new IllegalStateException("Shell worker exited unexpectedly");
+                exchange.status.completeExceptionally(exited);
+                exchange.stderrDone.completeExceptionally(exited);
+            }
+        }
+    }
+
+    private static final class Exchange {
+
+        private final String token;
+        private final Consumer<String> stdoutSink;
+        private final Consumer<String> stderrSink;
+        private final CompletableFuture<Integer> status = new CompletableFuture<>();
+        private final CompletableFuture<Void> stderrDone = new CompletableFuture<>();
+        private final AtomicLong stdoutBytes = new AtomicLong();
+        private final AtomicLong stderrBytes = new AtomicLong();
+
+        private Exchange(String token, Consumer<String> stdoutSink, Consumer<String> stderrSink) {
+            this.token = token;
+            this.stdoutSink = stdoutSink;
+            this.stderrSink = stderrSink;
+        }
+    }
+
+    /**
+     * Forwards output for the current exchange while holding back just enough characters to recognise a token
+     * split across reads. Output outside an exchange (stray background jobs) is discarded.
+     */
+    private static final class FrameScanner {
+
+        private final boolean carriesStatus;
+        private final StringBuilder pending = new StringBuilder();
+        private Exchange exchange;
+        private boolean done;
+
+        private FrameScanner(boolean carriesStatus) {
+            this.carriesStatus = carriesStatus;
+        }
+
+        void accept(Exchange next, char[] chars, int length) {
+            if (next != exchange) {
+                exchange = next;
+                pending.setLength(0);
+                done = false;
+            }
+            if (exchange == null || done) {
+                return;
+            }
+            pending.append(chars, 0, length);
+            int tokenAt = pending.indexOf(exchange.token);
+            if (tokenAt < 0) {
+                deliver(pending.length() - (exchange.token.length() - 1));
+                return;
+            }
+            if (!carriesStatus) {
+                deliver(tokenAt);
+                complete(0);
+                return;
+            }
+            int lineEnd = pending.indexOf("\n", tokenAt);
+            if (lineEnd < 0) {
+                deliver(tokenAt);
+                return;
+            }
+            String status = pending.substring(tokenAt + exchange.token.length(), lineEnd).trim();
+            deliver(tokenAt);
+            complete(parseStatus(status));
+        }
+
+        void flush() {
+            if (exchange != null && !done) {
+                deliver(pending.length());
+            }
+        }
+
+        private void deliver(int length) {
+            if (length <= 0) {
+                return;
+            }
+            String chunk = pending.substring(0, length);
+            pending.delete(0, length);
+            try {
+                (carriesStatus ? exchange.stdoutSink : exchange.stderrSink).accept(chunk);
+                (carriesStatus ? exchange.stdoutBytes : exchange.stderrBytes).addAndGet(utf8Length(chunk));
+            } catch (RuntimeException e) {
+                done = true;
+                exchange.status.completeExceptionally(e);
+                exchange.stderrDone.completeExceptionally(e);
+            }
+        }
+
+        private void complete(int status) {
+            if (done) {
+                return;
+            }
+            done = true;
+            pending.setLength(0);
+            if (carriesStatus) {
+                exchange.status.complete(status);
+            } else {
+                exchange.stderrDone.complete(null);
+            }
+        }
+
+        private static int parseStatus(String status) {
+            try {
+                return Integer.parseInt(status);
+            } catch (NumberFormatException e) {
+                return 1;
+            }
+        }
+
+        private static long utf8Length(String chunk) {
+            long bytes = 0;
+            for (int i = 0; i < chunk.length(); i++) {
+                char c = chunk.charAt(i);
+                if (c < 0x80) {
+                    bytes++;
+                } else if (c < 0x800) {
+                    bytes += 2;
+                } else if (Character.isHighSurrogate(c)) {
+                    bytes += 4;
+                    i++;
+                } else {
+                    bytes += 3;
+                }
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.aihub.mcpserver.service;
+
+import com.aihub.mcpserver.config.McpServerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps {@code mcp.server.shell-pool.size} shells started ahead of time so small commands skip the fork/exec and
+ * profile sourcing of a fresh {@code bash -l}. Callers that find no idle worker fall back to spawning a process;
+ * the pool never makes a request wait.
+ */
+@Component
+public class ShellWorkerPool {
+
+    private static final Logger log = LoggerFactory.getLogger(ShellWorkerPool.class);
+
+    private final int size;
+    private final int maxCommandsPerWorker;
+    private final BlockingQueue<ShellWorker> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger workers = new AtomicInteger();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("shell-worker-", 0).factory());
+    private final Counter recycled;
+    private final Counter failed;
+    private volatile boolean closed;
+
+    public ShellWorkerPool(McpServerProperties properties, MeterRegistry meterRegistry) {
+        McpServerProperties.ShellPool shellPool = properties.shellPool();
+        this.size = shellPool == null ? 0 : Math.max(0, shellPool.size());
+        this.maxCommandsPerWorker = shellPool == null ? 1 : Math.max(1, shellPool.maxCommandsPerWorker());
+        meterRegistry.gauge("mcp_shell_pool_workers", workers);
+        meterRegistry.gauge("mcp_shell_pool_idle", idle, BlockingQueue::size);
+        this.recycled = meterRegistry.counter("mcp_shell_pool_recycled_total");
+        this.failed = meterRegistry.counter("mcp_shell_pool_start_failures_total");
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        replenish();
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        ShellWorker worker;
+        while ((worker = idle.poll()) != null) {
+            worker.destroy();
+        }
+        executor.shutdownNow();
+    }
+
+    Optional<ShellWorker> acquire() {
+        ShellWorker worker;
+        while ((worker = idle.poll()) != null) {
+            if (worker.isReusable(maxCommandsPerWorker)) {
+                return Optional.of(worker);
+            }
+            retire(worker);
+        }
+        replenish();
+        return Optional.empty();
+    }
+
+    void release(ShellWorker worker) {
+        if (!closed && worker.isReusable(maxCommandsPerWorker)) {
+            idle.offer(worker);
+            return;
+        }
+        retire(worker);
+    }
+
+    private void retire(ShellWorker worker) {
+        worker.destroy();
+        workers.decrementAndGet();
+        recycled.increment();
+        replenish();
+    }
+
+    private void replenish() {
+        while (!closed) {
+            int current = workers.get();
+            if (current >= size) {
+                return;
+            }
+            if (workers.compareAndSet(current, current + 1)) {
+                executor.execute(this::startWorker);
+            }
+        }
+    }
+
+    private void startWorker() {
+        try {
+            ShellWorker worker = ShellWorker.start(executor);
+            if (closed) {
+                worker.destroy();
+                return;
+            }
+            idle.offer(worker);
+        } catch (IOException | RuntimeException e) {
+            workers.decrementAndGet();
+            failed.increment();
+            log.warn("Failed to start shell worker: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.aihub.mcpserver.service;
+
+import com.aihub.mcpserver.config.McpServerProperties;
+import com.aihub.mcpserver.config.OutputCaptureMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CommandExecutionSchedulerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void queuedClientsAreServedRoundRobin() throws Exception {
+        CommandExecutionScheduler scheduler = scheduler(1, 10, Duration.ofSeconds(5));
+        List<String> order = new CopyOnWriteArrayList<>();
+        CommandExecutionScheduler.Permit running = scheduler.acquire("a");
+
+        Thread a1 = waitFor(scheduler, "a", "a1", order);
+        awaitQueued(1);
+        Thread a2 = waitFor(scheduler, "a", "a2", order);
+        awaitQueued(2);
+        Thread b1 = waitFor(scheduler, "b", "b1", order);
+        awaitQueued(3);
+
+        running.close();
+        a1.join(5000);
+        a2.join(5000);
+        b1.join(5000);
+
+        assertThat(order).containsExactly("a1", "b1", "a2");
+        assertThat(meterRegistry.get("mcp_command_queue_duration").timer().count()).isEqualTo(4);
+    }
+
+    @Test
+    void rejectsWhenQueueIsFullOrDeadlinePasses() throws Exception {
+        CommandExecutionScheduler scheduler = scheduler(1, 0, Duration.ofSeconds(5));
+        try (CommandExecutionScheduler.Permit ignored = scheduler.acquire("a")) {
+            assertThatThrownBy(() -> scheduler.acquire("b"))
+                    .isInstanceOf(CommandRejectedException.class)
+                    .satisfies(ex -> assertThat(((CommandRejectedException) ex).getRetryAfterSeconds()).isPositive());
+        }
+
+        CommandExecutionScheduler waiting = scheduler(1, 5, Duration.ofMillis(50));
+        try (CommandExecutionScheduler.Permit ignored = waiting.acquire("a")) {
+            assertThatThrownBy(() -> waiting.acquire("b")).isInstanceOf(CommandRejectedException.class);
+        }
+        try (CommandExecutionScheduler.Permit permit = waiting.acquire("b")) {
+            assertThat(permit).isNotNull();
+        }
+
+        assertThat(meterRegistry.get("mcp_command_rejected_total").tag("reason", "queue_full").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("mcp_command_rejected_total").tag("reason", "deadline").counter().count())
+                .isEqualTo(1);
+    }
+
+    private CommandExecutionScheduler scheduler(int maxConcurrency, int maxQueued, Duration queueTimeout) {
+        McpServerProperties properties = new McpServerProperties(null, 5, 4096, OutputCaptureMode.HEAD_TAIL, 1024,
+                null, new McpServerProperties.Execution(maxConcurrency, maxQueued, queueTimeout));
+        return new CommandExecutionScheduler(properties, meterRegistry);
+    }
+
+    private Thread waitFor(CommandExecutionScheduler scheduler, String client, String label, List<String> order) {
+        Thread thread = new Thread(() -> {
+            try (CommandExecutionScheduler.Permit ignored = scheduler.acquire(client)) {
+                order.add(label);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void awaitQueued(int expected) throws InterruptedException {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (meterRegistry.get("mcp_command_queued").gauge().value() < expected && Instant.now().isBefore(deadline)) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.aihub.mcpserver.service;
+
+import com.aihub.mcpserver.config.McpServerProperties;
+import com.aihub.mcpserver.config.OutputCaptureMode;
+import com.aihub.mcpserver.model.CommandExit;
+import com.aihub.mcpserver.model.CommandResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LinuxCommandServiceTest {
+
+    private final LinuxCommandService service = new LinuxCommandService(
+            new McpServerProperties(null, 1, 4096, OutputCaptureMode.HEAD_TAIL, 1024, null, null));
+
+    @Test
+    void timeoutKeepsOutputProducedBeforeTheKill() throws Exception {
+        CommandResponse response = service.execute("printf partial; sleep 5");
+
+        assertThat(response.exitCode()).isEqualTo(LinuxCommandService.TIMEOUT_EXIT_CODE);
+        assertThat(response.stdout()).isEqualTo("partial\n");
+        assertThat(response.stderr()).isEqualTo("Command timed out after 1 seconds");
+    }
+
+    @Test
+    void streamDeliversOutputPerStreamAndReturnsExitCode() throws Exception {
+        List<String> frames = new CopyOnWriteArrayList<>();
+
+        CommandExit exit = service.stream("printf out; printf err >&2; exit 3",
+                (stream, chunk) -> frames.add(stream + ":" + chunk));
+
+        assertThat(exit.exitCode()).isEqualTo(3);
+        assertThat(exit.timedOut()).isFalse();
+        assertThat(frames).containsExactlyInAnyOrder("STDOUT:out", "STDERR:err");
+    }
+
+    @Test
+    void headTailCaptureKeepsTheEndOfLongOutputAndCountsBytes() throws Exception {
+        CommandResponse response = service.execute("seq 1 20000");
+
+        assertThat(response.exitCode()).isZero();
+        assertThat(response.truncated()).isTrue();
+        assertThat(response.stdoutBytes()).isEqualTo(108894);
+        assertThat(response.stdout())
+                .startsWith("1\n2\n3\n")
+                .contains("[output truncated: ")
+                .endsWith("19999\n20000\n");
+    }
+
+    @Test
+    void headCaptureKeepsOnlyTheBeginning() throws Exception {
+        LinuxCommandService headOnly = new LinuxCommandService(
+                new McpServerProperties(null, 5, 1024, OutputCaptureMode.HEAD, 0, null, null));
+
+        CommandResponse response = headOnly.execute("seq 1 20000");
+
+        assertThat(response.truncated()).isTrue();
+        assertThat(response.stdout()).startsWith("1\n2\n").endsWith("[output truncated]");
+        assertThat(response.stdout()).hasSize(1024 + System.lineSeparator().length() + "[output truncated]".length());
+    }
+}
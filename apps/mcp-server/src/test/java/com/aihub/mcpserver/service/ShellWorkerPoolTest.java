@@ -0,0 +1,63 @@
+package com.aihub.mcpserver.service;
+
+import com.aihub.mcpserver.config.McpServerProperties;
+import com.aihub.mcpserver.config.OutputCaptureMode;
+import com.aihub.mcpserver.model.CommandResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShellWorkerPoolTest {
+
+    private final McpServerProperties properties = new McpServerProperties(
+            null, 1, 4096, OutputCaptureMode.HEAD_TAIL, 1024, new McpServerProperties.ShellPool(1, 3), null);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ShellWorkerPool pool = new ShellWorkerPool(properties, meterRegistry);
+    private final LinuxCommandService service = new LinuxCommandService(properties, pool, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+        service.shutdown();
+    }
+
+    @Test
+    void pooledCommandsRunIsolatedFromEachOther() throws Exception {
+        awaitIdleWorker();
+
+        CommandResponse first = service.execute("cd /tmp; export POOL_MARKER=1; echo out; echo err >&2; exit 3");
+        CommandResponse second = service.execute("echo \"$PWD:${POOL_MARKER:-unset}\"");
+
+        assertThat(first.exitCode()).isEqualTo(3);
+        assertThat(first.stdout()).isEqualTo("out\n");
+        assertThat(first.stderr()).isEqualTo("err\n");
+        assertThat(second.stdout()).doesNotContain("/tmp:").endsWith(":unset\n");
+        assertThat(meterRegistry.get("mcp_command_duration").tag("executor", "pool").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void timedOutWorkerIsReplacedAndOutputKept() throws Exception {
+        awaitIdleWorker();
+
+        CommandResponse response = service.execute("printf partial; sleep 5");
+
+        assertThat(response.exitCode()).isEqualTo(LinuxCommandService.TIMEOUT_EXIT_CODE);
+        assertThat(response.stdout()).isEqualTo("partial\n");
+        awaitIdleWorker();
+        assertThat(service.execute("printf again").stdout()).isEqualTo("again\n");
+        assertThat(meterRegistry.get("mcp_shell_pool_recycled_total").counter().count()).isEqualTo(1);
+    }
+
+    private void awaitIdleWorker() throws InterruptedException {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (meterRegistry.get("mcp_shell_pool_idle").gauge().value() < 1 && Instant.now().isBefore(deadline)) {
+            pool.warmUp();
+            Thread.sleep(20);
+        }
+    }
+}
@@ -1,4 +1,4 @@
-import { SandboxJob } from './types.js';
+import { SandboxJob, SandboxJobStatusSummary } from './types.js';
 
 export const DEFAULT_JOB_PATCH_RESPONSE_MAX_CHARS = 5_000_000;
 
@@ -28,14 +28,7 @@ export function buildJobPayload(job: SandboxJob, patchLimit = resolvePatchRespon
     payload.patchSize = patchLength;
   }
 
-  const interactionCountCandidates = [
-    payload.interactionCount,
-    Number.isFinite(job.interactionSequence) ? job.interactionSequence : undefined,
-    Array.isArray(job.interactions) ? job.interactions.length : undefined,
-  ].filter((value): value is number => typeof value === 'number' && Number.isFinite(value));
-  payload.interactionCount = interactionCountCandidates.length > 0
-    ? Math.max(...interactionCountCandidates)
-    : undefined;
+  payload.interactionCount = resolveInteractionCount(job);
 
   if (job.database) {
     const { password: _password, ...database } = job.database;
@@ -43,3 +36,22 @@ export function buildJobPayload(job: SandboxJob, patchLimit = resolvePatchRespon
   }
   return payload;
 }
+
+/** Compact status used by batch reconciliation: no transcript, patch or logs. */
+export function buildJobStatus(job: SandboxJob): SandboxJobStatusSummary {
+  return {
+    jobId: job.jobId,
+    status: job.status,
+    updatedAt: job.updatedAt,
+    interactionCount: resolveInteractionCount(job),
+  };
+}
+
+function resolveInteractionCount(job: SandboxJob): number | undefined {
+  const candidates = [
+    job.interactionCount,
+    Number.isFinite(job.interactionSequence) ? job.interactionSequence : undefined,
+    Array.isArray(job.interactions) ? job.interactions.length : undefined,
+  ].filter((value): value is number => typeof value === 'number' && Number.isFinite(value));
+  return candidates.length > 0 ? Math.max(...candidates) : undefined;
+}
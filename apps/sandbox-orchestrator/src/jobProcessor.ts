@@ -30,6 +30,7 @@ import {
   SandboxDatabaseConfig,
   SandboxDownloadLog,
   SandboxDocumentAccessLog,
+  SandboxImageAttachment,
 } from './types.js';
 
 function resolveOpenAIOrganization(): string | undefined {
@@ -918,9 +919,11 @@ export class SandboxJobProcessor implements JobProcessor {
     await fs.mkdir(attachmentDir, { recursive: true });
     const usedFilenames = new Set<string>();
     for (const [index, attachment] of attachments.entries()) {
-      const parsed = this.parseAttachmentDataUrl(attachment.dataUrl);
+      const parsed = attachment.dataUrl
+        ? this.parseAttachmentDataUrl(attachment.dataUrl)
+        : await this.downloadAttachment(job, attachment, index);
       if (!parsed) {
-        this.log(job, `anexo ignorado por dataUrl inválido: ${attachment.name ?? `#${index + 1}`}`);
+        this.log(job, `anexo ignorado por conteúdo inválido: ${attachment.name ?? `#${index + 1}`}`);
         continue;
       }
       const filename = this.buildAttachmentFilename(attachment.name, parsed.mimeType, index, usedFilenames);
@@ -933,6 +936,60 @@ export class SandboxJobProcessor implements JobProcessor {
     }
   }
 
+  /**
+   * Reads image attachments back from the files written by materializeJobAttachments, so their base64 form only
+   * lives in the model input being assembled and never in the job registry.
+   */
+  private async readImageAttachmentDataUrls(job: SandboxJob, repoPath: string): Promise<string[]> {
+    const dataUrls: string[] = [];
+    for (const attachment of job.imageAttachments ?? []) {
+      if (!attachment.path || !this.isImageAttachment(attachment)) {
+        continue;
+      }
+      try {
+        const buffer = await fs.readFile(path.join(repoPath, attachment.path));
+        dataUrls.push(`data:${attachment.mimeType ?? 'application/octet-stream'};base64,${buffer.toString('base64')}`);
+      } catch (error) {
+        this.log(job, `falha ao ler anexo ${attachment.path}: ${(error as Error)?.message ?? error}`);
+      }
+    }
+    return dataUrls;
+  }
+
+  /**
+   * Downloads an attachment the backend sent by reference, checking the content against its SHA-256 when present.
+   */
+  private async downloadAttachment(
+    job: SandboxJob,
+    attachment: SandboxImageAttachment,
+    index: number,
+  ): Promise<{ mimeType: string; buffer: Buffer } | null> {
+    const label = attachment.name ?? `#${index + 1}`;
+    if (!attachment.url || !this.fetchImpl) {
+      return null;
+    }
+    try {
+      const response = await this.fetchImpl(attachment.url, { signal: AbortSignal.timeout(this.httpToolTimeoutMs) });
+      if (!response?.ok) {
+        this.log(job, `falha ao baixar anexo ${label}: HTTP ${response?.status}`);
+        return null;
+      }
+      const buffer = Buffer.from(await response.arrayBuffer());
+      if (attachment.sha256) {
+        const digest = createHash('sha256').update(buffer).digest('hex');
+        if (digest !== attachment.sha256) {
+          this.log(job, `anexo ${label} descartado: sha256 divergente`);
+          return null;
+        }
+      }
+      const mimeType = attachment.mimeType ?? 'application/octet-stream';
+      return { mimeType, buffer };
+    } catch (error) {
+      this.log(job, `falha ao baixar anexo ${label}: ${(error as Error)?.message ?? error}`);
+      return null;
+    }
+  }
+
   private parseAttachmentDataUrl(dataUrl: string): { mimeType: string; buffer: Buffer } | null {
     const match = dataUrl.match(/^data:([^;,]+)?;base64,([a-zA-Z0-9+/=\s]+)$/);
     if (!match) {
@@ -1374,6 +1431,7 @@ export class SandboxJobProcessor implements JobProcessor {
     ];
 
     try {
+      const imageDataUrls = await this.readImageAttachmentDataUrls(job, repoPath);
       for (let attempt = 1; attempt <= this.codexTransientTurnMaxAttempts; attempt += 1) {
         completed = false;
         failedReason = undefined;
@@ -1386,7 +1444,7 @@ export class SandboxJobProcessor implements JobProcessor {
         const turnParams = {
           threadId,
           input: attempt === 1
-            ? this.buildCodexAppServerInput(job)
+            ? this.buildCodexAppServerInput(job, imageDataUrls)
             : [{
                 type: 'text',
                 text: 'A tentativa anterior foi encerrada por uma falha transitória de conexão. Continue a mesma tarefa a partir do estado e dos arquivos já existentes, verifique o trabalho realizado antes de repetir ações e conclua a resposta solicitada.',
@@ -1508,7 +1566,7 @@ export class SandboxJobProcessor implements JobProcessor {
     return 'Regra obrigatória para todos os perfis: quando a tarefa envolver código, faça toda a investigação, implementação, execução de testes e ajustes iterativos primeiro no ambiente local da sandbox. O pedido do usuário para investigar, corrigir, implementar ou fazer um fluxo funcionar já autoriza todas as correções locais causalmente relacionadas necessárias para concluir esse escopo: não interrompa a execução para pedir nova autorização a cada defeito descoberto, não devolva ao usuário como próxima ação uma investigação ou correção que você pode realizar na própria sandbox e não transforme cada defeito em um ciclo separado de PR e deploy. Se houver vários módulos, agentes ou workers envolvidos, simule-os com dependências locais ou test doubles e resolva um por vez quando isso facilitar o diagnóstico, continuando até o fluxo ponta a ponta funcionar; só peça uma decisão quando existirem alternativas de produto realmente ambíguas, credencial/acesso ausente, ação externa irreversível, gasto ou publicação que exija consentimento. Não use commit, push, Pull Request, pipeline, deploy ou publicação como mecanismo de teste e não envie uma correção parcial ao repositório para descobrir o próximo erro no ambiente publicado. Antes de qualquer commit ou publicação, valide localmente a solução completa com os testes relevantes, revise o diff e confirme que os critérios da solicitação foram atendidos; somente então consolide a entrega em uma única publicação. Para produto ou fluxo novo, defina antes de testar uma matriz de homologação ponta a ponta que cubra caminho feliz, validações e falhas, integrações e observabilidade, métricas e segregação de dados de teste, além dos navegadores e dispositivos relevantes. Execute primeiro uma rodada local completa da matriz: se ela terminar sem revelar defeitos, considere a homologação concluída e não repita a rodada apenas para atingir uma quantidade mínima. A exigência de duas rodadas aplica-se somente quando uma rodada revelar um defeito e houver correção: nesse caso, investigue a causa raiz, corrija e, depois da última correção, execute duas rodadas locais completas e consecutivas sem falhas; se surgir outro defeito, corrija-o e reinicie a contagem das duas rodadas; não peça PR, merge ou deploy enquanto algum critério estiver pendente. Se uma validação essencial não puder ser executada localmente por limitação real do ambiente, declare a limitação e a evidência disponível em vez de publicar apenas para testar.';
   }
 
-  private buildCodexAppServerInput(job: SandboxJob): Array<Record<string, string>> {
+  private buildCodexAppServerInput(job: SandboxJob, imageDataUrls: string[]): Array<Record<string, string>> {
     const bestAnswerInstruction = 'Oriente sua execução para produzir a melhor resposta possível: investigue, valide e refine a solução sem encurtar a análise por preocupação com limites de tempo ou de interações.';
     const localDevelopmentInstruction = 'Sempre que estiver fazendo um desenvolvimento mais complexo, monte um ambiente local, execute o que pretende desenvolver e ajuste iterativamente até conseguir o funcionamento desejado. Você pode executar qualquer módulo do repositório no próprio ambiente para testar e ajustar a solução, respeitando as ferramentas e credenciais disponíveis, e deve registrar qualquer limitação real de ambiente que impeça a execução local.';
     const noPrButEditInstruction = 'Não criar Pull Request sem pedido explícito não significa evitar alterações: quando o usuário solicitar ajuste, correção ou implementação e você identificar a solução, altere os arquivos necessários, valide e deixe as mudanças prontas na branch/worktree; apenas não abra nem publique o PR até o usuário pedir.';
@@ -1542,10 +1600,7 @@ ${job.taskDescription}${this.buildAttachmentContext(job)}`
     const taskDescriptionWithValidationGate = `${localValidationBeforePublicationInstruction}\n\n${taskDescription}`;
     return [
       { type: 'text', text: taskDescriptionWithValidationGate },
-      ...(job.imageAttachments ?? []).filter((attachment) => this.isImageAttachment(attachment)).map((attachment) => ({
-        type: 'image',
-        url: attachment.dataUrl,
-      })),
+      ...imageDataUrls.map((url) => ({ type: 'image', url })),
     ];
   }
 
@@ -1863,9 +1918,9 @@ Modo ChatGPT Codex ativo: replique a experiência do app (chatgpt.com/codex) des
               : '';
     const userContent: Array<Record<string, string>> = [
       { type: 'input_text', text: `${job.taskDescription}${this.buildAttachmentContext(job)}` },
-      ...(job.imageAttachments ?? []).filter((attachment) => this.isImageAttachment(attachment)).map((attachment) => ({
+      ...(await this.readImageAttachmentDataUrls(job, repoPath)).map((dataUrl) => ({
         type: 'input_image',
-        image_url: attachment.dataUrl,
+        image_url: dataUrl,
         detail: 'auto',
       })),
     ];
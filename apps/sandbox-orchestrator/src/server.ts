@@ -8,8 +8,10 @@ import path from 'node:path';
 import { CodexAppServerClient } from './codexAppServerClient.js';
 import { cancelCodexLogin, logoutCodexAccount, readCodexAccount, startCodexLogin } from './codexAppServerAuth.js';
 import { SandboxJobProcessor } from './jobProcessor.js';
-import { buildJobPayload } from './jobPayload.js';
-import { CodexReasoningEffort, JobProcessor, SandboxDatabaseConfig, SandboxImageAttachment, SandboxJob, SandboxProfile } from './types.js';
+import { buildJobPayload, buildJobStatus } from './jobPayload.js';
+import { CodexReasoningEffort, JobProcessor, SandboxDatabaseConfig, SandboxImageAttachment, SandboxJob, SandboxJobStatusSummary, SandboxProfile } from './types.js';
+
+const MAX_STATUS_BATCH_SIZE = 500;
 
 interface AppOptions {
   jobRegistry?: Map<string, SandboxJob>;
@@ -90,14 +92,20 @@ function normalizeImageAttachments(value: unknown): SandboxImageAttachment[] | u
       }
       const record = item as Record<string, unknown>;
       const dataUrl = validateString(record.dataUrl);
-      if (!dataUrl || !dataUrl.startsWith('data:') || !dataUrl.includes(';base64,')) {
+      const hasDataUrl = Boolean(dataUrl && dataUrl.startsWith('data:') && dataUrl.includes(';base64,'));
+      const url = validateString(record.url);
+      const hasUrl = Boolean(url && /^https?:\/\//i.test(url));
+      if (!hasDataUrl && !hasUrl) {
         return null;
       }
+      const sha256 = validateString(record.sha256)?.toLowerCase();
       return {
         name: validateString(record.name),
         mimeType: validateString(record.mimeType),
         size: typeof record.size === 'number' ? record.size : undefined,
-        dataUrl,
+        dataUrl: hasDataUrl ? dataUrl : undefined,
+        url: hasDataUrl ? undefined : url,
+        sha256: sha256 && /^[0-9a-f]{64}$/.test(sha256) ? sha256 : undefined,
       };
     })
     .filter((item): item is SandboxImageAttachment => item !== null);
@@ -480,6 +488,36 @@ export function createApp(options: AppOptions = {}) {
     res.status(404).json({ error: 'job not found' });
   });
 
+  app.post('/jobs/status', async (req: Request, res: Response) => {
+    if (!Array.isArray(req.body?.jobIds)) {
+      return res.status(400).json({ error: 'jobIds deve ser uma lista de ids' });
+    }
+    const jobIds = [...new Set((req.body.jobIds as unknown[])
+      .map((value) => validateString(value))
+      .filter((value): value is string => Boolean(value)))];
+    if (jobIds.length > MAX_STATUS_BATCH_SIZE) {
+      return res.status(400).json({ error: `no máximo ${MAX_STATUS_BATCH_SIZE} jobIds por consulta` });
+    }
+
+    const jobs: SandboxJobStatusSummary[] = [];
+    const missing: string[] = [];
+    for (const jobId of jobIds) {
+      let job = jobRegistry.get(jobId);
+      if (!job) {
+        job = await recoverOrphanJob(jobId);
+        if (job) {
+          jobRegistry.set(jobId, job);
+        }
+      }
+      if (job) {
+        jobs.push(buildJobStatus(job));
+      } else {
+        missing.push(jobId);
+      }
+    }
+    res.json({ jobs, missing });
+  });
+
   app.post('/jobs/:id/cancel', (req: Request, res: Response) => {
     const job = jobRegistry.get(req.params.id);
     if (!job) {
@@ -8,7 +8,10 @@ export interface SandboxImageAttachment {
   name?: string;
   mimeType?: string;
   size?: number;
-  dataUrl: string;
+  dataUrl?: string;
+  /** Backend URL the content is downloaded from when no inline dataUrl is sent. */
+  url?: string;
+  sha256?: string;
   path?: string;
 }
 
@@ -115,6 +118,13 @@ export interface SandboxJob {
   documentAccesses?: SandboxDocumentAccessLog[];
 }
 
+export interface SandboxJobStatusSummary {
+  jobId: string;
+  status: JobStatus;
+  updatedAt: string;
+  interactionCount?: number;
+}
+
 export interface JobProcessor {
   process(job: SandboxJob): Promise<void>;
 }
@@ -333,6 +333,68 @@ test('accepts non-image attachments in job request', async () => {
   assert.equal(stored?.imageAttachments?.[0]?.dataUrl, 'data:application/pdf;base64,JVBERi0=');
 });
 
+test('accepts attachments sent by backend reference', async () => {
+  const registry = new Map<string, SandboxJob>();
+  const app = createApp({ jobRegistry: registry, processor: new StubProcessor() });
+  const sha256 = 'ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad';
+  const payload = {
+    jobId: 'job-attachment-reference',
+    repoUrl: 'https://github.com/example/repo.git',
+    branch: 'main',
+    taskDescription: 'analisar print',
+    imageAttachments: [{
+      name: 'print.png',
+      mimeType: 'image/png',
+      size: 3,
+      sha256: sha256.toUpperCase(),
+      url: `http://backend:8081/api/codex/attachments/${sha256}`,
+    }, {
+      name: 'sem-conteudo.png',
+      url: 'file:///etc/passwd',
+    }],
+  };
+
+  await request(app).post('/jobs').send(payload).expect(201);
+
+  const stored = registry.get(payload.jobId);
+  assert.equal(stored?.imageAttachments?.length, 1);
+  assert.equal(stored?.imageAttachments?.[0]?.sha256, sha256);
+  assert.equal(stored?.imageAttachments?.[0]?.url, `http://backend:8081/api/codex/attachments/${sha256}`);
+  assert.equal(stored?.imageAttachments?.[0]?.dataUrl, undefined);
+});
+
+test('returns compact statuses for a batch of job ids', async () => {
+  const registry = new Map<string, SandboxJob>();
+  const now = new Date().toISOString();
+  registry.set('job-batch-running', {
+    jobId: 'job-batch-running',
+    repoUrl: 'https://github.com/example/repo.git',
+    branch: 'main',
+    taskDescription: 'noop',
+    status: 'RUNNING',
+    logs: ['linha longa'],
+    interactions: [
+      { id: 'i-1', direction: 'OUTBOUND', content: 'transcript', sequence: 1, createdAt: now },
+      { id: 'i-2', direction: 'INBOUND', content: 'transcript', sequence: 2, createdAt: now },
+    ],
+    interactionSequence: 2,
+    createdAt: now,
+    updatedAt: now,
+  } as SandboxJob);
+  const app = createApp({ jobRegistry: registry, processor: new StubProcessor() });
+
+  const response = await request(app)
+    .post('/jobs/status')
+    .send({ jobIds: ['job-batch-running', 'job-batch-missing', 'job-batch-running', ''] })
+    .expect(200);
+
+  assert.deepEqual(response.body, {
+    jobs: [{ jobId: 'job-batch-running', status: 'RUNNING', updatedAt: now, interactionCount: 2 }],
+    missing: ['job-batch-missing'],
+  });
+  await request(app).post('/jobs/status').send({}).expect(400);
+});
+
 test('accepts github token for PR creation without exposing it in job responses', async () => {
   const registry = new Map<string, SandboxJob>();
   const app = createApp({ jobRegistry: registry, processor: new StubProcessor() });